@@ -24,12 +24,20 @@ configurations {
     register("checkstyleConfig")
 }
 
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
 dependencies {
     compileOnly("org.jetbrains:annotations:15.0")
 
     testImplementation("junit:junit:4.+")
     testImplementation("com.google.code.gson:gson:2.8.2")
 
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.28")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.28")
+
     "checkstyleConfig"("org.hildan.checkstyle:checkstyle-config:2.2.0")
 }
 
@@ -54,6 +62,16 @@ tasks.jacocoTestCoverageVerification {
 }
 tasks.check.get().dependsOn(tasks.jacocoTestCoverageVerification)
 
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks, reporting allocations with the GC profiler."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args("-prof", "gc")
+    // e.g. -PjmhIncludes=ExplorerBenchmark.visit
+    findProperty("jmhIncludes")?.let { args(it) }
+}
+
 val sourcesJar by tasks.creating(Jar::class) {
     archiveClassifier.set("sources")
     from(sourceSets.main.get().allSource)
@@ -0,0 +1,20 @@
+plugins {
+    `java-library`
+}
+
+description = "Java Flight Recorder events for the explorations of generic type declarations"
+
+java {
+    // the jdk.jfr API is only available since Java 11
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    api(project(":"))
+    testImplementation("junit:junit:4.+")
+}
@@ -0,0 +1,62 @@
+package org.hildan.generics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for the top-level exploration of a generic type declaration. The duration of the event is
+ * the duration of the exploration, including the time spent in the handler.
+ */
+@Name(ExplorationEvent.NAME)
+@Label("Generic Type Exploration")
+@Description("The exploration of a generic type declaration")
+@Category({"Java Application", "Generics Explorer"})
+@StackTrace(false)
+class ExplorationEvent extends Event {
+
+    static final String NAME = "org.hildan.generics.Exploration";
+
+    @Label("Root Type")
+    String rootType;
+
+    @Label("Handler")
+    Class<?> handler;
+
+    @Label("Completed")
+    @Description("False if the exploration threw an exception")
+    boolean completed;
+
+    @Label("Node Count")
+    int nodeCount;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Void Types")
+    int voidCount;
+
+    @Label("Simple Classes")
+    int simpleClassCount;
+
+    @Label("Enum Classes")
+    int enumClassCount;
+
+    @Label("Array Classes")
+    int arrayClassCount;
+
+    @Label("Generic Arrays")
+    int genericArrayCount;
+
+    @Label("Parameterized Types")
+    int parameterizedTypeCount;
+
+    @Label("Type Variables")
+    int typeVariableCount;
+
+    @Label("Wildcard Types")
+    int wildcardTypeCount;
+}
@@ -0,0 +1,85 @@
+package org.hildan.generics.jfr;
+
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.hildan.generics.ExplorationListener;
+import org.hildan.generics.ExplorationStats;
+import org.hildan.generics.TypeKind;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+
+/**
+ * Emits an {@code org.hildan.generics.Exploration} Flight Recorder event for each top-level exploration of a generic
+ * type declaration. This listener is registered as a service, so that adding this module to the classpath is enough
+ * to get the events. It is only enabled while a recording enables the event, so that explorations are not measured
+ * otherwise.
+ * <p>
+ * Whether the event is enabled is only checked when a recording starts or stops, and remembered in between, so that
+ * a disabled listener only costs a volatile read per exploration. Enabling the event in a recording that is already
+ * running is thus only taken into account when the state of a recording changes. The flag is shared by all the
+ * instances, and updated by a single recorder listener registered when this class is initialized, so that creating
+ * instances doesn't register anything.
+ */
+public class JfrExplorationListener implements ExplorationListener {
+
+    private static volatile boolean enabled;
+
+    static {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                updateEnabled();
+            }
+        });
+        updateEnabled();
+    }
+
+    /**
+     * The events of the explorations in progress on each thread. Handlers may start explorations of their own, hence
+     * the stack.
+     */
+    private final ThreadLocal<Deque<ExplorationEvent>> events = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static void updateEnabled() {
+        enabled = EventType.getEventType(ExplorationEvent.class).isEnabled();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void explorationStarted(Type rootType) {
+        ExplorationEvent event = new ExplorationEvent();
+        event.begin();
+        events.get().push(event);
+    }
+
+    @Override
+    public void explorationFinished(ExplorationStats stats) {
+        ExplorationEvent event = events.get().pop();
+        event.end();
+        if (event.shouldCommit()) {
+            event.rootType = stats.getRootType().getTypeName();
+            event.handler = stats.getHandlerClass();
+            event.completed = stats.isCompleted();
+            event.nodeCount = stats.getNodeCount();
+            event.maxDepth = stats.getMaxDepth();
+            event.voidCount = stats.getCount(TypeKind.VOID);
+            event.simpleClassCount = stats.getCount(TypeKind.SIMPLE_CLASS);
+            event.enumClassCount = stats.getCount(TypeKind.ENUM_CLASS);
+            event.arrayClassCount = stats.getCount(TypeKind.ARRAY_CLASS);
+            event.genericArrayCount = stats.getCount(TypeKind.GENERIC_ARRAY);
+            event.parameterizedTypeCount = stats.getCount(TypeKind.PARAMETERIZED_TYPE);
+            event.typeVariableCount = stats.getCount(TypeKind.TYPE_VARIABLE);
+            event.wildcardTypeCount = stats.getCount(TypeKind.WILDCARD_TYPE);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.hildan.generics.jfr;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.hildan.generics.GenericDeclarationExplorer;
+import org.hildan.generics.MentionedClassesExplorer;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JfrExplorationListenerTest {
+
+    private interface Sample {
+
+        Map<String, List<? extends Number>[]> get();
+    }
+
+    private static List<RecordedEvent> record(Runnable action) throws IOException {
+        Path file = Files.createTempFile("exploration", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ExplorationEvent.NAME);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file)
+                                .stream()
+                                .filter(e -> e.getEventType().getName().equals(ExplorationEvent.NAME))
+                                .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void explore_emitsEvents() throws Exception {
+        Type type = Sample.class.getMethod("get").getGenericReturnType();
+        List<RecordedEvent> events = record(() -> {
+            GenericDeclarationExplorer.explore(type, new MentionedClassesExplorer());
+            GenericDeclarationExplorer.explore(String.class, new MentionedClassesExplorer());
+        });
+
+        assertEquals(2, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals(type.getTypeName(), event.getString("rootType"));
+        assertEquals(MentionedClassesExplorer.class.getName(), event.getClass("handler").getName());
+        assertTrue(event.getBoolean("completed"));
+        assertEquals(8, event.getInt("nodeCount"));
+        assertEquals(5, event.getInt("maxDepth"));
+        assertEquals(4, event.getInt("simpleClassCount"));
+        assertEquals(2, event.getInt("parameterizedTypeCount"));
+        assertEquals(1, event.getInt("genericArrayCount"));
+        assertEquals(1, event.getInt("wildcardTypeCount"));
+        assertEquals(0, event.getInt("voidCount"));
+        assertEquals(0, event.getInt("enumClassCount"));
+        assertEquals(0, event.getInt("arrayClassCount"));
+        assertEquals(0, event.getInt("typeVariableCount"));
+        assertEquals(String.class.getName(), events.get(1).getString("rootType"));
+    }
+
+    @Test
+    public void explore_noEventsWhenDisabled() throws IOException {
+        assertEquals(Collections.emptyList(), record(() -> { }));
+        JfrExplorationListener listener = new JfrExplorationListener();
+        assertFalse(listener.isEnabled());
+    }
+
+    @Test
+    public void isEnabled_whileRecordingEnablesEvent() {
+        JfrExplorationListener listener = new JfrExplorationListener();
+        assertFalse(listener.isEnabled());
+        try (Recording recording = new Recording()) {
+            recording.enable(ExplorationEvent.NAME);
+            recording.start();
+            assertTrue(listener.isEnabled());
+            // the instances share the state of the recordings
+            assertTrue(new JfrExplorationListener().isEnabled());
+            recording.stop();
+            assertFalse(listener.isEnabled());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+plugins {
+    `java-library`
+}
+
+description = "An annotation processor precomputing the classes mentioned in generic type declarations"
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // the processor only generates code referencing the library, the library is needed to test the generated code
+    testImplementation(project(":"))
+    testImplementation("junit:junit:4.+")
+}
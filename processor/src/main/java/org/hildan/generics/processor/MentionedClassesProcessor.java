@@ -0,0 +1,144 @@
+package org.hildan.generics.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * An annotation processor computing, at compile time, the classes mentioned in the signature types of the classes
+ * annotated with {@code @PrecomputeMentionedClasses}. For each annotated class, it generates a {@code
+ * MentionedClassesTable} implementation holding the results, and registers it as a service so that the {@code
+ * MentionedClassesIndex} can find it at runtime.
+ */
+public class MentionedClassesProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION_NAME = "org.hildan.generics.PrecomputeMentionedClasses";
+
+    static final String TABLE_INTERFACE_NAME = "org.hildan.generics.MentionedClassesTable";
+
+    static final String GENERATED_CLASS_SUFFIX = "_MentionedClasses";
+
+    private final List<String> generatedTables = new ArrayList<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION_NAME);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (TypeElement clazz : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                generateTable(clazz);
+            }
+        }
+        if (roundEnv.processingOver() && !generatedTables.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private void generateTable(TypeElement clazz) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(clazz).getQualifiedName().toString();
+        MirrorDescriber describer = new MirrorDescriber(processingEnv, packageName);
+        Map<String, Set<String>> table = new LinkedHashMap<>();
+        for (TypeMirror type : getTypesInSignature(clazz)) {
+            MirrorDescriber.Description description = describer.describe(type);
+            if (description != null) {
+                table.put(description.getTypeName(), description.getClassLiterals());
+            }
+        }
+        String flatName = processingEnv.getElementUtils().getBinaryName(clazz).toString();
+        String tableName = flatName.replace('$', '_') + GENERATED_CLASS_SUFFIX;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(tableName, clazz);
+            try (Writer writer = file.openWriter()) {
+                writer.write(TableWriter.write(packageName, simpleName(tableName), clazz, table));
+            }
+            generatedTables.add(tableName);
+        } catch (IOException e) {
+            error(clazz, "Could not generate the mentioned classes table: " + e.getMessage());
+        }
+    }
+
+    private static String simpleName(String qualifiedName) {
+        return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Lists the types in the same order as {@code ClassSignatureExplorer.getTypesInSignature()}, starting with the
+     * raw class itself.
+     */
+    private Set<TypeMirror> getTypesInSignature(TypeElement clazz) {
+        Set<TypeMirror> types = new LinkedHashSet<>();
+        types.add(processingEnv.getTypeUtils().erasure(clazz.asType()));
+        types.add(clazz.getSuperclass());
+        types.addAll(clazz.getInterfaces());
+        for (VariableElement field : ElementFilter.fieldsIn(clazz.getEnclosedElements())) {
+            types.add(field.asType());
+        }
+        for (ExecutableElement executable : executablesIn(clazz)) {
+            for (VariableElement param : executable.getParameters()) {
+                types.add(param.asType());
+            }
+            if (executable.getKind() == ElementKind.METHOD) {
+                types.add(executable.getReturnType());
+            }
+            types.addAll(executable.getThrownTypes());
+        }
+        return types;
+    }
+
+    private static List<ExecutableElement> executablesIn(TypeElement clazz) {
+        List<ExecutableElement> executables = new ArrayList<>();
+        executables.addAll(ElementFilter.constructorsIn(clazz.getEnclosedElements()));
+        executables.addAll(ElementFilter.methodsIn(clazz.getEnclosedElements()));
+        return executables;
+    }
+
+    private void writeServiceFile() {
+        try {
+            FileObject file = processingEnv.getFiler()
+                                           .createResource(StandardLocation.CLASS_OUTPUT, "",
+                                                   "META-INF/services/" + TABLE_INTERFACE_NAME);
+            try (Writer writer = file.openWriter()) {
+                for (String tableName : generatedTables) {
+                    writer.write(tableName);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            error(null, "Could not register the mentioned classes tables: " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
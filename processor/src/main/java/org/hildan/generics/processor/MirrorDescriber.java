@@ -0,0 +1,171 @@
+package org.hildan.generics.processor;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+
+/**
+ * Computes, for a {@link TypeMirror}, the name that the corresponding {@code java.lang.reflect.Type} has at runtime,
+ * and the class literals of the classes mentioned in it. This follows the same rules as the {@code
+ * MentionedClassesExplorer}: array types mention their component types, parameterized types mention their raw type
+ * and type arguments, wildcards mention their bounds except an {@code Object} upper bound, and {@code void} or {@code
+ * Void} mention nothing.
+ */
+class MirrorDescriber {
+
+    private final ProcessingEnvironment processingEnv;
+
+    private final String packageName;
+
+    /**
+     * The classes mentioned in a type, and the name of this type.
+     */
+    static final class Description {
+
+        private final String typeName;
+
+        private final Set<String> classLiterals;
+
+        Description(String typeName, Set<String> classLiterals) {
+            this.typeName = typeName;
+            this.classLiterals = classLiterals;
+        }
+
+        String getTypeName() {
+            return typeName;
+        }
+
+        Set<String> getClassLiterals() {
+            return classLiterals;
+        }
+    }
+
+    MirrorDescriber(ProcessingEnvironment processingEnv, String packageName) {
+        this.processingEnv = processingEnv;
+        this.packageName = packageName;
+    }
+
+    /**
+     * Describes the given type, if it can be precomputed.
+     *
+     * @param type
+     *         the type to describe
+     *
+     * @return the description of the given type, or null if it involves type variables, erroneous types, owner types
+     * with type arguments, or classes that are not accessible from the package of the generated code
+     */
+    Description describe(TypeMirror type) {
+        StringBuilder typeName = new StringBuilder();
+        Set<String> classLiterals = new LinkedHashSet<>();
+        if (!append(type, typeName, classLiterals)) {
+            return null;
+        }
+        return new Description(typeName.toString(), classLiterals);
+    }
+
+    private boolean append(TypeMirror type, StringBuilder typeName, Set<String> classLiterals) {
+        TypeKind kind = type.getKind();
+        if (kind.isPrimitive()) {
+            String primitiveName = kind.name().toLowerCase(Locale.ROOT);
+            typeName.append(primitiveName);
+            classLiterals.add(primitiveName + ".class");
+            return true;
+        }
+        switch (kind) {
+        case VOID:
+            typeName.append("void");
+            return true;
+        case ARRAY:
+            boolean supported = append(((ArrayType) type).getComponentType(), typeName, classLiterals);
+            typeName.append("[]");
+            return supported;
+        case DECLARED:
+            return appendDeclared((DeclaredType) type, typeName, classLiterals);
+        case WILDCARD:
+            return appendWildcard((WildcardType) type, typeName, classLiterals);
+        default:
+            return false;
+        }
+    }
+
+    private boolean appendDeclared(DeclaredType type, StringBuilder typeName, Set<String> classLiterals) {
+        TypeElement element = (TypeElement) type.asElement();
+        TypeMirror enclosingType = type.getEnclosingType();
+        if (!isAccessible(element) || enclosingType.getKind() == TypeKind.DECLARED
+                && !((DeclaredType) enclosingType).getTypeArguments().isEmpty()) {
+            return false;
+        }
+        Elements elements = processingEnv.getElementUtils();
+        String binaryName = elements.getBinaryName(element).toString();
+        typeName.append(binaryName);
+        if (!Void.class.getName().equals(binaryName)) {
+            classLiterals.add(element.getQualifiedName() + ".class");
+        }
+        List<? extends TypeMirror> typeArgs = type.getTypeArguments();
+        if (typeArgs.isEmpty()) {
+            return true;
+        }
+        typeName.append('<');
+        for (int i = 0; i < typeArgs.size(); i++) {
+            if (i > 0) {
+                typeName.append(", ");
+            }
+            if (!append(typeArgs.get(i), typeName, classLiterals)) {
+                return false;
+            }
+        }
+        typeName.append('>');
+        return true;
+    }
+
+    private boolean appendWildcard(WildcardType type, StringBuilder typeName, Set<String> classLiterals) {
+        if (type.getSuperBound() != null) {
+            typeName.append("? super ");
+            return append(type.getSuperBound(), typeName, classLiterals);
+        }
+        TypeMirror upperBound = type.getExtendsBound();
+        if (upperBound == null || isObject(upperBound)) {
+            typeName.append('?');
+            return true;
+        }
+        typeName.append("? extends ");
+        return append(upperBound, typeName, classLiterals);
+    }
+
+    private static boolean isObject(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && ((TypeElement) ((DeclaredType) type).asElement())
+                .getQualifiedName()
+                .contentEquals(Object.class.getName());
+    }
+
+    private boolean isAccessible(TypeElement element) {
+        Element current = element;
+        while (current instanceof TypeElement) {
+            NestingKind nestingKind = ((TypeElement) current).getNestingKind();
+            Set<Modifier> modifiers = current.getModifiers();
+            if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS || modifiers.contains(
+                    Modifier.PRIVATE)) {
+                return false;
+            }
+            String elementPackage = processingEnv.getElementUtils().getPackageOf(current).getQualifiedName().toString();
+            if (!modifiers.contains(Modifier.PUBLIC) && !elementPackage.equals(packageName)) {
+                return false;
+            }
+            current = current.getEnclosingElement();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package org.hildan.generics.processor;
+
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Writes the source code of a generated {@code MentionedClassesTable}.
+ */
+final class TableWriter {
+
+    private TableWriter() {
+    }
+
+    static String write(String packageName, String className, TypeElement annotatedClass,
+            Map<String, Set<String>> table) {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n");
+        source.append(" * Mentioned classes precomputed for {@link ").append(annotatedClass.getQualifiedName());
+        source.append("}.\n */\n");
+        source.append("public final class ").append(className);
+        source.append(" implements ").append(MentionedClassesProcessor.TABLE_INTERFACE_NAME).append(" {\n\n");
+        source.append("    @Override\n");
+        source.append("    public java.util.Map<String, Class<?>[]> getMentionedClasses() {\n");
+        source.append("        java.util.Map<String, Class<?>[]> table = new java.util.HashMap<>();\n");
+        table.forEach((typeName, classLiterals) -> {
+            source.append("        table.put(\"").append(typeName).append("\", new Class<?>[] {");
+            source.append(String.join(", ", classLiterals)).append("});\n");
+        });
+        source.append("        return table;\n");
+        source.append("    }\n");
+        source.append("}\n");
+        return source.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package org.hildan.generics.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.hildan.generics.ClassSignatureExplorer;
+import org.hildan.generics.MentionedClassesExplorer;
+import org.hildan.generics.MentionedClassesTable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MentionedClassesProcessorTest {
+
+    private static final String DTO_SOURCE = String.join("\n", //
+            "package com.example;", //
+            "import java.util.*;", //
+            "@org.hildan.generics.PrecomputeMentionedClasses", //
+            "public abstract class Dto<T> extends AbstractList<String> implements Comparable<Dto<?>> {", //
+            "    @org.hildan.generics.PrecomputeMentionedClasses", //
+            "    public static class Nested { Set<Nested> nested; }", //
+            "    private static class Hidden {}", //
+            "    class Inner {}", //
+            "    Map<String, List<Integer>> map;", //
+            "    int[][] matrix;", //
+            "    List<? extends Number> numbers;", //
+            "    List<? super Nested> supers;", //
+            "    List<?> any;", //
+            "    List<? extends Object> anyObject;", //
+            "    List<T> generic;", //
+            "    Hidden hidden;", //
+            "    List<Hidden> hiddenList;", //
+            "    List raw;", //
+            "    Void nothing;", //
+            "    Dto<T>.Inner inner;", //
+            "    Dto(Set<String> strings) throws java.io.IOException {}", //
+            "    abstract void run(Runnable r);", //
+            "}");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path compile(String className, String source) throws IOException {
+        Path sourceDir = temporaryFolder.newFolder("src").toPath();
+        Path outputDir = temporaryFolder.newFolder("out").toPath();
+        Path sourceFile = sourceDir.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(sourceFile.toFile());
+            List<String> options = Arrays.asList("-d", outputDir.toString(), "-s", outputDir.toString(), "-cp",
+                    System.getProperty("java.class.path"));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(Collections.singletonList(new MentionedClassesProcessor()));
+            assertTrue("compilation failed", task.call());
+        }
+        return outputDir;
+    }
+
+    private static Map<String, Set<Class<?>>> loadTable(ClassLoader classLoader, String tableName) throws Exception {
+        Class<?> tableClass = classLoader.loadClass(tableName);
+        MentionedClassesTable table = (MentionedClassesTable) tableClass.getConstructor().newInstance();
+        Map<String, Set<Class<?>>> result = new HashMap<>();
+        table.getMentionedClasses().forEach((k, v) -> result.put(k, new HashSet<>(Arrays.asList(v))));
+        return result;
+    }
+
+    @Test
+    public void generatesTablesMatchingReflection() throws Exception {
+        Path outputDir = compile("com.example.Dto", DTO_SOURCE);
+        URL[] urls = {outputDir.toUri().toURL()};
+        try (URLClassLoader classLoader = new URLClassLoader(urls, getClass().getClassLoader())) {
+            Class<?> dtoClass = classLoader.loadClass("com.example.Dto");
+            Map<String, Set<Class<?>>> table = loadTable(classLoader, "com.example.Dto_MentionedClasses");
+
+            Map<String, Type> reflectiveTypes = new HashMap<>();
+            reflectiveTypes.put(dtoClass.getTypeName(), dtoClass);
+            for (Type type : ClassSignatureExplorer.getTypesInSignature(dtoClass)) {
+                reflectiveTypes.put(type.getTypeName(), type);
+            }
+            for (Map.Entry<String, Set<Class<?>>> entry : table.entrySet()) {
+                Type type = reflectiveTypes.get(entry.getKey());
+                assertTrue("unknown type name " + entry.getKey(), type != null);
+                assertEquals(MentionedClassesExplorer.getClassesInDeclaration(type), entry.getValue());
+            }
+
+            Set<String> expectedTypeNames = new HashSet<>(Arrays.asList("com.example.Dto",
+                    "java.util.AbstractList<java.lang.String>", "java.lang.Comparable<com.example.Dto<?>>",
+                    "java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>", "int[][]",
+                    "java.util.List<? extends java.lang.Number>", "java.util.List<? super com.example.Dto$Nested>",
+                    "java.util.List<?>", "java.util.List", "java.lang.Void", "java.util.Set<java.lang.String>",
+                    "java.io.IOException", "void", "java.lang.Runnable"));
+            assertEquals(expectedTypeNames, table.keySet());
+            assertEquals(Collections.emptySet(), table.get("java.lang.Void"));
+            assertEquals(Collections.singleton(int.class), table.get("int[][]"));
+
+            Map<String, Set<Class<?>>> nestedTable = loadTable(classLoader, "com.example.Dto_Nested_MentionedClasses");
+            assertTrue(nestedTable.containsKey("java.util.Set<com.example.Dto$Nested>"));
+        }
+        String services = new String(Files.readAllBytes(
+                outputDir.resolve("META-INF/services/org.hildan.generics.MentionedClassesTable")),
+                StandardCharsets.UTF_8);
+        assertEquals(new HashSet<>(Arrays.asList("com.example.Dto_MentionedClasses",
+                "com.example.Dto_Nested_MentionedClasses")), new HashSet<>(Arrays.asList(services.split("\n"))));
+    }
+
+    @Test
+    public void defaultPackage() throws Exception {
+        String source = "@org.hildan.generics.PrecomputeMentionedClasses class Simple { java.util.List<Simple> l; }";
+        Path outputDir = compile("Simple", source);
+        assertTrue(new File(outputDir.toFile(), "Simple_MentionedClasses.class").exists());
+        URL[] urls = {outputDir.toUri().toURL()};
+        try (URLClassLoader classLoader = new URLClassLoader(urls, getClass().getClassLoader())) {
+            Map<String, Set<Class<?>>> table = loadTable(classLoader, "Simple_MentionedClasses");
+            Class<?> simpleClass = classLoader.loadClass("Simple");
+            assertEquals(new HashSet<>(Arrays.asList(List.class, simpleClass)), table.get("java.util.List<Simple>"));
+            assertEquals(Collections.singleton(Object.class), table.get("java.lang.Object"));
+        }
+    }
+}
@@ -1 +1,4 @@
 rootProject.name = "generics-explorer"
+
+include("processor")
+include("jfr")
@@ -0,0 +1,59 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link TypeAssignability#isAssignable(Type, Type)}, with and without its cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignabilityBenchmark {
+
+    private final Type from = fieldType("from");
+
+    private final Type to = fieldType("to");
+
+    private static Type fieldType(String name) {
+        try {
+            return Declarations.class.getDeclaredField(name).getGenericType();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public boolean cached() {
+        return TypeAssignability.isAssignable(from, to);
+    }
+
+    @Benchmark
+    public boolean uncached() {
+        TypeAssignability.clearCache();
+        return TypeAssignability.isAssignable(from, to);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Declarations {
+
+        private ArrayList<List<Integer>> from;
+
+        private List<? extends List<? extends Number>> to;
+    }
+}
@@ -0,0 +1,108 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the classification of all the parts of a declaration through {@code instanceof} chains and per-call class
+ * checks, as the explorer used to do, with the cached classification of {@link TypeKind#of(Type)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({"WIDE", "DEEP", "CLASS_HEAVY"})
+    private TypeShape shape;
+
+    private Type[] parts;
+
+    @Setup
+    public void collectParts() {
+        List<Type> list = new ArrayList<>();
+        collect(shape.getType(), list);
+        parts = list.toArray(new Type[0]);
+    }
+
+    private static void collect(Type type, List<Type> parts) {
+        parts.add(type);
+        if (type instanceof Class && ((Class<?>) type).isArray()) {
+            collect(((Class<?>) type).getComponentType(), parts);
+        } else if (type instanceof ParameterizedType) {
+            collect(((ParameterizedType) type).getRawType(), parts);
+            for (Type arg : ((ParameterizedType) type).getActualTypeArguments()) {
+                collect(arg, parts);
+            }
+        } else if (type instanceof GenericArrayType) {
+            collect(((GenericArrayType) type).getGenericComponentType(), parts);
+        } else if (type instanceof WildcardType) {
+            Collections.addAll(parts, ((WildcardType) type).getUpperBounds());
+            Collections.addAll(parts, ((WildcardType) type).getLowerBounds());
+        }
+    }
+
+    @Benchmark
+    public void instanceofChain(Blackhole blackhole) {
+        for (Type part : parts) {
+            blackhole.consume(classify(part));
+        }
+    }
+
+    @Benchmark
+    public void cachedKinds(Blackhole blackhole) {
+        for (Type part : parts) {
+            blackhole.consume(TypeKind.of(part));
+        }
+    }
+
+    @Benchmark
+    public Object explore() {
+        return GenericDeclarationExplorer.explore(shape.getType(), new MentionedClassesExplorer());
+    }
+
+    private static TypeKind classify(Type type) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            if (void.class.equals(clazz) || Void.class.equals(clazz)) {
+                return TypeKind.VOID;
+            }
+            if (clazz.isArray()) {
+                return TypeKind.ARRAY_CLASS;
+            }
+            return clazz.isEnum() ? TypeKind.ENUM_CLASS : TypeKind.SIMPLE_CLASS;
+        }
+        if (type instanceof ParameterizedType) {
+            return TypeKind.PARAMETERIZED_TYPE;
+        }
+        if (type instanceof GenericArrayType) {
+            return TypeKind.GENERIC_ARRAY;
+        }
+        if (type instanceof TypeVariable) {
+            return TypeKind.TYPE_VARIABLE;
+        }
+        return TypeKind.WILDCARD_TYPE;
+    }
+}
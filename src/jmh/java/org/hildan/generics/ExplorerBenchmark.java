@@ -0,0 +1,82 @@
+package org.hildan.generics;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the different ways of exploring a type declaration, using the {@link MentionedClassesExplorer} handler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExplorerBenchmark {
+
+    private static final MentionedClassesExplorer HANDLER = new MentionedClassesExplorer();
+
+    private static final MentionedClassIds IDS_HANDLER = new MentionedClassIds();
+
+    private static final FusedHandler FUSED_HANDLER = FusedHandler.of(HANDLER, IDS_HANDLER);
+
+    @Param
+    private TypeShape shape;
+
+    @Param
+    private ImplicitBoundsPolicy policy;
+
+    private TypeSnapshot snapshot;
+
+    @Setup
+    public void takeSnapshot() {
+        snapshot = TypeSnapshot.of(shape.getType(), policy);
+    }
+
+    @Benchmark
+    public Set<Class<?>> recursiveExplore() {
+        return GenericDeclarationExplorer.explore(shape.getType(), HANDLER, policy);
+    }
+
+    @Benchmark
+    public Set<Class<?>> iterativeExplore() {
+        return IterativeDeclarationExplorer.explore(shape.getType(), HANDLER, policy);
+    }
+
+    @Benchmark
+    public Set<Class<?>> snapshotExplore() {
+        return snapshot.explore(HANDLER);
+    }
+
+    @Benchmark
+    public void separateExplorations(Blackhole blackhole) {
+        blackhole.consume(GenericDeclarationExplorer.explore(shape.getType(), HANDLER, policy));
+        blackhole.consume(GenericDeclarationExplorer.explore(shape.getType(), IDS_HANDLER, policy));
+    }
+
+    @Benchmark
+    public FusedResults fusedExploration() {
+        return GenericDeclarationExplorer.explore(shape.getType(), FUSED_HANDLER, policy);
+    }
+
+    @Benchmark
+    public Set<Class<?>> visit() {
+        Set<Class<?>> classes = new HashSet<>();
+        GenericDeclarationExplorer.visit(shape.getType(), classes::add, policy);
+        return classes;
+    }
+}
@@ -0,0 +1,46 @@
+package org.hildan.generics;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MentionedClassesExplorer#getClassesInDeclaration(java.lang.reflect.Type)}, as most users call it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MentionedClassesBenchmark {
+
+    @Param
+    private TypeShape shape;
+
+    @Benchmark
+    public Set<Class<?>> getClassesInDeclaration() {
+        return MentionedClassesExplorer.getClassesInDeclaration(shape.getType());
+    }
+
+    @Benchmark
+    public ClassIdSet getClassIdsInDeclaration() {
+        return MentionedClassIds.getClassIdsInDeclaration(shape.getType());
+    }
+
+    @Benchmark
+    public Optional<Class<?>> streamFindFirst() {
+        return MentionedClassesExplorer.stream(shape.getType()).findFirst();
+    }
+}
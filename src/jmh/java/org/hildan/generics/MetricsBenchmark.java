@@ -0,0 +1,106 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the node count of declarations computed by a boxing {@link GenericTypeHandler} with the primitive {@link
+ * TypeMetrics#NODE_COUNT}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private static final GenericTypeHandler<Integer> BOXED_NODE_COUNT = new BoxedNodeCount();
+
+    @Param({"WIDE", "DEEP", "RECURSIVE_BOUND"})
+    private TypeShape shape;
+
+    @Benchmark
+    public int boxedNodeCount() {
+        return GenericDeclarationExplorer.explore(shape.getType(), BOXED_NODE_COUNT);
+    }
+
+    @Benchmark
+    public int primitiveNodeCount() {
+        return TypeMetrics.nodeCount(shape.getType());
+    }
+
+    @Benchmark
+    public long structuralHash() {
+        return TypeMetrics.structuralHash(shape.getType());
+    }
+
+    private static class BoxedNodeCount implements GenericTypeHandler<Integer> {
+
+        @Override
+        public Integer handleVoid() {
+            return 1;
+        }
+
+        @Override
+        public Integer handleSimpleClass(@NotNull Class<?> clazz) {
+            return 1;
+        }
+
+        @Override
+        public Integer handleEnumClass(@NotNull Class<?> clazz) {
+            return 1;
+        }
+
+        @Override
+        public Integer handleArrayClass(@NotNull Class<?> arrayClass, Integer handledComponentClass) {
+            return handledComponentClass + 1;
+        }
+
+        @Override
+        public Integer handleGenericArray(@NotNull GenericArrayType type, Integer handledComponentClass) {
+            return handledComponentClass + 1;
+        }
+
+        @Override
+        public Integer handleParameterizedType(@NotNull ParameterizedType type, Integer handledRawType,
+                @NotNull List<Integer> handledTypeParameters) {
+            return handledRawType + sum(handledTypeParameters) + 1;
+        }
+
+        @Override
+        public Integer handleTypeVariable(@NotNull TypeVariable type, @NotNull List<Integer> handledBounds) {
+            return sum(handledBounds) + 1;
+        }
+
+        @Override
+        public Integer handleWildcardType(@NotNull WildcardType type, @NotNull List<Integer> handledUpperBounds,
+                @NotNull List<Integer> handledLowerBounds) {
+            return sum(handledUpperBounds) + sum(handledLowerBounds) + 1;
+        }
+
+        private static int sum(List<Integer> values) {
+            int sum = 0;
+            for (Integer value : values) {
+                sum += value;
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Type#getTypeName()} with the names of the {@link TypeNameWriter}, and measures parsing names back
+ * with a {@link TypeNameParser}, with and without its cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamesBenchmark {
+
+    @Param({"WIDE", "DEEP", "RECURSIVE_BOUND", "WILDCARDS"})
+    private TypeShape shape;
+
+    private final TypeNameParser parser = new TypeNameParser();
+
+    private String canonicalName;
+
+    @Setup
+    public void computeName() {
+        canonicalName = TypeNameWriter.getCanonicalName(shape.getType());
+    }
+
+    @Benchmark
+    public String typeName() {
+        return shape.getType().getTypeName();
+    }
+
+    @Benchmark
+    public String writerName() {
+        return TypeNameWriter.getName(shape.getType());
+    }
+
+    @Benchmark
+    public String canonicalName() {
+        return TypeNameWriter.getCanonicalName(shape.getType());
+    }
+
+    @Benchmark
+    public Type parseCached() {
+        return parser.parse(canonicalName);
+    }
+
+    @Benchmark
+    public Type parseUncached() {
+        parser.clearCache();
+        return parser.parse(canonicalName);
+    }
+}
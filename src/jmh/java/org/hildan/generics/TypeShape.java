@@ -0,0 +1,81 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A catalogue of type declarations of different shapes, used as benchmark parameters.
+ */
+public enum TypeShape {
+    /**
+     * A plain non-generic class.
+     */
+    SIMPLE_CLASS("simpleClass"),
+    /**
+     * An enum class.
+     */
+    ENUM_CLASS("enumClass"),
+    /**
+     * A parameterized type with many type arguments.
+     */
+    WIDE("wide"),
+    /**
+     * Deeply nested parameterized types.
+     */
+    DEEP("deep"),
+    /**
+     * A type variable with a recursive bound, like {@code E extends Enum<E>}.
+     */
+    RECURSIVE_BOUND("recursiveBound"),
+    /**
+     * Multi-dimensional arrays of parameterized types.
+     */
+    GENERIC_ARRAY("genericArray"),
+    /**
+     * Wildcards with upper bounds and lower bounds.
+     */
+    WILDCARDS("wildcards"),
+    /**
+     * Parameterized types mostly made of classes, with arrays and enums.
+     */
+    CLASS_HEAVY("classHeavy");
+
+    private final Type type;
+
+    TypeShape(String fieldName) {
+        try {
+            this.type = Declarations.class.getDeclaredField(fieldName).getGenericType();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Missing declaration for " + name(), e);
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    @SuppressWarnings("unused")
+    private interface Wide<A, B, C, D, E, F, G, H> {}
+
+    @SuppressWarnings("unused")
+    private static class Declarations<R extends Enum<R>> {
+
+        private String simpleClass;
+
+        private TimeUnit enumClass;
+
+        private Wide<String, Integer, Long, Double, Float, Short, Byte, Character> wide;
+
+        private Map<String, List<Map<Integer, List<Map<Long, List<Map<Double, List<String>>>>>>>> deep;
+
+        private R recursiveBound;
+
+        private List<Map<String, Integer>>[][] genericArray;
+
+        private Map<? extends Number, ? super List<? extends CharSequence>> wildcards;
+
+        private Map<TimeUnit[], Map<String, Map<Integer[][], Map<Thread.State, List<Void>>>>> classHeavy;
+    }
+}
@@ -0,0 +1,276 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A reusable and thread-safe alternative to {@link GenericDeclarationExplorer#explore(Type, GenericTypeHandler,
+ * ImplicitBoundsPolicy)}, which remembers the values produced by its {@link GenericTypeHandler} for a given policy.
+ * <p>
+ * Results are cached for the explored types themselves, but also for each of their subtrees that do not mention any
+ * type variable, so that common parts of different declarations are only explored once. When the handler is a {@link
+ * PruningTypeHandler}, its decisions must only depend on the given type. Subtrees involving type
+ * variables are not cached individually, because the value produced for a type variable depends on whether it was
+ * already encountered during the current exploration.
+ * <p>
+ * Results are looked up by equality of the types, so that equal types share their results whatever their instances.
+ * The results are attached to the class loaders of the classes mentioned in their types (precisely, to a class of the
+ * youngest of these loaders), so that they are released along with the class loaders, for instance when a plugin is
+ * unloaded, even if they reference the classes of their types (like the sets produced by {@link
+ * MentionedClassesExplorer}). The types mixing classes of unrelated class loaders are explored without caching their
+ * results, not to keep one class loader alive as long as the other. {@link #clear()} releases all the results at once.
+ * <p>
+ * The given handler may be called concurrently from different threads, and thus has to be thread-safe. When several
+ * threads meet the same subtree at the same time, only one of them explores it, and the others wait for its result.
+ *
+ * @param <T>
+ *         the type of values that the given {@link GenericTypeHandler} produces
+ */
+public class CachingExplorer<T> {
+
+    private static final Object NULL_RESULT = new Object();
+
+    /**
+     * The outcome of an exploration that failed, which the threads waiting for it have to retry.
+     */
+    private static final Object FAILED = new Object();
+
+    private final GenericTypeHandler<T> handler;
+
+    private final ImplicitBoundsPolicy implicitBoundsPolicy;
+
+    private volatile ClassValue<Results> results = newResults();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a new {@code CachingExplorer} for the given handler, ignoring implicit bounds.
+     *
+     * @param handler
+     *         the handler to call on each element of the explored type declarations
+     */
+    public CachingExplorer(@NotNull GenericTypeHandler<T> handler) {
+        this(handler, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Creates a new {@code CachingExplorer} for the given handler and policy.
+     *
+     * @param handler
+     *         the handler to call on each element of the explored type declarations
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     */
+    public CachingExplorer(@NotNull GenericTypeHandler<T> handler, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        this.handler = handler;
+        this.implicitBoundsPolicy = implicitBoundsPolicy;
+    }
+
+    /**
+     * Recursively explores the given generic type using this explorer's handler, or returns the value previously
+     * produced for this type.
+     *
+     * @param type
+     *         the type to explore
+     *
+     * @return the value produced by the handler for the given type
+     */
+    public T explore(@NotNull Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        ClassValue<Results> currentResults = results;
+        Class<?> scope = LoaderScope.of(type);
+        Map<Type, Object> rootResults = scope == null ? null : currentResults.get(scope).roots;
+        Object cached = rootResults == null ? null : rootResults.get(type);
+        if (cached != null) {
+            hitCount.increment();
+            return unwrap(cached);
+        }
+        if (type instanceof TypeVariable) {
+            // other roots are looked up as subtrees
+            missCount.increment();
+        }
+        T result = new SubtreeCachingExplorer(currentResults).exploreRoot(type);
+        if (rootResults != null) {
+            rootResults.put(type, wrap(result));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of times a value was found in the cache instead of being computed.
+     *
+     * @return the number of cache hits since the creation of this explorer
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of times a value had to be computed because it was not found in the cache.
+     *
+     * @return the number of cache misses since the creation of this explorer
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Removes all cached values. This does not reset the hit and miss counts.
+     */
+    public void clear() {
+        // the results attached to classes by the previous class value are released with it
+        results = newResults();
+    }
+
+    private static ClassValue<Results> newResults() {
+        return new ClassValue<Results>() {
+            @Override
+            protected Results computeValue(Class<?> scope) {
+                return new Results();
+            }
+        };
+    }
+
+    private static Object wrap(Object result) {
+        return result == null ? NULL_RESULT : result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unwrap(Object cached) {
+        return cached == NULL_RESULT ? null : (T) cached;
+    }
+
+    /**
+     * The results cached for the types of a scope class, as defined by {@link LoaderScope}.
+     */
+    private static final class Results {
+
+        private final Map<Type, Object> roots = new ConcurrentHashMap<>();
+
+        /**
+         * The results of the subtrees, or the {@link InFlight} explorations of the subtrees being explored.
+         */
+        private final Map<Type, Object> subtrees = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The exploration of a subtree by a thread, which completes with the wrapped result, or {@link #FAILED}.
+     */
+    private static final class InFlight extends CompletableFuture<Object> {
+    }
+
+    private class SubtreeCachingExplorer extends GenericDeclarationExplorer<T> {
+
+        private final ClassValue<Results> results;
+
+        private final Map<Type, Class<?>> scopes = new IdentityHashMap<>();
+
+        private final Map<Type, Boolean> typeVariableMentions = new IdentityHashMap<>();
+
+        SubtreeCachingExplorer(ClassValue<Results> results) {
+            super(handler, implicitBoundsPolicy);
+            this.results = results;
+        }
+
+        @Override
+        T explore(Type type) {
+            if (type instanceof TypeVariable) {
+                return super.explore(type);
+            }
+            Class<?> scope = LoaderScope.of(type, scopes);
+            if (scope == null || mentionsTypeVariables(type)) {
+                missCount.increment();
+                return super.explore(type);
+            }
+            Map<Type, Object> subtreeResults = results.get(scope).subtrees;
+            Object cached = subtreeResults.get(type);
+            if (cached == null) {
+                InFlight inFlight = new InFlight();
+                cached = subtreeResults.putIfAbsent(type, inFlight);
+                if (cached == null) {
+                    return exploreInFlight(type, subtreeResults, inFlight);
+                }
+            }
+            if (cached instanceof InFlight) {
+                // subtrees without type variables only wait for smaller subtrees, so waiting cannot deadlock
+                cached = ((InFlight) cached).join();
+            }
+            if (cached == FAILED) {
+                // the failed exploration was removed, so this thread or another one explores the subtree again
+                return explore(type);
+            }
+            hitCount.increment();
+            return unwrap(cached);
+        }
+
+        private T exploreInFlight(Type type, Map<Type, Object> subtreeResults, InFlight inFlight) {
+            missCount.increment();
+            Object outcome = FAILED;
+            try {
+                T result = super.explore(type);
+                outcome = wrap(result);
+                return result;
+            } finally {
+                if (outcome == FAILED) {
+                    subtreeResults.remove(type, inFlight);
+                } else {
+                    subtreeResults.put(type, outcome);
+                }
+                inFlight.complete(outcome);
+            }
+        }
+
+        private boolean mentionsTypeVariables(Type type) {
+            Boolean mentions = typeVariableMentions.get(type);
+            if (mentions == null) {
+                mentions = computeTypeVariableMentions(type);
+                typeVariableMentions.put(type, mentions);
+            }
+            return mentions;
+        }
+
+        private boolean computeTypeVariableMentions(Type type) {
+            switch (TypeCategory.of(type)) {
+            case PARAMETERIZED_TYPE:
+                ParameterizedType parameterizedType = (ParameterizedType) type;
+                Type ownerType = parameterizedType.getOwnerType();
+                return ownerType != null && mentionsTypeVariables(ownerType) || anyMentionsTypeVariables(
+                        parameterizedType.getActualTypeArguments());
+            case GENERIC_ARRAY:
+                return mentionsTypeVariables(((GenericArrayType) type).getGenericComponentType());
+            case TYPE_VARIABLE:
+                return true;
+            case WILDCARD_TYPE:
+                WildcardType wildcardType = (WildcardType) type;
+                return anyMentionsTypeVariables(wildcardType.getUpperBounds()) || anyMentionsTypeVariables(
+                        wildcardType.getLowerBounds());
+            default:
+                // classes, and unloaded classes
+                return false;
+            }
+        }
+
+        private boolean anyMentionsTypeVariables(Type[] types) {
+            for (Type type : types) {
+                if (mentionsTypeVariables(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
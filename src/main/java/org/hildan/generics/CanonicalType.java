@@ -0,0 +1,276 @@
+package org.hildan.generics;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable and interned representation of a generic type declaration. Two {@code CanonicalType}s representing
+ * the same structure are always the same instance, so that they can be compared by reference and used as cheap map
+ * keys: their hash code is computed once, at creation.
+ * <p>
+ * Canonical types are held weakly by the interning table, so they can be garbage collected when they are no longer
+ * used. They are created using {@link #of(Type)}, which explores the given type in the same way as the {@link
+ * GenericDeclarationExplorer}, and can be converted back to a {@link Type} using {@link #toType()}, which gives a type
+ * that is equal to the original.
+ * <p>
+ * The bounds of type variables are not part of their canonical representation, because a type variable is entirely
+ * identified by its name and its declaration. Implicit {@code Object} upper bounds of wildcards are not represented
+ * either, so {@code ?} and {@code ? extends Object} have the same canonical representation.
+ */
+public final class CanonicalType {
+
+    private static final CanonicalType[] NO_CHILDREN = new CanonicalType[0];
+
+    private static final Type[] OBJECT_BOUNDS = {Object.class};
+
+    private static final Map<Key, WeakReference<CanonicalType>> INTERNED = new WeakHashMap<>();
+
+    private final Key key;
+
+    private volatile Type type;
+
+    private CanonicalType(Key key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the canonical representation of the given type.
+     *
+     * @param type
+     *         the type to get the canonical representation of
+     *
+     * @return the unique canonical type representing the given type
+     */
+    @NotNull
+    public static CanonicalType of(@NotNull Type type) {
+        TypeKind kind = TypeKind.of(type);
+        switch (kind) {
+        case ARRAY_CLASS:
+            CanonicalType[] componentType = {of(((Class<?>) type).getComponentType())};
+            return ofClass(kind, (Class<?>) type, componentType);
+        case GENERIC_ARRAY:
+            return ofGenericArray(of(((GenericArrayType) type).getGenericComponentType()));
+        case PARAMETERIZED_TYPE:
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type ownerType = parameterizedType.getOwnerType();
+            CanonicalType owner = ownerType == null ? null : of(ownerType);
+            CanonicalType[] typeArgs = ofAll(parameterizedType.getActualTypeArguments());
+            return ofParameterizedType((Class<?>) parameterizedType.getRawType(), owner, typeArgs);
+        case TYPE_VARIABLE:
+            return ofTypeVariable((TypeVariable<?>) type);
+        case WILDCARD_TYPE:
+            WildcardType wildcardType = (WildcardType) type;
+            Type[] upperBounds = ImplicitBoundsPolicy.IGNORE.toSignificantBounds(wildcardType.getUpperBounds());
+            return ofWildcardType(ofAll(upperBounds), ofAll(wildcardType.getLowerBounds()));
+        default:
+            return ofClass(kind, (Class<?>) type, NO_CHILDREN);
+        }
+    }
+
+    private static CanonicalType[] ofAll(Type[] types) {
+        CanonicalType[] canonicalTypes = new CanonicalType[types.length];
+        for (int i = 0; i < types.length; i++) {
+            canonicalTypes[i] = of(types[i]);
+        }
+        return canonicalTypes;
+    }
+
+    static CanonicalType ofClass(TypeKind kind, Class<?> clazz, CanonicalType[] children) {
+        return intern(new Key(kind, clazz, null, null, children, 0));
+    }
+
+    static CanonicalType ofParameterizedType(Class<?> rawType, CanonicalType owner, CanonicalType[] typeArgs) {
+        return intern(new Key(TypeKind.PARAMETERIZED_TYPE, rawType, null, owner, typeArgs, 0));
+    }
+
+    static CanonicalType ofGenericArray(CanonicalType componentType) {
+        return intern(new Key(TypeKind.GENERIC_ARRAY, null, null, null, new CanonicalType[] {componentType}, 0));
+    }
+
+    static CanonicalType ofTypeVariable(TypeVariable<?> variable) {
+        return intern(new Key(TypeKind.TYPE_VARIABLE, null, variable, null, NO_CHILDREN, 0));
+    }
+
+    static CanonicalType ofWildcardType(CanonicalType[] upperBounds, CanonicalType[] lowerBounds) {
+        CanonicalType[] bounds = Arrays.copyOf(upperBounds, upperBounds.length + lowerBounds.length);
+        System.arraycopy(lowerBounds, 0, bounds, upperBounds.length, lowerBounds.length);
+        return intern(new Key(TypeKind.WILDCARD_TYPE, null, null, null, bounds, upperBounds.length));
+    }
+
+    private static CanonicalType intern(Key key) {
+        synchronized (INTERNED) {
+            WeakReference<CanonicalType> ref = INTERNED.get(key);
+            CanonicalType existing = ref == null ? null : ref.get();
+            if (existing != null) {
+                return existing;
+            }
+            CanonicalType canonicalType = new CanonicalType(key);
+            INTERNED.put(key, new WeakReference<>(canonicalType));
+            return canonicalType;
+        }
+    }
+
+    /**
+     * Returns the kind of type that this canonical type represents.
+     *
+     * @return the kind of this type
+     */
+    @NotNull
+    public TypeKind getKind() {
+        return key.kind;
+    }
+
+    /**
+     * Returns the class represented by this type if it is a class, or the raw type if it is a parameterized type.
+     *
+     * @return the class of this type, or null for generic arrays, type variables and wildcard types
+     */
+    @Nullable
+    public Class<?> getRawClass() {
+        return key.clazz;
+    }
+
+    /**
+     * Returns the canonical owner type of this parameterized type, if any.
+     *
+     * @return the owner type, or null if this type is not a parameterized type or has no owner type
+     */
+    @Nullable
+    public CanonicalType getOwnerType() {
+        return key.owner;
+    }
+
+    /**
+     * Returns the nested types of this type, which are: the component type of an array, the type arguments of a
+     * parameterized type, or the significant upper bounds followed by the lower bounds of a wildcard type. Classes
+     * that are not arrays and type variables don't have any nested type.
+     *
+     * @return the nested types of this type, in declaration order
+     */
+    @NotNull
+    public List<CanonicalType> getChildren() {
+        return Collections.unmodifiableList(Arrays.asList(key.children));
+    }
+
+    /**
+     * Returns a {@link Type} that is equal to the types this canonical type was created from. The same {@link Type}
+     * instance is returned by subsequent calls.
+     *
+     * @return the type represented by this canonical type
+     */
+    @NotNull
+    public Type toType() {
+        Type result = type;
+        if (result == null) {
+            result = createType();
+            type = result;
+        }
+        return result;
+    }
+
+    private Type createType() {
+        switch (key.kind) {
+        case PARAMETERIZED_TYPE:
+            Type owner = key.owner == null ? null : key.owner.toType();
+            return Types.parameterized(owner, key.clazz, toTypes(0, key.children.length));
+        case GENERIC_ARRAY:
+            return Types.genericArray(key.children[0].toType());
+        case TYPE_VARIABLE:
+            return key.variable;
+        case WILDCARD_TYPE:
+            Type[] upperBounds = key.upperBoundsCount == 0 ? OBJECT_BOUNDS : toTypes(0, key.upperBoundsCount);
+            return Types.wildcard(upperBounds, toTypes(key.upperBoundsCount, key.children.length));
+        default:
+            return key.clazz;
+        }
+    }
+
+    private Type[] toTypes(int from, int to) {
+        Type[] types = new Type[to - from];
+        for (int i = from; i < to; i++) {
+            types[i - from] = key.children[i].toType();
+        }
+        return types;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hash;
+    }
+
+    @Override
+    public String toString() {
+        return toType().getTypeName();
+    }
+
+    static final class Key {
+
+        private final TypeKind kind;
+
+        private final Class<?> clazz;
+
+        private final TypeVariable<?> variable;
+
+        private final CanonicalType owner;
+
+        private final CanonicalType[] children;
+
+        private final int upperBoundsCount;
+
+        private final int hash;
+
+        Key(TypeKind kind, Class<?> clazz, TypeVariable<?> variable, CanonicalType owner, CanonicalType[] children,
+                int upperBoundsCount) {
+            this.kind = kind;
+            this.clazz = clazz;
+            this.variable = variable;
+            this.owner = owner;
+            this.children = children;
+            this.upperBoundsCount = upperBoundsCount;
+            this.hash = computeHash();
+        }
+
+        private int computeHash() {
+            int result = Objects.hash(kind, clazz, variable, owner, upperBoundsCount);
+            for (CanonicalType child : children) {
+                result = 31 * result + child.hashCode();
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            // children are already canonical, so Arrays.equals compares them by reference
+            Key that = (Key) o;
+            return hash == that.hash && kind == that.kind && clazz == that.clazz && Objects.equals(variable,
+                    that.variable) && owner == that.owner && upperBoundsCount == that.upperBoundsCount
+                    && Arrays.equals(children, that.children);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package org.hildan.generics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reads the generic signatures of classes directly from their class files, without loading them. This avoids the cost
+ * of class loading and initialization, and the metaspace growth associated with reflection, when analysing many
+ * classes at build time.
+ * <p>
+ * The types of the resulting {@link ClassFileSignature}s can be explored like any other type, with a {@link
+ * GenericTypeHandler} implementing {@link GenericTypeHandler#handleUnloadedClass(UnloadedClass)}. The same {@link
+ * UnloadedClass} instances are shared by all the classes read by a given reader. A reader may be used concurrently
+ * from different threads.
+ */
+public class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private final Map<String, UnloadedClass> unloadedClasses = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the signature of the class defined by the given class file bytes. The position of the given buffer is not
+     * modified.
+     *
+     * @param classFile
+     *         the bytes of the class file, from the current position of the buffer
+     *
+     * @return the signature of the class
+     * @throws IllegalArgumentException
+     *         if the given bytes are not a valid class file
+     */
+    @NotNull
+    public ClassFileSignature read(@NotNull ByteBuffer classFile) {
+        try {
+            return new ClassFileParser(classFile.slice().order(ByteOrder.BIG_ENDIAN)).parse();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed class file", e);
+        }
+    }
+
+    /**
+     * Reads the signatures of all the classes of the given jar (or zip) file, except {@code module-info} and the
+     * version-specific classes of multi-release jars.
+     *
+     * @param jarFile
+     *         the path to the jar file
+     *
+     * @return the signatures of the classes of the jar, in the order of the jar entries
+     * @throws IOException
+     *         if the jar cannot be read
+     */
+    @NotNull
+    public List<ClassFileSignature> readJar(@NotNull Path jarFile) throws IOException {
+        List<ClassFileSignature> signatures = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(jarFile.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (isClassFile(entry.getName()) && !entry.getName().startsWith("META-INF/")) {
+                    try (InputStream stream = zipFile.getInputStream(entry)) {
+                        signatures.add(read(ByteBuffer.wrap(readAllBytes(stream))));
+                    }
+                }
+            }
+        }
+        return signatures;
+    }
+
+    /**
+     * Reads the signatures of all the classes found recursively in the given directory, except {@code module-info}.
+     *
+     * @param directory
+     *         the root directory of the class files, like a classpath entry
+     *
+     * @return the signatures of the classes of the directory, sorted by path
+     * @throws IOException
+     *         if the directory or its class files cannot be read
+     */
+    @NotNull
+    public List<ClassFileSignature> readDirectory(@NotNull Path directory) throws IOException {
+        List<Path> classFiles;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            classFiles = paths.filter(p -> isClassFile(p.getFileName().toString()))
+                              .sorted()
+                              .collect(Collectors.toList());
+        }
+        List<ClassFileSignature> signatures = new ArrayList<>();
+        for (Path classFile : classFiles) {
+            signatures.add(read(ByteBuffer.wrap(Files.readAllBytes(classFile))));
+        }
+        return signatures;
+    }
+
+    private static boolean isClassFile(String fileName) {
+        return fileName.endsWith(CLASS_FILE_SUFFIX) && !fileName.endsWith("module-info" + CLASS_FILE_SUFFIX);
+    }
+
+    private static byte[] readAllBytes(InputStream stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = stream.read(buffer)) > 0) {
+            bytes.write(buffer, 0, n);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Type classForInternalName(String internalName) {
+        if ("java/lang/Object".equals(internalName)) {
+            // always loaded, and needed to recognize implicit bounds
+            return Object.class;
+        }
+        return unloadedClasses.computeIfAbsent(internalName, n -> new UnloadedClass(n.replace('/', '.')));
+    }
+
+    private static class Member {
+
+        private final String name;
+
+        private final String descriptor;
+
+        private final String signature;
+
+        private final List<String> exceptions;
+
+        Member(String name, String descriptor, String signature, List<String> exceptions) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.signature = signature;
+            this.exceptions = exceptions;
+        }
+    }
+
+    private class ClassFileParser {
+
+        private final ByteBuffer buffer;
+
+        private int[] constantOffsets;
+
+        private String[] utf8Constants;
+
+        ClassFileParser(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        ClassFileSignature parse() {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a class file: bad magic number");
+            }
+            buffer.getInt(); // minor and major versions
+            readConstantPool();
+            int accessFlags = u2();
+            String name = classNameAt(u2()).replace('/', '.');
+            int superclassIndex = u2();
+            List<String> interfaceNames = new ArrayList<>();
+            for (int i = u2(); i > 0; i--) {
+                interfaceNames.add(classNameAt(u2()));
+            }
+            List<Member> fields = readMembers();
+            List<Member> methods = readMembers();
+            String classSignature = readAttributes(null);
+
+            SignatureParser parser = new SignatureParser(ClassFileReader.this::classForInternalName);
+            List<TypeVariable<?>> typeParams = new ArrayList<>();
+            List<Type> supertypes = new ArrayList<>();
+            if (classSignature != null) {
+                parser.parseClassSignature(classSignature, name, typeParams, supertypes);
+            } else {
+                supertypes.add(superclassIndex == 0 ? null : classForInternalName(classNameAt(superclassIndex)));
+                interfaceNames.forEach(n -> supertypes.add(classForInternalName(n)));
+            }
+            Type superclass = Modifier.isInterface(accessFlags) ? null : supertypes.get(0);
+            List<Type> interfaces = supertypes.subList(1, supertypes.size());
+
+            Set<Type> types = new LinkedHashSet<>(typeParams);
+            if (superclass != null) {
+                types.add(superclass);
+            }
+            types.addAll(interfaces);
+            Map<String, Type> fieldTypes = new LinkedHashMap<>();
+            for (Member field : fields) {
+                Type fieldType = parser.parseFieldSignature(field.signature);
+                fieldTypes.put(field.name, fieldType);
+                types.add(fieldType);
+            }
+            for (Member method : methods) {
+                addMethodTypes(parser, name, method, types);
+            }
+            return new ClassFileSignature(name, accessFlags, typeParams, superclass, interfaces, fieldTypes, types);
+        }
+
+        private void addMethodTypes(SignatureParser parser, String className, Member method, Set<Type> types) {
+            List<TypeVariable<?>> typeParams = new ArrayList<>();
+            List<Type> paramTypes = new ArrayList<>();
+            List<Type> exceptionTypes = new ArrayList<>();
+            String methodName = className + '#' + method.name + method.descriptor;
+            Type returnType = parser.parseMethodSignature(method.signature, methodName, typeParams, paramTypes,
+                    exceptionTypes);
+            if (exceptionTypes.isEmpty()) {
+                method.exceptions.forEach(n -> exceptionTypes.add(classForInternalName(n)));
+            }
+            types.addAll(typeParams);
+            types.addAll(paramTypes);
+            if (!"<init>".equals(method.name)) {
+                types.add(returnType);
+            }
+            types.addAll(exceptionTypes);
+        }
+
+        private void readConstantPool() {
+            int count = u2();
+            constantOffsets = new int[count];
+            utf8Constants = new String[count];
+            for (int i = 1; i < count; i++) {
+                constantOffsets[i] = buffer.position();
+                int tag = buffer.get();
+                switch (tag) {
+                case 1: // Utf8
+                    int length = u2();
+                    skip(length);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    skip(8);
+                    i++; // takes two entries
+                    break;
+                case 7: // Class
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skip(2);
+                    break;
+                case 15: // MethodHandle
+                    skip(3);
+                    break;
+                default: // Integer, Float, refs, NameAndType, Dynamic, InvokeDynamic
+                    skip(4);
+                    break;
+                }
+            }
+        }
+
+        private List<Member> readMembers() {
+            List<Member> members = new ArrayList<>();
+            for (int i = u2(); i > 0; i--) {
+                int accessFlags = u2();
+                String name = utf8At(u2());
+                String descriptor = utf8At(u2());
+                List<String> exceptions = new ArrayList<>();
+                String signature = readAttributes(exceptions);
+                if ((accessFlags & ACC_SYNTHETIC) == 0 && !"<clinit>".equals(name)) {
+                    members.add(new Member(name, descriptor, signature == null ? descriptor : signature, exceptions));
+                }
+            }
+            return members;
+        }
+
+        /**
+         * Reads the attributes at the current position, and returns the value of the {@code Signature} attribute. The
+         * {@code Exceptions} attribute is read into the given list, if any.
+         */
+        private String readAttributes(List<String> exceptions) {
+            String signature = null;
+            for (int i = u2(); i > 0; i--) {
+                String attributeName = utf8At(u2());
+                int length = buffer.getInt();
+                int end = buffer.position() + length;
+                if ("Signature".equals(attributeName)) {
+                    signature = utf8At(u2());
+                } else if ("Exceptions".equals(attributeName) && exceptions != null) {
+                    for (int j = u2(); j > 0; j--) {
+                        exceptions.add(classNameAt(u2()));
+                    }
+                }
+                seek(end);
+            }
+            return signature;
+        }
+
+        private void skip(int length) {
+            seek(buffer.position() + length);
+        }
+
+        private void seek(int position) {
+            // ByteBuffer.position(int) only exists since Java 9, and would break on Java 8 when compiled on a newer JDK
+            ((Buffer) buffer).position(position);
+        }
+
+        private int u2() {
+            return buffer.getShort() & 0xFFFF;
+        }
+
+        private String classNameAt(int classIndex) {
+            return utf8At(buffer.getShort(constantOffsets[classIndex] + 1) & 0xFFFF);
+        }
+
+        private String utf8At(int index) {
+            String value = utf8Constants[index];
+            if (value == null) {
+                value = decodeModifiedUtf8(constantOffsets[index] + 1);
+                utf8Constants[index] = value;
+            }
+            return value;
+        }
+
+        private String decodeModifiedUtf8(int offset) {
+            int length = buffer.getShort(offset) & 0xFFFF;
+            char[] chars = new char[length];
+            int charCount = 0;
+            int i = offset + 2;
+            int end = i + length;
+            while (i < end) {
+                int b = buffer.get(i++) & 0xFF;
+                if (b < 0x80) {
+                    chars[charCount++] = (char) b;
+                } else if (b < 0xE0) {
+                    chars[charCount++] = (char) ((b & 0x1F) << 6 | buffer.get(i++) & 0x3F);
+                } else {
+                    int high = (b & 0x0F) << 12 | (buffer.get(i++) & 0x3F) << 6;
+                    chars[charCount++] = (char) (high | buffer.get(i++) & 0x3F);
+                }
+            }
+            return new String(chars, 0, charCount);
+        }
+    }
+}
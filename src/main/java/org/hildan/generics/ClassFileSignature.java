@@ -0,0 +1,132 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The generic signature of a class, as read from its class file by a {@link ClassFileReader}, without loading it.
+ * <p>
+ * The classes mentioned in the signature are represented by {@link UnloadedClass}es, except primitive types, {@code
+ * void}, {@code Object} and arrays of those, which are always available and are represented by their actual {@link
+ * Class}. Arrays of unloaded classes are represented by {@link java.lang.reflect.GenericArrayType}s.
+ */
+public final class ClassFileSignature {
+
+    private final String name;
+
+    private final int accessFlags;
+
+    private final List<TypeVariable<?>> typeParameters;
+
+    private final Type superclass;
+
+    private final List<Type> interfaces;
+
+    private final Map<String, Type> fieldTypes;
+
+    private final Set<Type> typesInSignature;
+
+    ClassFileSignature(String name, int accessFlags, List<TypeVariable<?>> typeParameters, Type superclass,
+            List<Type> interfaces, Map<String, Type> fieldTypes, Set<Type> typesInSignature) {
+        this.name = name;
+        this.accessFlags = accessFlags;
+        this.typeParameters = Collections.unmodifiableList(typeParameters);
+        this.superclass = superclass;
+        this.interfaces = Collections.unmodifiableList(interfaces);
+        this.fieldTypes = Collections.unmodifiableMap(fieldTypes);
+        this.typesInSignature = Collections.unmodifiableSet(typesInSignature);
+    }
+
+    /**
+     * Returns the binary name of the class, as returned by {@link Class#getName()}.
+     *
+     * @return the fully qualified name of the class
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the modifiers of the class, as defined in the class file. They can be decoded with {@link Modifier}.
+     *
+     * @return the access flags of the class
+     */
+    public int getModifiers() {
+        return accessFlags;
+    }
+
+    /**
+     * Returns whether the class is an interface (including annotation interfaces).
+     *
+     * @return true if the class is an interface
+     */
+    public boolean isInterface() {
+        return Modifier.isInterface(accessFlags);
+    }
+
+    /**
+     * Returns the type parameters of the class, like {@link Class#getTypeParameters()}.
+     *
+     * @return the type parameters of the class, in declaration order
+     */
+    @NotNull
+    public List<TypeVariable<?>> getTypeParameters() {
+        return typeParameters;
+    }
+
+    /**
+     * Returns the generic superclass of the class, like {@link Class#getGenericSuperclass()}.
+     *
+     * @return the superclass of the class, or null for interfaces and {@code Object}
+     */
+    @Nullable
+    public Type getGenericSuperclass() {
+        return superclass;
+    }
+
+    /**
+     * Returns the generic interfaces directly implemented by the class, like {@link Class#getGenericInterfaces()}.
+     *
+     * @return the interfaces of the class, in declaration order
+     */
+    @NotNull
+    public List<Type> getGenericInterfaces() {
+        return interfaces;
+    }
+
+    /**
+     * Returns the generic types of the fields declared by the class, excluding synthetic fields.
+     *
+     * @return the types of the fields of the class, by field name, in declaration order
+     */
+    @NotNull
+    public Map<String, Type> getFieldTypes() {
+        return fieldTypes;
+    }
+
+    /**
+     * Returns the distinct generic types mentioned in the declaration of the class, in the same way as {@link
+     * ClassSignatureExplorer#getTypesInSignature(Class)}, except that constructors and methods are listed in the order
+     * of the class file.
+     *
+     * @return a non-null set of the generic types mentioned in the declaration of the class
+     */
+    @NotNull
+    public Set<Type> getTypesInSignature() {
+        return typesInSignature;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,94 @@
+package org.hildan.generics;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Assigns a dense int ID to each class, starting from 0, so that sets of classes can be represented as {@link
+ * ClassIdSet}s. IDs are assigned the first time they are requested, and are never reused, even if the class is
+ * unloaded.
+ * <p>
+ * The ID of a class is stored along with the class itself, so that getting it is as fast as a field access once
+ * assigned. The reverse table from IDs to classes only holds weak references, and does not prevent classes from
+ * being unloaded.
+ */
+public final class ClassIdRegistry {
+
+    private static final ClassValue<Integer> IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return register(type);
+        }
+    };
+
+    /**
+     * Guarantees a single ID per class, as {@link ClassValue#computeValue} may be called concurrently for a class.
+     */
+    private static final Map<Class<?>, Integer> ASSIGNED_IDS = new WeakHashMap<>();
+
+    private static volatile WeakReference<?>[] classesById = new WeakReference<?>[64];
+
+    private static volatile int count;
+
+    private ClassIdRegistry() {
+    }
+
+    /**
+     * Returns the ID of the given class, assigning it if necessary.
+     *
+     * @param clazz
+     *         the class to get the ID of
+     *
+     * @return the ID of the given class
+     */
+    public static int getId(@NotNull Class<?> clazz) {
+        return IDS.get(clazz);
+    }
+
+    /**
+     * Returns the class that has the given ID.
+     *
+     * @param id
+     *         the ID of the class
+     *
+     * @return the class that has the given ID, or null if it was unloaded
+     * @throws IllegalArgumentException
+     *         if no class has the given ID
+     */
+    @Nullable
+    public static Class<?> getClassById(int id) {
+        // reading the count first guarantees that the table contains the given ID
+        if (id < 0 || id >= count) {
+            throw new IllegalArgumentException("No class has the ID " + id);
+        }
+        return (Class<?>) classesById[id].get();
+    }
+
+    /**
+     * Returns the number of IDs assigned so far. All IDs are lower than this number.
+     *
+     * @return the number of assigned IDs
+     */
+    public static int size() {
+        return count;
+    }
+
+    private static synchronized int register(Class<?> clazz) {
+        return ASSIGNED_IDS.computeIfAbsent(clazz, c -> {
+            int id = count;
+            WeakReference<?>[] table = classesById;
+            if (id == table.length) {
+                table = Arrays.copyOf(table, 2 * id);
+                classesById = table;
+            }
+            table[id] = new WeakReference<>(c);
+            count = id + 1;
+            return id;
+        });
+    }
+}
@@ -0,0 +1,323 @@
+package org.hildan.generics;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable set of classes, represented by their {@link ClassIdRegistry} IDs. Sets of close IDs are stored as
+ * bitsets, and sparse sets as sorted arrays of IDs, whichever takes less memory, so that a set takes a few bytes per
+ * class instead of a whole hash node. Unions and intersections of bitsets operate on whole 64-bit words.
+ */
+public final class ClassIdSet {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private static final ClassIdSet EMPTY = new ClassIdSet(null, NO_IDS);
+
+    /**
+     * The bits of the IDs, without trailing zero words, or null if the IDs are stored in {@link #ids}.
+     */
+    private final long[] words;
+
+    /**
+     * The sorted IDs, or null if the IDs are stored in {@link #words}.
+     */
+    private final int[] ids;
+
+    private ClassIdSet(long[] words, int[] ids) {
+        this.words = words;
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the empty set.
+     *
+     * @return the empty set
+     */
+    @NotNull
+    public static ClassIdSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns a set containing the given classes.
+     *
+     * @param classes
+     *         the classes of the set
+     *
+     * @return a set of the given classes
+     */
+    @NotNull
+    public static ClassIdSet of(@NotNull Class<?>... classes) {
+        int[] ids = new int[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            ids[i] = ClassIdRegistry.getId(classes[i]);
+        }
+        return ofIds(ids);
+    }
+
+    /**
+     * Returns a set containing the classes with the given IDs.
+     *
+     * @param ids
+     *         the IDs of the classes of the set, in any order, possibly with duplicates
+     *
+     * @return a set of the given IDs
+     * @throws IllegalArgumentException
+     *         if an ID is negative
+     */
+    @NotNull
+    public static ClassIdSet ofIds(@NotNull int... ids) {
+        int[] sortedIds = ids.clone();
+        Arrays.sort(sortedIds);
+        if (sortedIds.length > 0 && sortedIds[0] < 0) {
+            throw new IllegalArgumentException("Negative class ID " + sortedIds[0]);
+        }
+        int count = 0;
+        for (int id : sortedIds) {
+            if (count == 0 || sortedIds[count - 1] != id) {
+                sortedIds[count++] = id;
+            }
+        }
+        return fromSortedIds(sortedIds, count);
+    }
+
+    private static ClassIdSet fromSortedIds(int[] sortedIds, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        int wordCount = sortedIds[count - 1] / Long.SIZE + 1;
+        // a word takes as much memory as 2 IDs
+        if (2 * wordCount > count) {
+            return new ClassIdSet(null, Arrays.copyOf(sortedIds, count));
+        }
+        long[] words = new long[wordCount];
+        for (int i = 0; i < count; i++) {
+            words[sortedIds[i] / Long.SIZE] |= 1L << sortedIds[i];
+        }
+        return new ClassIdSet(words, null);
+    }
+
+    private static ClassIdSet fromWords(long[] words) {
+        int wordCount = words.length;
+        while (wordCount > 0 && words[wordCount - 1] == 0) {
+            wordCount--;
+        }
+        int count = 0;
+        for (int i = 0; i < wordCount; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        if (2 * wordCount > count) {
+            return fromSortedIds(toIds(words, wordCount, count), count);
+        }
+        return new ClassIdSet(Arrays.copyOf(words, wordCount), null);
+    }
+
+    private static int[] toIds(long[] words, int wordCount, int count) {
+        int[] ids = new int[count];
+        int n = 0;
+        for (int i = 0; i < wordCount; i++) {
+            long word = words[i];
+            while (word != 0) {
+                ids[n++] = i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns whether the given class belongs to this set.
+     *
+     * @param clazz
+     *         the class to look for
+     *
+     * @return true if this set contains the given class
+     */
+    public boolean contains(@NotNull Class<?> clazz) {
+        return containsId(ClassIdRegistry.getId(clazz));
+    }
+
+    /**
+     * Returns whether the class with the given ID belongs to this set.
+     *
+     * @param id
+     *         the ID of the class to look for
+     *
+     * @return true if this set contains the given ID
+     */
+    public boolean containsId(int id) {
+        if (words == null) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+        int wordIndex = id / Long.SIZE;
+        return id >= 0 && wordIndex < words.length && (words[wordIndex] & 1L << id) != 0;
+    }
+
+    /**
+     * Returns the number of classes in this set.
+     *
+     * @return the size of this set
+     */
+    public int size() {
+        if (words == null) {
+            return ids.length;
+        }
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether this set is empty.
+     *
+     * @return true if this set contains no class
+     */
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * Returns the union of this set and the given set.
+     *
+     * @param other
+     *         the set to merge with this set
+     *
+     * @return a set of the classes belonging to this set or to the given set
+     */
+    @NotNull
+    public ClassIdSet union(@NotNull ClassIdSet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        if (words != null && other.words != null) {
+            long[] longer = words.length >= other.words.length ? words : other.words;
+            long[] shorter = longer == words ? other.words : words;
+            long[] result = longer.clone();
+            for (int i = 0; i < shorter.length; i++) {
+                result[i] |= shorter[i];
+            }
+            return new ClassIdSet(result, null);
+        }
+        int[] ids1 = toIdArray();
+        int[] ids2 = other.toIdArray();
+        int[] result = new int[ids1.length + ids2.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < ids1.length && j < ids2.length) {
+            int id1 = ids1[i];
+            int id2 = ids2[j];
+            result[n++] = Math.min(id1, id2);
+            i += id1 <= id2 ? 1 : 0;
+            j += id2 <= id1 ? 1 : 0;
+        }
+        while (i < ids1.length) {
+            result[n++] = ids1[i++];
+        }
+        while (j < ids2.length) {
+            result[n++] = ids2[j++];
+        }
+        return fromSortedIds(result, n);
+    }
+
+    /**
+     * Returns the intersection of this set and the given set.
+     *
+     * @param other
+     *         the set to intersect with this set
+     *
+     * @return a set of the classes belonging to both this set and the given set
+     */
+    @NotNull
+    public ClassIdSet intersection(@NotNull ClassIdSet other) {
+        if (words != null && other.words != null) {
+            long[] result = new long[Math.min(words.length, other.words.length)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = words[i] & other.words[i];
+            }
+            return fromWords(result);
+        }
+        // at least one of the sets is an array of IDs, which is smaller to iterate
+        ClassIdSet sparse = words == null ? this : other;
+        ClassIdSet tested = sparse == this ? other : this;
+        int[] result = new int[sparse.ids.length];
+        int n = 0;
+        for (int id : sparse.ids) {
+            if (tested.containsId(id)) {
+                result[n++] = id;
+            }
+        }
+        return fromSortedIds(result, n);
+    }
+
+    /**
+     * Returns the IDs of the classes of this set.
+     *
+     * @return a new array of the IDs of this set, in increasing order
+     */
+    @NotNull
+    public int[] toIdArray() {
+        if (words == null) {
+            return ids.clone();
+        }
+        return toIds(words, words.length, size());
+    }
+
+    /**
+     * Returns the classes of this set. The classes that were unloaded since they were added are not part of the
+     * result.
+     *
+     * @return a new set of the classes of this set
+     */
+    @NotNull
+    public Set<Class<?>> toClasses() {
+        Set<Class<?>> classes = new HashSet<>();
+        for (int id : toIdArray()) {
+            Class<?> clazz = ClassIdRegistry.getClassById(id);
+            if (clazz != null) {
+                classes.add(clazz);
+            }
+        }
+        return classes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ClassIdSet)) {
+            return false;
+        }
+        // the representation of a set only depends on its IDs
+        ClassIdSet that = (ClassIdSet) o;
+        return Arrays.equals(words, that.words) && Arrays.equals(ids, that.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(words) + Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int id : toIdArray()) {
+            joiner.add(String.valueOf(id));
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,185 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Explores all the generic types mentioned in the declaration of a class: its type parameters, its supertypes, and
+ * the types of its declared fields, methods and constructors. Synthetic members generated by the compiler are ignored.
+ * <p>
+ * All the types of a class are explored with the same {@link CachingExplorer}, so that the subtrees they share are
+ * only explored once. The same {@code ClassSignatureExplorer} may be reused for several classes to share even more.
+ *
+ * @param <T>
+ *         the type of values that the given {@link GenericTypeHandler} produces
+ */
+public class ClassSignatureExplorer<T> {
+
+    private final CachingExplorer<T> explorer;
+
+    /**
+     * Creates a new {@code ClassSignatureExplorer} for the given handler, ignoring implicit bounds.
+     *
+     * @param handler
+     *         the handler to call on each element of the explored type declarations
+     */
+    public ClassSignatureExplorer(@NotNull GenericTypeHandler<T> handler) {
+        this(handler, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Creates a new {@code ClassSignatureExplorer} for the given handler and policy.
+     *
+     * @param handler
+     *         the handler to call on each element of the explored type declarations
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     */
+    public ClassSignatureExplorer(@NotNull GenericTypeHandler<T> handler, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        this.explorer = new CachingExplorer<>(handler, implicitBoundsPolicy);
+    }
+
+    /**
+     * Explores each generic type mentioned in the declaration of the given class.
+     *
+     * @param clazz
+     *         the class to explore the declaration of
+     *
+     * @return the values produced by the handler for each type returned by {@link #getTypesInSignature(Class)}, in
+     * the same order
+     */
+    @NotNull
+    public Map<Type, T> explore(@NotNull Class<?> clazz) {
+        Map<Type, T> results = new LinkedHashMap<>();
+        for (Type type : getTypesInSignature(clazz)) {
+            results.put(type, explorer.explore(type));
+        }
+        return results;
+    }
+
+    /**
+     * Explores each generic type mentioned in the given class signature, which was read from a class file. The handler
+     * of this explorer has to support {@link UnloadedClass}es.
+     *
+     * @param signature
+     *         the class signature to explore
+     *
+     * @return the values produced by the handler for each type returned by {@link
+     * ClassFileSignature#getTypesInSignature()}, in the same order
+     */
+    @NotNull
+    public Map<Type, T> explore(@NotNull ClassFileSignature signature) {
+        Map<Type, T> results = new LinkedHashMap<>();
+        for (Type type : signature.getTypesInSignature()) {
+            results.put(type, explorer.explore(type));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the distinct generic types mentioned in the declaration of the given class, in this order: type
+     * parameters, superclass, interfaces, fields, constructors and methods. The types of each constructor and method
+     * are its type parameters, parameter types, return type and exception types.
+     *
+     * @param clazz
+     *         the class to list the types of
+     *
+     * @return a non-null set of the generic types mentioned in the declaration of the given class
+     */
+    @NotNull
+    public static Set<Type> getTypesInSignature(@NotNull Class<?> clazz) {
+        Set<Type> types = new LinkedHashSet<>();
+        Collections.addAll(types, clazz.getTypeParameters());
+        if (clazz.getGenericSuperclass() != null) {
+            types.add(clazz.getGenericSuperclass());
+        }
+        Collections.addAll(types, clazz.getGenericInterfaces());
+        for (Field field : clazz.getDeclaredFields()) {
+            if (!field.isSynthetic()) {
+                types.add(field.getGenericType());
+            }
+        }
+        for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            if (!constructor.isSynthetic()) {
+                Collections.addAll(types, constructor.getTypeParameters());
+                Collections.addAll(types, constructor.getGenericParameterTypes());
+                Collections.addAll(types, constructor.getGenericExceptionTypes());
+            }
+        }
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (!method.isSynthetic()) {
+                Collections.addAll(types, method.getTypeParameters());
+                Collections.addAll(types, method.getGenericParameterTypes());
+                types.add(method.getGenericReturnType());
+                Collections.addAll(types, method.getGenericExceptionTypes());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Returns all the classes that are transitively reachable from the declaration of the given class. This is
+     * equivalent to {@link #getReachableClasses(Class, Predicate)} with a filter accepting all classes.
+     *
+     * @param root
+     *         the class to start from
+     *
+     * @return a non-null set of the reachable classes, in breadth-first order
+     */
+    @NotNull
+    public static Set<Class<?>> getReachableClasses(@NotNull Class<?> root) {
+        return getReachableClasses(root, c -> true);
+    }
+
+    /**
+     * Returns all the classes that are transitively reachable from the declaration of the given class. The classes
+     * mentioned in the types returned by {@link #getTypesInSignature(Class)} (as defined by {@link
+     * MentionedClassesExplorer}) are reachable, and so are the classes mentioned in their own declaration, and so on.
+     * Primitive types are not part of the result.
+     * <p>
+     * The classes are explored breadth-first, and each class is only explored once.
+     *
+     * @param root
+     *         the class to start from
+     * @param filter
+     *         a predicate to select the classes to follow, which allows to restrict the exploration (for instance, to
+     *         exclude JDK classes). Rejected classes are neither part of the result nor explored.
+     *
+     * @return a non-null set of the reachable classes, starting with the given root, in breadth-first order
+     */
+    @NotNull
+    public static Set<Class<?>> getReachableClasses(@NotNull Class<?> root, @NotNull Predicate<Class<?>> filter) {
+        Set<Class<?>> visited = new LinkedHashSet<>();
+        Queue<Class<?>> queue = new ArrayDeque<>();
+        visited.add(root);
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            for (Class<?> mentioned : getMentionedClasses(queue.poll())) {
+                if (!mentioned.isPrimitive() && filter.test(mentioned) && visited.add(mentioned)) {
+                    queue.add(mentioned);
+                }
+            }
+        }
+        return visited;
+    }
+
+    private static Set<Class<?>> getMentionedClasses(Class<?> clazz) {
+        Set<Class<?>> mentioned = new LinkedHashSet<>();
+        for (Type type : getTypesInSignature(clazz)) {
+            GenericDeclarationExplorer.visit(type, mentioned::add);
+        }
+        return mentioned;
+    }
+}
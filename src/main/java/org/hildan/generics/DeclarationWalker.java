@@ -0,0 +1,127 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Walks a generic type declaration to feed a {@link GenericTypeVisitor}, without allocating anything apart from the
+ * set of resolved type variables, when some are encountered.
+ */
+class DeclarationWalker {
+
+    private final GenericTypeVisitor visitor;
+
+    private final ImplicitBoundsPolicy implicitBoundsPolicy;
+
+    private Set<TypeVariable> resolvedTypeVariables;
+
+    DeclarationWalker(GenericTypeVisitor visitor, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        this.visitor = visitor;
+        this.implicitBoundsPolicy = implicitBoundsPolicy;
+    }
+
+    void walk(Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        switch (TypeCategory.of(type)) {
+        case CLASS:
+            walkClass((Class<?>) type);
+            break;
+        case PARAMETERIZED_TYPE:
+            walkParameterizedType((ParameterizedType) type);
+            break;
+        case GENERIC_ARRAY:
+            walkGenericArray((GenericArrayType) type);
+            break;
+        case TYPE_VARIABLE:
+            walkTypeVariable((TypeVariable) type);
+            break;
+        case WILDCARD_TYPE:
+            walkWildcardType((WildcardType) type);
+            break;
+        case UNLOADED_CLASS:
+            visitor.visitUnloadedClass((UnloadedClass) type);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown type category " + type.getClass());
+        }
+    }
+
+    private void walkClass(Class<?> clazz) {
+        switch (TypeKind.ofClass(clazz)) {
+        case VOID:
+            visitor.visitVoid();
+            break;
+        case ARRAY_CLASS:
+            walkArrayClass(clazz);
+            break;
+        default:
+            visitor.visitClass(clazz);
+            break;
+        }
+    }
+
+    private void walkArrayClass(Class<?> arrayClass) {
+        visitor.enterArrayClass(arrayClass);
+        walk(arrayClass.getComponentType());
+        visitor.exitArrayClass(arrayClass);
+    }
+
+    private void walkGenericArray(GenericArrayType type) {
+        visitor.enterGenericArray(type);
+        walk(type.getGenericComponentType());
+        visitor.exitGenericArray(type);
+    }
+
+    private void walkParameterizedType(ParameterizedType type) {
+        visitor.enterParameterizedType(type);
+        walk(type.getRawType());
+        Type[] typeArgs = type.getActualTypeArguments();
+        for (int i = 0; i < typeArgs.length; i++) {
+            visitor.enterTypeArgument(type, i, typeArgs.length);
+            walk(typeArgs[i]);
+            visitor.exitTypeArgument(type, i, typeArgs.length);
+        }
+        visitor.exitParameterizedType(type);
+    }
+
+    private void walkTypeVariable(TypeVariable type) {
+        visitor.enterTypeVariable(type);
+        if (resolvedTypeVariables == null) {
+            resolvedTypeVariables = new HashSet<>();
+        }
+        // we ignore the bounds when already resolved to avoid infinite recursions
+        if (resolvedTypeVariables.add(type)) {
+            Type[] bounds = implicitBoundsPolicy.toSignificantBounds(type.getBounds());
+            for (int i = 0; i < bounds.length; i++) {
+                visitor.enterTypeVariableBound(type, i, bounds.length);
+                walk(bounds[i]);
+                visitor.exitTypeVariableBound(type, i, bounds.length);
+            }
+        }
+        visitor.exitTypeVariable(type);
+    }
+
+    private void walkWildcardType(WildcardType type) {
+        visitor.enterWildcardType(type);
+        Type[] upperBounds = implicitBoundsPolicy.toSignificantBounds(type.getUpperBounds());
+        for (int i = 0; i < upperBounds.length; i++) {
+            visitor.enterUpperBound(type, i, upperBounds.length);
+            walk(upperBounds[i]);
+            visitor.exitUpperBound(type, i, upperBounds.length);
+        }
+        Type[] lowerBounds = implicitBoundsPolicy.toSignificantBounds(type.getLowerBounds());
+        for (int i = 0; i < lowerBounds.length; i++) {
+            visitor.enterLowerBound(type, i, lowerBounds.length);
+            walk(lowerBounds[i]);
+            visitor.exitLowerBound(type, i, lowerBounds.length);
+        }
+        visitor.exitWildcardType(type);
+    }
+}
@@ -0,0 +1,372 @@
+package org.hildan.generics;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A reusable and thread-safe alternative to {@link GenericDeclarationExplorer#explore(Type, GenericTypeHandler,
+ * ImplicitBoundsPolicy)}, which remembers the values produced by its {@link GenericTypeHandler}, along with the classes
+ * each value depends on, so that only the affected values are evicted when classes are redefined or class loaders are
+ * dropped.
+ * <p>
+ * The classes a value depends on are the ones mentioned in its type, as listed by the {@link
+ * MentionedClassesExplorer}. The cache keeps an index from each of these classes, and from their class loaders, to the
+ * values depending on them, so that invalidating a class or a class loader with {@link #invalidate(Class)} or {@link
+ * #invalidate(ClassLoader)} only costs as much as the number of values it evicts, whatever the size of the cache. A
+ * value explored while one of its classes or class loaders is invalidated is returned but not cached, while the
+ * invalidation of other classes does not prevent caching it.
+ * <p>
+ * As in {@link CachingExplorer}, values are looked up by equality of the types, and are attached to the class loaders
+ * of the classes mentioned in their types, so that they are released along with the class loaders, even if they
+ * reference the classes of their types. The types mixing classes of unrelated class loaders are explored without
+ * caching their values. The index only references the values weakly, and forgets the released values with the next
+ * operation on the cache.
+ * <p>
+ * The explored types may not contain {@link UnloadedClass}es, which can't be invalidated. The given handler may be
+ * called concurrently from different threads, and thus has to be thread-safe.
+ *
+ * @param <T>
+ *         the type of values that the given {@link GenericTypeHandler} produces
+ */
+public class DependencyTrackingExplorer<T> {
+
+    private final GenericTypeHandler<T> handler;
+
+    private final ImplicitBoundsPolicy implicitBoundsPolicy;
+
+    /**
+     * Guards all the fields below, and the maps of the entries.
+     */
+    private final Object lock = new Object();
+
+    private ClassValue<Map<Type, Entry<T>>> entries = newEntries();
+
+    private final ReferenceQueue<Entry<T>> queue = new ReferenceQueue<>();
+
+    /**
+     * The references to all the cached entries, which are enqueued when their class loaders are collected.
+     */
+    private final Set<EntryReference<T>> references = new HashSet<>();
+
+    /**
+     * The entries depending on each class or class loader, indexed by a weak reference to the class or loader.
+     */
+    private final Map<IdentityWeakReference, Dependency<T>> dependencies = new HashMap<>();
+
+    /**
+     * The number of invalidations so far, which stamps each invalidation.
+     */
+    private long invalidationCount;
+
+    /**
+     * The stamp of the last invalidation of each class or class loader.
+     */
+    private final Map<Object, Long> lastInvalidations = new WeakHashMap<>();
+
+    private long lastClear;
+
+    /**
+     * Creates a new {@code DependencyTrackingExplorer} for the given handler, ignoring implicit bounds.
+     *
+     * @param handler
+     *         the handler to call on each element of the explored type declarations
+     */
+    public DependencyTrackingExplorer(@NotNull GenericTypeHandler<T> handler) {
+        this(handler, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Creates a new {@code DependencyTrackingExplorer} for the given handler and policy.
+     *
+     * @param handler
+     *         the handler to call on each element of the explored type declarations
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     */
+    public DependencyTrackingExplorer(@NotNull GenericTypeHandler<T> handler,
+            ImplicitBoundsPolicy implicitBoundsPolicy) {
+        this.handler = handler;
+        this.implicitBoundsPolicy = implicitBoundsPolicy;
+    }
+
+    private static <T> ClassValue<Map<Type, Entry<T>>> newEntries() {
+        return new ClassValue<Map<Type, Entry<T>>>() {
+            @Override
+            protected Map<Type, Entry<T>> computeValue(Class<?> type) {
+                return new HashMap<>();
+            }
+        };
+    }
+
+    /**
+     * Recursively explores the given generic type using this explorer's handler, or returns the value previously
+     * produced for this type, if it was not invalidated since.
+     *
+     * @param type
+     *         the type to explore
+     *
+     * @return the value produced by the handler for the given type
+     */
+    public T explore(@NotNull Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        // the classes mentioned in the type are all visible from the class loader of its scope class
+        Class<?> scope = LoaderScope.of(type);
+        if (scope == null) {
+            return GenericDeclarationExplorer.explore(type, handler, implicitBoundsPolicy);
+        }
+        long invalidationsBefore;
+        synchronized (lock) {
+            expungeStaleReferences();
+            Entry<T> cached = entries.get(scope).get(type);
+            if (cached != null) {
+                return cached.value;
+            }
+            invalidationsBefore = invalidationCount;
+        }
+        T value = GenericDeclarationExplorer.explore(type, handler, implicitBoundsPolicy);
+        Set<Object> dependedOn = getDependedOn(type);
+        synchronized (lock) {
+            // the value may depend on a class that was invalidated during the exploration
+            if (!isInvalidatedSince(dependedOn, invalidationsBefore)) {
+                store(entries.get(scope), type, value, dependedOn);
+            }
+        }
+        return value;
+    }
+
+    private Set<Object> getDependedOn(Type type) {
+        Set<Object> dependedOn = Collections.newSetFromMap(new IdentityHashMap<>());
+        MentionedClassesExplorer.stream(type, implicitBoundsPolicy).forEach(clazz -> {
+            dependedOn.add(clazz);
+            ClassLoader classLoader = clazz.getClassLoader();
+            if (classLoader != null) {
+                dependedOn.add(classLoader);
+            }
+        });
+        return dependedOn;
+    }
+
+    private boolean isInvalidatedSince(Set<Object> dependedOn, long invalidationStamp) {
+        if (lastClear > invalidationStamp) {
+            return true;
+        }
+        for (Object classOrLoader : dependedOn) {
+            Long lastInvalidation = lastInvalidations.get(classOrLoader);
+            if (lastInvalidation != null && lastInvalidation > invalidationStamp) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evicts the values depending on the given class, for instance because it was redefined.
+     *
+     * @param clazz
+     *         the class whose dependent values should be evicted
+     *
+     * @return the number of evicted values
+     */
+    public int invalidate(@NotNull Class<?> clazz) {
+        return invalidateDependents(clazz);
+    }
+
+    /**
+     * Evicts the values depending on any class defined by the given class loader, for instance because it is about to
+     * be dropped.
+     *
+     * @param classLoader
+     *         the class loader whose dependent values should be evicted
+     *
+     * @return the number of evicted values
+     */
+    public int invalidate(@NotNull ClassLoader classLoader) {
+        return invalidateDependents(classLoader);
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    public void clear() {
+        synchronized (lock) {
+            expungeStaleReferences();
+            for (EntryReference<T> reference : references) {
+                // the released entries don't need to be forgotten anymore
+                reference.clear();
+            }
+            entries = newEntries();
+            references.clear();
+            dependencies.clear();
+            lastInvalidations.clear();
+            invalidationCount++;
+            lastClear = invalidationCount;
+        }
+    }
+
+    /**
+     * Returns the number of cached values.
+     *
+     * @return the number of values in the cache
+     */
+    public int size() {
+        synchronized (lock) {
+            expungeStaleReferences();
+            return references.size();
+        }
+    }
+
+    int getDependencyCount() {
+        synchronized (lock) {
+            expungeStaleReferences();
+            return dependencies.size();
+        }
+    }
+
+    private int invalidateDependents(Object classOrLoader) {
+        synchronized (lock) {
+            expungeStaleReferences();
+            invalidationCount++;
+            lastInvalidations.put(classOrLoader, invalidationCount);
+            Dependency<T> dependency = dependencies.get(new IdentityWeakReference(classOrLoader));
+            if (dependency == null) {
+                return 0;
+            }
+            List<EntryReference<T>> evicted = new ArrayList<>(dependency.references);
+            for (EntryReference<T> reference : evicted) {
+                Entry<T> entry = reference.get();
+                if (entry != null) {
+                    entry.map.remove(entry.type, entry);
+                }
+                reference.clear();
+                unlink(reference);
+            }
+            return evicted.size();
+        }
+    }
+
+    private void store(Map<Type, Entry<T>> map, Type type, T value, Set<Object> dependedOn) {
+        Entry<T> entry = new Entry<>(map, type, value);
+        if (map.putIfAbsent(type, entry) != null) {
+            // the same type was explored concurrently
+            return;
+        }
+        EntryReference<T> reference = new EntryReference<>(entry, queue);
+        references.add(reference);
+        for (Object classOrLoader : dependedOn) {
+            IdentityWeakReference key = new IdentityWeakReference(classOrLoader);
+            Dependency<T> dependency = dependencies.computeIfAbsent(key, Dependency::new);
+            dependency.references.add(reference);
+            reference.dependencies.add(dependency);
+        }
+    }
+
+    private void unlink(EntryReference<T> reference) {
+        references.remove(reference);
+        for (Dependency<T> dependency : reference.dependencies) {
+            dependency.references.remove(reference);
+            if (dependency.references.isEmpty()) {
+                dependencies.remove(dependency.key);
+            }
+        }
+        reference.dependencies.clear();
+    }
+
+    /**
+     * Forgets the entries that were released along with their class loaders.
+     */
+    @SuppressWarnings("unchecked")
+    private void expungeStaleReferences() {
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            unlink((EntryReference<T>) reference);
+        }
+    }
+
+    private static final class Entry<T> {
+
+        /**
+         * The map of the entries attached to the same class loader, which this entry belongs to.
+         */
+        private final Map<Type, Entry<T>> map;
+
+        private final Type type;
+
+        private final T value;
+
+        Entry(Map<Type, Entry<T>> map, Type type, T value) {
+            this.map = map;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A weak reference to an entry, which the index holds so that the entries remain released along with their class
+     * loaders.
+     */
+    private static final class EntryReference<T> extends WeakReference<Entry<T>> {
+
+        private final List<Dependency<T>> dependencies = new ArrayList<>();
+
+        EntryReference(Entry<T> entry, ReferenceQueue<Entry<T>> queue) {
+            super(entry, queue);
+        }
+    }
+
+    private static final class Dependency<T> {
+
+        private final IdentityWeakReference key;
+
+        private final Set<EntryReference<T>> references = new HashSet<>();
+
+        Dependency(IdentityWeakReference key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * A weak reference to a class or class loader, which is equal to the other references to the same object. Once
+     * cleared, it is only equal to itself.
+     */
+    static final class IdentityWeakReference extends WeakReference<Object> {
+
+        private final int hash;
+
+        IdentityWeakReference(Object referent) {
+            super(referent);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IdentityWeakReference)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((IdentityWeakReference) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
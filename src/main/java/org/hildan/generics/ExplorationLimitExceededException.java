@@ -0,0 +1,72 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thrown when an exploration exceeds one of its {@link ExplorationLimits}.
+ */
+public class ExplorationLimitExceededException extends RuntimeException {
+
+    /**
+     * The different limits of an exploration.
+     */
+    public enum Limit {
+        /**
+         * The maximum depth of the explored types.
+         */
+        DEPTH,
+        /**
+         * The maximum number of explored types.
+         */
+        NODES,
+        /**
+         * The maximum duration of the exploration.
+         */
+        TIME
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private final Limit limit;
+
+    private final transient Type rootType;
+
+    private final transient Type type;
+
+    ExplorationLimitExceededException(Limit limit, String message, Type rootType, Type type) {
+        super(message + " while exploring " + type.getTypeName() + " in " + rootType.getTypeName());
+        this.limit = limit;
+        this.rootType = rootType;
+        this.type = type;
+    }
+
+    /**
+     * Returns the limit that was exceeded.
+     *
+     * @return the exceeded limit
+     */
+    @NotNull
+    public Limit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the type whose exploration was aborted.
+     *
+     * @return the root type of the exploration
+     */
+    public Type getRootType() {
+        return rootType;
+    }
+
+    /**
+     * Returns the type that was about to be explored when the limit was exceeded.
+     *
+     * @return the type at which the exploration was aborted
+     */
+    public Type getType() {
+        return type;
+    }
+}
@@ -0,0 +1,144 @@
+package org.hildan.generics;
+
+import java.time.Duration;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Limits the resources an exploration may use, to bound the time spent on declarations that may be arbitrarily large
+ * or deep, for instance when exploring user-supplied classes. Explorations can be limited in:
+ * <ul>
+ * <li>depth: the number of nested types from the root type to the type being explored, the root type being at depth
+ * 1, which also prevents a {@link StackOverflowError}</li>
+ * <li>nodes: the number of types explored, including the root type</li>
+ * <li>time: the time elapsed since the start of the exploration</li>
+ * </ul>
+ * When a limit is exceeded, the exploration is aborted, and the result of {@link
+ * GenericTypeHandler#handleLimitExceeded(ExplorationLimitExceededException)} is returned instead, which throws the
+ * {@link ExplorationLimitExceededException} by default.
+ * <p>
+ * The depth and node count are checked for each type, but the clock is only read every {@value #CLOCK_CHECK_INTERVAL}
+ * types, which is enough to react within microseconds without slowing the exploration down.
+ * <p>
+ * Limits are immutable, and can be shared between explorations.
+ */
+public final class ExplorationLimits {
+
+    static final int CLOCK_CHECK_INTERVAL = 64;
+
+    private static final ExplorationLimits NONE = new ExplorationLimits(Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Long.MAX_VALUE);
+
+    private final int maxDepth;
+
+    private final int maxNodes;
+
+    private final long timeoutNanos;
+
+    private ExplorationLimits(int maxDepth, int maxNodes, long timeoutNanos) {
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Returns limits that never stop an exploration, to which actual limits can be added.
+     *
+     * @return limits that are never exceeded
+     */
+    @NotNull
+    public static ExplorationLimits none() {
+        return NONE;
+    }
+
+    /**
+     * Returns a copy of these limits with the given maximum depth.
+     *
+     * @param maxDepth
+     *         the maximum depth of the explored types, the root type being at depth 1
+     *
+     * @return new limits with the given maximum depth
+     * @throws IllegalArgumentException
+     *         if the given depth is lower than 1
+     */
+    @NotNull
+    public ExplorationLimits withMaxDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("The maximum depth must be positive, got " + maxDepth);
+        }
+        return new ExplorationLimits(maxDepth, maxNodes, timeoutNanos);
+    }
+
+    /**
+     * Returns a copy of these limits with the given maximum number of explored types.
+     *
+     * @param maxNodes
+     *         the maximum number of explored types, including the root type
+     *
+     * @return new limits with the given maximum number of types
+     * @throws IllegalArgumentException
+     *         if the given number is lower than 1
+     */
+    @NotNull
+    public ExplorationLimits withMaxNodes(int maxNodes) {
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("The maximum number of nodes must be positive, got " + maxNodes);
+        }
+        return new ExplorationLimits(maxDepth, maxNodes, timeoutNanos);
+    }
+
+    /**
+     * Returns a copy of these limits with the given maximum duration for each exploration.
+     *
+     * @param timeout
+     *         the maximum duration of an exploration, from its start
+     *
+     * @return new limits with the given timeout
+     * @throws IllegalArgumentException
+     *         if the given duration is negative
+     */
+    @NotNull
+    public ExplorationLimits withTimeout(@NotNull Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("The timeout may not be negative, got " + timeout);
+        }
+        return new ExplorationLimits(maxDepth, maxNodes, timeout.toNanos());
+    }
+
+    /**
+     * Returns the maximum depth of the explored types.
+     *
+     * @return the maximum depth, or {@link Integer#MAX_VALUE} if the depth is not limited
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the maximum number of explored types.
+     *
+     * @return the maximum number of types, or {@link Integer#MAX_VALUE} if the number of types is not limited
+     */
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Returns the maximum duration of an exploration.
+     *
+     * @return the timeout, or a duration of {@link Long#MAX_VALUE} nanoseconds if the duration is not limited
+     */
+    @NotNull
+    public Duration getTimeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+
+    long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ExplorationLimits{maxDepth=" + maxDepth + ", maxNodes=" + maxNodes + ", timeout=" + getTimeout() + '}';
+    }
+}
@@ -0,0 +1,43 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Gets notified of the explorations of generic type declarations, for monitoring purposes. Listeners are registered
+ * with {@link ExplorationListeners#register(ExplorationListener)}, or as {@code ExplorationListener} services.
+ * <p>
+ * Listeners are called for each top-level exploration of a {@link GenericDeclarationExplorer}, a {@link
+ * CachingExplorer} or a {@link TypeResolver}, on the thread of the exploration. They must be thread-safe and fast, as
+ * they are called synchronously. When no listener is enabled, explorations are not measured at all.
+ */
+public interface ExplorationListener {
+
+    /**
+     * Returns whether this listener currently needs to be notified. The explorations are only measured if at least
+     * one listener is enabled when they start.
+     *
+     * @return true if this listener should be notified of the explorations starting now
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Called when the exploration of the given type starts.
+     *
+     * @param rootType
+     *         the type being explored
+     */
+    default void explorationStarted(@NotNull Type rootType) {
+    }
+
+    /**
+     * Called when the exploration of a type is over, whether it completed normally or not.
+     *
+     * @param stats
+     *         the measurements of the exploration
+     */
+    void explorationFinished(@NotNull ExplorationStats stats);
+}
@@ -0,0 +1,95 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The registry of the {@link ExplorationListener}s. The {@code ExplorationListener} services visible from the class
+ * loader of this class are registered automatically, the first time a type is explored.
+ */
+public final class ExplorationListeners {
+
+    private static final ExplorationListener[] NO_LISTENERS = new ExplorationListener[0];
+
+    private static volatile ExplorationListener[] listeners = load();
+
+    private ExplorationListeners() {
+    }
+
+    private static ExplorationListener[] load() {
+        List<ExplorationListener> services = new ArrayList<>();
+        ServiceLoader.load(ExplorationListener.class, ExplorationListeners.class.getClassLoader())
+                     .forEach(services::add);
+        return services.toArray(NO_LISTENERS);
+    }
+
+    /**
+     * Registers the given listener, so that it is notified of all the explorations starting from now on.
+     *
+     * @param listener
+     *         the listener to register
+     */
+    public static synchronized void register(@NotNull ExplorationListener listener) {
+        ExplorationListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        listeners = newListeners;
+    }
+
+    /**
+     * Unregisters the given listener, so that it is not notified of the explorations starting from now on.
+     *
+     * @param listener
+     *         the listener to unregister
+     *
+     * @return true if the given listener was registered
+     */
+    public static synchronized boolean unregister(@NotNull ExplorationListener listener) {
+        List<ExplorationListener> newListeners = new ArrayList<>(Arrays.asList(listeners));
+        boolean removed = newListeners.remove(listener);
+        listeners = newListeners.toArray(NO_LISTENERS);
+        return removed;
+    }
+
+    /**
+     * Returns the listeners that are currently enabled. This does not allocate anything when no listener is enabled,
+     * and is as cheap as a volatile read when no listener is registered.
+     */
+    static ExplorationListener[] getEnabledListeners() {
+        ExplorationListener[] registered = listeners;
+        ExplorationListener[] enabled = null;
+        int enabledCount = 0;
+        for (ExplorationListener listener : registered) {
+            if (listener.isEnabled()) {
+                if (enabled == null) {
+                    enabled = new ExplorationListener[registered.length];
+                }
+                enabled[enabledCount++] = listener;
+            }
+        }
+        if (enabledCount == registered.length) {
+            // the registered array is never modified, so it can be shared
+            return registered;
+        }
+        if (enabledCount == 0) {
+            return NO_LISTENERS;
+        }
+        return Arrays.copyOf(enabled, enabledCount);
+    }
+
+    static void fireStarted(ExplorationListener[] enabledListeners, Type rootType) {
+        for (ExplorationListener listener : enabledListeners) {
+            listener.explorationStarted(rootType);
+        }
+    }
+
+    static void fireFinished(ExplorationListener[] enabledListeners, ExplorationStats stats) {
+        for (ExplorationListener listener : enabledListeners) {
+            listener.explorationFinished(stats);
+        }
+    }
+}
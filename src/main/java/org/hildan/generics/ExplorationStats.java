@@ -0,0 +1,136 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The measurements of the exploration of a generic type declaration, given to {@link ExplorationListener}s.
+ */
+public final class ExplorationStats {
+
+    private static final TypeKind[] KINDS = TypeKind.values();
+
+    private final Type rootType;
+
+    private final Class<?> handlerClass;
+
+    private final int[] countsByKind = new int[KINDS.length];
+
+    private final long startNanos;
+
+    private int nodeCount;
+
+    private int depth;
+
+    private int maxDepth;
+
+    private long durationNanos;
+
+    private boolean completed;
+
+    ExplorationStats(Type rootType, Class<?> handlerClass) {
+        this.rootType = rootType;
+        this.handlerClass = handlerClass;
+        this.startNanos = System.nanoTime();
+    }
+
+    void enter(Type type) {
+        // the kind of unloaded classes is unknown, they are counted as simple classes
+        TypeKind kind = type instanceof UnloadedClass ? TypeKind.SIMPLE_CLASS : TypeKind.of(type);
+        countsByKind[kind.ordinal()]++;
+        nodeCount++;
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    void exit() {
+        depth--;
+    }
+
+    void finish(boolean completed) {
+        this.durationNanos = System.nanoTime() - startNanos;
+        this.completed = completed;
+    }
+
+    /**
+     * Returns the type that was explored.
+     *
+     * @return the root type of the exploration
+     */
+    @NotNull
+    public Type getRootType() {
+        return rootType;
+    }
+
+    /**
+     * Returns the class of the {@link GenericTypeHandler} used for the exploration.
+     *
+     * @return the class of the handler
+     */
+    @NotNull
+    public Class<?> getHandlerClass() {
+        return handlerClass;
+    }
+
+    /**
+     * Returns the number of types explored, including the root type. The types served from a cache are not counted.
+     *
+     * @return the number of explored types
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of types explored with the given kind.
+     *
+     * @param kind
+     *         the kind of types to count
+     *
+     * @return the number of explored types of the given kind
+     */
+    public int getCount(@NotNull TypeKind kind) {
+        return countsByKind[kind.ordinal()];
+    }
+
+    /**
+     * Returns the maximum nesting depth of the explored types, the root type being at depth 1.
+     *
+     * @return the maximum depth of the exploration
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the time spent in the exploration, including the time spent in the handler.
+     *
+     * @return the duration of the exploration, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Returns whether the exploration completed normally, or was interrupted by an exception.
+     *
+     * @return false if the exploration threw an exception
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ExplorationStats{root=").append(rootType.getTypeName());
+        sb.append(", handler=").append(handlerClass.getName());
+        sb.append(", nodes=").append(nodeCount);
+        for (TypeKind kind : KINDS) {
+            sb.append(", ").append(kind).append('=').append(countsByKind[kind.ordinal()]);
+        }
+        sb.append(", maxDepth=").append(maxDepth);
+        sb.append(", durationNanos=").append(durationNanos);
+        return sb.append(", completed=").append(completed).append('}').toString();
+    }
+}
@@ -0,0 +1,193 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link GenericTypeHandler} running several handlers in a single exploration. Exploring a type with several
+ * handlers separately repeats the reflective calls like {@link ParameterizedType#getActualTypeArguments()} or {@link
+ * TypeVariable#getBounds()} for each handler, and these calls copy arrays. With a fused handler, the declaration is
+ * explored once, and each handler is called in turn on each part of the declaration.
+ * <p>
+ * The values produced by each handler for a given type are grouped in a {@link FusedResults}. The handlers are given
+ * their own values for the children of each part, exactly as if they were used alone.
+ * <p>
+ * {@link PruningTypeHandler}s cannot be fused, because their decisions would apply to all the fused handlers.
+ */
+public final class FusedHandler implements GenericTypeHandler<FusedResults> {
+
+    private final GenericTypeHandler<Object>[] handlers;
+
+    @SuppressWarnings("unchecked")
+    private FusedHandler(GenericTypeHandler<?>[] handlers) {
+        this.handlers = (GenericTypeHandler<Object>[]) handlers.clone();
+    }
+
+    /**
+     * Creates a handler running all the given handlers.
+     *
+     * @param handlers
+     *         the handlers to fuse
+     *
+     * @return a handler producing the values of all the given handlers
+     * @throws IllegalArgumentException
+     *         if one of the given handlers is a {@link PruningTypeHandler}
+     */
+    @NotNull
+    public static FusedHandler of(@NotNull GenericTypeHandler<?>... handlers) {
+        for (GenericTypeHandler<?> handler : handlers) {
+            if (handler instanceof PruningTypeHandler) {
+                throw new IllegalArgumentException("Pruning handlers cannot be fused: " + handler);
+            }
+        }
+        return new FusedHandler(handlers);
+    }
+
+    /**
+     * Explores the given type once with all the given handlers, ignoring implicit bounds.
+     *
+     * @param type
+     *         the type to explore
+     * @param handlers
+     *         the handlers to call on each element of the type declaration
+     *
+     * @return the values produced by each given handler for the given type
+     * @throws IllegalArgumentException
+     *         if one of the given handlers is a {@link PruningTypeHandler}
+     */
+    @NotNull
+    public static FusedResults explore(@NotNull Type type, @NotNull GenericTypeHandler<?>... handlers) {
+        return GenericDeclarationExplorer.explore(type, of(handlers));
+    }
+
+    private FusedResults results(Object[] values) {
+        return new FusedResults(handlers, values);
+    }
+
+    @Override
+    public FusedResults handleVoid() {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            values[i] = handlers[i].handleVoid();
+        }
+        return results(values);
+    }
+
+    @Override
+    public FusedResults handleSimpleClass(@NotNull Class<?> clazz) {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            values[i] = handlers[i].handleSimpleClass(clazz);
+        }
+        return results(values);
+    }
+
+    @Override
+    public FusedResults handleEnumClass(@NotNull Class<?> clazz) {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            values[i] = handlers[i].handleEnumClass(clazz);
+        }
+        return results(values);
+    }
+
+    @Override
+    public FusedResults handleArrayClass(@NotNull Class<?> arrayClass, FusedResults handledComponentClass) {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            values[i] = handlers[i].handleArrayClass(arrayClass, handledComponentClass.get(i));
+        }
+        return results(values);
+    }
+
+    @Override
+    public FusedResults handleGenericArray(@NotNull GenericArrayType type, FusedResults handledComponentClass) {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            values[i] = handlers[i].handleGenericArray(type, handledComponentClass.get(i));
+        }
+        return results(values);
+    }
+
+    @Override
+    public FusedResults handleParameterizedType(@NotNull ParameterizedType type, FusedResults handledRawType,
+            @NotNull List<FusedResults> handledTypeParameters) {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            List<Object> params = new Column(handledTypeParameters, i);
+            values[i] = handlers[i].handleParameterizedType(type, handledRawType.get(i), params);
+        }
+        return results(values);
+    }
+
+    @Override
+    public FusedResults handleTypeVariable(@NotNull TypeVariable type, @NotNull List<FusedResults> handledBounds) {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            values[i] = handlers[i].handleTypeVariable(type, new Column(handledBounds, i));
+        }
+        return results(values);
+    }
+
+    @Override
+    public FusedResults handleWildcardType(@NotNull WildcardType type, @NotNull List<FusedResults> handledUpperBounds,
+            @NotNull List<FusedResults> handledLowerBounds) {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            List<Object> upperBounds = new Column(handledUpperBounds, i);
+            values[i] = handlers[i].handleWildcardType(type, upperBounds, new Column(handledLowerBounds, i));
+        }
+        return results(values);
+    }
+
+    @Override
+    public FusedResults handleUnloadedClass(@NotNull UnloadedClass clazz) {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            values[i] = handlers[i].handleUnloadedClass(clazz);
+        }
+        return results(values);
+    }
+
+    @Override
+    public FusedResults handleLimitExceeded(@NotNull ExplorationLimitExceededException exception) {
+        Object[] values = new Object[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            values[i] = handlers[i].handleLimitExceeded(exception);
+        }
+        return results(values);
+    }
+
+    /**
+     * A read-only view of the values of a single handler in a list of results, avoiding a copy for each handler.
+     */
+    private static final class Column extends AbstractList<Object> implements RandomAccess {
+
+        private final List<FusedResults> results;
+
+        private final int index;
+
+        Column(List<FusedResults> results, int index) {
+            this.results = results;
+            this.index = index;
+        }
+
+        @Override
+        public Object get(int i) {
+            return results.get(i).get(index);
+        }
+
+        @Override
+        public int size() {
+            return results.size();
+        }
+    }
+}
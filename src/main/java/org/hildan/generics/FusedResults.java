@@ -0,0 +1,70 @@
+package org.hildan.generics;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The values produced by each of the handlers of a {@link FusedHandler} for the same type.
+ */
+public final class FusedResults {
+
+    private final GenericTypeHandler<?>[] handlers;
+
+    private final Object[] values;
+
+    FusedResults(GenericTypeHandler<?>[] handlers, Object[] values) {
+        this.handlers = handlers;
+        this.values = values;
+    }
+
+    /**
+     * Returns the value produced by the given handler.
+     *
+     * @param handler
+     *         one of the fused handlers
+     * @param <T>
+     *         the type of values that the given handler produces
+     *
+     * @return the value produced by the given handler
+     * @throws IllegalArgumentException
+     *         if the given handler is not one of the fused handlers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull GenericTypeHandler<T> handler) {
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i] == handler) {
+                return (T) values[i];
+            }
+        }
+        throw new IllegalArgumentException("The given handler is not part of the fused handlers: " + handler);
+    }
+
+    /**
+     * Returns the value produced by the handler at the given index.
+     *
+     * @param index
+     *         the index of the handler, in the order the handlers were given to the {@link FusedHandler}
+     *
+     * @return the value produced by the handler at the given index
+     * @throws IndexOutOfBoundsException
+     *         if the index is negative or not lower than {@link #size()}
+     */
+    public Object get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the number of values, which is the number of fused handlers.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
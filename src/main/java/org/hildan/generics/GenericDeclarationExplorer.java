@@ -6,10 +6,17 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import org.jetbrains.annotations.NotNull;
@@ -22,15 +29,41 @@ public class GenericDeclarationExplorer<T> {
 
     private final GenericTypeHandler<T> handler;
 
+    private final PruningTypeHandler<T> pruningHandler;
+
     private final ImplicitBoundsPolicy implicitBoundsPolicy;
 
     private final Set<TypeVariable> resolvedTypeVariables;
 
-    private GenericDeclarationExplorer(@NotNull GenericTypeHandler<T> handler,
-            ImplicitBoundsPolicy implicitBoundsPolicy) {
+    /**
+     * The measurements of the current exploration, or null when no {@link ExplorationListener} is enabled.
+     */
+    private ExplorationStats stats;
+
+    /**
+     * The limits of the explorations, or null if they are not limited.
+     */
+    private final ExplorationLimits limits;
+
+    private Type rootType;
+
+    private long startNanos;
+
+    private int depth;
+
+    private int nodeCount;
+
+    GenericDeclarationExplorer(@NotNull GenericTypeHandler<T> handler, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        this(handler, implicitBoundsPolicy, null);
+    }
+
+    GenericDeclarationExplorer(@NotNull GenericTypeHandler<T> handler, ImplicitBoundsPolicy implicitBoundsPolicy,
+            ExplorationLimits limits) {
         this.handler = handler;
+        this.pruningHandler = handler instanceof PruningTypeHandler ? (PruningTypeHandler<T>) handler : null;
         this.implicitBoundsPolicy = implicitBoundsPolicy;
         this.resolvedTypeVariables = new HashSet<>();
+        this.limits = limits;
     }
 
     /**
@@ -65,43 +98,273 @@ public class GenericDeclarationExplorer<T> {
      */
     public static <T> T explore(@NotNull Type type, @NotNull GenericTypeHandler<T> handler,
             ImplicitBoundsPolicy implicitBoundsPolicy) {
-        return new GenericDeclarationExplorer<>(handler, implicitBoundsPolicy).explore(type);
+        return new GenericDeclarationExplorer<>(handler, implicitBoundsPolicy).exploreRoot(type);
+    }
+
+    /**
+     * Recursively explores the given generic type using the given handler, within the given limits. If a limit is
+     * exceeded, the exploration is aborted and the value of {@link GenericTypeHandler#handleLimitExceeded} is
+     * returned.
+     *
+     * @param type
+     *         the type to explore
+     * @param handler
+     *         the handler to call on each element of the type declaration
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     * @param limits
+     *         the limits of the exploration
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the value produced by the given handler for the given type
+     * @throws ExplorationLimitExceededException
+     *         if a limit is exceeded and the handler does not provide a fallback value
+     */
+    public static <T> T explore(@NotNull Type type, @NotNull GenericTypeHandler<T> handler,
+            ImplicitBoundsPolicy implicitBoundsPolicy, @NotNull ExplorationLimits limits) {
+        return new GenericDeclarationExplorer<>(handler, implicitBoundsPolicy, limits).exploreRoot(type);
+    }
+
+    /**
+     * Explores all the given types using the given handler, spreading the work on the common {@link ForkJoinPool}.
+     *
+     * @param types
+     *         the types to explore
+     * @param handler
+     *         the handler to call on each element of the type declarations, which must be thread-safe
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the values produced by the given handler for each given type, in the iteration order of the given types
+     * @see #exploreAll(Collection, GenericTypeHandler, ImplicitBoundsPolicy, Executor)
+     */
+    public static <T> Map<Type, T> exploreAll(@NotNull Collection<? extends Type> types,
+            @NotNull GenericTypeHandler<T> handler) {
+        return exploreAll(types, handler, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Explores all the given types using the given handler, spreading the work on the common {@link ForkJoinPool}.
+     *
+     * @param types
+     *         the types to explore
+     * @param handler
+     *         the handler to call on each element of the type declarations, which must be thread-safe
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the values produced by the given handler for each given type, in the iteration order of the given types
+     * @see #exploreAll(Collection, GenericTypeHandler, ImplicitBoundsPolicy, Executor)
+     */
+    public static <T> Map<Type, T> exploreAll(@NotNull Collection<? extends Type> types,
+            @NotNull GenericTypeHandler<T> handler, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        return exploreAll(types, handler, implicitBoundsPolicy, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Explores all the given types using the given handler, spreading the work on the given {@link Executor}.
+     * <p>
+     * The handler is only called once for identical subtrees appearing in different types of the batch (as long as
+     * they don't involve type variables), as if the types were explored with the same {@link CachingExplorer}: the
+     * workers meeting a subtree that another worker is exploring wait for its result instead of exploring it again.
+     *
+     * @param types
+     *         the types to explore
+     * @param handler
+     *         the handler to call on each element of the type declarations, which must be thread-safe
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     * @param executor
+     *         the executor to run the explorations on
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the values produced by the given handler for each given type, in the iteration order of the given types
+     */
+    public static <T> Map<Type, T> exploreAll(@NotNull Collection<? extends Type> types,
+            @NotNull GenericTypeHandler<T> handler, ImplicitBoundsPolicy implicitBoundsPolicy,
+            @NotNull Executor executor) {
+        CachingExplorer<T> explorer = new CachingExplorer<>(handler, implicitBoundsPolicy);
+        Map<Type, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (Type type : types) {
+            futures.computeIfAbsent(type, t -> CompletableFuture.supplyAsync(() -> explorer.explore(t), executor));
+        }
+        Map<Type, T> results = new LinkedHashMap<>();
+        try {
+            futures.forEach((type, future) -> results.put(type, future.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Recursively visits the given generic type with the given visitor.
+     *
+     * @param type
+     *         the type to visit
+     * @param visitor
+     *         the visitor to call on each element of the type declaration
+     */
+    public static void visit(@NotNull Type type, @NotNull GenericTypeVisitor visitor) {
+        visit(type, visitor, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Recursively visits the given generic type with the given visitor.
+     *
+     * @param type
+     *         the type to visit
+     * @param visitor
+     *         the visitor to call on each element of the type declaration
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     */
+    public static void visit(@NotNull Type type, @NotNull GenericTypeVisitor visitor,
+            ImplicitBoundsPolicy implicitBoundsPolicy) {
+        new DeclarationWalker(visitor, implicitBoundsPolicy).walk(type);
+    }
+
+    T exploreRoot(Type type) {
+        ExplorationListener[] listeners = ExplorationListeners.getEnabledListeners();
+        if (listeners.length == 0 || type == null) {
+            return exploreOrStop(type);
+        }
+        stats = new ExplorationStats(type, handler.getClass());
+        ExplorationListeners.fireStarted(listeners, type);
+        boolean completed = false;
+        try {
+            T result = exploreOrStop(type);
+            completed = true;
+            return result;
+        } finally {
+            stats.finish(completed);
+            ExplorationListeners.fireFinished(listeners, stats);
+            stats = null;
+        }
+    }
+
+    private T exploreOrStop(Type type) {
+        try {
+            return limits == null ? explore(type) : exploreWithinLimits(type);
+        } catch (StopExplorationException e) {
+            return e.getResult();
+        }
+    }
+
+    private T exploreWithinLimits(Type type) {
+        rootType = type;
+        startNanos = System.nanoTime();
+        depth = 0;
+        nodeCount = 0;
+        try {
+            return explore(type);
+        } catch (ExplorationLimitExceededException e) {
+            return handler.handleLimitExceeded(e);
+        }
     }
 
-    private T explore(Type type) {
+    T explore(Type type) {
         if (type == null) {
             throw new IllegalArgumentException("Type declaration may not be null");
         }
-        if (type instanceof Class) {
-            return exploreClassOrArray((Class<?>) type);
+        if (stats == null && limits == null) {
+            return exploreNode(type);
         }
-        if (type instanceof ParameterizedType) {
-            return exploreParameterizedType(((ParameterizedType) type));
+        enter(type);
+        try {
+            return exploreNode(type);
+        } finally {
+            exit();
         }
-        if (type instanceof GenericArrayType) {
-            return exploreGenericArray((GenericArrayType) type);
+    }
+
+    private void enter(Type type) {
+        if (limits != null) {
+            checkLimits(type);
         }
-        if (type instanceof TypeVariable) {
-            return exploreTypeVariable((TypeVariable) type);
+        if (stats != null) {
+            stats.enter(type);
+        }
+    }
+
+    private void exit() {
+        depth--;
+        if (stats != null) {
+            stats.exit();
         }
-        if (type instanceof WildcardType) {
+    }
+
+    private void checkLimits(Type type) {
+        depth++;
+        nodeCount++;
+        if (depth > limits.getMaxDepth()) {
+            throw limitExceeded(ExplorationLimitExceededException.Limit.DEPTH,
+                    "Maximum depth of " + limits.getMaxDepth() + " exceeded", type);
+        }
+        if (nodeCount > limits.getMaxNodes()) {
+            throw limitExceeded(ExplorationLimitExceededException.Limit.NODES,
+                    "Maximum number of " + limits.getMaxNodes() + " types exceeded", type);
+        }
+        // reading the clock for each type would be much slower than exploring it
+        if (nodeCount % ExplorationLimits.CLOCK_CHECK_INTERVAL == 0
+                && System.nanoTime() - startNanos > limits.getTimeoutNanos()) {
+            throw limitExceeded(ExplorationLimitExceededException.Limit.TIME,
+                    "Timeout of " + limits.getTimeout() + " exceeded", type);
+        }
+    }
+
+    private ExplorationLimitExceededException limitExceeded(ExplorationLimitExceededException.Limit limit,
+            String message, Type type) {
+        return new ExplorationLimitExceededException(limit, message, rootType, type);
+    }
+
+    private T exploreNode(Type type) {
+        if (pruningHandler != null) {
+            PruningTypeHandler.Decision decision = pruningHandler.beforeExplore(type);
+            if (decision == PruningTypeHandler.Decision.SKIP) {
+                return pruningHandler.handleSkipped(type);
+            }
+            if (decision == PruningTypeHandler.Decision.STOP) {
+                throw new StopExplorationException(pruningHandler.handleStop(type));
+            }
+        }
+        switch (TypeCategory.of(type)) {
+        case CLASS:
+            return exploreClassOrArray((Class<?>) type);
+        case PARAMETERIZED_TYPE:
+            return exploreParameterizedType((ParameterizedType) type);
+        case GENERIC_ARRAY:
+            return exploreGenericArray((GenericArrayType) type);
+        case TYPE_VARIABLE:
+            return exploreTypeVariable((TypeVariable) type);
+        case WILDCARD_TYPE:
             return exploreWildcardType((WildcardType) type);
+        case UNLOADED_CLASS:
+            return handler.handleUnloadedClass((UnloadedClass) type);
+        default:
+            throw new IllegalArgumentException("Unknown type category " + type.getClass());
         }
-        throw new IllegalArgumentException("Unknown type category " + type.getClass());
     }
 
     private T exploreClassOrArray(Class<?> clazz) {
-        if (void.class.equals(clazz) || Void.class.equals(clazz)) {
+        switch (TypeKind.ofClass(clazz)) {
+        case VOID:
             return handler.handleVoid();
-        }
-        if (clazz.isArray()) {
+        case ARRAY_CLASS:
             T exploredComponentType = explore(clazz.getComponentType());
             return handler.handleArrayClass(clazz, exploredComponentType);
-        }
-        if (clazz.isEnum()) {
+        case ENUM_CLASS:
             return handler.handleEnumClass(clazz);
+        default:
+            return handler.handleSimpleClass(clazz);
         }
-        return handler.handleSimpleClass(clazz);
     }
 
     private T exploreGenericArray(GenericArrayType type) {
@@ -123,29 +386,19 @@ public class GenericDeclarationExplorer<T> {
         }
         resolvedTypeVariables.add(type);
 
-        Type[] bounds = toSignificantBounds(type.getBounds());
+        Type[] bounds = implicitBoundsPolicy.toSignificantBounds(type.getBounds());
         List<T> exploredBounds = exploreAll(bounds);
         return handler.handleTypeVariable(type, exploredBounds);
     }
 
     private T exploreWildcardType(WildcardType type) {
-        Type[] upperBounds = toSignificantBounds(type.getUpperBounds());
-        Type[] lowerBounds = toSignificantBounds(type.getLowerBounds());
+        Type[] upperBounds = implicitBoundsPolicy.toSignificantBounds(type.getUpperBounds());
+        Type[] lowerBounds = implicitBoundsPolicy.toSignificantBounds(type.getLowerBounds());
         List<T> exploredUpperBounds = exploreAll(upperBounds);
         List<T> exploredLowerBounds = exploreAll(lowerBounds);
         return handler.handleWildcardType(type, exploredUpperBounds, exploredLowerBounds);
     }
 
-    private Type[] toSignificantBounds(Type[] bounds) {
-        if (implicitBoundsPolicy == ImplicitBoundsPolicy.IGNORE) {
-            // unbounded variables have one bound of type Object
-            if (bounds.length == 1 && bounds[0].equals(Object.class)) {
-                return new Type[0];
-            }
-        }
-        return bounds;
-    }
-
     private List<T> exploreAll(Type[] types) {
         return Arrays.stream(types).map(this::explore).collect(Collectors.toList());
     }
@@ -115,4 +115,31 @@ public interface GenericTypeHandler<T> {
      */
     T handleWildcardType(@NotNull WildcardType type, @NotNull List<T> handledUpperBounds,
             @NotNull List<T> handledLowerBounds);
+
+    /**
+     * Handles the given {@link UnloadedClass}, which is only known by its name. Unloaded classes are only part of the
+     * types read by a {@link ClassFileReader}, so handlers that are not meant to explore such types don't need to
+     * implement this method, which throws an {@link UnsupportedOperationException} by default.
+     *
+     * @param clazz
+     *         the unloaded class to handle
+     *
+     * @return the value associated to the given class
+     */
+    default T handleUnloadedClass(@NotNull UnloadedClass clazz) {
+        throw new UnsupportedOperationException("This handler does not support unloaded classes");
+    }
+
+    /**
+     * Provides the value of an exploration that exceeded its {@link ExplorationLimits}, instead of the value of the
+     * explored type. By default, the given exception is thrown, to fail fast.
+     *
+     * @param exception
+     *         the exception describing the exceeded limit
+     *
+     * @return the fallback value of the aborted exploration
+     */
+    default T handleLimitExceeded(@NotNull ExplorationLimitExceededException exception) {
+        throw exception;
+    }
 }
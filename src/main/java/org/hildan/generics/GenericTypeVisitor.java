@@ -0,0 +1,247 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the parts of a generic type declaration as they are encountered, instead of producing a value for each of
+ * them like a {@link GenericTypeHandler}. This allows to push information into a single accumulator owned by the
+ * implementation, without allocating intermediate values for each part of the declaration.
+ * <p>
+ * The {@code enter} and {@code exit} methods surround the visit of the nested types of a given type, in the order
+ * they are declared. Within them, the visit of each type argument and bound is also surrounded by {@code enter} and
+ * {@code exit} methods giving its position, so that visitors streaming their output (see {@link TypeNameWriter}) know
+ * where separators go. Only {@link #visitClass(Class)} has to be implemented, the other methods do nothing by default,
+ * except {@link #visitUnloadedClass(UnloadedClass)}.
+ *
+ * @see GenericDeclarationExplorer#visit(java.lang.reflect.Type, GenericTypeVisitor)
+ */
+@FunctionalInterface
+public interface GenericTypeVisitor {
+
+    /**
+     * Visits the {@code void} type.
+     */
+    default void visitVoid() {
+    }
+
+    /**
+     * Visits the given class, which is not an array class. This includes enum classes and the raw types of
+     * parameterized types.
+     *
+     * @param clazz
+     *         the non-array class to visit
+     */
+    void visitClass(@NotNull Class<?> clazz);
+
+    /**
+     * Visits the given {@link UnloadedClass}, which is only known by its name. Unloaded classes are only part of the
+     * types read by a {@link ClassFileReader}, so this method throws an {@link UnsupportedOperationException} by
+     * default, like {@link GenericTypeHandler#handleUnloadedClass}.
+     *
+     * @param clazz
+     *         the unloaded class to visit
+     */
+    default void visitUnloadedClass(@NotNull UnloadedClass clazz) {
+        throw new UnsupportedOperationException("This visitor does not support unloaded classes");
+    }
+
+    /**
+     * Called before visiting the component type of the given array class.
+     *
+     * @param arrayClass
+     *         the array class being visited
+     */
+    default void enterArrayClass(@NotNull Class<?> arrayClass) {
+    }
+
+    /**
+     * Called after visiting the component type of the given array class.
+     *
+     * @param arrayClass
+     *         the array class being visited
+     */
+    default void exitArrayClass(@NotNull Class<?> arrayClass) {
+    }
+
+    /**
+     * Called before visiting the component type of the given {@link GenericArrayType}.
+     *
+     * @param type
+     *         the array type being visited
+     */
+    default void enterGenericArray(@NotNull GenericArrayType type) {
+    }
+
+    /**
+     * Called after visiting the component type of the given {@link GenericArrayType}.
+     *
+     * @param type
+     *         the array type being visited
+     */
+    default void exitGenericArray(@NotNull GenericArrayType type) {
+    }
+
+    /**
+     * Called before visiting the raw type and the type parameters of the given {@link ParameterizedType}.
+     *
+     * @param type
+     *         the parameterized type being visited
+     */
+    default void enterParameterizedType(@NotNull ParameterizedType type) {
+    }
+
+    /**
+     * Called after visiting the raw type and the type parameters of the given {@link ParameterizedType}.
+     *
+     * @param type
+     *         the parameterized type being visited
+     */
+    default void exitParameterizedType(@NotNull ParameterizedType type) {
+    }
+
+    /**
+     * Called before visiting a type argument of the given {@link ParameterizedType}, after its raw type.
+     *
+     * @param type
+     *         the parameterized type being visited
+     * @param index
+     *         the index of the type argument about to be visited
+     * @param count
+     *         the number of type arguments of the given type
+     */
+    default void enterTypeArgument(@NotNull ParameterizedType type, int index, int count) {
+    }
+
+    /**
+     * Called after visiting a type argument of the given {@link ParameterizedType}.
+     *
+     * @param type
+     *         the parameterized type being visited
+     * @param index
+     *         the index of the type argument that was visited
+     * @param count
+     *         the number of type arguments of the given type
+     */
+    default void exitTypeArgument(@NotNull ParameterizedType type, int index, int count) {
+    }
+
+    /**
+     * Called before visiting the bounds of the given {@link TypeVariable}. The bounds are only visited the first time
+     * a type variable is encountered, to avoid infinite recursions.
+     *
+     * @param type
+     *         the type variable being visited
+     */
+    default void enterTypeVariable(@NotNull TypeVariable type) {
+    }
+
+    /**
+     * Called after visiting the bounds of the given {@link TypeVariable}.
+     *
+     * @param type
+     *         the type variable being visited
+     */
+    default void exitTypeVariable(@NotNull TypeVariable type) {
+    }
+
+    /**
+     * Called before visiting a bound of the given {@link TypeVariable}.
+     *
+     * @param type
+     *         the type variable being visited
+     * @param index
+     *         the index of the bound about to be visited, among the significant bounds
+     * @param count
+     *         the number of significant bounds of the given type variable
+     */
+    default void enterTypeVariableBound(@NotNull TypeVariable type, int index, int count) {
+    }
+
+    /**
+     * Called after visiting a bound of the given {@link TypeVariable}.
+     *
+     * @param type
+     *         the type variable being visited
+     * @param index
+     *         the index of the bound that was visited, among the significant bounds
+     * @param count
+     *         the number of significant bounds of the given type variable
+     */
+    default void exitTypeVariableBound(@NotNull TypeVariable type, int index, int count) {
+    }
+
+    /**
+     * Called before visiting the upper bounds and then the lower bounds of the given {@link WildcardType}.
+     *
+     * @param type
+     *         the wildcard type being visited
+     */
+    default void enterWildcardType(@NotNull WildcardType type) {
+    }
+
+    /**
+     * Called after visiting the bounds of the given {@link WildcardType}.
+     *
+     * @param type
+     *         the wildcard type being visited
+     */
+    default void exitWildcardType(@NotNull WildcardType type) {
+    }
+
+    /**
+     * Called before visiting an upper bound of the given {@link WildcardType}.
+     *
+     * @param type
+     *         the wildcard type being visited
+     * @param index
+     *         the index of the upper bound about to be visited, among the significant upper bounds
+     * @param count
+     *         the number of significant upper bounds of the given wildcard type
+     */
+    default void enterUpperBound(@NotNull WildcardType type, int index, int count) {
+    }
+
+    /**
+     * Called after visiting an upper bound of the given {@link WildcardType}.
+     *
+     * @param type
+     *         the wildcard type being visited
+     * @param index
+     *         the index of the upper bound that was visited, among the significant upper bounds
+     * @param count
+     *         the number of significant upper bounds of the given wildcard type
+     */
+    default void exitUpperBound(@NotNull WildcardType type, int index, int count) {
+    }
+
+    /**
+     * Called before visiting a lower bound of the given {@link WildcardType}, after all its upper bounds.
+     *
+     * @param type
+     *         the wildcard type being visited
+     * @param index
+     *         the index of the lower bound about to be visited
+     * @param count
+     *         the number of lower bounds of the given wildcard type
+     */
+    default void enterLowerBound(@NotNull WildcardType type, int index, int count) {
+    }
+
+    /**
+     * Called after visiting a lower bound of the given {@link WildcardType}.
+     *
+     * @param type
+     *         the wildcard type being visited
+     * @param index
+     *         the index of the lower bound that was visited
+     * @param count
+     *         the number of lower bounds of the given wildcard type
+     */
+    default void exitLowerBound(@NotNull WildcardType type, int index, int count) {
+    }
+}
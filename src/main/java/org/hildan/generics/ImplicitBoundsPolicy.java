@@ -1,5 +1,6 @@
 package org.hildan.generics;
 
+import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 
@@ -24,5 +25,15 @@ public enum ImplicitBoundsPolicy {
      * GenericTypeHandler#handleTypeVariable} and {@link GenericTypeHandler#handleWildcardType} contains the value
      * that the handler associated with the {@code Object} class in this case.
      */
-    PROCESS
+    PROCESS;
+
+    Type[] toSignificantBounds(Type[] bounds) {
+        if (this == IGNORE) {
+            // unbounded variables have one bound of type Object
+            if (bounds.length == 1 && bounds[0].equals(Object.class)) {
+                return new Type[0];
+            }
+        }
+        return bounds;
+    }
 }
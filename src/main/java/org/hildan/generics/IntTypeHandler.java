@@ -0,0 +1,140 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A variant of {@link GenericTypeHandler} producing {@code int} values, explored by the {@link
+ * IntDeclarationExplorer} without boxing the values nor packing them into lists.
+ * <p>
+ * The values of the children of a type are given as a range of an array shared by the whole exploration. This array
+ * is only valid during the call: handlers may read the given range, but must neither modify the array nor keep a
+ * reference to it.
+ *
+ * @see TypeMetrics
+ */
+public interface IntTypeHandler {
+
+    /**
+     * Handles the {@code void} type.
+     *
+     * @return the value associated to {@code void}
+     */
+    int handleVoid();
+
+    /**
+     * Handles the given simple class, which is neither an array nor an enum.
+     *
+     * @param clazz
+     *         the non-array, non-enum class to handle
+     *
+     * @return the value associated to the given class
+     */
+    int handleSimpleClass(@NotNull Class<?> clazz);
+
+    /**
+     * Handles the given enum class. Calling {@code clazz.isEnum()} on the given class is guaranteed to return true.
+     *
+     * @param clazz
+     *         the enum class to handle
+     *
+     * @return the value associated to the given enum class
+     */
+    int handleEnumClass(@NotNull Class<?> clazz);
+
+    /**
+     * Handles the given array class. Calling {@code clazz.isArray()} on the given class is guaranteed to return true.
+     *
+     * @param arrayClass
+     *         the array class to handle
+     * @param handledComponentClass
+     *         the value associated to the type of the array elements (already handled)
+     *
+     * @return the value associated to the given array class
+     */
+    int handleArrayClass(@NotNull Class<?> arrayClass, int handledComponentClass);
+
+    /**
+     * Handles the given {@link GenericArrayType}.
+     *
+     * @param type
+     *         the array type to handle
+     * @param handledComponentClass
+     *         the value associated to the type of the array elements (already handled)
+     *
+     * @return the value associated to the given array type
+     */
+    int handleGenericArray(@NotNull GenericArrayType type, int handledComponentClass);
+
+    /**
+     * Handles the given {@link ParameterizedType}.
+     *
+     * @param type
+     *         the whole {@link ParameterizedType} to handle
+     * @param handledRawType
+     *         the value associated to the raw type of the given parameterized type
+     * @param values
+     *         the array containing the values associated to the type arguments of the given parameterized type
+     * @param offset
+     *         the index of the value of the first type argument in the given array
+     * @param count
+     *         the number of type arguments, whose values follow each other in the given array
+     *
+     * @return the value associated to the given type
+     */
+    int handleParameterizedType(@NotNull ParameterizedType type, int handledRawType, @NotNull int[] values, int offset,
+            int count);
+
+    /**
+     * Handles the given {@link TypeVariable}.
+     *
+     * @param type
+     *         the {@link TypeVariable} to handle
+     * @param values
+     *         the array containing the values associated to the bounds of the given type variable
+     * @param offset
+     *         the index of the value of the first bound in the given array
+     * @param count
+     *         the number of bounds, whose values follow each other in the given array in the order they are declared
+     *
+     * @return the value associated to the given type variable
+     */
+    int handleTypeVariable(@NotNull TypeVariable type, @NotNull int[] values, int offset, int count);
+
+    /**
+     * Handles the given {@link WildcardType}.
+     *
+     * @param type
+     *         the {@link WildcardType} to handle
+     * @param values
+     *         the array containing the values associated to the upper bounds, then the lower bounds of the given
+     *         wildcard type
+     * @param offset
+     *         the index of the value of the first bound in the given array
+     * @param upperBoundsCount
+     *         the number of upper bounds, whose values come first
+     * @param lowerBoundsCount
+     *         the number of lower bounds, whose values directly follow the values of the upper bounds
+     *
+     * @return the value associated to the given wildcard type
+     */
+    int handleWildcardType(@NotNull WildcardType type, @NotNull int[] values, int offset, int upperBoundsCount,
+            int lowerBoundsCount);
+
+    /**
+     * Handles the given {@link UnloadedClass}, which is only known by its name. By default, this method throws an
+     * {@link UnsupportedOperationException}, like {@link GenericTypeHandler#handleUnloadedClass}.
+     *
+     * @param clazz
+     *         the unloaded class to handle
+     *
+     * @return the value associated to the given class
+     */
+    default int handleUnloadedClass(@NotNull UnloadedClass clazz) {
+        throw new UnsupportedOperationException("This handler does not support unloaded classes");
+    }
+}
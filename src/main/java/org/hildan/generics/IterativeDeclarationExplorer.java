@@ -0,0 +1,218 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An alternative to {@link GenericDeclarationExplorer} that does not use recursion, and thus can explore arbitrarily
+ * deep type declarations without risking a {@link StackOverflowError}. The nodes being explored are kept in an
+ * explicit stack on the heap, and the values produced for the children of a node are assembled once all of them have
+ * been handled.
+ * <p>
+ * The given {@link GenericTypeHandler} is called on the same values and in the same order as with the
+ * {@link GenericDeclarationExplorer}, so both explorers produce the same results.
+ *
+ * @param <T>
+ *         the type of values that the given {@link GenericTypeHandler} produces
+ */
+public class IterativeDeclarationExplorer<T> {
+
+    private static final Type[] NO_CHILDREN = new Type[0];
+
+    private final GenericTypeHandler<T> handler;
+
+    private final PruningTypeHandler<T> pruningHandler;
+
+    private final ImplicitBoundsPolicy implicitBoundsPolicy;
+
+    private final Set<TypeVariable> resolvedTypeVariables;
+
+    private IterativeDeclarationExplorer(@NotNull GenericTypeHandler<T> handler,
+            ImplicitBoundsPolicy implicitBoundsPolicy) {
+        this.handler = handler;
+        this.pruningHandler = handler instanceof PruningTypeHandler ? (PruningTypeHandler<T>) handler : null;
+        this.implicitBoundsPolicy = implicitBoundsPolicy;
+        this.resolvedTypeVariables = new HashSet<>();
+    }
+
+    /**
+     * Explores the given generic type using the given handler, without recursion.
+     *
+     * @param type
+     *         the type to explore
+     * @param handler
+     *         the handler to call on each element of the type declaration
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the value produced by the given handler for the given type
+     */
+    public static <T> T explore(@NotNull Type type, @NotNull GenericTypeHandler<T> handler) {
+        return explore(type, handler, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Explores the given generic type using the given handler, without recursion.
+     *
+     * @param type
+     *         the type to explore
+     * @param handler
+     *         the handler to call on each element of the type declaration
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the value produced by the given handler for the given type
+     */
+    public static <T> T explore(@NotNull Type type, @NotNull GenericTypeHandler<T> handler,
+            ImplicitBoundsPolicy implicitBoundsPolicy) {
+        return new IterativeDeclarationExplorer<>(handler, implicitBoundsPolicy).explore(type);
+    }
+
+    private T explore(Type type) {
+        try {
+            return exploreFrom(type);
+        } catch (StopExplorationException e) {
+            return e.getResult();
+        }
+    }
+
+    private T exploreFrom(Type type) {
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(enter(type));
+        while (true) {
+            Node<T> node = stack.peek();
+            if (node.nextChild < node.children.length) {
+                stack.push(enter(node.children[node.nextChild++]));
+                continue;
+            }
+            stack.pop();
+            T result = handle(node);
+            if (stack.isEmpty()) {
+                return result;
+            }
+            stack.peek().results.add(result);
+        }
+    }
+
+    private Node<T> enter(Type type) {
+        if (pruningHandler != null && type != null) {
+            PruningTypeHandler.Decision decision = pruningHandler.beforeExplore(type);
+            if (decision == PruningTypeHandler.Decision.SKIP) {
+                Node<T> skipped = new Node<>(null, type, NO_CHILDREN);
+                skipped.skippedResult = pruningHandler.handleSkipped(type);
+                return skipped;
+            }
+            if (decision == PruningTypeHandler.Decision.STOP) {
+                throw new StopExplorationException(pruningHandler.handleStop(type));
+            }
+        }
+        TypeKind kind = TypeKind.of(type);
+        switch (kind) {
+        case ARRAY_CLASS:
+            return new Node<>(kind, type, new Type[] {((Class<?>) type).getComponentType()});
+        case GENERIC_ARRAY:
+            return new Node<>(kind, type, new Type[] {((GenericArrayType) type).getGenericComponentType()});
+        case PARAMETERIZED_TYPE:
+            return enterParameterizedType((ParameterizedType) type);
+        case TYPE_VARIABLE:
+            return enterTypeVariable((TypeVariable) type);
+        case WILDCARD_TYPE:
+            return enterWildcardType((WildcardType) type);
+        default:
+            return new Node<>(kind, type, NO_CHILDREN);
+        }
+    }
+
+    private Node<T> enterParameterizedType(ParameterizedType type) {
+        Type[] typeArgs = type.getActualTypeArguments();
+        Type[] children = new Type[typeArgs.length + 1];
+        children[0] = type.getRawType();
+        System.arraycopy(typeArgs, 0, children, 1, typeArgs.length);
+        return new Node<>(TypeKind.PARAMETERIZED_TYPE, type, children);
+    }
+
+    private Node<T> enterTypeVariable(TypeVariable type) {
+        if (!resolvedTypeVariables.add(type)) {
+            // we ignore the bounds when already resolved to avoid infinite recursions
+            return new Node<>(TypeKind.TYPE_VARIABLE, type, NO_CHILDREN);
+        }
+        Type[] bounds = implicitBoundsPolicy.toSignificantBounds(type.getBounds());
+        return new Node<>(TypeKind.TYPE_VARIABLE, type, bounds);
+    }
+
+    private Node<T> enterWildcardType(WildcardType type) {
+        Type[] upperBounds = implicitBoundsPolicy.toSignificantBounds(type.getUpperBounds());
+        Type[] lowerBounds = implicitBoundsPolicy.toSignificantBounds(type.getLowerBounds());
+        Type[] children = new Type[upperBounds.length + lowerBounds.length];
+        System.arraycopy(upperBounds, 0, children, 0, upperBounds.length);
+        System.arraycopy(lowerBounds, 0, children, upperBounds.length, lowerBounds.length);
+        Node<T> node = new Node<>(TypeKind.WILDCARD_TYPE, type, children);
+        node.upperBoundsCount = upperBounds.length;
+        return node;
+    }
+
+    private T handle(Node<T> node) {
+        if (node.kind == null) {
+            return node.skippedResult;
+        }
+        List<T> results = node.results;
+        switch (node.kind) {
+        case VOID:
+            return handler.handleVoid();
+        case SIMPLE_CLASS:
+            return handler.handleSimpleClass((Class<?>) node.type);
+        case ENUM_CLASS:
+            return handler.handleEnumClass((Class<?>) node.type);
+        case ARRAY_CLASS:
+            return handler.handleArrayClass((Class<?>) node.type, results.get(0));
+        case GENERIC_ARRAY:
+            return handler.handleGenericArray((GenericArrayType) node.type, results.get(0));
+        case PARAMETERIZED_TYPE:
+            return handler.handleParameterizedType((ParameterizedType) node.type, results.get(0),
+                    results.subList(1, results.size()));
+        case TYPE_VARIABLE:
+            return handler.handleTypeVariable((TypeVariable) node.type, results);
+        default:
+            return handler.handleWildcardType((WildcardType) node.type, results.subList(0, node.upperBoundsCount),
+                    results.subList(node.upperBoundsCount, results.size()));
+        }
+    }
+
+    private static class Node<T> {
+
+        private final TypeKind kind;
+
+        private final Type type;
+
+        private final Type[] children;
+
+        private final List<T> results;
+
+        private int nextChild;
+
+        private int upperBoundsCount;
+
+        private T skippedResult;
+
+        Node(TypeKind kind, Type type, Type[] children) {
+            this.kind = kind;
+            this.type = type;
+            this.children = children;
+            this.results = children.length == 0 ? Collections.emptyList() : new ArrayList<>(children.length);
+        }
+    }
+}
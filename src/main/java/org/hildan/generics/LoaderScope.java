@@ -0,0 +1,151 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Map;
+
+/**
+ * Finds the scope class of type declarations: a class whose class loader is the loader of all the classes mentioned in
+ * the declaration, or a descendant of their loaders. Data attached to the scope class of a declaration, for instance
+ * with a {@link ClassValue}, can thus reference the classes of the declaration without keeping any other class loader
+ * alive, and is released along with the class loader of the scope class.
+ * <p>
+ * The scope class of declarations that only mention classes of the bootstrap class loader is {@code Object}. The
+ * declarations mixing classes of unrelated class loaders, none of them being a descendant of all the others, have no
+ * scope class.
+ */
+final class LoaderScope {
+
+    private LoaderScope() {
+    }
+
+    /**
+     * Returns the scope class of the given type declaration.
+     *
+     * @param type
+     *         the type declaration to get the scope class of
+     *
+     * @return the scope class, or null if the declaration mixes classes of unrelated class loaders
+     */
+    static Class<?> of(Type type) {
+        return compute(type, null);
+    }
+
+    /**
+     * Returns the scope class of the given type declaration, reusing and recording the scope classes of the nested
+     * declarations in the given map, so that finding the scope class of each node of a declaration only explores each
+     * node once.
+     *
+     * @param type
+     *         the type declaration to get the scope class of
+     * @param scopes
+     *         the scope classes of the declarations that were already computed, by identity of the declaration
+     *
+     * @return the scope class, or null if the declaration mixes classes of unrelated class loaders
+     */
+    static Class<?> of(Type type, Map<Type, Class<?>> scopes) {
+        Class<?> scope = scopes.get(type);
+        if (scope == null && !scopes.containsKey(type)) {
+            scope = compute(type, scopes);
+            scopes.put(type, scope);
+        }
+        return scope;
+    }
+
+    private static Class<?> compute(Type type, Map<Type, Class<?>> scopes) {
+        switch (TypeCategory.of(type)) {
+        case CLASS:
+            return combine(Object.class, (Class<?>) type);
+        case PARAMETERIZED_TYPE:
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            // the raw type may be an unloaded class read from a class file
+            Class<?> scope = compute(parameterizedType.getRawType(), null);
+            Type ownerType = parameterizedType.getOwnerType();
+            if (ownerType != null) {
+                scope = combine(scope, nested(ownerType, scopes));
+            }
+            return combineAll(scope, parameterizedType.getActualTypeArguments(), scopes);
+        case GENERIC_ARRAY:
+            return nested(((GenericArrayType) type).getGenericComponentType(), scopes);
+        case TYPE_VARIABLE:
+            if (type instanceof UnloadedTypeVariable) {
+                // unloaded type variables and their bounds don't reference any class
+                return Object.class;
+            }
+            // the bounds of a type variable are loaded by the class loader of its declaration
+            return combine(Object.class, declaringClass(((TypeVariable<?>) type).getGenericDeclaration()));
+        case WILDCARD_TYPE:
+            WildcardType wildcardType = (WildcardType) type;
+            Class<?> upperBoundsScope = combineAll(Object.class, wildcardType.getUpperBounds(), scopes);
+            return combineAll(upperBoundsScope, wildcardType.getLowerBounds(), scopes);
+        case UNLOADED_CLASS:
+            return Object.class;
+        default:
+            throw new IllegalArgumentException("Unknown type category " + type.getClass());
+        }
+    }
+
+    private static Class<?> nested(Type type, Map<Type, Class<?>> scopes) {
+        return scopes == null ? compute(type, null) : of(type, scopes);
+    }
+
+    private static Class<?> combineAll(Class<?> scope, Type[] types, Map<Type, Class<?>> scopes) {
+        Class<?> result = scope;
+        for (Type type : types) {
+            result = combine(result, nested(type, scopes));
+        }
+        return result;
+    }
+
+    private static Class<?> declaringClass(GenericDeclaration declaration) {
+        if (declaration instanceof Class) {
+            return (Class<?>) declaration;
+        }
+        return ((Member) declaration).getDeclaringClass();
+    }
+
+    /**
+     * Returns the scope class of a declaration mentioning the classes of the given scope class and the given class.
+     *
+     * @param scope
+     *         a scope class, or null for no scope
+     * @param clazz
+     *         a class, or null for no scope
+     *
+     * @return the class that has the youngest class loader, or null if the class loaders are unrelated
+     */
+    static Class<?> combine(Class<?> scope, Class<?> clazz) {
+        if (scope == null || clazz == null) {
+            return null;
+        }
+        ClassLoader scopeLoader = scope.getClassLoader();
+        ClassLoader loader = clazz.getClassLoader();
+        if (loader == scopeLoader || isAncestor(loader, scopeLoader)) {
+            return scope;
+        }
+        if (isAncestor(scopeLoader, loader)) {
+            return clazz;
+        }
+        return null;
+    }
+
+    private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+        if (ancestor == null) {
+            // the bootstrap class loader is the ancestor of all the others
+            return true;
+        }
+        ClassLoader parent = loader;
+        while (parent != null) {
+            parent = parent.getParent();
+            if (parent == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
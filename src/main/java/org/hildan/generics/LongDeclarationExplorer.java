@@ -0,0 +1,157 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A variant of {@link GenericDeclarationExplorer} for {@link LongTypeHandler}s, for numeric reductions like the ones of
+ * {@link TypeMetrics}.
+ * <p>
+ * A {@link GenericTypeHandler} producing numbers boxes the value of each type, and gets the values of its children in
+ * a new list. Here, the values are kept in a single {@code long} stack for the whole exploration, and the values of the
+ * children of a type are given to the handler as a range of this stack, so that the exploration itself does not
+ * allocate anything per explored type (apart from the arrays returned by reflection).
+ * <p>
+ * The handler is called on the same types and in the same order as a {@link GenericTypeHandler} explored by the {@link
+ * GenericDeclarationExplorer}. These explorations are not reported to the {@link ExplorationListener}s.
+ */
+public final class LongDeclarationExplorer {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LongTypeHandler handler;
+
+    private final ImplicitBoundsPolicy implicitBoundsPolicy;
+
+    private final ResolvedTypeVariables resolvedTypeVariables = new ResolvedTypeVariables();
+
+    private long[] values = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    private LongDeclarationExplorer(LongTypeHandler handler, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        this.handler = handler;
+        this.implicitBoundsPolicy = implicitBoundsPolicy;
+    }
+
+    /**
+     * Recursively explores the given generic type using the given handler.
+     *
+     * @param type
+     *         the type to explore
+     * @param handler
+     *         the handler to call on each element of the type declaration
+     *
+     * @return the value produced by the given handler for the given type
+     */
+    public static long explore(@NotNull Type type, @NotNull LongTypeHandler handler) {
+        return explore(type, handler, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Recursively explores the given generic type using the given handler.
+     *
+     * @param type
+     *         the type to explore
+     * @param handler
+     *         the handler to call on each element of the type declaration
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     *
+     * @return the value produced by the given handler for the given type
+     */
+    public static long explore(@NotNull Type type, @NotNull LongTypeHandler handler,
+            ImplicitBoundsPolicy implicitBoundsPolicy) {
+        return new LongDeclarationExplorer(handler, implicitBoundsPolicy).explore(type);
+    }
+
+    private long explore(Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        switch (TypeCategory.of(type)) {
+        case CLASS:
+            return exploreClassOrArray((Class<?>) type);
+        case PARAMETERIZED_TYPE:
+            return exploreParameterizedType((ParameterizedType) type);
+        case GENERIC_ARRAY:
+            GenericArrayType arrayType = (GenericArrayType) type;
+            return handler.handleGenericArray(arrayType, explore(arrayType.getGenericComponentType()));
+        case TYPE_VARIABLE:
+            return exploreTypeVariable((TypeVariable) type);
+        case WILDCARD_TYPE:
+            return exploreWildcardType((WildcardType) type);
+        case UNLOADED_CLASS:
+            return handler.handleUnloadedClass((UnloadedClass) type);
+        default:
+            throw new IllegalArgumentException("Unknown type category " + type.getClass());
+        }
+    }
+
+    private long exploreClassOrArray(Class<?> clazz) {
+        switch (TypeKind.ofClass(clazz)) {
+        case VOID:
+            return handler.handleVoid();
+        case ARRAY_CLASS:
+            return handler.handleArrayClass(clazz, explore(clazz.getComponentType()));
+        case ENUM_CLASS:
+            return handler.handleEnumClass(clazz);
+        default:
+            return handler.handleSimpleClass(clazz);
+        }
+    }
+
+    private long exploreParameterizedType(ParameterizedType type) {
+        long exploredRawType = explore(type.getRawType());
+        Type[] typeArgs = type.getActualTypeArguments();
+        int offset = pushAll(typeArgs);
+        long result = handler.handleParameterizedType(type, exploredRawType, values, offset, typeArgs.length);
+        size = offset;
+        return result;
+    }
+
+    private long exploreTypeVariable(TypeVariable type) {
+        if (!resolvedTypeVariables.add(type)) {
+            // we ignore the bounds when already resolved to avoid infinite recursions
+            return handler.handleTypeVariable(type, values, size, 0);
+        }
+        Type[] bounds = implicitBoundsPolicy.toSignificantBounds(type.getBounds());
+        int offset = pushAll(bounds);
+        long result = handler.handleTypeVariable(type, values, offset, bounds.length);
+        size = offset;
+        return result;
+    }
+
+    private long exploreWildcardType(WildcardType type) {
+        Type[] upperBounds = implicitBoundsPolicy.toSignificantBounds(type.getUpperBounds());
+        Type[] lowerBounds = implicitBoundsPolicy.toSignificantBounds(type.getLowerBounds());
+        int offset = pushAll(upperBounds);
+        pushAll(lowerBounds);
+        long result = handler.handleWildcardType(type, values, offset, upperBounds.length, lowerBounds.length);
+        size = offset;
+        return result;
+    }
+
+    /**
+     * Explores the given types, and pushes their values on the stack.
+     *
+     * @return the position of the first pushed value in the stack
+     */
+    private int pushAll(Type[] types) {
+        int offset = size;
+        for (Type type : types) {
+            long value = explore(type);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,82 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An implementation of {@link GenericTypeHandler} that lists all classes appearing in a generic type declaration, like
+ * {@link MentionedClassesExplorer}, but as compact {@link ClassIdSet}s. This is meant for keeping the mentioned classes
+ * of a large number of types in memory, and for combining them cheaply.
+ */
+public class MentionedClassIds implements GenericTypeHandler<ClassIdSet> {
+
+    /**
+     * Returns the IDs of all classes/interfaces appearing in the given type declaration.
+     *
+     * @param type
+     *         the type to explore
+     *
+     * @return a non-null set of all classes involved in the given type declaration
+     * @see MentionedClassesExplorer#getClassesInDeclaration(Type)
+     */
+    @NotNull
+    public static ClassIdSet getClassIdsInDeclaration(@NotNull Type type) {
+        return GenericDeclarationExplorer.explore(type, new MentionedClassIds());
+    }
+
+    @Override
+    public ClassIdSet handleVoid() {
+        return ClassIdSet.empty();
+    }
+
+    @Override
+    public ClassIdSet handleSimpleClass(@NotNull Class<?> clazz) {
+        return ClassIdSet.of(clazz);
+    }
+
+    @Override
+    public ClassIdSet handleEnumClass(@NotNull Class<?> clazz) {
+        return handleSimpleClass(clazz);
+    }
+
+    @Override
+    public ClassIdSet handleArrayClass(@NotNull Class<?> arrayClass, ClassIdSet handledComponentClass) {
+        return handledComponentClass;
+    }
+
+    @Override
+    public ClassIdSet handleGenericArray(@NotNull GenericArrayType type, ClassIdSet handledComponentClass) {
+        return handledComponentClass;
+    }
+
+    @Override
+    public ClassIdSet handleParameterizedType(@NotNull ParameterizedType type, ClassIdSet handledRawType,
+            @NotNull List<ClassIdSet> handledTypeParameters) {
+        return union(handledRawType, handledTypeParameters);
+    }
+
+    @Override
+    public ClassIdSet handleTypeVariable(@NotNull TypeVariable type, @NotNull List<ClassIdSet> handledBounds) {
+        return union(ClassIdSet.empty(), handledBounds);
+    }
+
+    @Override
+    public ClassIdSet handleWildcardType(@NotNull WildcardType type, @NotNull List<ClassIdSet> handledUpperBounds,
+            @NotNull List<ClassIdSet> handledLowerBounds) {
+        return union(union(ClassIdSet.empty(), handledUpperBounds), handledLowerBounds);
+    }
+
+    private static ClassIdSet union(ClassIdSet first, List<ClassIdSet> others) {
+        ClassIdSet result = first;
+        for (ClassIdSet other : others) {
+            result = result.union(other);
+        }
+        return result;
+    }
+}
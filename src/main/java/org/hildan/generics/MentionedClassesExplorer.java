@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -33,7 +34,45 @@ public class MentionedClassesExplorer implements GenericTypeHandler<Set<Class<?>
      */
     @NotNull
     public static Set<Class<?>> getClassesInDeclaration(@NotNull Type type) {
-        return GenericDeclarationExplorer.explore(type, new MentionedClassesExplorer());
+        Set<Class<?>> classes = new HashSet<>();
+        GenericDeclarationExplorer.visit(type, classes::add);
+        return classes;
+    }
+
+    /**
+     * Returns a lazy stream of all classes/interfaces appearing in the given type declaration. The declaration is only
+     * explored as the stream is consumed, so that short-circuiting operations like {@link Stream#findFirst()} or
+     * {@link Stream#anyMatch} don't explore more than they need. Each class appears only once in the stream.
+     *
+     * @param type
+     *         the type to explore
+     *
+     * @return a stream of the classes involved in the given type declaration, in the order they appear
+     * @see #getClassesInDeclaration(Type)
+     */
+    @NotNull
+    public static Stream<Class<?>> stream(@NotNull Type type) {
+        return stream(type, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Returns a lazy stream of all classes/interfaces appearing in the given type declaration. The declaration is only
+     * explored as the stream is consumed, so that short-circuiting operations like {@link Stream#findFirst()} or
+     * {@link Stream#anyMatch} don't explore more than they need. Each class appears only once in the stream.
+     *
+     * @param type
+     *         the type to explore
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     *
+     * @return a stream of the classes involved in the given type declaration, in the order they appear
+     */
+    @NotNull
+    public static Stream<Class<?>> stream(@NotNull Type type, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        return StreamSupport.stream(new MentionedClassesSpliterator(type, implicitBoundsPolicy), false);
     }
 
     @Override
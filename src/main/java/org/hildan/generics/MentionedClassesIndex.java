@@ -0,0 +1,115 @@
+package org.hildan.generics;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Serves the classes mentioned in type declarations from the tables precomputed at compile time for the classes
+ * annotated with {@link PrecomputeMentionedClasses}, and falls back to {@link
+ * MentionedClassesExplorer#getClassesInDeclaration(Type)} for the other types.
+ * <p>
+ * The precomputed tables of a type are the {@link MentionedClassesTable} services visible from the class loader of its
+ * classes (precisely, the youngest of their loaders), so that the tables generated for the classes of a plugin are found
+ * through the class loader of the plugin. The tables visible from a class loader are loaded once, the first time they
+ * are needed, and are released along with the class loader.
+ * <p>
+ * Types are looked up by their {@link Type#getTypeName()}. When the precomputed classes for the name of a type are not
+ * the classes of the type, because classes with the same name were loaded by different class loaders, the classes are
+ * found by reflection instead.
+ */
+public final class MentionedClassesIndex {
+
+    /**
+     * The tables visible from the class loader of each scope class, as defined by {@link LoaderScope}.
+     */
+    private static final ClassValue<Map<String, Set<Class<?>>>> TABLES = new ClassValue<Map<String, Set<Class<?>>>>() {
+        @Override
+        protected Map<String, Set<Class<?>>> computeValue(Class<?> scope) {
+            return getTablesVisibleFrom(scope.getClassLoader());
+        }
+    };
+
+    /**
+     * The tables already loaded for each class loader, which are shared by the scope classes of the same loader. They
+     * are referenced weakly, not to keep the class loaders alive through the classes of their tables.
+     */
+    private static final Map<ClassLoader, WeakReference<Map<String, Set<Class<?>>>>> TABLES_BY_LOADER =
+            new WeakHashMap<>();
+
+    private MentionedClassesIndex() {
+    }
+
+    /**
+     * Returns all classes/interfaces appearing in the given type declaration, like {@link
+     * MentionedClassesExplorer#getClassesInDeclaration(Type)}, but without reflection if the result was precomputed.
+     *
+     * @param type
+     *         the type to explore
+     *
+     * @return a non-null set of all classes involved in the given type declaration, which must not be modified
+     */
+    @NotNull
+    public static Set<Class<?>> getClassesInDeclaration(@NotNull Type type) {
+        Set<Class<?>> precomputed = getPrecomputedClasses(type);
+        return precomputed != null ? precomputed : MentionedClassesExplorer.getClassesInDeclaration(type);
+    }
+
+    /**
+     * Returns the classes appearing in the given type declaration, if they were precomputed.
+     *
+     * @param type
+     *         the type to get the precomputed classes of
+     *
+     * @return an unmodifiable set of all classes involved in the given type declaration, or null if they were not
+     * precomputed
+     */
+    @Nullable
+    public static Set<Class<?>> getPrecomputedClasses(@NotNull Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        Class<?> scope = LoaderScope.of(type);
+        if (scope == null) {
+            // no class loader sees all the classes of this type, and thus its table
+            return null;
+        }
+        Set<Class<?>> precomputed = TABLES.get(scope).get(type.getTypeName());
+        if (precomputed != null && scope != Object.class && !precomputed.contains(scope)) {
+            // the table was generated for a class with the same name in another class loader
+            return null;
+        }
+        return precomputed;
+    }
+
+    private static Map<String, Set<Class<?>>> getTablesVisibleFrom(ClassLoader classLoader) {
+        synchronized (TABLES_BY_LOADER) {
+            WeakReference<Map<String, Set<Class<?>>>> reference = TABLES_BY_LOADER.get(classLoader);
+            Map<String, Set<Class<?>>> tables = reference == null ? null : reference.get();
+            if (tables == null) {
+                tables = merge(ServiceLoader.load(MentionedClassesTable.class, classLoader));
+                TABLES_BY_LOADER.put(classLoader, new WeakReference<>(tables));
+            }
+            return tables;
+        }
+    }
+
+    private static Map<String, Set<Class<?>>> merge(Iterable<MentionedClassesTable> tables) {
+        Map<String, Set<Class<?>>> classesByTypeName = new HashMap<>();
+        for (MentionedClassesTable table : tables) {
+            table.getMentionedClasses().forEach((typeName, classes) -> classesByTypeName.put(typeName,
+                    Collections.unmodifiableSet(new HashSet<>(Arrays.asList(classes)))));
+        }
+        return classesByTypeName;
+    }
+}
@@ -0,0 +1,86 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Lazily walks a generic type declaration to yield the classes it mentions, in the same order as {@link
+ * GenericDeclarationExplorer#visit(Type, GenericTypeVisitor)}. The types that remain to be explored are kept in an
+ * explicit stack, so that the walk can be suspended after each class.
+ */
+class MentionedClassesSpliterator extends Spliterators.AbstractSpliterator<Class<?>> {
+
+    private final ImplicitBoundsPolicy implicitBoundsPolicy;
+
+    private final Deque<Type> pendingTypes = new ArrayDeque<>();
+
+    private final Set<Class<?>> yieldedClasses = new HashSet<>();
+
+    private final Set<TypeVariable> resolvedTypeVariables = new HashSet<>();
+
+    MentionedClassesSpliterator(Type type, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        super(Long.MAX_VALUE, Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.ORDERED);
+        this.implicitBoundsPolicy = implicitBoundsPolicy;
+        this.pendingTypes.push(type);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Class<?>> action) {
+        while (!pendingTypes.isEmpty()) {
+            Class<?> clazz = advance(pendingTypes.pop());
+            if (clazz != null && yieldedClasses.add(clazz)) {
+                action.accept(clazz);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Class<?> advance(Type type) {
+        switch (TypeKind.of(type)) {
+        case VOID:
+            return null;
+        case ARRAY_CLASS:
+            pendingTypes.push(((Class<?>) type).getComponentType());
+            return null;
+        case GENERIC_ARRAY:
+            pendingTypes.push(((GenericArrayType) type).getGenericComponentType());
+            return null;
+        case PARAMETERIZED_TYPE:
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            pushAll(parameterizedType.getActualTypeArguments());
+            pendingTypes.push(parameterizedType.getRawType());
+            return null;
+        case TYPE_VARIABLE:
+            // we ignore the bounds when already resolved to avoid infinite recursions
+            if (resolvedTypeVariables.add((TypeVariable) type)) {
+                pushAll(implicitBoundsPolicy.toSignificantBounds(((TypeVariable) type).getBounds()));
+            }
+            return null;
+        case WILDCARD_TYPE:
+            WildcardType wildcardType = (WildcardType) type;
+            pushAll(implicitBoundsPolicy.toSignificantBounds(wildcardType.getLowerBounds()));
+            pushAll(implicitBoundsPolicy.toSignificantBounds(wildcardType.getUpperBounds()));
+            return null;
+        default:
+            return (Class<?>) type;
+        }
+    }
+
+    private void pushAll(Type[] types) {
+        // pushed in reverse order so that they are popped in declaration order
+        for (int i = types.length - 1; i >= 0; i--) {
+            pendingTypes.push(types[i]);
+        }
+    }
+}
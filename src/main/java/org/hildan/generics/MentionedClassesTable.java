@@ -0,0 +1,23 @@
+package org.hildan.generics;
+
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A table of classes mentioned in type declarations, computed ahead of time. Implementations are generated by the
+ * {@code generics-explorer-processor} annotation processor for the classes annotated with {@link
+ * PrecomputeMentionedClasses}, and are registered as services to be found by {@link MentionedClassesIndex}.
+ */
+public interface MentionedClassesTable {
+
+    /**
+     * Returns the precomputed classes of this table.
+     *
+     * @return the classes mentioned in each type declaration, as defined by {@link
+     * MentionedClassesExplorer#getClassesInDeclaration(java.lang.reflect.Type)}, indexed by the name of the type
+     * declaration as given by {@link java.lang.reflect.Type#getTypeName()}
+     */
+    @NotNull
+    Map<String, Class<?>[]> getMentionedClasses();
+}
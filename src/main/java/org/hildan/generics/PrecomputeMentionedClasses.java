@@ -0,0 +1,22 @@
+package org.hildan.generics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class whose signature types should have their mentioned classes computed at compile time, by the {@code
+ * generics-explorer-processor} annotation processor. The precomputed results are served by {@link
+ * MentionedClassesIndex} without reflection.
+ * <p>
+ * The precomputed types are the ones listed by {@link ClassSignatureExplorer#getTypesInSignature(Class)} for the
+ * annotated class, as well as the annotated class itself. Types involving type variables or classes that are not
+ * accessible from the package of the annotated class are not precomputed.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface PrecomputeMentionedClasses {
+}
@@ -0,0 +1,70 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link GenericTypeHandler} that can decide, before each part of a declaration is explored, to skip it or to stop
+ * the whole exploration. This is useful for search-like handlers, which can stop exploring once they know the answer.
+ * <p>
+ * The explorers check whether the given handler implements this interface, so it is supported by all the {@code
+ * explore} methods. The decisions should only depend on the given type, so that the results can be cached.
+ *
+ * @param <T>
+ *         the type of value produced when processing types
+ */
+public interface PruningTypeHandler<T> extends GenericTypeHandler<T> {
+
+    /**
+     * What to do with a part of a type declaration.
+     */
+    enum Decision {
+        /**
+         * Explores the type normally.
+         */
+        CONTINUE,
+        /**
+         * Does not explore the type, and uses the value returned by {@link #handleSkipped(Type)} instead.
+         */
+        SKIP,
+        /**
+         * Stops the whole exploration, and uses the value returned by {@link #handleStop(Type)} as the result.
+         */
+        STOP
+    }
+
+    /**
+     * Decides what to do with the given type before exploring it.
+     *
+     * @param type
+     *         the type that is about to be explored
+     *
+     * @return the decision regarding the exploration of the given type
+     */
+    @NotNull
+    Decision beforeExplore(@NotNull Type type);
+
+    /**
+     * Produces the value associated to a type that was skipped. Handlers that never skip types don't need to implement
+     * this method, which throws an {@link UnsupportedOperationException} by default.
+     *
+     * @param type
+     *         the type for which {@link #beforeExplore(Type)} returned {@link Decision#SKIP}
+     *
+     * @return the value associated to the given type
+     */
+    default T handleSkipped(@NotNull Type type) {
+        throw new UnsupportedOperationException("This handler does not support skipping types");
+    }
+
+    /**
+     * Produces the result of the whole exploration, when it is stopped.
+     *
+     * @param type
+     *         the type for which {@link #beforeExplore(Type)} returned {@link Decision#STOP}
+     *
+     * @return the result of the exploration
+     */
+    T handleStop(@NotNull Type type);
+}
@@ -0,0 +1,38 @@
+package org.hildan.generics;
+
+import java.lang.reflect.TypeVariable;
+import java.util.Arrays;
+
+/**
+ * The type variables whose bounds were already explored during an exploration, in a plain array.
+ * <p>
+ * A declaration only mentions a handful of type variables, so a linear search is as fast as hashing, and unlike a
+ * {@link java.util.HashSet}, adding a variable does not allocate an entry.
+ */
+final class ResolvedTypeVariables {
+
+    private TypeVariable<?>[] variables = new TypeVariable<?>[4];
+
+    private int size;
+
+    /**
+     * Adds the given type variable, if it is not already there.
+     *
+     * @param variable
+     *         the type variable to add
+     *
+     * @return true if the variable was added, false if it was already resolved
+     */
+    boolean add(TypeVariable<?> variable) {
+        for (int i = 0; i < size; i++) {
+            if (variables[i].equals(variable)) {
+                return false;
+            }
+        }
+        if (size == variables.length) {
+            variables = Arrays.copyOf(variables, size * 2);
+        }
+        variables[size++] = variable;
+        return true;
+    }
+}
@@ -0,0 +1,309 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Parses the generic signatures and descriptors of a class file (as specified in section 4.7.9.1 of the JVM
+ * specification) into {@link Type}s, without loading any class. Classes are resolved by internal name using the given
+ * function, and type variables are resolved against the type parameters of the enclosing method and class.
+ * <p>
+ * A parser is meant to read the members of a single class, after its own signature.
+ */
+final class SignatureParser {
+
+    private static final Type[] OBJECT_BOUNDS = {Object.class};
+
+    private static final Type[] NO_TYPES = new Type[0];
+
+    private final Function<String, Type> classes;
+
+    private final Deque<Map<String, UnloadedTypeVariable>> scopes = new ArrayDeque<>();
+
+    private final Map<String, UnloadedTypeVariable> freeVariables = new HashMap<>();
+
+    private String signature;
+
+    private String declarationName;
+
+    private int pos;
+
+    SignatureParser(Function<String, Type> classes) {
+        this.classes = classes;
+    }
+
+    /**
+     * Parses the given class signature. The type parameters of the class remain in scope for the parsing of the
+     * member signatures.
+     *
+     * @param classSignature
+     *         the class signature to parse
+     * @param className
+     *         the binary name of the class
+     * @param typeParams
+     *         the list to add the type parameters of the class to
+     * @param supertypes
+     *         the list to add the superclass then the interfaces of the class to
+     */
+    void parseClassSignature(String classSignature, String className, List<TypeVariable<?>> typeParams,
+            List<Type> supertypes) {
+        start(classSignature);
+        declarationName = className;
+        typeParams.addAll(parseTypeParameters());
+        while (pos < signature.length()) {
+            supertypes.add(parseType());
+        }
+    }
+
+    /**
+     * Parses the given method signature or descriptor.
+     *
+     * @param methodSignature
+     *         the method signature or descriptor to parse
+     * @param methodName
+     *         the name of the method, as defined by {@link UnloadedTypeVariable#getDeclarationName()}
+     * @param typeParams
+     *         the list to add the type parameters of the method to
+     * @param paramTypes
+     *         the list to add the parameter types of the method to
+     * @param exceptionTypes
+     *         the list to add the exception types of the method to
+     *
+     * @return the return type of the method
+     */
+    Type parseMethodSignature(String methodSignature, String methodName, List<TypeVariable<?>> typeParams,
+            List<Type> paramTypes, List<Type> exceptionTypes) {
+        start(methodSignature);
+        declarationName = methodName;
+        typeParams.addAll(parseTypeParameters());
+        pos++; // (
+        while (signature.charAt(pos) != ')') {
+            paramTypes.add(parseType());
+        }
+        pos++; // )
+        Type returnType = parseType();
+        while (pos < signature.length()) {
+            pos++; // ^
+            exceptionTypes.add(parseType());
+        }
+        scopes.pop();
+        return returnType;
+    }
+
+    /**
+     * Parses the given field signature or descriptor.
+     *
+     * @param fieldSignature
+     *         the field signature or descriptor to parse
+     *
+     * @return the type of the field
+     */
+    Type parseFieldSignature(String fieldSignature) {
+        start(fieldSignature);
+        return parseType();
+    }
+
+    private void start(String signature) {
+        this.signature = signature;
+        this.pos = 0;
+    }
+
+    private List<TypeVariable<?>> parseTypeParameters() {
+        Map<String, UnloadedTypeVariable> scope = new LinkedHashMap<>();
+        scopes.push(scope);
+        if (signature.charAt(pos) != '<') {
+            return new ArrayList<>();
+        }
+        pos++;
+        // the bounds may refer to type parameters declared later, so all names are declared before parsing bounds
+        List<Integer> boundsPositions = new ArrayList<>();
+        while (signature.charAt(pos) != '>') {
+            String name = readIdentifier(':');
+            scope.put(name, new UnloadedTypeVariable(name, declarationName, OBJECT_BOUNDS));
+            boundsPositions.add(pos);
+            skipBounds();
+        }
+        int end = pos + 1;
+        List<TypeVariable<?>> typeParams = new ArrayList<>(scope.values());
+        for (int i = 0; i < typeParams.size(); i++) {
+            pos = boundsPositions.get(i);
+            ((UnloadedTypeVariable) typeParams.get(i)).setBounds(parseBounds());
+        }
+        pos = end;
+        return typeParams;
+    }
+
+    private Type[] parseBounds() {
+        List<Type> bounds = new ArrayList<>();
+        pos++; // : of the class bound, which may be empty
+        if (isReferenceTypeStart(signature.charAt(pos))) {
+            bounds.add(parseType());
+        }
+        while (signature.charAt(pos) == ':') {
+            pos++;
+            bounds.add(parseType());
+        }
+        return bounds.isEmpty() ? OBJECT_BOUNDS : bounds.toArray(NO_TYPES);
+    }
+
+    private void skipBounds() {
+        pos++;
+        if (isReferenceTypeStart(signature.charAt(pos))) {
+            skipType();
+        }
+        while (signature.charAt(pos) == ':') {
+            pos++;
+            skipType();
+        }
+    }
+
+    private void skipType() {
+        char c = signature.charAt(pos);
+        if (c == '[') {
+            pos++;
+            skipType();
+        } else if (c == 'L' || c == 'T') {
+            int depth = 0;
+            do {
+                c = signature.charAt(pos++);
+                depth += c == '<' ? 1 : c == '>' ? -1 : 0;
+            } while (c != ';' || depth > 0);
+        } else {
+            pos++;
+        }
+    }
+
+    private static boolean isReferenceTypeStart(char c) {
+        return c == 'L' || c == 'T' || c == '[';
+    }
+
+    private Type parseType() {
+        char c = signature.charAt(pos++);
+        switch (c) {
+        case 'L':
+            return parseClassType();
+        case 'T':
+            TypeVariable<?> variable = resolveTypeVariable(readIdentifier(';'));
+            pos++; // ;
+            return variable;
+        case '[':
+            Type componentType = parseType();
+            if (componentType instanceof Class) {
+                return Array.newInstance((Class<?>) componentType, 0).getClass();
+            }
+            return Types.genericArray(componentType);
+        default:
+            return baseType(c);
+        }
+    }
+
+    private Type parseClassType() {
+        String name = readIdentifier('<', '.', ';');
+        Type type = classes.apply(name);
+        Type[] typeArgs = parseTypeArguments();
+        if (typeArgs != null) {
+            type = Types.parameterized(null, type, typeArgs);
+        }
+        while (signature.charAt(pos) == '.') {
+            pos++;
+            name = name + '$' + readIdentifier('<', '.', ';');
+            Type rawType = classes.apply(name);
+            typeArgs = parseTypeArguments();
+            if (typeArgs == null && !(type instanceof ParameterizedType)) {
+                type = rawType;
+            } else {
+                type = Types.parameterized(type, rawType, typeArgs == null ? NO_TYPES : typeArgs);
+            }
+        }
+        pos++; // ;
+        return type;
+    }
+
+    private Type[] parseTypeArguments() {
+        if (signature.charAt(pos) != '<') {
+            return null;
+        }
+        pos++;
+        List<Type> typeArgs = new ArrayList<>();
+        while (signature.charAt(pos) != '>') {
+            char c = signature.charAt(pos);
+            if (c == '*') {
+                pos++;
+                typeArgs.add(Types.wildcard(OBJECT_BOUNDS, NO_TYPES));
+            } else if (c == '+') {
+                pos++;
+                typeArgs.add(Types.wildcard(new Type[] {parseType()}, NO_TYPES));
+            } else if (c == '-') {
+                pos++;
+                typeArgs.add(Types.wildcard(OBJECT_BOUNDS, new Type[] {parseType()}));
+            } else {
+                typeArgs.add(parseType());
+            }
+        }
+        pos++;
+        return typeArgs.toArray(NO_TYPES);
+    }
+
+    private TypeVariable<?> resolveTypeVariable(String name) {
+        for (Map<String, UnloadedTypeVariable> scope : scopes) {
+            UnloadedTypeVariable variable = scope.get(name);
+            if (variable != null) {
+                return variable;
+            }
+        }
+        // declared by an outer class, which is not read
+        return freeVariables.computeIfAbsent(name, n -> new UnloadedTypeVariable(n, null, OBJECT_BOUNDS));
+    }
+
+    private String readIdentifier(char... terminators) {
+        int start = pos;
+        while (!isAnyOf(signature.charAt(pos), terminators)) {
+            pos++;
+        }
+        return signature.substring(start, pos);
+    }
+
+    private static boolean isAnyOf(char c, char[] chars) {
+        for (char candidate : chars) {
+            if (c == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> baseType(char descriptor) {
+        switch (descriptor) {
+        case 'B':
+            return byte.class;
+        case 'C':
+            return char.class;
+        case 'D':
+            return double.class;
+        case 'F':
+            return float.class;
+        case 'I':
+            return int.class;
+        case 'J':
+            return long.class;
+        case 'S':
+            return short.class;
+        case 'Z':
+            return boolean.class;
+        case 'V':
+            return void.class;
+        default:
+            throw new IllegalArgumentException("Invalid type descriptor '" + descriptor + "'");
+        }
+    }
+}
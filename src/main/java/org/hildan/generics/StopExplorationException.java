@@ -0,0 +1,21 @@
+package org.hildan.generics;
+
+/**
+ * Unwinds an exploration up to its root, carrying the result of the whole exploration.
+ */
+class StopExplorationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object result;
+
+    StopExplorationException(Object result) {
+        super(null, null, false, false);
+        this.result = result;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T getResult() {
+        return (T) result;
+    }
+}
@@ -0,0 +1,282 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Checks whether generic types are assignable to each other, like the compiler does for variables of these types. For
+ * instance, {@code ArrayList<Integer>} is assignable to {@code List<? extends Number>}, but not to {@code
+ * List<Number>}.
+ * <p>
+ * The type arguments of a subtype are mapped to its supertypes using the bindings of the {@link TypeResolver}, and
+ * compared using the containment rules of wildcards. Type variables and wildcards are assignable to the types their
+ * upper bounds are assignable to, and arrays are covariant. Neither boxing nor primitive widening are applied, and raw
+ * types are only assignable to parameterized types whose type arguments accept any type (no unchecked conversion).
+ * Owner types are not compared.
+ * <p>
+ * Results are cached for each pair of types, and the cache is shared by all threads. Like in {@link CachingExplorer},
+ * the results are attached to the class loaders of the classes mentioned in their types, so that they are released
+ * along with the class loaders, and the pairs mixing classes of unrelated class loaders are not cached. The results
+ * attached to each class loader are bounded, an arbitrary result being evicted for each new one when they are full.
+ * {@link #clearCache()} releases all the results at once.
+ */
+public final class TypeAssignability {
+
+    static final int MAX_CACHE_SIZE = 10_000;
+
+    private static volatile ClassValue<Map<TypePair, Boolean>> cache = newCache();
+
+    private TypeAssignability() {
+    }
+
+    /**
+     * Returns whether a value of type {@code from} can be assigned to a variable of type {@code to}.
+     *
+     * @param from
+     *         the type of the value
+     * @param to
+     *         the type of the variable
+     *
+     * @return true if the given {@code from} type is a subtype of the given {@code to} type
+     * @throws IllegalArgumentException
+     *         if one of the given types is null, or if the types are different and one of them contains an {@link
+     *         UnloadedClass} or a type of unknown category
+     */
+    public static boolean isAssignable(@NotNull Type from, @NotNull Type to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        if (from.equals(to)) {
+            return true;
+        }
+        Map<TypePair, Boolean> results = getResults(from, to);
+        if (results == null) {
+            return isSubtype(from, to);
+        }
+        TypePair key = new TypePair(from, to);
+        Boolean cached = results.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        boolean assignable = isSubtype(from, to);
+        if (results.size() >= MAX_CACHE_SIZE) {
+            // cheaper than tracking the usage of the entries, and keeps the hit rate of the others
+            Iterator<TypePair> keys = results.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        results.put(key, assignable);
+        return assignable;
+    }
+
+    private static Map<TypePair, Boolean> getResults(Type from, Type to) {
+        Class<?> scope = LoaderScope.combine(LoaderScope.of(from), LoaderScope.of(to));
+        return scope == null ? null : cache.get(scope);
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public static void clearCache() {
+        // the results attached to classes by the previous class value are released with it
+        cache = newCache();
+    }
+
+    private static ClassValue<Map<TypePair, Boolean>> newCache() {
+        return new ClassValue<Map<TypePair, Boolean>>() {
+            @Override
+            protected Map<TypePair, Boolean> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+
+    static int getCacheSize(Type from, Type to) {
+        Map<TypePair, Boolean> results = getResults(from, to);
+        return results == null ? 0 : results.size();
+    }
+
+    private static boolean isSubtype(Type from, Type to) {
+        if (from.equals(to)) {
+            return true;
+        }
+        TypeCategory toCategory = supportedCategory(to);
+        if (toCategory == TypeCategory.WILDCARD_TYPE) {
+            return contains((WildcardType) to, from);
+        }
+        switch (supportedCategory(from)) {
+        case TYPE_VARIABLE:
+            return anyIsSubtype(((TypeVariable<?>) from).getBounds(), to);
+        case WILDCARD_TYPE:
+            return anyIsSubtype(((WildcardType) from).getUpperBounds(), to);
+        case GENERIC_ARRAY:
+            return isGenericArraySubtype(((GenericArrayType) from).getGenericComponentType(), to, toCategory);
+        case PARAMETERIZED_TYPE:
+            ParameterizedType parameterizedFrom = (ParameterizedType) from;
+            return isClassSubtype(rawClass(parameterizedFrom), parameterizedFrom.getActualTypeArguments(), to,
+                    toCategory);
+        default:
+            return isClassSubtype((Class<?>) from, null, to, toCategory);
+        }
+    }
+
+    private static TypeCategory supportedCategory(Type type) {
+        TypeCategory category = TypeCategory.of(type);
+        if (category == TypeCategory.UNLOADED_CLASS || category == TypeCategory.UNKNOWN) {
+            throw new IllegalArgumentException("Unsupported type category " + type.getClass());
+        }
+        return category;
+    }
+
+    private static Class<?> rawClass(ParameterizedType type) {
+        Type rawType = type.getRawType();
+        if (!(rawType instanceof Class)) {
+            throw new IllegalArgumentException("Unsupported raw type category " + rawType.getClass());
+        }
+        return (Class<?>) rawType;
+    }
+
+    private static boolean anyIsSubtype(Type[] types, Type to) {
+        for (Type type : types) {
+            if (isSubtype(type, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSubtypeOfAny(Type from, Type[] types) {
+        for (Type type : types) {
+            if (isSubtype(from, type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isGenericArraySubtype(Type fromComponent, Type to, TypeCategory toCategory) {
+        switch (toCategory) {
+        case CLASS:
+            Class<?> toClass = (Class<?>) to;
+            if (!toClass.isArray()) {
+                // Object, Cloneable and Serializable
+                return toClass.isAssignableFrom(Object[].class);
+            }
+            return isSubtype(fromComponent, toClass.getComponentType());
+        case GENERIC_ARRAY:
+            return isSubtype(fromComponent, ((GenericArrayType) to).getGenericComponentType());
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Checks a class or parameterized type, whose type arguments are null for raw classes.
+     */
+    private static boolean isClassSubtype(Class<?> fromClass, Type[] fromArgs, Type to, TypeCategory toCategory) {
+        switch (toCategory) {
+        case CLASS:
+            return ((Class<?>) to).isAssignableFrom(fromClass);
+        case PARAMETERIZED_TYPE:
+            return isParameterizedSubtype(fromClass, fromArgs, (ParameterizedType) to);
+        case GENERIC_ARRAY:
+            Type toComponent = ((GenericArrayType) to).getGenericComponentType();
+            return fromClass.isArray() && isSubtype(fromClass.getComponentType(), toComponent);
+        default:
+            // a type variable only accepts itself and other variables bounded by it
+            return false;
+        }
+    }
+
+    private static boolean isParameterizedSubtype(Class<?> fromClass, Type[] fromArgs, ParameterizedType to) {
+        Class<?> toClass = rawClass(to);
+        if (!toClass.isAssignableFrom(fromClass)) {
+            return false;
+        }
+        Map<TypeVariable<?>, Type> fromBindings = fromArgs == null ? Collections.emptyMap() : bindings(fromClass,
+                fromArgs);
+        Map<TypeVariable<?>, Type> supertypeBindings = TypeResolver.getBindings(fromClass);
+        TypeVariable<?>[] toParams = toClass.getTypeParameters();
+        Type[] toArgs = to.getActualTypeArguments();
+        for (int i = 0; i < toArgs.length; i++) {
+            // the variables of the class itself are not in its bindings, and stay unresolved for raw supertypes
+            Type supertypeArg = supertypeBindings.getOrDefault(toParams[i], toParams[i]);
+            if (!contains(toArgs[i], TypeResolver.substitute(supertypeArg, fromBindings))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<TypeVariable<?>, Type> bindings(Class<?> clazz, Type[] typeArgs) {
+        TypeVariable<?>[] typeParams = clazz.getTypeParameters();
+        Map<TypeVariable<?>, Type> bindings = new HashMap<>();
+        for (int i = 0; i < typeParams.length; i++) {
+            bindings.put(typeParams[i], typeArgs[i]);
+        }
+        return bindings;
+    }
+
+    private static boolean contains(Type toArg, Type fromArg) {
+        if (TypeCategory.of(toArg) != TypeCategory.WILDCARD_TYPE) {
+            return toArg.equals(fromArg);
+        }
+        return contains((WildcardType) toArg, fromArg);
+    }
+
+    private static boolean contains(WildcardType toArg, Type fromArg) {
+        Type[] fromUpperBounds = {fromArg};
+        Type[] fromLowerBounds = fromUpperBounds;
+        if (TypeCategory.of(fromArg) == TypeCategory.WILDCARD_TYPE) {
+            fromUpperBounds = ((WildcardType) fromArg).getUpperBounds();
+            fromLowerBounds = ((WildcardType) fromArg).getLowerBounds();
+        }
+        for (Type lowerBound : toArg.getLowerBounds()) {
+            if (!isSubtypeOfAny(lowerBound, fromLowerBounds)) {
+                return false;
+            }
+        }
+        for (Type upperBound : toArg.getUpperBounds()) {
+            if (!anyIsSubtype(fromUpperBounds, upperBound)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class TypePair {
+
+        private final Type from;
+
+        private final Type to;
+
+        TypePair(Type from, Type to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            // only compared to other pairs in the cache
+            TypePair that = (TypePair) o;
+            return from.equals(that.from) && to.equals(that.to);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * from.hashCode() + to.hashCode();
+        }
+    }
+}
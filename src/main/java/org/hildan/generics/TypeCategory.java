@@ -0,0 +1,93 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+/**
+ * The categories of {@link Type} implementations, which explorers dispatch on.
+ * <p>
+ * Finding the category of a type through a chain of {@code instanceof} checks costs up to one check per category, and
+ * each check records the implementation classes it sees, which makes the checks megamorphic when several
+ * implementations of the reflection interfaces are explored (JDK, class files, custom types). The category of each
+ * implementation class is instead computed once and cached in a {@link ClassValue}, so that dispatching is a single
+ * lookup followed by a switch.
+ */
+enum TypeCategory {
+    /**
+     * Instances of {@link Class}.
+     */
+    CLASS,
+    /**
+     * Instances of {@link ParameterizedType}.
+     */
+    PARAMETERIZED_TYPE,
+    /**
+     * Instances of {@link GenericArrayType}.
+     */
+    GENERIC_ARRAY,
+    /**
+     * Instances of {@link TypeVariable}.
+     */
+    TYPE_VARIABLE,
+    /**
+     * Instances of {@link WildcardType}.
+     */
+    WILDCARD_TYPE,
+    /**
+     * Instances of {@link UnloadedClass}.
+     */
+    UNLOADED_CLASS,
+    /**
+     * Any other implementation of {@link Type}.
+     */
+    UNKNOWN;
+
+    private static final ClassValue<TypeCategory> CATEGORIES = new ClassValue<TypeCategory>() {
+        @Override
+        protected TypeCategory computeValue(Class<?> implementation) {
+            return categorize(implementation);
+        }
+    };
+
+    /**
+     * Returns the category of the given type.
+     *
+     * @param type
+     *         the non-null type to get the category of
+     *
+     * @return the category of the given type
+     */
+    static TypeCategory of(Type type) {
+        // Class is final, so this check is a single comparison, for the most frequent category
+        if (type instanceof Class) {
+            return CLASS;
+        }
+        return CATEGORIES.get(type.getClass());
+    }
+
+    /**
+     * Categorizes the given implementation of {@link Type}, checking the interfaces in the same order as {@link
+     * GenericDeclarationExplorer} always did, for implementations of several of them.
+     */
+    private static TypeCategory categorize(Class<?> implementation) {
+        if (ParameterizedType.class.isAssignableFrom(implementation)) {
+            return PARAMETERIZED_TYPE;
+        }
+        if (GenericArrayType.class.isAssignableFrom(implementation)) {
+            return GENERIC_ARRAY;
+        }
+        if (TypeVariable.class.isAssignableFrom(implementation)) {
+            return TYPE_VARIABLE;
+        }
+        if (WildcardType.class.isAssignableFrom(implementation)) {
+            return WILDCARD_TYPE;
+        }
+        if (UnloadedClass.class.isAssignableFrom(implementation)) {
+            return UNLOADED_CLASS;
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,342 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A graph of generic type declarations, in which each distinct type is a single {@link Node}, shared by all the types
+ * that contain it.
+ * <p>
+ * The {@link GenericDeclarationExplorer} drops the bounds of a type variable when it meets it again within its own
+ * bounds, like {@code E} in {@code E extends Enum<E>}, so the value produced for {@code Enum<E>} depends on whether
+ * {@code E} was met before. In a graph, the bounds of type variables are always part of their node, and the edges
+ * leading back to a type variable from its own bounds are explicitly marked as back-references (see {@link
+ * Node#isBackReference(int)}). These edges only depend on the structure of the types, so that the graph without them is
+ * a DAG, and the value of each node can be computed once and reused by all the types containing it (see {@link
+ * #explore(GenericTypeHandler)}).
+ * <p>
+ * Graphs are not thread-safe.
+ */
+public final class TypeGraph {
+
+    private final ImplicitBoundsPolicy implicitBoundsPolicy;
+
+    private final Map<Type, Node> nodes = new HashMap<>();
+
+    /**
+     * Creates an empty graph, ignoring implicit bounds.
+     */
+    public TypeGraph() {
+        this(ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Creates an empty graph.
+     *
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     */
+    public TypeGraph(ImplicitBoundsPolicy implicitBoundsPolicy) {
+        this.implicitBoundsPolicy = implicitBoundsPolicy;
+    }
+
+    /**
+     * Adds the given type to this graph, along with all the types it contains, reusing the nodes of the types that
+     * are already part of this graph.
+     *
+     * @param type
+     *         the type to add
+     *
+     * @return the node of the given type
+     * @throws IllegalArgumentException
+     *         if the given type is null or contains a type of unknown category
+     */
+    @NotNull
+    public Node add(@NotNull Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        List<Node> createdNodes = new ArrayList<>();
+        Node node;
+        try {
+            node = getOrCreate(type, createdNodes);
+        } catch (IllegalArgumentException e) {
+            // the nodes created so far may be incomplete
+            createdNodes.forEach(created -> nodes.remove(created.type));
+            throw e;
+        }
+        for (Node created : createdNodes) {
+            if (created.category == TypeCategory.TYPE_VARIABLE) {
+                markBackReferences(created);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Returns the node of the given type, if it was added to this graph.
+     *
+     * @param type
+     *         the type to get the node of
+     *
+     * @return the node of the given type, or null if it is not part of this graph
+     */
+    @Nullable
+    public Node getNode(@NotNull Type type) {
+        return nodes.get(type);
+    }
+
+    /**
+     * Returns the number of distinct types in this graph.
+     *
+     * @return the number of nodes of this graph
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Computes the value of the given handler for each node of this graph, calling the handler only once per node.
+     * <p>
+     * The handler is called on the values of the children of each node, like during an exploration, except for
+     * back-references: the handler is called on type variables reached through a back-reference with empty bounds,
+     * as the {@link GenericDeclarationExplorer} does for type variables met again within their own bounds.
+     *
+     * @param handler
+     *         the handler to call on each node, which must not be a {@link PruningTypeHandler}
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the value of each node of this graph
+     * @throws IllegalArgumentException
+     *         if the given handler is a {@link PruningTypeHandler}, whose decisions only apply to explorations
+     */
+    @NotNull
+    public <T> Map<Node, T> explore(@NotNull GenericTypeHandler<T> handler) {
+        if (handler instanceof PruningTypeHandler) {
+            throw new IllegalArgumentException("Pruning handlers can't be used on graphs: " + handler);
+        }
+        Map<Node, T> values = new IdentityHashMap<>();
+        for (Node node : nodes.values()) {
+            valueOf(node, handler, values);
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    private Node getOrCreate(Type type, List<Node> createdNodes) {
+        Node existing = nodes.get(type);
+        if (existing != null) {
+            return existing;
+        }
+        Node node = new Node(type);
+        // registered before the children, which may lead back to it
+        nodes.put(type, node);
+        createdNodes.add(node);
+        Type[] children;
+        switch (node.category) {
+        case CLASS:
+            Class<?> componentType = ((Class<?>) type).getComponentType();
+            children = componentType == null ? new Type[0] : new Type[] {componentType};
+            break;
+        case PARAMETERIZED_TYPE:
+            children = parameterizedTypeChildren((ParameterizedType) type);
+            break;
+        case GENERIC_ARRAY:
+            children = new Type[] {((GenericArrayType) type).getGenericComponentType()};
+            break;
+        case TYPE_VARIABLE:
+            children = implicitBoundsPolicy.toSignificantBounds(((TypeVariable<?>) type).getBounds());
+            break;
+        case WILDCARD_TYPE:
+            Type[] upperBounds = implicitBoundsPolicy.toSignificantBounds(((WildcardType) type).getUpperBounds());
+            Type[] lowerBounds = implicitBoundsPolicy.toSignificantBounds(((WildcardType) type).getLowerBounds());
+            children = Arrays.copyOf(upperBounds, upperBounds.length + lowerBounds.length);
+            System.arraycopy(lowerBounds, 0, children, upperBounds.length, lowerBounds.length);
+            node.upperBoundsCount = upperBounds.length;
+            break;
+        default:
+            children = new Type[0];
+            break;
+        }
+        node.children = new Node[children.length];
+        node.backReferences = new boolean[children.length];
+        for (int i = 0; i < children.length; i++) {
+            node.children[i] = getOrCreate(children[i], createdNodes);
+        }
+        return node;
+    }
+
+    private static Type[] parameterizedTypeChildren(ParameterizedType type) {
+        Type[] typeArgs = type.getActualTypeArguments();
+        Type[] children = new Type[typeArgs.length + 1];
+        children[0] = type.getRawType();
+        System.arraycopy(typeArgs, 0, children, 1, typeArgs.length);
+        return children;
+    }
+
+    /**
+     * Marks the edges leading to the given type variable from the nodes reachable from it. The nodes reachable from a
+     * type variable are all created along with it, so this only needs to be done once per type variable.
+     */
+    private static void markBackReferences(Node variable) {
+        Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(variable);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (!visited.add(node)) {
+                continue;
+            }
+            for (int i = 0; i < node.children.length; i++) {
+                if (node.children[i] == variable) {
+                    node.backReferences[i] = true;
+                } else {
+                    stack.push(node.children[i]);
+                }
+            }
+        }
+    }
+
+    private static <T> T valueOf(Node node, GenericTypeHandler<T> handler, Map<Node, T> values) {
+        if (values.containsKey(node)) {
+            return values.get(node);
+        }
+        List<T> childValues = new ArrayList<>(node.children.length);
+        for (int i = 0; i < node.children.length; i++) {
+            Node child = node.children[i];
+            if (node.backReferences[i]) {
+                childValues.add(handler.handleTypeVariable((TypeVariable<?>) child.type, Collections.emptyList()));
+            } else {
+                childValues.add(valueOf(child, handler, values));
+            }
+        }
+        T value = node.handle(handler, childValues);
+        values.put(node, value);
+        return value;
+    }
+
+    /**
+     * A distinct type of a {@link TypeGraph}.
+     */
+    public static final class Node {
+
+        private final Type type;
+
+        private final TypeCategory category;
+
+        private final TypeKind kind;
+
+        private Node[] children;
+
+        private boolean[] backReferences;
+
+        private int upperBoundsCount;
+
+        private Node(Type type) {
+            this.type = type;
+            this.category = TypeCategory.of(type);
+            // unloaded classes are the only simple classes that are not classes
+            this.kind = category == TypeCategory.UNLOADED_CLASS ? TypeKind.SIMPLE_CLASS : TypeKind.of(type);
+        }
+
+        /**
+         * Returns the type of this node.
+         *
+         * @return the type of this node
+         */
+        @NotNull
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Returns the kind of the type of this node. {@link UnloadedClass}es are {@link TypeKind#SIMPLE_CLASS}es.
+         *
+         * @return the kind of this node
+         */
+        @NotNull
+        public TypeKind getKind() {
+            return kind;
+        }
+
+        /**
+         * Returns the nodes of the types this type is made of, in the order they are given to a {@link
+         * GenericTypeHandler}: the component type of arrays, the raw type then the type arguments of parameterized
+         * types, the significant bounds of type variables, and the significant upper bounds then lower bounds of
+         * wildcard types.
+         *
+         * @return the children of this node
+         */
+        @NotNull
+        public List<Node> getChildren() {
+            return Collections.unmodifiableList(Arrays.asList(children));
+        }
+
+        /**
+         * Returns whether the child at the given index is a type variable whose bounds lead to this node, like {@code
+         * E} in {@code Enum<E>} within the bounds of {@code E extends Enum<E>}.
+         *
+         * @param childIndex
+         *         the index of the child in {@link #getChildren()}
+         *
+         * @return true if the edge to the given child closes a cycle
+         */
+        public boolean isBackReference(int childIndex) {
+            return backReferences[childIndex];
+        }
+
+        private <T> T handle(GenericTypeHandler<T> handler, List<T> childValues) {
+            switch (category) {
+            case UNLOADED_CLASS:
+                return handler.handleUnloadedClass((UnloadedClass) type);
+            case PARAMETERIZED_TYPE:
+                return handler.handleParameterizedType((ParameterizedType) type, childValues.get(0),
+                        childValues.subList(1, childValues.size()));
+            case GENERIC_ARRAY:
+                return handler.handleGenericArray((GenericArrayType) type, childValues.get(0));
+            case TYPE_VARIABLE:
+                return handler.handleTypeVariable((TypeVariable<?>) type, childValues);
+            case WILDCARD_TYPE:
+                return handler.handleWildcardType((WildcardType) type, childValues.subList(0, upperBoundsCount),
+                        childValues.subList(upperBoundsCount, childValues.size()));
+            default:
+                return handleClass(handler, childValues);
+            }
+        }
+
+        private <T> T handleClass(GenericTypeHandler<T> handler, List<T> childValues) {
+            Class<?> clazz = (Class<?>) type;
+            switch (kind) {
+            case VOID:
+                return handler.handleVoid();
+            case ARRAY_CLASS:
+                return handler.handleArrayClass(clazz, childValues.get(0));
+            case ENUM_CLASS:
+                return handler.handleEnumClass(clazz);
+            default:
+                return handler.handleSimpleClass(clazz);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return type.getTypeName();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static org.hildan.generics.TypeIndexFormat.ARRAY;
+import static org.hildan.generics.TypeIndexFormat.CLASS;
+import static org.hildan.generics.TypeIndexFormat.PARAMETERIZED;
+import static org.hildan.generics.TypeIndexFormat.TYPE_VARIABLE;
+import static org.hildan.generics.TypeIndexFormat.VOID;
+import static org.hildan.generics.TypeIndexFormat.WILDCARD;
+
+/**
+ * A memory-mapped index of the classes mentioned in type declarations, written by a {@link TypeIndexWriter}. Queries
+ * are answered directly from the mapped file, without reflection and without copying the index to the heap, so that
+ * large indexes don't slow down startup or add to the garbage collection load.
+ * <p>
+ * Types are looked up by structure, so any {@link Type} implementation may be used to query the index, including the
+ * types read by a {@link ClassFileReader}. The mapped file is at most 2GB, and must not be modified while it is used.
+ * An index may be used concurrently from different threads.
+ */
+public final class TypeIndex {
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    private static final Map<String, Class<?>> PRIMITIVES = Stream.<Class<?>>of(boolean.class, byte.class, char.class,
+            short.class, int.class, long.class, float.class, double.class)
+            .collect(Collectors.toMap(Class::getName, Function.identity()));
+
+    private final ByteBuffer buffer;
+
+    private final ClassLoader classLoader;
+
+    private final int nodeCount;
+
+    private final int nameTableSize;
+
+    private final int nodeTableSize;
+
+    private final int nameTableStart;
+
+    private final int nodeOffsetsStart;
+
+    private final int nodeTableStart;
+
+    private TypeIndex(ByteBuffer buffer, ClassLoader classLoader) {
+        this.buffer = buffer;
+        this.classLoader = classLoader;
+        if (buffer.capacity() < TypeIndexFormat.HEADER_SIZE || buffer.getInt(0) != TypeIndexFormat.MAGIC
+                || buffer.getInt(4) != TypeIndexFormat.VERSION) {
+            throw new IllegalArgumentException("Not a type index, or unsupported index version");
+        }
+        int nameCount = buffer.getInt(8);
+        nodeCount = buffer.getInt(12);
+        nameTableSize = buffer.getInt(16);
+        nodeTableSize = buffer.getInt(20);
+        nameTableStart = TypeIndexFormat.HEADER_SIZE + Integer.BYTES * nameCount;
+        nodeOffsetsStart = nameTableStart + Integer.BYTES * nameTableSize;
+        nodeTableStart = nodeOffsetsStart + Integer.BYTES * nodeCount;
+    }
+
+    /**
+     * Memory-maps the given index file. The classes are loaded from the class loader of this class.
+     *
+     * @param file
+     *         the index file, written by a {@link TypeIndexWriter}
+     *
+     * @return the index mapped from the given file
+     * @throws IOException
+     *         if the file cannot be read
+     * @throws IllegalArgumentException
+     *         if the file is not an index, or is written in an unsupported version of the format
+     */
+    @NotNull
+    public static TypeIndex open(@NotNull Path file) throws IOException {
+        return open(file, TypeIndex.class.getClassLoader());
+    }
+
+    /**
+     * Memory-maps the given index file.
+     *
+     * @param file
+     *         the index file, written by a {@link TypeIndexWriter}
+     * @param classLoader
+     *         the class loader to load the mentioned classes from
+     *
+     * @return the index mapped from the given file
+     * @throws IOException
+     *         if the file cannot be read
+     * @throws IllegalArgumentException
+     *         if the file is not an index, or is written in an unsupported version of the format
+     */
+    @NotNull
+    public static TypeIndex open(@NotNull Path file, @NotNull ClassLoader classLoader) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping remains valid after the channel is closed
+            return new TypeIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), classLoader);
+        }
+    }
+
+    /**
+     * Returns the number of distinct type structures in this index.
+     *
+     * @return the number of nodes of this index
+     */
+    public int size() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns whether the given type was indexed, either directly or as part of another type.
+     *
+     * @param type
+     *         the type to look up
+     *
+     * @return true if the given type is part of this index
+     */
+    public boolean contains(@NotNull Type type) {
+        return nodeId(checkNotNull(type)) >= 0;
+    }
+
+    /**
+     * Returns the names of the classes appearing in the given type declaration, if it was indexed.
+     *
+     * @param type
+     *         the type to look up
+     *
+     * @return the binary names of the classes involved in the given type declaration, or null if it was not indexed
+     */
+    @Nullable
+    public List<String> getClassNamesInDeclaration(@NotNull Type type) {
+        int id = nodeId(checkNotNull(type));
+        if (id < 0) {
+            return null;
+        }
+        TypeIndexFormat.Cursor cursor = new TypeIndexFormat.Cursor(buffer, nodeOffset(id) + 1);
+        cursor.readVarint(); // name
+        cursor.readVarint(); // extra
+        for (int i = cursor.readVarint(); i > 0; i--) {
+            cursor.readVarint(); // child
+        }
+        int mentionedCount = cursor.readVarint();
+        List<String> names = new ArrayList<>(mentionedCount);
+        int nameId = 0;
+        for (int i = 0; i < mentionedCount; i++) {
+            nameId += cursor.readVarint();
+            names.add(readName(nameId));
+        }
+        return names;
+    }
+
+    /**
+     * Returns all classes/interfaces appearing in the given type declaration, like {@link
+     * MentionedClassesExplorer#getClassesInDeclaration(Type)}, but without reflection if the type was indexed.
+     * Otherwise, this method falls back to {@link MentionedClassesExplorer#getClassesInDeclaration(Type)}.
+     *
+     * @param type
+     *         the type to explore
+     *
+     * @return a non-null set of all classes involved in the given type declaration
+     * @throws TypeNotPresentException
+     *         if one of the indexed classes cannot be loaded
+     */
+    @NotNull
+    public Set<Class<?>> getClassesInDeclaration(@NotNull Type type) {
+        List<String> names = getClassNamesInDeclaration(type);
+        if (names == null) {
+            return MentionedClassesExplorer.getClassesInDeclaration(type);
+        }
+        Set<Class<?>> classes = new HashSet<>();
+        for (String name : names) {
+            classes.add(loadClass(name));
+        }
+        return classes;
+    }
+
+    private static Type checkNotNull(Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        return type;
+    }
+
+    private Class<?> loadClass(String name) {
+        Class<?> primitive = PRIMITIVES.get(name);
+        if (primitive != null) {
+            return primitive;
+        }
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new TypeNotPresentException(name, e);
+        }
+    }
+
+    private int nodeId(Type type) {
+        if (type instanceof Class) {
+            return classNodeId((Class<?>) type);
+        }
+        if (type instanceof ParameterizedType) {
+            return parameterizedTypeNodeId((ParameterizedType) type);
+        }
+        if (type instanceof GenericArrayType) {
+            return arrayNodeId(((GenericArrayType) type).getGenericComponentType());
+        }
+        if (type instanceof TypeVariable) {
+            return namedNodeId(TYPE_VARIABLE, TypeIndexFormat.qualifiedName((TypeVariable<?>) type));
+        }
+        if (type instanceof WildcardType) {
+            return wildcardNodeId((WildcardType) type);
+        }
+        if (type instanceof UnloadedClass) {
+            return namedNodeId(CLASS, ((UnloadedClass) type).getName());
+        }
+        throw new IllegalArgumentException("Unknown type category " + type.getClass());
+    }
+
+    private int classNodeId(Class<?> clazz) {
+        if (void.class.equals(clazz) || Void.class.equals(clazz)) {
+            return findNode(VOID, -1, 0, NO_CHILDREN);
+        }
+        if (clazz.isArray()) {
+            return arrayNodeId(clazz.getComponentType());
+        }
+        return namedNodeId(CLASS, clazz.getName());
+    }
+
+    private int arrayNodeId(Type componentType) {
+        return findNode(ARRAY, -1, 0, new int[] {nodeId(componentType)});
+    }
+
+    private int namedNodeId(byte kind, String name) {
+        int nameId = findName(name);
+        return nameId < 0 ? -1 : findNode(kind, nameId, 0, NO_CHILDREN);
+    }
+
+    private int parameterizedTypeNodeId(ParameterizedType type) {
+        boolean hasOwner = TypeIndexFormat.hasSignificantOwner(type);
+        List<Type> children = new ArrayList<>();
+        if (hasOwner) {
+            children.add(type.getOwnerType());
+        }
+        children.add(type.getRawType());
+        children.addAll(Arrays.asList(type.getActualTypeArguments()));
+        return findNode(PARAMETERIZED, -1, hasOwner ? 1 : 0, nodeIds(children));
+    }
+
+    private int wildcardNodeId(WildcardType type) {
+        // implicit bounds are not indexed
+        Type[] upperBounds = ImplicitBoundsPolicy.IGNORE.toSignificantBounds(type.getUpperBounds());
+        List<Type> children = new ArrayList<>(Arrays.asList(upperBounds));
+        children.addAll(Arrays.asList(type.getLowerBounds()));
+        return findNode(WILDCARD, -1, upperBounds.length, nodeIds(children));
+    }
+
+    private int[] nodeIds(List<Type> types) {
+        int[] ids = new int[types.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = nodeId(types.get(i));
+        }
+        return ids;
+    }
+
+    private int findNode(byte kind, int nameId, int extra, int[] children) {
+        for (int child : children) {
+            if (child < 0) {
+                // a part of the type is not indexed, so the type is not either
+                return -1;
+            }
+        }
+        int mask = nodeTableSize - 1;
+        int slot = TypeIndexFormat.hashNode(kind, nameId, extra, children) & mask;
+        int entry;
+        while ((entry = buffer.getInt(nodeTableStart + Integer.BYTES * slot)) != 0) {
+            if (nodeMatches(entry - 1, kind, nameId, extra, children)) {
+                return entry - 1;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    private boolean nodeMatches(int id, byte kind, int nameId, int extra, int[] children) {
+        TypeIndexFormat.Cursor cursor = new TypeIndexFormat.Cursor(buffer, nodeOffset(id));
+        if (cursor.readByte() != kind || cursor.readVarint() != nameId + 1 || cursor.readVarint() != extra) {
+            return false;
+        }
+        if (kind == TYPE_VARIABLE) {
+            // the bounds of a type variable are not part of its identity
+            return true;
+        }
+        if (cursor.readVarint() != children.length) {
+            return false;
+        }
+        for (int child : children) {
+            if (cursor.readVarint() != child) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int nodeOffset(int id) {
+        return buffer.getInt(nodeOffsetsStart + Integer.BYTES * id);
+    }
+
+    private int findName(String name) {
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        int mask = nameTableSize - 1;
+        int slot = TypeIndexFormat.hashName(utf8) & mask;
+        int entry;
+        while ((entry = buffer.getInt(nameTableStart + Integer.BYTES * slot)) != 0) {
+            if (nameMatches(entry - 1, utf8)) {
+                return entry - 1;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    private boolean nameMatches(int id, byte[] utf8) {
+        TypeIndexFormat.Cursor cursor = new TypeIndexFormat.Cursor(buffer, nameOffset(id));
+        if (cursor.readVarint() != utf8.length) {
+            return false;
+        }
+        for (byte b : utf8) {
+            if (cursor.readByte() != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int nameOffset(int id) {
+        return buffer.getInt(TypeIndexFormat.HEADER_SIZE + Integer.BYTES * id);
+    }
+
+    private String readName(int id) {
+        TypeIndexFormat.Cursor cursor = new TypeIndexFormat.Cursor(buffer, nameOffset(id));
+        byte[] utf8 = new byte[cursor.readVarint()];
+        for (int i = 0; i < utf8.length; i++) {
+            utf8[i] = cursor.readByte();
+        }
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,188 @@
+package org.hildan.generics;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.nio.ByteBuffer;
+
+/**
+ * The binary format shared by the {@link TypeIndexWriter} and the {@link TypeIndex}.
+ * <p>
+ * An index file starts with a header of 6 ints: the magic number, the format version, the number of names, the number
+ * of nodes, and the sizes of the name and node hash tables. The header is followed by 4 int arrays: the offsets of the
+ * names, the name hash table, the offsets of the nodes, and the node hash table. The hash tables use open addressing
+ * with linear probing, and contain ids + 1 (0 denotes an empty slot). Then come the names, each encoded as a varint
+ * length followed by UTF-8 bytes, and finally the nodes.
+ * <p>
+ * A node is the canonical structure of a type. It is encoded as its kind (1 byte), its name id + 1 (varint, 0 when the
+ * node has no name), an extra kind-specific varint, its child count and child ids (varints), then the count of the
+ * classes it mentions and their sorted name ids (delta-encoded varints). Each kind of node is identified by:
+ * <ul>
+ * <li>{@link #CLASS}: the binary name of the class, with no children</li>
+ * <li>{@link #VOID}: nothing else, for both {@code void} and {@link Void}</li>
+ * <li>{@link #ARRAY}: its component type, for both array classes and generic arrays</li>
+ * <li>{@link #PARAMETERIZED}: its owner type if the extra value is 1 (see {@link #hasSignificantOwner}), its raw
+ * type, then its type arguments</li>
+ * <li>{@link #TYPE_VARIABLE}: its name qualified by its declaration, its children being its significant bounds,
+ * which are not part of its identity</li>
+ * <li>{@link #WILDCARD}: its significant upper bounds (the extra value is their count), then its lower bounds</li>
+ * </ul>
+ * All ints are big-endian, and ids are indices in the offsets arrays.
+ */
+final class TypeIndexFormat {
+
+    static final int MAGIC = 0x47584958;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    static final byte CLASS = 0;
+
+    static final byte VOID = 1;
+
+    static final byte ARRAY = 2;
+
+    static final byte PARAMETERIZED = 3;
+
+    static final byte TYPE_VARIABLE = 4;
+
+    static final byte WILDCARD = 5;
+
+    private TypeIndexFormat() {
+    }
+
+    /**
+     * Returns the name identifying the given type variable in an index: the name of its declaration (as defined by
+     * {@link UnloadedTypeVariable#getDeclarationName()}) followed by ':' and its own name.
+     */
+    static String qualifiedName(TypeVariable<?> variable) {
+        if (variable instanceof UnloadedTypeVariable) {
+            String declarationName = ((UnloadedTypeVariable) variable).getDeclarationName();
+            // variables of outer classes that were not read have no bounds, so sharing their name is harmless
+            return (declarationName == null ? "" : declarationName) + ':' + variable.getName();
+        }
+        return declarationName(variable.getGenericDeclaration()) + ':' + variable.getName();
+    }
+
+    private static String declarationName(GenericDeclaration declaration) {
+        if (declaration instanceof Class) {
+            return ((Class<?>) declaration).getName();
+        }
+        Member member = (Member) declaration;
+        StringBuilder name = new StringBuilder(member.getDeclaringClass().getName()).append('#');
+        Class<?>[] paramTypes;
+        Class<?> returnType;
+        if (member instanceof Constructor) {
+            name.append("<init>");
+            paramTypes = ((Constructor<?>) member).getParameterTypes();
+            returnType = void.class;
+        } else {
+            name.append(member.getName());
+            paramTypes = ((Method) member).getParameterTypes();
+            returnType = ((Method) member).getReturnType();
+        }
+        name.append('(');
+        for (Class<?> paramType : paramTypes) {
+            name.append(descriptor(paramType));
+        }
+        return name.append(')').append(descriptor(returnType)).toString();
+    }
+
+    private static String descriptor(Class<?> clazz) {
+        if (clazz == void.class) {
+            return "V";
+        }
+        // the name of an array class contains the descriptor of its component type
+        return Array.newInstance(clazz, 0).getClass().getName().substring(1).replace('.', '/');
+    }
+
+    /**
+     * Returns whether the owner of the given type is part of its identity. Owners that are not parameterized are
+     * implied by the raw type, and are not known when reading class files anyway.
+     */
+    static boolean hasSignificantOwner(ParameterizedType type) {
+        return type.getOwnerType() instanceof ParameterizedType;
+    }
+
+    static int hashName(byte[] utf8) {
+        int h = 0;
+        for (byte b : utf8) {
+            h = 31 * h + b;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Hashes the identity of a node. The children of type variables are ignored, as they are not part of it.
+     */
+    static int hashNode(int kind, int nameId, int extra, int[] children) {
+        int h = kind;
+        h = 31 * h + nameId;
+        h = 31 * h + extra;
+        if (kind != TYPE_VARIABLE) {
+            for (int child : children) {
+                h = 31 * h + child;
+            }
+        }
+        return mix(h);
+    }
+
+    private static int mix(int h) {
+        return h ^ h >>> 16;
+    }
+
+    static int tableSize(int count) {
+        int size = 2;
+        while (size < 2 * count) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, int value) {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            out.write(v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    /**
+     * Reads varints from absolute positions of a buffer, leaving the position of the buffer untouched, so that the
+     * buffer can be shared between threads.
+     */
+    static final class Cursor {
+
+        private final ByteBuffer buffer;
+
+        private int pos;
+
+        Cursor(ByteBuffer buffer, int pos) {
+            this.buffer = buffer;
+            this.pos = pos;
+        }
+
+        byte readByte() {
+            return buffer.get(pos++);
+        }
+
+        int readVarint() {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = buffer.get(pos++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package org.hildan.generics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.jetbrains.annotations.NotNull;
+
+import static org.hildan.generics.TypeIndexFormat.ARRAY;
+import static org.hildan.generics.TypeIndexFormat.CLASS;
+import static org.hildan.generics.TypeIndexFormat.PARAMETERIZED;
+import static org.hildan.generics.TypeIndexFormat.TYPE_VARIABLE;
+import static org.hildan.generics.TypeIndexFormat.VOID;
+import static org.hildan.generics.TypeIndexFormat.WILDCARD;
+
+/**
+ * Builds a binary index of the structure of types and of the classes they mention, to be memory-mapped by a {@link
+ * TypeIndex} later on. This is meant to be run at build time over a whole classpath, so that applications can answer
+ * {@link MentionedClassesExplorer#getClassesInDeclaration(Type)} queries at startup without reflection.
+ * <p>
+ * Types are deduplicated by structure: all the types added to a writer, and all their subtrees, share the same class
+ * name table and the same nodes. The types read from class files by a {@link ClassFileReader} can be indexed without
+ * loading their classes. Implicit {@code Object} bounds are ignored, like in {@link
+ * MentionedClassesExplorer#getClassesInDeclaration(Type)}.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class TypeIndexWriter {
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    private final Map<String, Integer> nameIds = new HashMap<>();
+
+    private final List<String> names = new ArrayList<>();
+
+    private final Map<Node, Integer> nodeIds = new HashMap<>();
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    private final IndexingHandler handler = new IndexingHandler();
+
+    /**
+     * Adds the given type and all its subtrees to the index.
+     *
+     * @param type
+     *         the type to add
+     */
+    public void add(@NotNull Type type) {
+        GenericDeclarationExplorer.explore(type, handler);
+    }
+
+    /**
+     * Adds all the types appearing in the signature of the given class to the index.
+     *
+     * @param clazz
+     *         the class to add the types of
+     * @see ClassSignatureExplorer#getTypesInSignature(Class)
+     */
+    public void addClass(@NotNull Class<?> clazz) {
+        ClassSignatureExplorer.getTypesInSignature(clazz).forEach(this::add);
+    }
+
+    /**
+     * Adds all the types appearing in the given class file signature to the index.
+     *
+     * @param signature
+     *         the signature to add the types of
+     */
+    public void addClassFile(@NotNull ClassFileSignature signature) {
+        signature.getTypesInSignature().forEach(this::add);
+    }
+
+    /**
+     * Adds the types appearing in the signatures of all the classes of the given jar file, without loading them.
+     *
+     * @param jarFile
+     *         the path to the jar file
+     *
+     * @throws IOException
+     *         if the jar cannot be read
+     * @see ClassFileReader#readJar(Path)
+     */
+    public void addJar(@NotNull Path jarFile) throws IOException {
+        new ClassFileReader().readJar(jarFile).forEach(this::addClassFile);
+    }
+
+    /**
+     * Adds the types appearing in the signatures of all the classes of the given directory, without loading them.
+     *
+     * @param directory
+     *         the root directory of the class files, like a classpath entry
+     *
+     * @throws IOException
+     *         if the directory or its class files cannot be read
+     * @see ClassFileReader#readDirectory(Path)
+     */
+    public void addDirectory(@NotNull Path directory) throws IOException {
+        new ClassFileReader().readDirectory(directory).forEach(this::addClassFile);
+    }
+
+    /**
+     * Returns the number of distinct type structures in the index.
+     *
+     * @return the number of nodes of the index
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Writes the index to the given file, replacing it if it exists.
+     *
+     * @param file
+     *         the file to write
+     *
+     * @throws IOException
+     *         if the file cannot be written
+     */
+    public void write(@NotNull Path file) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int[] nameOffsets = new int[names.size()];
+        int[] nameHashes = new int[names.size()];
+        for (int id = 0; id < names.size(); id++) {
+            byte[] utf8 = names.get(id).getBytes(StandardCharsets.UTF_8);
+            nameOffsets[id] = data.size();
+            nameHashes[id] = TypeIndexFormat.hashName(utf8);
+            TypeIndexFormat.writeVarint(data, utf8.length);
+            data.write(utf8, 0, utf8.length);
+        }
+        int[] nodeOffsets = new int[nodes.size()];
+        int[] nodeHashes = new int[nodes.size()];
+        int[] visitStamps = new int[nodes.size()];
+        for (int id = 0; id < nodes.size(); id++) {
+            Node node = nodes.get(id);
+            nodeOffsets[id] = data.size();
+            nodeHashes[id] = node.hashCode();
+            node.write(data, mentionedNameIds(id, visitStamps));
+        }
+
+        int nameTableSize = TypeIndexFormat.tableSize(names.size());
+        int nodeTableSize = TypeIndexFormat.tableSize(nodes.size());
+        int dataStart = TypeIndexFormat.HEADER_SIZE
+                + Integer.BYTES * (names.size() + nameTableSize + nodes.size() + nodeTableSize);
+        ByteBuffer buffer = ByteBuffer.allocate(dataStart + data.size());
+        buffer.putInt(TypeIndexFormat.MAGIC);
+        buffer.putInt(TypeIndexFormat.VERSION);
+        buffer.putInt(names.size());
+        buffer.putInt(nodes.size());
+        buffer.putInt(nameTableSize);
+        buffer.putInt(nodeTableSize);
+        putOffsets(buffer, nameOffsets, dataStart);
+        putHashTable(buffer, nameHashes, nameTableSize);
+        putOffsets(buffer, nodeOffsets, dataStart);
+        putHashTable(buffer, nodeHashes, nodeTableSize);
+        buffer.put(data.toByteArray());
+        Files.write(file, buffer.array());
+    }
+
+    private static void putOffsets(ByteBuffer buffer, int[] offsets, int dataStart) {
+        for (int offset : offsets) {
+            buffer.putInt(dataStart + offset);
+        }
+    }
+
+    private static void putHashTable(ByteBuffer buffer, int[] hashes, int tableSize) {
+        int[] table = new int[tableSize];
+        for (int id = 0; id < hashes.length; id++) {
+            int slot = hashes[id] & tableSize - 1;
+            while (table[slot] != 0) {
+                slot = slot + 1 & tableSize - 1;
+            }
+            table[slot] = id + 1;
+        }
+        for (int entry : table) {
+            buffer.putInt(entry);
+        }
+    }
+
+    /**
+     * Collects the names of the classes reachable from the given node. The owners of parameterized types are not
+     * followed, and the bounds of type variables are, which may form cycles.
+     */
+    private int[] mentionedNameIds(int rootId, int[] visitStamps) {
+        int stamp = rootId + 1;
+        TreeSet<Integer> mentioned = new TreeSet<>();
+        Deque<Integer> toVisit = new ArrayDeque<>();
+        toVisit.push(rootId);
+        visitStamps[rootId] = stamp;
+        while (!toVisit.isEmpty()) {
+            Node node = nodes.get(toVisit.pop());
+            if (node.kind == CLASS) {
+                mentioned.add(node.nameId);
+            }
+            int firstMentioned = node.kind == PARAMETERIZED ? node.extra : 0;
+            for (int i = firstMentioned; i < node.children.length; i++) {
+                int child = node.children[i];
+                if (visitStamps[child] != stamp) {
+                    visitStamps[child] = stamp;
+                    toVisit.push(child);
+                }
+            }
+        }
+        return mentioned.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int nameId(String name) {
+        return nameIds.computeIfAbsent(name, n -> {
+            names.add(n);
+            return names.size() - 1;
+        });
+    }
+
+    private int nodeId(byte kind, int nameId, int extra, int[] children) {
+        return nodeIds.computeIfAbsent(new Node(kind, nameId, extra, children), n -> {
+            nodes.add(n);
+            return nodes.size() - 1;
+        });
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static final class Node {
+
+        private final byte kind;
+
+        private final int nameId;
+
+        private final int extra;
+
+        private int[] children;
+
+        Node(byte kind, int nameId, int extra, int[] children) {
+            this.kind = kind;
+            this.nameId = nameId;
+            this.extra = extra;
+            this.children = children;
+        }
+
+        void write(ByteArrayOutputStream out, int[] mentionedNameIds) {
+            out.write(kind);
+            TypeIndexFormat.writeVarint(out, nameId + 1);
+            TypeIndexFormat.writeVarint(out, extra);
+            TypeIndexFormat.writeVarint(out, children.length);
+            for (int child : children) {
+                TypeIndexFormat.writeVarint(out, child);
+            }
+            TypeIndexFormat.writeVarint(out, mentionedNameIds.length);
+            int previous = 0;
+            for (int mentioned : mentionedNameIds) {
+                TypeIndexFormat.writeVarint(out, mentioned - previous);
+                previous = mentioned;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            // nodes are only compared to each other, as keys of the node ids map
+            Node node = (Node) o;
+            if (kind != node.kind || nameId != node.nameId || extra != node.extra) {
+                return false;
+            }
+            if (kind == TYPE_VARIABLE) {
+                // the bounds of a type variable are not part of its identity
+                return true;
+            }
+            return Arrays.equals(children, node.children);
+        }
+
+        @Override
+        public int hashCode() {
+            return TypeIndexFormat.hashNode(kind, nameId, extra, children);
+        }
+    }
+
+    private class IndexingHandler implements GenericTypeHandler<Integer> {
+
+        @Override
+        public Integer handleVoid() {
+            return nodeId(VOID, -1, 0, NO_CHILDREN);
+        }
+
+        @Override
+        public Integer handleSimpleClass(@NotNull Class<?> clazz) {
+            return nodeId(CLASS, nameId(clazz.getName()), 0, NO_CHILDREN);
+        }
+
+        @Override
+        public Integer handleEnumClass(@NotNull Class<?> clazz) {
+            return handleSimpleClass(clazz);
+        }
+
+        @Override
+        public Integer handleArrayClass(@NotNull Class<?> arrayClass, Integer handledComponentClass) {
+            return nodeId(ARRAY, -1, 0, new int[] {handledComponentClass});
+        }
+
+        @Override
+        public Integer handleGenericArray(@NotNull GenericArrayType type, Integer handledComponentClass) {
+            return nodeId(ARRAY, -1, 0, new int[] {handledComponentClass});
+        }
+
+        @Override
+        public Integer handleParameterizedType(@NotNull ParameterizedType type, Integer handledRawType,
+                @NotNull List<Integer> handledTypeParameters) {
+            List<Integer> children = new ArrayList<>();
+            boolean hasOwner = TypeIndexFormat.hasSignificantOwner(type);
+            if (hasOwner) {
+                children.add(GenericDeclarationExplorer.explore(type.getOwnerType(), this));
+            }
+            children.add(handledRawType);
+            children.addAll(handledTypeParameters);
+            return nodeId(PARAMETERIZED, -1, hasOwner ? 1 : 0, toArray(children));
+        }
+
+        @Override
+        public Integer handleTypeVariable(@NotNull TypeVariable type, @NotNull List<Integer> handledBounds) {
+            int id = nodeId(TYPE_VARIABLE, nameId(TypeIndexFormat.qualifiedName(type)), 0, NO_CHILDREN);
+            Node node = nodes.get(id);
+            // recursive occurrences of the variable within its own bounds are handled without bounds
+            if (node.children.length == 0) {
+                node.children = toArray(handledBounds);
+            }
+            return id;
+        }
+
+        @Override
+        public Integer handleWildcardType(@NotNull WildcardType type, @NotNull List<Integer> handledUpperBounds,
+                @NotNull List<Integer> handledLowerBounds) {
+            List<Integer> children = new ArrayList<>(handledUpperBounds);
+            children.addAll(handledLowerBounds);
+            return nodeId(WILDCARD, -1, handledUpperBounds.size(), toArray(children));
+        }
+
+        @Override
+        public Integer handleUnloadedClass(@NotNull UnloadedClass clazz) {
+            return nodeId(CLASS, nameId(clazz.getName()), 0, NO_CHILDREN);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The different kinds of parts of a generic type declaration. Each kind corresponds to one method of {@link
+ * GenericTypeHandler}.
+ */
+public enum TypeKind {
+    /**
+     * The {@code void} and {@link Void} types.
+     */
+    VOID,
+    /**
+     * Classes that are neither arrays nor enums, including primitive types.
+     */
+    SIMPLE_CLASS,
+    /**
+     * Enum classes.
+     */
+    ENUM_CLASS,
+    /**
+     * Array classes, with a non-generic component type.
+     */
+    ARRAY_CLASS,
+    /**
+     * Instances of {@link GenericArrayType}.
+     */
+    GENERIC_ARRAY,
+    /**
+     * Instances of {@link ParameterizedType}.
+     */
+    PARAMETERIZED_TYPE,
+    /**
+     * Instances of {@link TypeVariable}.
+     */
+    TYPE_VARIABLE,
+    /**
+     * Instances of {@link WildcardType}.
+     */
+    WILDCARD_TYPE;
+
+    private static final ClassValue<TypeKind> CLASS_KINDS = new ClassValue<TypeKind>() {
+        @Override
+        protected TypeKind computeValue(Class<?> clazz) {
+            return classify(clazz);
+        }
+    };
+
+    /**
+     * Returns the kind of the given type.
+     *
+     * @param type
+     *         the type to get the kind of
+     *
+     * @return the kind of the given type
+     * @throws IllegalArgumentException
+     *         if the given type is null or does not belong to a known category
+     */
+    @NotNull
+    public static TypeKind of(@NotNull Type type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type declaration may not be null");
+        }
+        switch (TypeCategory.of(type)) {
+        case CLASS:
+            return ofClass((Class<?>) type);
+        case PARAMETERIZED_TYPE:
+            return PARAMETERIZED_TYPE;
+        case GENERIC_ARRAY:
+            return GENERIC_ARRAY;
+        case TYPE_VARIABLE:
+            return TYPE_VARIABLE;
+        case WILDCARD_TYPE:
+            return WILDCARD_TYPE;
+        default:
+            throw new IllegalArgumentException("Unknown type category " + type.getClass());
+        }
+    }
+
+    /**
+     * Returns the kind of the given class, which is only computed the first time, as it never changes.
+     */
+    static TypeKind ofClass(Class<?> clazz) {
+        return CLASS_KINDS.get(clazz);
+    }
+
+    private static TypeKind classify(Class<?> clazz) {
+        if (void.class.equals(clazz) || Void.class.equals(clazz)) {
+            return VOID;
+        }
+        if (clazz.isArray()) {
+            return ARRAY_CLASS;
+        }
+        if (clazz.isEnum()) {
+            return ENUM_CLASS;
+        }
+        return SIMPLE_CLASS;
+    }
+}
@@ -0,0 +1,293 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Numeric reductions of generic type declarations, computed with primitive handlers (see {@link
+ * IntDeclarationExplorer} and {@link LongDeclarationExplorer}), without allocating anything per explored type.
+ * <p>
+ * The handlers are stateless, and may be used with any {@link ImplicitBoundsPolicy}.
+ */
+public final class TypeMetrics {
+
+    /**
+     * Computes the depth of a declaration: 1 for types without children, and 1 more than their deepest child for the
+     * others.
+     */
+    public static final IntTypeHandler DEPTH = new DepthHandler();
+
+    /**
+     * Computes the number of types explored in a declaration, the declaration itself included.
+     */
+    public static final IntTypeHandler NODE_COUNT = new NodeCountHandler();
+
+    /**
+     * Computes a 64-bit hash of the structure of a declaration, which only depends on the names of the classes and type
+     * variables it mentions, and on how they are combined. Thus, it is the same for equivalent declarations built by
+     * different implementations of the reflection interfaces, or read from class files, unlike {@link
+     * Object#hashCode()}. Array classes and generic arrays of the same component are equivalent, and so are unloaded
+     * classes and the classes with the same name.
+     */
+    public static final LongTypeHandler STRUCTURAL_HASH = new StructuralHashHandler();
+
+    private TypeMetrics() {
+    }
+
+    /**
+     * Returns the depth of the given declaration, as computed by {@link #DEPTH}.
+     *
+     * @param type
+     *         the type to measure
+     *
+     * @return the depth of the given type
+     */
+    public static int depth(@NotNull Type type) {
+        return IntDeclarationExplorer.explore(type, DEPTH);
+    }
+
+    /**
+     * Returns the number of types of the given declaration, as computed by {@link #NODE_COUNT}.
+     *
+     * @param type
+     *         the type to measure
+     *
+     * @return the number of types explored in the given type
+     */
+    public static int nodeCount(@NotNull Type type) {
+        return IntDeclarationExplorer.explore(type, NODE_COUNT);
+    }
+
+    /**
+     * Returns the structural hash of the given declaration, as computed by {@link #STRUCTURAL_HASH}.
+     *
+     * @param type
+     *         the type to hash
+     *
+     * @return the 64-bit structural hash of the given type
+     */
+    public static long structuralHash(@NotNull Type type) {
+        return LongDeclarationExplorer.explore(type, STRUCTURAL_HASH);
+    }
+
+    private static final class DepthHandler implements IntTypeHandler {
+
+        @Override
+        public int handleVoid() {
+            return 1;
+        }
+
+        @Override
+        public int handleSimpleClass(@NotNull Class<?> clazz) {
+            return 1;
+        }
+
+        @Override
+        public int handleEnumClass(@NotNull Class<?> clazz) {
+            return 1;
+        }
+
+        @Override
+        public int handleArrayClass(@NotNull Class<?> arrayClass, int handledComponentClass) {
+            return handledComponentClass + 1;
+        }
+
+        @Override
+        public int handleGenericArray(@NotNull GenericArrayType type, int handledComponentClass) {
+            return handledComponentClass + 1;
+        }
+
+        @Override
+        public int handleParameterizedType(@NotNull ParameterizedType type, int handledRawType, @NotNull int[] values,
+                int offset, int count) {
+            return Math.max(handledRawType, max(values, offset, count)) + 1;
+        }
+
+        @Override
+        public int handleTypeVariable(@NotNull TypeVariable type, @NotNull int[] values, int offset, int count) {
+            return max(values, offset, count) + 1;
+        }
+
+        @Override
+        public int handleWildcardType(@NotNull WildcardType type, @NotNull int[] values, int offset,
+                int upperBoundsCount, int lowerBoundsCount) {
+            return max(values, offset, upperBoundsCount + lowerBoundsCount) + 1;
+        }
+
+        @Override
+        public int handleUnloadedClass(@NotNull UnloadedClass clazz) {
+            return 1;
+        }
+
+        private static int max(int[] values, int offset, int count) {
+            int max = 0;
+            for (int i = offset; i < offset + count; i++) {
+                max = Math.max(max, values[i]);
+            }
+            return max;
+        }
+    }
+
+    private static final class NodeCountHandler implements IntTypeHandler {
+
+        @Override
+        public int handleVoid() {
+            return 1;
+        }
+
+        @Override
+        public int handleSimpleClass(@NotNull Class<?> clazz) {
+            return 1;
+        }
+
+        @Override
+        public int handleEnumClass(@NotNull Class<?> clazz) {
+            return 1;
+        }
+
+        @Override
+        public int handleArrayClass(@NotNull Class<?> arrayClass, int handledComponentClass) {
+            return handledComponentClass + 1;
+        }
+
+        @Override
+        public int handleGenericArray(@NotNull GenericArrayType type, int handledComponentClass) {
+            return handledComponentClass + 1;
+        }
+
+        @Override
+        public int handleParameterizedType(@NotNull ParameterizedType type, int handledRawType, @NotNull int[] values,
+                int offset, int count) {
+            return handledRawType + sum(values, offset, count) + 1;
+        }
+
+        @Override
+        public int handleTypeVariable(@NotNull TypeVariable type, @NotNull int[] values, int offset, int count) {
+            return sum(values, offset, count) + 1;
+        }
+
+        @Override
+        public int handleWildcardType(@NotNull WildcardType type, @NotNull int[] values, int offset,
+                int upperBoundsCount, int lowerBoundsCount) {
+            return sum(values, offset, upperBoundsCount + lowerBoundsCount) + 1;
+        }
+
+        @Override
+        public int handleUnloadedClass(@NotNull UnloadedClass clazz) {
+            return 1;
+        }
+
+        private static int sum(int[] values, int offset, int count) {
+            int sum = 0;
+            for (int i = offset; i < offset + count; i++) {
+                sum += values[i];
+            }
+            return sum;
+        }
+    }
+
+    private static final class StructuralHashHandler implements LongTypeHandler {
+
+        private static final long CLASS = 1;
+
+        private static final long VOID = 2;
+
+        private static final long ARRAY = 3;
+
+        private static final long PARAMETERIZED_TYPE = 4;
+
+        private static final long TYPE_VARIABLE = 5;
+
+        private static final long WILDCARD_TYPE = 6;
+
+        @Override
+        public long handleVoid() {
+            return mix(VOID);
+        }
+
+        @Override
+        public long handleSimpleClass(@NotNull Class<?> clazz) {
+            return mix(hashName(CLASS, clazz.getName()));
+        }
+
+        @Override
+        public long handleEnumClass(@NotNull Class<?> clazz) {
+            return mix(hashName(CLASS, clazz.getName()));
+        }
+
+        @Override
+        public long handleArrayClass(@NotNull Class<?> arrayClass, long handledComponentClass) {
+            return mix(combine(ARRAY, handledComponentClass));
+        }
+
+        @Override
+        public long handleGenericArray(@NotNull GenericArrayType type, long handledComponentClass) {
+            return mix(combine(ARRAY, handledComponentClass));
+        }
+
+        @Override
+        public long handleParameterizedType(@NotNull ParameterizedType type, long handledRawType,
+                @NotNull long[] values, int offset, int count) {
+            long hash = combine(combine(PARAMETERIZED_TYPE, handledRawType), count);
+            return mix(combineAll(hash, values, offset, count));
+        }
+
+        @Override
+        public long handleTypeVariable(@NotNull TypeVariable type, @NotNull long[] values, int offset, int count) {
+            long hash = combine(hashName(TYPE_VARIABLE, type.getName()), count);
+            return mix(combineAll(hash, values, offset, count));
+        }
+
+        @Override
+        public long handleWildcardType(@NotNull WildcardType type, @NotNull long[] values, int offset,
+                int upperBoundsCount, int lowerBoundsCount) {
+            // the number of upper bounds tells "? extends X" from "? super X"
+            long hash = combine(combine(WILDCARD_TYPE, upperBoundsCount), lowerBoundsCount);
+            return mix(combineAll(hash, values, offset, upperBoundsCount + lowerBoundsCount));
+        }
+
+        @Override
+        public long handleUnloadedClass(@NotNull UnloadedClass clazz) {
+            return mix(hashName(CLASS, clazz.getName()));
+        }
+
+        private static long hashName(long hash, String name) {
+            long result = hash;
+            for (int i = 0; i < name.length(); i++) {
+                result = combine(result, name.charAt(i));
+            }
+            return result;
+        }
+
+        private static long combineAll(long hash, long[] values, int offset, int count) {
+            long result = hash;
+            for (int i = offset; i < offset + count; i++) {
+                result = combine(result, values[i]);
+            }
+            return result;
+        }
+
+        private static long combine(long hash, long value) {
+            return 31 * hash + value;
+        }
+
+        /**
+         * Spreads the bits of the given hash (finalizer of MurmurHash3), so that the hashes of the children are well
+         * distributed when combined by their parent.
+         */
+        private static long mix(long hash) {
+            long h = hash;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
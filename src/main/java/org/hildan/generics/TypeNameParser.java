@@ -0,0 +1,331 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Parses the canonical names written by the {@link TypeNameWriter} back into {@link Type}s, loading the classes they
+ * mention from a given class loader.
+ * <p>
+ * The parsed types are interned as {@link CanonicalType}s, so that the equal parts of different names are represented
+ * by the same {@link Type} instances. On top of that, the results are cached for each name, so that parsing a name
+ * again only costs a lookup, and does not allocate anything. As the cached types strongly reference their classes, the
+ * cache is bounded and emptied when it is full, and can be emptied explicitly with {@link #clearCache()}.
+ * <p>
+ * The owner type of a parsed parameterized type is the parameterized type written before its raw type, as in {@code
+ * com.example.Outer<java.lang.String>$Inner<java.lang.Integer>}, or else the class declaring its raw type, if any,
+ * like for the types of the JDK. Names are checked against the loaded classes, so that a parameterized type has as
+ * many type arguments as its raw type has type parameters, none of them primitive. Parsers are thread-safe.
+ */
+public final class TypeNameParser {
+
+    static final int MAX_CACHE_SIZE = 10_000;
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> primitive : new Class<?>[] {void.class, boolean.class, byte.class, char.class, short.class,
+                int.class, long.class, float.class, double.class}) {
+            PRIMITIVES.put(primitive.getName(), primitive);
+        }
+    }
+
+    private final ClassLoader classLoader;
+
+    private final Map<String, Type> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a parser loading classes from the class loader of this library.
+     */
+    public TypeNameParser() {
+        this(TypeNameParser.class.getClassLoader());
+    }
+
+    /**
+     * Creates a parser loading classes from the given class loader.
+     *
+     * @param classLoader
+     *         the class loader to load the classes mentioned in the names from
+     */
+    public TypeNameParser(@NotNull ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Parses the given canonical name.
+     *
+     * @param name
+     *         a canonical name, as written by {@link TypeNameWriter#writeCanonical(Type, Appendable)}
+     *
+     * @return the type with the given canonical name, which is the same instance for equal names
+     * @throws IllegalArgumentException
+     *         if the given name is not a valid canonical name, or if it mentions a class, method or type variable that
+     *         cannot be found
+     */
+    @NotNull
+    public Type parse(@NotNull String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Type name may not be null");
+        }
+        Type cached = cache.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        Type type = new Cursor(name).parseName().toType();
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            // cheaper than tracking the usage of the entries, and the names in use quickly come back
+            cache.clear();
+        }
+        cache.put(name, type);
+        return type;
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    int getCacheSize() {
+        return cache.size();
+    }
+
+    private Class<?> loadClass(String className) {
+        Class<?> primitive = PRIMITIVES.get(className);
+        if (primitive != null) {
+            return primitive;
+        }
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Class " + className + " not found", e);
+        }
+    }
+
+    /**
+     * The state of the parsing of a name, which is a recursive descent on the following grammar:
+     *
+     * <pre>
+     * type        := (wildcard | variable | class typeArgs? ("$" simpleName typeArgs?)*) "[]"*
+     * wildcard    := "?" (" extends " type (" &amp; " type)*)? (" super " type (" &amp; " type)*)?
+     * variable    := identifier "@" class ("#" identifier "(" (class "[]"* (", " class "[]"*)*)? ")")?
+     * typeArgs    := "&lt;" type (", " type)* "&gt;"
+     * </pre>
+     */
+    private final class Cursor {
+
+        private final String name;
+
+        private int position;
+
+        Cursor(String name) {
+            this.name = name;
+        }
+
+        CanonicalType parseName() {
+            CanonicalType type = parseType();
+            if (position < name.length()) {
+                throw invalid("unexpected character '" + name.charAt(position) + "'");
+            }
+            return type;
+        }
+
+        private CanonicalType parseType() {
+            CanonicalType type;
+            if (skip("?")) {
+                type = parseWildcardBounds();
+            } else {
+                String identifier = parseIdentifier();
+                if (skip("@")) {
+                    type = CanonicalType.ofTypeVariable(parseTypeVariable(identifier));
+                } else {
+                    type = parseClassOrParameterizedType(loadClass(identifier));
+                }
+            }
+            while (skip("[]")) {
+                Class<?> rawClass = type.getRawClass();
+                if (type.getKind() == TypeKind.PARAMETERIZED_TYPE || rawClass == null) {
+                    type = CanonicalType.ofGenericArray(type);
+                } else {
+                    type = CanonicalType.of(arrayOf(rawClass));
+                }
+            }
+            return type;
+        }
+
+        private CanonicalType parseWildcardBounds() {
+            List<CanonicalType> upperBounds = new ArrayList<>();
+            if (skip(" extends ")) {
+                parseBounds(upperBounds);
+            }
+            List<CanonicalType> lowerBounds = new ArrayList<>();
+            if (skip(" super ")) {
+                parseBounds(lowerBounds);
+            }
+            return CanonicalType.ofWildcardType(upperBounds.toArray(new CanonicalType[0]),
+                    lowerBounds.toArray(new CanonicalType[0]));
+        }
+
+        private void parseBounds(List<CanonicalType> bounds) {
+            do {
+                bounds.add(parseType());
+            } while (skip(" & "));
+        }
+
+        private CanonicalType parseClassOrParameterizedType(Class<?> clazz) {
+            Class<?> ownerClass = clazz.getDeclaringClass();
+            CanonicalType type = parseTypeArgs(clazz, ownerClass == null ? null : CanonicalType.of(ownerClass));
+            Class<?> rawClass = clazz;
+            // the classes nested in a parameterized type follow its type arguments
+            while (type.getKind() == TypeKind.PARAMETERIZED_TYPE && skip("$")) {
+                rawClass = loadClass(rawClass.getName() + "$" + parseSimpleName());
+                if (Modifier.isStatic(rawClass.getModifiers())) {
+                    throw invalid("static class " + rawClass.getName() + " can't have a parameterized owner");
+                }
+                type = parseTypeArgs(rawClass, type);
+            }
+            return type;
+        }
+
+        private CanonicalType parseTypeArgs(Class<?> rawClass, CanonicalType owner) {
+            boolean parameterizedOwner = owner != null && owner.getKind() == TypeKind.PARAMETERIZED_TYPE;
+            List<CanonicalType> typeArgs = new ArrayList<>();
+            if (skip("<")) {
+                do {
+                    typeArgs.add(parseTypeArg());
+                } while (skip(", "));
+                expect(">");
+            } else if (!parameterizedOwner) {
+                // a raw type
+                return CanonicalType.of(rawClass);
+            }
+            // only the inner classes of parameterized owners may have no type arguments
+            int typeParamsCount = rawClass.getTypeParameters().length;
+            if (typeArgs.size() != typeParamsCount) {
+                throw invalid(rawClass.getName() + " expects " + typeParamsCount + " type arguments, found "
+                        + typeArgs.size());
+            }
+            return CanonicalType.ofParameterizedType(rawClass, owner, typeArgs.toArray(new CanonicalType[0]));
+        }
+
+        private CanonicalType parseTypeArg() {
+            int start = position;
+            CanonicalType typeArg = parseType();
+            Class<?> rawClass = typeArg.getRawClass();
+            if (rawClass != null && rawClass.isPrimitive()) {
+                position = start;
+                throw invalid("primitive type " + rawClass.getName() + " can't be a type argument");
+            }
+            return typeArg;
+        }
+
+        private Class<?> arrayOf(Class<?> componentType) {
+            if (componentType == void.class) {
+                throw invalid("void can't be the component type of an array");
+            }
+            return Array.newInstance(componentType, 0).getClass();
+        }
+
+        private TypeVariable<?> parseTypeVariable(String variableName) {
+            Class<?> declaringClass = loadClass(parseIdentifier());
+            GenericDeclaration declaration = declaringClass;
+            if (skip("#")) {
+                declaration = parseMethodOrConstructor(declaringClass);
+            }
+            for (TypeVariable<?> variable : declaration.getTypeParameters()) {
+                if (variable.getName().equals(variableName)) {
+                    return variable;
+                }
+            }
+            throw new IllegalArgumentException("Type variable " + variableName + " not found on " + declaration);
+        }
+
+        private GenericDeclaration parseMethodOrConstructor(Class<?> declaringClass) {
+            boolean constructor = skip("<init>");
+            String methodName = constructor ? null : parseIdentifier();
+            expect("(");
+            List<Class<?>> parameterTypes = new ArrayList<>();
+            if (!skip(")")) {
+                do {
+                    parameterTypes.add(parseErasedType());
+                } while (skip(", "));
+                expect(")");
+            }
+            Class<?>[] parameterTypesArray = parameterTypes.toArray(new Class<?>[0]);
+            try {
+                if (constructor) {
+                    return declaringClass.getDeclaredConstructor(parameterTypesArray);
+                }
+                return declaringClass.getDeclaredMethod(methodName, parameterTypesArray);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Method " + name.substring(0, position) + " not found", e);
+            }
+        }
+
+        private Class<?> parseErasedType() {
+            Class<?> clazz = loadClass(parseIdentifier());
+            while (skip("[]")) {
+                clazz = arrayOf(clazz);
+            }
+            return clazz;
+        }
+
+        private String parseIdentifier() {
+            int start = position;
+            while (position < name.length() && isIdentifierPart(name.charAt(position))) {
+                position++;
+            }
+            if (position == start) {
+                throw invalid("identifier expected");
+            }
+            return name.substring(start, position);
+        }
+
+        private String parseSimpleName() {
+            int start = position;
+            while (position < name.length() && name.charAt(position) != '$'
+                    && Character.isJavaIdentifierPart(name.charAt(position))) {
+                position++;
+            }
+            if (position == start) {
+                throw invalid("class name expected");
+            }
+            return name.substring(start, position);
+        }
+
+        private boolean isIdentifierPart(char c) {
+            // '.' separates packages, and '$' nested classes
+            return c == '.' || Character.isJavaIdentifierPart(c);
+        }
+
+        private boolean skip(String token) {
+            if (name.startsWith(token, position)) {
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!skip(token)) {
+                throw invalid("'" + token + "' expected");
+            }
+        }
+
+        private IllegalArgumentException invalid(String message) {
+            return new IllegalArgumentException(
+                    "Invalid type name '" + name + "' at position " + position + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link GenericTypeVisitor} writing the name of the visited declaration to an {@link Appendable} as it goes, in the
+ * format of {@link Type#getTypeName()}, for instance {@code java.util.Map<java.lang.String, java.util.List<? extends
+ * java.lang.Number>[]>}.
+ * <p>
+ * Producing the name of a declaration with a {@link GenericTypeHandler} would build the names of all its parts, only
+ * to concatenate them into the names of their parents. Here, each part of the name is written once, directly to the
+ * output, so that huge declarations can be written to a file or a socket without building them in memory first.
+ * <p>
+ * Type variables are written by name, without their bounds. Unloaded classes are written by name too.
+ * <p>
+ * Names can also be written in a canonical form, which differs in the names of type variables: they are followed by
+ * {@code @} and their generic declaration, for instance {@code T@java.util.List} or {@code
+ * T@java.util.Collections#sort(java.util.List, java.util.Comparator)}. Canonical names also include the type arguments
+ * of parameterized owner types, in the format of {@link Type#getTypeName()}, for instance {@code
+ * com.example.Outer<java.lang.String>$Inner<java.lang.Integer>}. Unlike the names of {@link Type#getTypeName()},
+ * canonical names identify the declarations, and can be parsed back by a {@link TypeNameParser}.
+ */
+public final class TypeNameWriter implements GenericTypeVisitor {
+
+    /**
+     * The size above which the buffer of a thread is not kept for the next names, not to retain huge buffers.
+     */
+    private static final int MAX_REUSED_BUFFER_SIZE = 4096;
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(StringBuilder::new);
+
+    private final Appendable out;
+
+    private final boolean canonical;
+
+    /**
+     * The number of type variable bounds being visited, which are not written.
+     */
+    private int boundsDepth;
+
+    /**
+     * Whether the parameterized owner of the parameterized type being visited was written, along with the name of its
+     * raw type, so that the name of the raw type is not written again.
+     */
+    private boolean ownerWritten;
+
+    private TypeNameWriter(Appendable out, boolean canonical) {
+        this.out = out;
+        this.canonical = canonical;
+    }
+
+    /**
+     * Writes the name of the given declaration to the given output.
+     *
+     * @param type
+     *         the type to write the name of
+     * @param out
+     *         the output to write the name to
+     *
+     * @throws IOException
+     *         if the given output fails
+     */
+    public static void write(@NotNull Type type, @NotNull Appendable out) throws IOException {
+        write(type, out, false);
+    }
+
+    /**
+     * Writes the canonical name of the given declaration to the given output.
+     *
+     * @param type
+     *         the type to write the canonical name of
+     * @param out
+     *         the output to write the name to
+     *
+     * @throws IOException
+     *         if the given output fails
+     * @throws UnsupportedOperationException
+     *         if the given type contains a type variable read from a class file, whose declaration is unknown
+     */
+    public static void writeCanonical(@NotNull Type type, @NotNull Appendable out) throws IOException {
+        write(type, out, true);
+    }
+
+    private static void write(Type type, Appendable out, boolean canonical) throws IOException {
+        try {
+            GenericDeclarationExplorer.visit(type, new TypeNameWriter(out, canonical));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the name of the given declaration, which is the same as the one returned by {@link Type#getTypeName()}
+     * for the JDK implementations of the reflection interfaces, except for the type arguments of owner types, which
+     * are not part of the exploration.
+     *
+     * @param type
+     *         the type to get the name of
+     *
+     * @return the name of the given type
+     */
+    @NotNull
+    public static String getName(@NotNull Type type) {
+        return toString(type, false);
+    }
+
+    /**
+     * Returns the canonical name of the given declaration.
+     *
+     * @param type
+     *         the type to get the canonical name of
+     *
+     * @return the canonical name of the given type
+     * @throws UnsupportedOperationException
+     *         if the given type contains a type variable read from a class file, whose declaration is unknown
+     */
+    @NotNull
+    public static String getCanonicalName(@NotNull Type type) {
+        return toString(type, true);
+    }
+
+    private static String toString(Type type, boolean canonical) {
+        // the buffer of the thread is reused, so that only the resulting string is allocated
+        StringBuilder buffer = BUFFERS.get();
+        buffer.setLength(0);
+        try {
+            GenericDeclarationExplorer.visit(type, new TypeNameWriter(buffer, canonical));
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_REUSED_BUFFER_SIZE) {
+                BUFFERS.remove();
+            }
+        }
+    }
+
+    @Override
+    public void visitVoid() {
+        append("void");
+    }
+
+    @Override
+    public void visitClass(@NotNull Class<?> clazz) {
+        appendClassName(clazz.getName());
+    }
+
+    @Override
+    public void visitUnloadedClass(@NotNull UnloadedClass clazz) {
+        appendClassName(clazz.getName());
+    }
+
+    private void appendClassName(String name) {
+        if (ownerWritten) {
+            ownerWritten = false;
+            return;
+        }
+        append(name);
+    }
+
+    @Override
+    public void exitArrayClass(@NotNull Class<?> arrayClass) {
+        append("[]");
+    }
+
+    @Override
+    public void exitGenericArray(@NotNull GenericArrayType type) {
+        append("[]");
+    }
+
+    @Override
+    public void enterParameterizedType(@NotNull ParameterizedType type) {
+        Type ownerType = type.getOwnerType();
+        if (!canonical || boundsDepth > 0 || !(ownerType instanceof ParameterizedType)) {
+            return;
+        }
+        // the owner is not part of the exploration, and is written like in the JDK's names
+        GenericDeclarationExplorer.visit(ownerType, new TypeNameWriter(out, true));
+        // the raw types may be unloaded classes read from class files
+        String ownerName = ((ParameterizedType) ownerType).getRawType().getTypeName();
+        append("$");
+        append(type.getRawType().getTypeName().substring(ownerName.length() + 1));
+        ownerWritten = true;
+    }
+
+    @Override
+    public void enterTypeArgument(@NotNull ParameterizedType type, int index, int count) {
+        append(index == 0 ? "<" : ", ");
+    }
+
+    @Override
+    public void exitTypeArgument(@NotNull ParameterizedType type, int index, int count) {
+        if (index == count - 1) {
+            append(">");
+        }
+    }
+
+    @Override
+    public void enterTypeVariable(@NotNull TypeVariable type) {
+        append(type.getName());
+        if (canonical) {
+            append("@");
+            appendDeclaration(type.getGenericDeclaration());
+        }
+    }
+
+    private void appendDeclaration(GenericDeclaration declaration) {
+        if (declaration instanceof Class) {
+            append(((Class<?>) declaration).getName());
+            return;
+        }
+        Class<?>[] parameterTypes;
+        if (declaration instanceof Method) {
+            Method method = (Method) declaration;
+            append(method.getDeclaringClass().getName());
+            append("#");
+            append(method.getName());
+            parameterTypes = method.getParameterTypes();
+        } else {
+            Constructor<?> constructor = (Constructor<?>) declaration;
+            append(constructor.getDeclaringClass().getName());
+            append("#<init>");
+            parameterTypes = constructor.getParameterTypes();
+        }
+        append("(");
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                append(", ");
+            }
+            append(parameterTypes[i].getTypeName());
+        }
+        append(")");
+    }
+
+    @Override
+    public void enterTypeVariableBound(@NotNull TypeVariable type, int index, int count) {
+        boundsDepth++;
+    }
+
+    @Override
+    public void exitTypeVariableBound(@NotNull TypeVariable type, int index, int count) {
+        boundsDepth--;
+    }
+
+    @Override
+    public void enterWildcardType(@NotNull WildcardType type) {
+        append("?");
+    }
+
+    @Override
+    public void enterUpperBound(@NotNull WildcardType type, int index, int count) {
+        append(index == 0 ? " extends " : " & ");
+    }
+
+    @Override
+    public void enterLowerBound(@NotNull WildcardType type, int index, int count) {
+        append(index == 0 ? " super " : " & ");
+    }
+
+    private void append(String text) {
+        if (boundsDepth > 0) {
+            return;
+        }
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Resolves the type variables of generic superclasses and interfaces, based on the type arguments given by a concrete
+ * subclass. For instance, with {@code class Foo extends Base<String>}, the type variable {@code T} of {@code Base}
+ * is bound to {@code String} in the context of {@code Foo}.
+ * <p>
+ * The table of all the type variables bound by a class is computed once per class, and cached for the lifetime of the
+ * class, so that resolving a type variable in the context of a given class is just a table lookup.
+ */
+public final class TypeResolver {
+
+    private static final ClassValue<Map<TypeVariable<?>, Type>> BINDINGS = new ClassValue<Map<TypeVariable<?>, Type>>() {
+        @Override
+        protected Map<TypeVariable<?>, Type> computeValue(Class<?> type) {
+            return Collections.unmodifiableMap(computeBindings(type));
+        }
+    };
+
+    private TypeResolver() {
+    }
+
+    /**
+     * Returns the types bound to the type variables of all the superclasses and interfaces of the given class, in the
+     * context of the given class. The bound types may involve the type variables of the given class itself, which are
+     * not part of the table.
+     *
+     * @param clazz
+     *         the class to get the bindings of
+     *
+     * @return an unmodifiable map from the type variables of the supertypes of the given class to their bound types
+     */
+    @NotNull
+    public static Map<TypeVariable<?>, Type> getBindings(@NotNull Class<?> clazz) {
+        return BINDINGS.get(clazz);
+    }
+
+    /**
+     * Returns the given type after replacing the type variables that are bound in the context of the given class.
+     *
+     * @param type
+     *         the type to resolve, for instance the type of a field or method of a supertype of the given class
+     * @param contextClass
+     *         the class in the context of which the type has to be resolved
+     *
+     * @return the resolved type, or the given type itself if it doesn't contain any type variable bound in the given
+     * class
+     */
+    @NotNull
+    public static Type resolve(@NotNull Type type, @NotNull Class<?> contextClass) {
+        return substitute(type, getBindings(contextClass));
+    }
+
+    /**
+     * Recursively explores the given generic type using the given handler, replacing the type variables that are bound
+     * in the context of the given class by their bound types as they are encountered.
+     *
+     * @param type
+     *         the type to explore
+     * @param contextClass
+     *         the class in the context of which the type variables have to be resolved
+     * @param handler
+     *         the handler to call on each element of the resolved type declaration
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the value produced by the given handler for the resolved type
+     */
+    public static <T> T explore(@NotNull Type type, @NotNull Class<?> contextClass,
+            @NotNull GenericTypeHandler<T> handler) {
+        return explore(type, contextClass, handler, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Recursively explores the given generic type using the given handler, replacing the type variables that are bound
+     * in the context of the given class by their bound types as they are encountered.
+     *
+     * @param type
+     *         the type to explore
+     * @param contextClass
+     *         the class in the context of which the type variables have to be resolved
+     * @param handler
+     *         the handler to call on each element of the resolved type declaration
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the value produced by the given handler for the resolved type
+     */
+    public static <T> T explore(@NotNull Type type, @NotNull Class<?> contextClass,
+            @NotNull GenericTypeHandler<T> handler, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        Map<TypeVariable<?>, Type> bindings = getBindings(contextClass);
+        return new ResolvingExplorer<>(handler, implicitBoundsPolicy, bindings).exploreRoot(type);
+    }
+
+    private static Map<TypeVariable<?>, Type> computeBindings(Class<?> clazz) {
+        Map<TypeVariable<?>, Type> bindings = new HashMap<>();
+        if (clazz.getGenericSuperclass() != null) {
+            addBindings(bindings, clazz.getGenericSuperclass());
+        }
+        for (Type genericInterface : clazz.getGenericInterfaces()) {
+            addBindings(bindings, genericInterface);
+        }
+        return bindings;
+    }
+
+    private static void addBindings(Map<TypeVariable<?>, Type> bindings, Type supertype) {
+        if (supertype instanceof Class) {
+            // raw supertype, its own supertypes can still bind type variables
+            bindings.putAll(getBindings((Class<?>) supertype));
+            return;
+        }
+        ParameterizedType parameterizedSupertype = (ParameterizedType) supertype;
+        Class<?> rawSupertype = (Class<?>) parameterizedSupertype.getRawType();
+        TypeVariable<?>[] typeParams = rawSupertype.getTypeParameters();
+        Type[] typeArgs = parameterizedSupertype.getActualTypeArguments();
+        Map<TypeVariable<?>, Type> directBindings = new HashMap<>();
+        for (int i = 0; i < typeParams.length; i++) {
+            directBindings.put(typeParams[i], typeArgs[i]);
+        }
+        bindings.putAll(directBindings);
+        // the bindings of the supertype are expressed in terms of its own type parameters, bound just above
+        getBindings(rawSupertype).forEach((variable, type) -> bindings.put(variable, substitute(type,
+                directBindings)));
+    }
+
+    static Type substitute(Type type, Map<TypeVariable<?>, Type> bindings) {
+        if (type instanceof TypeVariable) {
+            return bindings.getOrDefault(type, type);
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type[] typeArgs = parameterizedType.getActualTypeArguments();
+            if (!substituteAll(typeArgs, bindings)) {
+                return type;
+            }
+            return Types.parameterized(parameterizedType.getOwnerType(), parameterizedType.getRawType(), typeArgs);
+        }
+        if (type instanceof GenericArrayType) {
+            Type componentType = ((GenericArrayType) type).getGenericComponentType();
+            Type resolvedComponentType = substitute(componentType, bindings);
+            if (resolvedComponentType == componentType) {
+                return type;
+            }
+            if (resolvedComponentType instanceof Class) {
+                return Array.newInstance((Class<?>) resolvedComponentType, 0).getClass();
+            }
+            return Types.genericArray(resolvedComponentType);
+        }
+        if (type instanceof WildcardType) {
+            Type[] upperBounds = ((WildcardType) type).getUpperBounds();
+            Type[] lowerBounds = ((WildcardType) type).getLowerBounds();
+            // non-short-circuiting to substitute both arrays
+            if (!(substituteAll(upperBounds, bindings) | substituteAll(lowerBounds, bindings))) {
+                return type;
+            }
+            return Types.wildcard(upperBounds, lowerBounds);
+        }
+        return type;
+    }
+
+    private static boolean substituteAll(Type[] types, Map<TypeVariable<?>, Type> bindings) {
+        boolean changed = false;
+        for (int i = 0; i < types.length; i++) {
+            Type resolved = substitute(types[i], bindings);
+            changed |= resolved != types[i];
+            types[i] = resolved;
+        }
+        return changed;
+    }
+
+    private static class ResolvingExplorer<T> extends GenericDeclarationExplorer<T> {
+
+        private final Map<TypeVariable<?>, Type> bindings;
+
+        ResolvingExplorer(GenericTypeHandler<T> handler, ImplicitBoundsPolicy implicitBoundsPolicy,
+                Map<TypeVariable<?>, Type> bindings) {
+            super(handler, implicitBoundsPolicy);
+            this.bindings = bindings;
+        }
+
+        @Override
+        T explore(Type type) {
+            if (TypeCategory.of(type) != TypeCategory.TYPE_VARIABLE) {
+                // only type variables can be bound, and hashing other types would explore their whole subtree
+                return super.explore(type);
+            }
+            Type boundType = bindings.get(type);
+            return super.explore(boundType == null ? type : boundType);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Search queries on generic type declarations, which stop exploring as soon as they find a match.
+ */
+public final class TypeSearch {
+
+    private TypeSearch() {
+    }
+
+    /**
+     * Returns whether the given class appears in the given type declaration, either as a simple class, a raw type, or
+     * the component type of an array.
+     *
+     * @param type
+     *         the type to search
+     * @param clazz
+     *         the class to look for
+     *
+     * @return true if the given class is part of the given type declaration
+     */
+    public static boolean containsClass(@NotNull Type type, @NotNull Class<?> clazz) {
+        return findFirst(type, clazz::equals).isPresent();
+    }
+
+    /**
+     * Returns whether the given type declaration contains a type variable.
+     *
+     * @param type
+     *         the type to search
+     *
+     * @return true if a type variable is part of the given type declaration
+     */
+    public static boolean containsTypeVariable(@NotNull Type type) {
+        return findFirst(type, t -> t instanceof TypeVariable).isPresent();
+    }
+
+    /**
+     * Finds the first part of the given type declaration that matches the given predicate. The types are tested in
+     * depth-first order, each type being tested before its nested types.
+     *
+     * @param type
+     *         the type to search
+     * @param predicate
+     *         the predicate to test the parts of the declaration with
+     *
+     * @return the first matching part of the declaration, or an empty optional if there is no match
+     */
+    @NotNull
+    public static Optional<Type> findFirst(@NotNull Type type, @NotNull Predicate<? super Type> predicate) {
+        return findFirst(type, predicate, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Finds the first part of the given type declaration that matches the given predicate. The types are tested in
+     * depth-first order, each type being tested before its nested types.
+     *
+     * @param type
+     *         the type to search
+     * @param predicate
+     *         the predicate to test the parts of the declaration with
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     *
+     * @return the first matching part of the declaration, or an empty optional if there is no match
+     */
+    @NotNull
+    public static Optional<Type> findFirst(@NotNull Type type, @NotNull Predicate<? super Type> predicate,
+            ImplicitBoundsPolicy implicitBoundsPolicy) {
+        return GenericDeclarationExplorer.explore(type, new FirstMatchHandler(predicate), implicitBoundsPolicy);
+    }
+
+    private static class FirstMatchHandler implements PruningTypeHandler<Optional<Type>> {
+
+        private final Predicate<? super Type> predicate;
+
+        FirstMatchHandler(Predicate<? super Type> predicate) {
+            this.predicate = predicate;
+        }
+
+        @NotNull
+        @Override
+        public Decision beforeExplore(@NotNull Type type) {
+            return predicate.test(type) ? Decision.STOP : Decision.CONTINUE;
+        }
+
+        @Override
+        public Optional<Type> handleStop(@NotNull Type type) {
+            return Optional.of(type);
+        }
+
+        @Override
+        public Optional<Type> handleVoid() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Type> handleSimpleClass(@NotNull Class<?> clazz) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Type> handleEnumClass(@NotNull Class<?> clazz) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Type> handleArrayClass(@NotNull Class<?> arrayClass, Optional<Type> handledComponentClass) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Type> handleGenericArray(@NotNull GenericArrayType type,
+                Optional<Type> handledComponentClass) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Type> handleParameterizedType(@NotNull ParameterizedType type, Optional<Type> handledRawType,
+                @NotNull List<Optional<Type>> handledTypeParameters) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Type> handleTypeVariable(@NotNull TypeVariable type,
+                @NotNull List<Optional<Type>> handledBounds) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Type> handleWildcardType(@NotNull WildcardType type,
+                @NotNull List<Optional<Type>> handledUpperBounds, @NotNull List<Optional<Type>> handledLowerBounds) {
+            return Optional.empty();
+        }
+    }
+}
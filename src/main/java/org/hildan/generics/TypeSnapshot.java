@@ -0,0 +1,281 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A flattened form of a generic type declaration, which can be explored repeatedly without reflection.
+ * <p>
+ * Reflective accessors like {@link ParameterizedType#getActualTypeArguments()} or {@link TypeVariable#getBounds()}
+ * return defensive copies of their arrays, so that exploring the same declaration again and again mostly copies
+ * arrays. A snapshot records the parts of the declaration once, in the order the {@link GenericDeclarationExplorer}
+ * handles them (children first), in a few parallel arrays: the kind of each part, the part itself, and its number of
+ * children. Replaying a handler on a snapshot only walks these arrays, keeping the values of the children on a stack
+ * until their parent is handled.
+ * <p>
+ * A handler replayed on a snapshot is called on the same values and in the same order as when exploring the original
+ * declaration with the same {@link ImplicitBoundsPolicy}, so both produce the same results. {@link PruningTypeHandler}s
+ * are the exception: as their decisions may change from one exploration to the next, they explore the original
+ * declaration instead. Replays are not reported to the {@link ExplorationListener}s.
+ */
+public final class TypeSnapshot {
+
+    /**
+     * The kind of unloaded classes, which is not part of {@link TypeKind}.
+     */
+    private static final byte UNLOADED_CLASS = -1;
+
+    private static final TypeKind[] KINDS = TypeKind.values();
+
+    private final Type type;
+
+    private final ImplicitBoundsPolicy implicitBoundsPolicy;
+
+    /**
+     * The {@link TypeKind} ordinal of each part, or {@link #UNLOADED_CLASS}.
+     */
+    private final byte[] kinds;
+
+    /**
+     * The parts themselves, which are passed to the handlers.
+     */
+    private final Type[] parts;
+
+    /**
+     * The number of children of each part, which directly precede their parent (recursively).
+     */
+    private final int[] childCounts;
+
+    /**
+     * The number of upper bounds of each wildcard type, among its children, and 0 for other parts.
+     */
+    private final int[] upperBoundsCounts;
+
+    /**
+     * The maximum number of values waiting for their parent during a replay.
+     */
+    private final int maxStackSize;
+
+    private TypeSnapshot(Type type, ImplicitBoundsPolicy implicitBoundsPolicy, Recorder recorder) {
+        this.type = type;
+        this.implicitBoundsPolicy = implicitBoundsPolicy;
+        this.kinds = Arrays.copyOf(recorder.kinds, recorder.size);
+        this.parts = Arrays.copyOf(recorder.parts, recorder.size);
+        this.childCounts = Arrays.copyOf(recorder.childCounts, recorder.size);
+        this.upperBoundsCounts = Arrays.copyOf(recorder.upperBoundsCounts, recorder.size);
+        this.maxStackSize = recorder.maxStackSize;
+    }
+
+    /**
+     * Takes a snapshot of the given type declaration, ignoring implicit bounds.
+     *
+     * @param type
+     *         the type to take a snapshot of
+     *
+     * @return a snapshot of the given type
+     * @throws IllegalArgumentException
+     *         if the given type is null or contains a type of unknown category
+     */
+    @NotNull
+    public static TypeSnapshot of(@NotNull Type type) {
+        return of(type, ImplicitBoundsPolicy.IGNORE);
+    }
+
+    /**
+     * Takes a snapshot of the given type declaration.
+     *
+     * @param type
+     *         the type to take a snapshot of
+     * @param implicitBoundsPolicy
+     *         the policy regarding implicit Object upper bounds for wildcard types and type variables
+     *
+     * @return a snapshot of the given type
+     * @throws IllegalArgumentException
+     *         if the given type is null or contains a type of unknown category
+     */
+    @NotNull
+    public static TypeSnapshot of(@NotNull Type type, ImplicitBoundsPolicy implicitBoundsPolicy) {
+        Recorder recorder = new Recorder();
+        GenericDeclarationExplorer.explore(type, recorder, implicitBoundsPolicy);
+        return new TypeSnapshot(type, implicitBoundsPolicy, recorder);
+    }
+
+    /**
+     * Returns the type this snapshot was taken of.
+     *
+     * @return the root type of this snapshot
+     */
+    @NotNull
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of parts of the declaration, which is the number of handler calls of a replay.
+     *
+     * @return the number of parts of this snapshot
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * Explores the type of this snapshot using the given handler, without reflection. The implicit bounds policy is
+     * the one this snapshot was taken with.
+     *
+     * @param handler
+     *         the handler to call on each element of the type declaration
+     * @param <T>
+     *         the type of values that the given {@link GenericTypeHandler} produces
+     *
+     * @return the value produced by the given handler for the type of this snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T explore(@NotNull GenericTypeHandler<T> handler) {
+        if (handler instanceof PruningTypeHandler) {
+            return GenericDeclarationExplorer.explore(type, handler, implicitBoundsPolicy);
+        }
+        Object[] stack = new Object[maxStackSize];
+        int top = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            top -= childCounts[i];
+            stack[top] = handle(handler, i, (T[]) stack, top);
+            top++;
+        }
+        return (T) stack[0];
+    }
+
+    private <T> T handle(GenericTypeHandler<T> handler, int i, T[] stack, int first) {
+        if (kinds[i] == UNLOADED_CLASS) {
+            return handler.handleUnloadedClass((UnloadedClass) parts[i]);
+        }
+        int end = first + childCounts[i];
+        switch (KINDS[kinds[i]]) {
+        case VOID:
+            return handler.handleVoid();
+        case SIMPLE_CLASS:
+            return handler.handleSimpleClass((Class<?>) parts[i]);
+        case ENUM_CLASS:
+            return handler.handleEnumClass((Class<?>) parts[i]);
+        case ARRAY_CLASS:
+            return handler.handleArrayClass((Class<?>) parts[i], stack[first]);
+        case GENERIC_ARRAY:
+            return handler.handleGenericArray((GenericArrayType) parts[i], stack[first]);
+        case PARAMETERIZED_TYPE:
+            return handler.handleParameterizedType((ParameterizedType) parts[i], stack[first],
+                    values(stack, first + 1, end));
+        case TYPE_VARIABLE:
+            return handler.handleTypeVariable((TypeVariable) parts[i], values(stack, first, end));
+        default:
+            int split = first + upperBoundsCounts[i];
+            return handler.handleWildcardType((WildcardType) parts[i], values(stack, first, split),
+                    values(stack, split, end));
+        }
+    }
+
+    private static <T> List<T> values(T[] stack, int from, int to) {
+        if (from == to) {
+            return Collections.emptyList();
+        }
+        // handlers may keep the lists, so they can't be views of the stack
+        return Arrays.asList(Arrays.copyOfRange(stack, from, to));
+    }
+
+    /**
+     * Records the parts of a declaration in the order they are handled by the {@link GenericDeclarationExplorer}.
+     */
+    private static class Recorder implements GenericTypeHandler<Object> {
+
+        private byte[] kinds = new byte[16];
+
+        private Type[] parts = new Type[16];
+
+        private int[] childCounts = new int[16];
+
+        private int[] upperBoundsCounts = new int[16];
+
+        private int size;
+
+        private int stackSize;
+
+        private int maxStackSize;
+
+        private Object record(TypeKind kind, Type part, int childCount) {
+            return record((byte) kind.ordinal(), part, childCount, 0);
+        }
+
+        private Object record(byte kind, Type part, int childCount, int upperBoundsCount) {
+            if (size == kinds.length) {
+                kinds = Arrays.copyOf(kinds, 2 * size);
+                parts = Arrays.copyOf(parts, 2 * size);
+                childCounts = Arrays.copyOf(childCounts, 2 * size);
+                upperBoundsCounts = Arrays.copyOf(upperBoundsCounts, 2 * size);
+            }
+            kinds[size] = kind;
+            parts[size] = part;
+            childCounts[size] = childCount;
+            upperBoundsCounts[size] = upperBoundsCount;
+            size++;
+            stackSize += 1 - childCount;
+            maxStackSize = Math.max(maxStackSize, stackSize);
+            return null;
+        }
+
+        @Override
+        public Object handleVoid() {
+            return record(TypeKind.VOID, void.class, 0);
+        }
+
+        @Override
+        public Object handleSimpleClass(@NotNull Class<?> clazz) {
+            return record(TypeKind.SIMPLE_CLASS, clazz, 0);
+        }
+
+        @Override
+        public Object handleEnumClass(@NotNull Class<?> clazz) {
+            return record(TypeKind.ENUM_CLASS, clazz, 0);
+        }
+
+        @Override
+        public Object handleArrayClass(@NotNull Class<?> arrayClass, Object handledComponentClass) {
+            return record(TypeKind.ARRAY_CLASS, arrayClass, 1);
+        }
+
+        @Override
+        public Object handleGenericArray(@NotNull GenericArrayType type, Object handledComponentClass) {
+            return record(TypeKind.GENERIC_ARRAY, type, 1);
+        }
+
+        @Override
+        public Object handleParameterizedType(@NotNull ParameterizedType type, Object handledRawType,
+                @NotNull List<Object> handledTypeParameters) {
+            return record(TypeKind.PARAMETERIZED_TYPE, type, 1 + handledTypeParameters.size());
+        }
+
+        @Override
+        public Object handleTypeVariable(@NotNull TypeVariable type, @NotNull List<Object> handledBounds) {
+            return record(TypeKind.TYPE_VARIABLE, type, handledBounds.size());
+        }
+
+        @Override
+        public Object handleWildcardType(@NotNull WildcardType type, @NotNull List<Object> handledUpperBounds,
+                @NotNull List<Object> handledLowerBounds) {
+            int upperBoundsCount = handledUpperBounds.size();
+            return record((byte) TypeKind.WILDCARD_TYPE.ordinal(), type,
+                    upperBoundsCount + handledLowerBounds.size(), upperBoundsCount);
+        }
+
+        @Override
+        public Object handleUnloadedClass(@NotNull UnloadedClass clazz) {
+            return record(UNLOADED_CLASS, clazz, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Implementations of the {@link Type} sub-interfaces, with the same equality semantics as the JDK ones.
+ */
+final class Types {
+
+    private Types() {
+    }
+
+    static ParameterizedType parameterized(Type ownerType, Type rawType, Type[] typeArguments) {
+        return new ParameterizedTypeImpl(ownerType, rawType, typeArguments);
+    }
+
+    static GenericArrayType genericArray(Type componentType) {
+        return new GenericArrayTypeImpl(componentType);
+    }
+
+    static WildcardType wildcard(Type[] upperBounds, Type[] lowerBounds) {
+        return new WildcardTypeImpl(upperBounds, lowerBounds);
+    }
+
+    private static final class ParameterizedTypeImpl implements ParameterizedType {
+
+        private final Type ownerType;
+
+        private final Type rawType;
+
+        private final Type[] typeArguments;
+
+        ParameterizedTypeImpl(Type ownerType, Type rawType, Type[] typeArguments) {
+            this.ownerType = ownerType;
+            this.rawType = rawType;
+            this.typeArguments = typeArguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return typeArguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return ownerType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType that = (ParameterizedType) o;
+            return Objects.equals(ownerType, that.getOwnerType()) && rawType.equals(that.getRawType())
+                    && Arrays.equals(typeArguments, that.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(typeArguments) ^ Objects.hashCode(ownerType) ^ rawType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringJoiner args = new StringJoiner(", ", "<", ">");
+            // the inner classes of parameterized owners may have no type arguments of their own
+            args.setEmptyValue("");
+            for (Type typeArgument : typeArguments) {
+                args.add(typeArgument.getTypeName());
+            }
+            if (ownerType instanceof ParameterizedType) {
+                String simpleName = rawType instanceof UnloadedClass ? ((UnloadedClass) rawType).getSimpleName()
+                        : ((Class<?>) rawType).getSimpleName();
+                return ownerType.getTypeName() + '$' + simpleName + args;
+            }
+            return rawType.getTypeName() + args;
+        }
+    }
+
+    private static final class GenericArrayTypeImpl implements GenericArrayType {
+
+        private final Type componentType;
+
+        GenericArrayTypeImpl(Type componentType) {
+            this.componentType = componentType;
+        }
+
+        @Override
+        public Type getGenericComponentType() {
+            return componentType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof GenericArrayType && componentType.equals(((GenericArrayType) o)
+                    .getGenericComponentType());
+        }
+
+        @Override
+        public int hashCode() {
+            return componentType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return componentType.getTypeName() + "[]";
+        }
+    }
+
+    private static final class WildcardTypeImpl implements WildcardType {
+
+        private final Type[] upperBounds;
+
+        private final Type[] lowerBounds;
+
+        WildcardTypeImpl(Type[] upperBounds, Type[] lowerBounds) {
+            this.upperBounds = upperBounds;
+            this.lowerBounds = lowerBounds;
+        }
+
+        @Override
+        public Type[] getUpperBounds() {
+            return upperBounds.clone();
+        }
+
+        @Override
+        public Type[] getLowerBounds() {
+            return lowerBounds.clone();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof WildcardType)) {
+                return false;
+            }
+            WildcardType that = (WildcardType) o;
+            return Arrays.equals(upperBounds, that.getUpperBounds()) && Arrays.equals(lowerBounds,
+                    that.getLowerBounds());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(upperBounds) ^ Arrays.hashCode(lowerBounds);
+        }
+
+        @Override
+        public String toString() {
+            if (lowerBounds.length > 0) {
+                return bounds("? super ", lowerBounds);
+            }
+            if (upperBounds.length == 0 || upperBounds[0].equals(Object.class)) {
+                return "?";
+            }
+            return bounds("? extends ", upperBounds);
+        }
+
+        private static String bounds(String prefix, Type[] bounds) {
+            StringJoiner joiner = new StringJoiner(" & ", prefix, "");
+            for (Type bound : bounds) {
+                joiner.add(bound.getTypeName());
+            }
+            return joiner.toString();
+        }
+    }
+}
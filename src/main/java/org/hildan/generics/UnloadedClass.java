@@ -0,0 +1,78 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A class that is mentioned in a class file, and is only known by its name because it was not loaded. Unloaded classes
+ * are created by the {@link ClassFileReader}, and are passed to {@link GenericTypeHandler#handleUnloadedClass} during
+ * the exploration.
+ * <p>
+ * Two unloaded classes are equal if they have the same name. An unloaded class is never equal to a loaded {@link
+ * Class}, even with the same name.
+ */
+public final class UnloadedClass implements Type {
+
+    private final String name;
+
+    UnloadedClass(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the binary name of this class, as returned by {@link Class#getName()}.
+     *
+     * @return the fully qualified name of this class, using '$' to separate nested classes from their outer class
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the simple name of this class, which is the last part of its binary name. Unlike {@link
+     * Class#getSimpleName()}, anonymous and local classes are not given special treatment.
+     *
+     * @return the name of this class without its package and outer classes
+     */
+    @NotNull
+    public String getSimpleName() {
+        return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+    }
+
+    /**
+     * Loads the actual class represented by this {@code UnloadedClass}, without initializing it.
+     *
+     * @param classLoader
+     *         the class loader to load the class from
+     *
+     * @return the loaded class with the name of this unloaded class
+     * @throws ClassNotFoundException
+     *         if the class cannot be found by the given class loader
+     */
+    @NotNull
+    public Class<?> load(ClassLoader classLoader) throws ClassNotFoundException {
+        return Class.forName(name, false, classLoader);
+    }
+
+    @Override
+    public String getTypeName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof UnloadedClass && name.equals(((UnloadedClass) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
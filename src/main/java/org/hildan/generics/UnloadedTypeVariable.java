@@ -0,0 +1,89 @@
+package org.hildan.generics;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+
+/**
+ * A type variable declared in a class file that was not loaded. Its bounds are set once all the type parameters of
+ * its declaration are known, because they may refer to each other. Unloaded type variables are compared by identity,
+ * as the {@link ClassFileReader} creates a single instance per declaration.
+ */
+final class UnloadedTypeVariable implements TypeVariable<GenericDeclaration> {
+
+    private final String name;
+
+    private final String declarationName;
+
+    private Type[] bounds;
+
+    UnloadedTypeVariable(String name, String declarationName, Type[] bounds) {
+        this.name = name;
+        this.declarationName = declarationName;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Returns the name of the class or method declaring this type variable. Methods are named after their declaring
+     * class, followed by '#', their name and their descriptor, like {@code com.example.Foo#bar(I)V} or {@code
+     * com.example.Foo#<init>()V}.
+     *
+     * @return the name of the declaration of this variable, or null if this variable is declared by an outer class
+     * that was not read
+     */
+    String getDeclarationName() {
+        return declarationName;
+    }
+
+    void setBounds(Type[] bounds) {
+        this.bounds = bounds;
+    }
+
+    @Override
+    public Type[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * Unloaded type variables don't have access to their declaration, which would require loading it.
+     *
+     * @throws UnsupportedOperationException
+     *         always
+     */
+    @Override
+    public GenericDeclaration getGenericDeclaration() {
+        throw new UnsupportedOperationException("The declaration of unloaded type variable " + name + " is unknown");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public AnnotatedType[] getAnnotatedBounds() {
+        return new AnnotatedType[0];
+    }
+
+    @Override
+    public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+        return null;
+    }
+
+    @Override
+    public Annotation[] getAnnotations() {
+        return new Annotation[0];
+    }
+
+    @Override
+    public Annotation[] getDeclaredAnnotations() {
+        return new Annotation[0];
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,285 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CachingExplorerTest {
+
+    @SuppressWarnings("unused")
+    private Map<String, List<Integer>> field;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_failsOnNull() {
+        new CachingExplorer<>(new DescribingHandler()).explore(null);
+    }
+
+    @Test
+    public void explore_sameResultsAsExplorer() {
+        Type type = new TypeToken<Map<String, List<? extends Number>>>() {}.getType();
+        DescribingHandler handler = new DescribingHandler();
+        CachingExplorer<String> explorer = new CachingExplorer<>(handler, ImplicitBoundsPolicy.PROCESS);
+        String expected = GenericDeclarationExplorer.explore(type, handler, ImplicitBoundsPolicy.PROCESS);
+        assertEquals(expected, explorer.explore(type));
+        assertEquals(expected, explorer.explore(type));
+    }
+
+    @Test
+    public void explore_reusesRootResult() {
+        Type type = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+        DescribingHandler handler = new DescribingHandler();
+        CachingExplorer<String> explorer = new CachingExplorer<>(handler);
+
+        assertEquals("Map<String,List<Integer>>", explorer.explore(type));
+        int callsAfterFirstExploration = handler.getCalls();
+        assertEquals(0, explorer.getHitCount());
+        assertEquals(callsAfterFirstExploration, explorer.getMissCount());
+
+        assertEquals("Map<String,List<Integer>>", explorer.explore(type));
+        assertEquals(callsAfterFirstExploration, handler.getCalls());
+        assertEquals(1, explorer.getHitCount());
+    }
+
+    @Test
+    public void explore_reusesSubtrees() {
+        Type type1 = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+        Type type2 = new TypeToken<Set<List<Integer>>>() {}.getType();
+        DescribingHandler handler = new DescribingHandler();
+        CachingExplorer<String> explorer = new CachingExplorer<>(handler);
+
+        explorer.explore(type1);
+        int callsAfterFirstExploration = handler.getCalls();
+        assertEquals("Set<List<Integer>>", explorer.explore(type2));
+        // only Set and Set<...> are new, List<Integer> is reused
+        assertEquals(callsAfterFirstExploration + 2, handler.getCalls());
+        assertEquals(1, explorer.getHitCount());
+    }
+
+    @SuppressWarnings("unused")
+    public <T extends Comparable<T>> Map<T, List<T>> recursiveVariable() {
+        return null;
+    }
+
+    @Test
+    public void explore_doesNotReuseSubtreesWithTypeVariables() throws NoSuchMethodException {
+        Type type = CachingExplorerTest.class.getMethod("recursiveVariable").getGenericReturnType();
+        DescribingHandler handler = new DescribingHandler();
+        CachingExplorer<String> explorer = new CachingExplorer<>(handler);
+        String expected = GenericDeclarationExplorer.explore(type, handler);
+
+        assertEquals(expected, explorer.explore(type));
+        assertEquals(expected, explorer.explore(type));
+        assertEquals(1, explorer.getHitCount());
+
+        // the second occurrence of T within List<T> must not be taken from the first exploration
+        Type listOfT = ((ParameterizedType) type).getActualTypeArguments()[1];
+        assertEquals("List<T[Comparable<T[]>]>", explorer.explore(listOfT));
+    }
+
+    @Test
+    public void explore_typeVariableRoot() throws NoSuchMethodException {
+        Type listOfT = ((ParameterizedType) CachingExplorerTest.class.getMethod("recursiveVariable")
+                                                                         .getGenericReturnType())
+                .getActualTypeArguments()[1];
+        Type typeVariable = ((ParameterizedType) listOfT).getActualTypeArguments()[0];
+        CachingExplorer<String> explorer = new CachingExplorer<>(new DescribingHandler());
+
+        assertEquals("T[Comparable<T[]>]", explorer.explore(typeVariable));
+        assertEquals(0, explorer.getHitCount());
+        assertEquals(3, explorer.getMissCount());
+        assertEquals("T[Comparable<T[]>]", explorer.explore(typeVariable));
+        assertEquals(1, explorer.getHitCount());
+    }
+
+    @Test
+    public void explore_cachesNullResults() {
+        DescribingHandler counter = new DescribingHandler() {
+            @Override
+            public String handleVoid() {
+                super.handleVoid();
+                return null;
+            }
+        };
+        CachingExplorer<String> explorer = new CachingExplorer<>(counter);
+
+        assertNull(explorer.explore(void.class));
+        assertNull(explorer.explore(void.class));
+        assertEquals(1, counter.getCalls());
+        assertEquals(1, explorer.getHitCount());
+        assertEquals(1, explorer.getMissCount());
+    }
+
+    @Test
+    public void explore_reusesResultsOfEqualTypes() throws NoSuchFieldException {
+        DescribingHandler handler = new DescribingHandler();
+        CachingExplorer<String> explorer = new CachingExplorer<>(handler);
+        Field field = CachingExplorerTest.class.getDeclaredField("field");
+        explorer.explore(field.getGenericType());
+        int callsAfterFirstExploration = handler.getCalls();
+        System.gc();
+        // reflection returns a new instance each time
+        assertEquals("Map<String,List<Integer>>", explorer.explore(field.getGenericType()));
+        assertEquals(callsAfterFirstExploration, handler.getCalls());
+        assertEquals(1, explorer.getHitCount());
+    }
+
+    @Test
+    public void explore_releasesResultsWithClassLoader() throws IOException {
+        CachingExplorer<Set<Class<?>>> explorer = new CachingExplorer<>(new MentionedClassesExplorer());
+        WeakReference<ClassLoader> classLoader = explorePluginType(explorer);
+        for (int i = 0; i < 100 && classLoader.get() != null; i++) {
+            System.gc();
+        }
+        assertNull("the class loader should have been collected", classLoader.get());
+        assertEquals(Collections.singleton(String.class), explorer.explore(String.class));
+    }
+
+    private static WeakReference<ClassLoader> explorePluginType(CachingExplorer<Set<Class<?>>> explorer)
+            throws IOException {
+        CopyingClassLoader classLoader = new CopyingClassLoader();
+        Type type = TestTypes.parameterized(List.class, classLoader.copy(TestTypes.class));
+        // the cached set references the copied class
+        explorer.explore(type);
+        explorer.explore(type);
+        assertEquals(1, explorer.getHitCount());
+        return new WeakReference<>(classLoader);
+    }
+
+    @Test
+    public void explore_doesNotCacheTypesOfUnrelatedClassLoaders() throws IOException {
+        DescribingHandler handler = new DescribingHandler();
+        CachingExplorer<String> explorer = new CachingExplorer<>(handler);
+        Class<?> copy1 = new CopyingClassLoader().copy(TestTypes.class);
+        Class<?> copy2 = new CopyingClassLoader().copy(TestTypes.class);
+        Type type = TestTypes.parameterized(Map.class, copy1, copy2);
+        explorer.explore(type);
+        int callsAfterFirstExploration = handler.getCalls();
+        assertEquals("Map<TestTypes,TestTypes>", explorer.explore(type));
+        // only the root is explored again, its raw type and type arguments are taken from the cache
+        assertEquals(callsAfterFirstExploration + 1, handler.getCalls());
+        assertEquals(3, explorer.getHitCount());
+    }
+
+    /**
+     * A handler blocking the first exploration of {@code Integer} until it is released, and optionally failing it.
+     */
+    private static class BlockingHandler extends DescribingHandler {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        private final AtomicInteger integerCalls = new AtomicInteger();
+
+        private final boolean failFirst;
+
+        BlockingHandler(boolean failFirst) {
+            this.failFirst = failFirst;
+        }
+
+        @Override
+        public String handleSimpleClass(@NotNull Class<?> clazz) {
+            if (clazz == Integer.class && integerCalls.incrementAndGet() == 1) {
+                entered.countDown();
+                awaitUninterruptibly(released);
+                if (failFirst) {
+                    throw new IllegalStateException("first exploration failed");
+                }
+            }
+            return super.handleSimpleClass(clazz);
+        }
+
+        /**
+         * Explores the given type on another thread, once the first exploration of {@code Integer} is blocked, and
+         * then releases it after a while, hopefully after the given explorer started waiting for it.
+         */
+        String exploreWhileBlocked(CachingExplorer<String> explorer, Type blockedType, Type type)
+                throws InterruptedException {
+            Thread blocked = new Thread(() -> {
+                try {
+                    explorer.explore(blockedType);
+                } catch (IllegalStateException e) {
+                    // expected when failing
+                }
+            });
+            blocked.start();
+            awaitUninterruptibly(entered);
+            new Thread(() -> {
+                sleep(100);
+                released.countDown();
+            }).start();
+            String result = explorer.explore(type);
+            blocked.join();
+            return result;
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void explore_waitsForSubtreesExploredConcurrently() throws InterruptedException {
+        BlockingHandler handler = new BlockingHandler(false);
+        CachingExplorer<String> explorer = new CachingExplorer<>(handler);
+        Type list = new TypeToken<List<Integer>>() {}.getType();
+        Type set = new TypeToken<Set<Integer>>() {}.getType();
+        assertEquals("Set<Integer>", handler.exploreWhileBlocked(explorer, list, set));
+        assertEquals(1, handler.integerCalls.get());
+        assertEquals("List<Integer>", explorer.explore(list));
+    }
+
+    @Test
+    public void explore_redoesSubtreesFailedConcurrently() throws InterruptedException {
+        BlockingHandler handler = new BlockingHandler(true);
+        CachingExplorer<String> explorer = new CachingExplorer<>(handler);
+        Type list = new TypeToken<List<Integer>>() {}.getType();
+        Type set = new TypeToken<Set<Integer>>() {}.getType();
+        assertEquals("Set<Integer>", handler.exploreWhileBlocked(explorer, list, set));
+        assertEquals(2, handler.integerCalls.get());
+        // the failed exploration was not cached, unlike the successful one
+        assertEquals("List<Integer>", explorer.explore(list));
+        assertEquals("Integer", explorer.explore(Integer.class));
+        assertEquals(2, handler.integerCalls.get());
+    }
+
+    @Test
+    public void clear_forgetsResults() {
+        DescribingHandler handler = new DescribingHandler();
+        CachingExplorer<String> explorer = new CachingExplorer<>(handler);
+        explorer.explore(String.class);
+        explorer.clear();
+        explorer.explore(String.class);
+        assertEquals(2, handler.getCalls());
+        assertEquals(0, explorer.getHitCount());
+        assertEquals(2, explorer.getMissCount());
+    }
+}
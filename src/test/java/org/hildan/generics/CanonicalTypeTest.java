@@ -0,0 +1,183 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CanonicalTypeTest {
+
+    private enum MyEnum {
+        A
+    }
+
+    @SuppressWarnings("unused")
+    private static class Outer<O> {
+
+        private class Inner<I> {}
+
+        private class Plain {}
+    }
+
+    @SuppressWarnings("unused")
+    private static class Declarations<T extends Comparable<T>> {
+
+        private Map<String, List<Integer>> map;
+
+        private List<? extends Number> upperWildcard;
+
+        private List<? super Integer> lowerWildcard;
+
+        private List<?> unboundedWildcard;
+
+        private List<? extends Object> objectWildcard;
+
+        private T[][] genericArray;
+
+        private Map.Entry<String, T> entry;
+
+        private Outer<String>.Inner<Integer> inner;
+
+        private Outer<String>.Plain plain;
+
+        private int[][] arrayClass;
+
+        private MyEnum enumClass;
+
+        private Void voidClass;
+    }
+
+    @Test
+    public void of_sameStructureSameInstance() {
+        Type fromField = field("map");
+        Type fromToken = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+        assertNotSame(fromField, fromToken);
+        assertSame(CanonicalType.of(fromField), CanonicalType.of(fromToken));
+        assertEquals(CanonicalType.of(fromField).hashCode(), CanonicalType.of(fromToken).hashCode());
+    }
+
+    @Test
+    public void of_differentStructureDifferentInstance() {
+        CanonicalType mapOfLists = CanonicalType.of(field("map"));
+        CanonicalType mapOfLongs = CanonicalType.of(new TypeToken<Map<String, List<Long>>>() {}.getType());
+        assertNotEquals(mapOfLists, mapOfLongs);
+        assertNotEquals(CanonicalType.of(field("upperWildcard")), CanonicalType.of(field("lowerWildcard")));
+        assertNotEquals(CanonicalType.of(void.class), CanonicalType.of(Void.class));
+        assertNotEquals(CanonicalType.of(String.class), "java.lang.String");
+    }
+
+    @Test
+    public void of_implicitBoundsAreIgnored() {
+        assertSame(CanonicalType.of(field("unboundedWildcard")), CanonicalType.of(field("objectWildcard")));
+    }
+
+    @Test
+    public void toType_equalsOriginal() {
+        for (Field field : Declarations.class.getDeclaredFields()) {
+            Type original = field.getGenericType();
+            Type converted = CanonicalType.of(original).toType();
+            assertEquals(original, converted);
+            assertEquals(converted, original);
+            assertEquals(original.hashCode(), converted.hashCode());
+            assertEquals(original.getTypeName(), converted.getTypeName());
+        }
+        TypeVariable<?> typeVariable = Declarations.class.getTypeParameters()[0];
+        assertSame(typeVariable, CanonicalType.of(typeVariable).toType());
+    }
+
+    @Test
+    public void toType_sameInstance() {
+        CanonicalType canonicalType = CanonicalType.of(field("map"));
+        assertSame(canonicalType.toType(), canonicalType.toType());
+    }
+
+    @Test
+    public void toType_notEqualToOtherKinds() {
+        Type parameterized = CanonicalType.of(field("map")).toType();
+        Type genericArray = CanonicalType.of(field("genericArray")).toType();
+        Type wildcard = CanonicalType.of(wildcardArg("upperWildcard")).toType();
+        assertNotEquals(parameterized, genericArray);
+        assertNotEquals(genericArray, wildcard);
+        assertNotEquals(wildcard, parameterized);
+        assertNotEquals(CanonicalType.of(wildcardArg("unboundedWildcard")).toType(), wildcardArg("lowerWildcard"));
+        assertNotEquals(parameterized, new TypeToken<Map<String, List<Long>>>() {}.getType());
+    }
+
+    @Test
+    public void key_equality() {
+        CanonicalType[] noChildren = {};
+        CanonicalType.Key key = new CanonicalType.Key(TypeKind.SIMPLE_CLASS, String.class, null, null, noChildren, 0);
+        assertNotEquals(key, String.class);
+
+        CanonicalType[] children = {CanonicalType.of(String.class)};
+        CanonicalType[] otherChildren = {CanonicalType.of(Integer.class)};
+        CanonicalType.Key listKey = new CanonicalType.Key(TypeKind.PARAMETERIZED_TYPE, List.class, null, null,
+                children, 0);
+        CanonicalType.Key sameListKey = new CanonicalType.Key(TypeKind.PARAMETERIZED_TYPE, List.class, null, null,
+                children.clone(), 0);
+        CanonicalType.Key otherListKey = new CanonicalType.Key(TypeKind.PARAMETERIZED_TYPE, List.class, null, null,
+                otherChildren, 0);
+        assertEquals(listKey, sameListKey);
+        assertNotEquals(listKey, otherListKey);
+    }
+
+    @Test
+    public void toType_wildcardsRenderedLikeJdk() {
+        Type upper = ((ParameterizedType) CanonicalType.of(field("upperWildcard")).toType())
+                .getActualTypeArguments()[0];
+        assertEquals("? extends java.lang.Number", upper.getTypeName());
+        assertEquals(Collections.singletonList(Number.class), Arrays.asList(((WildcardType) upper).getUpperBounds()));
+        assertEquals(0, ((WildcardType) upper).getLowerBounds().length);
+        assertEquals("java.util.List<?>", CanonicalType.of(field("objectWildcard")).toString());
+        assertEquals("java.util.List<? super java.lang.Integer>", CanonicalType.of(field("lowerWildcard"))
+                                                                            .toString());
+    }
+
+    @Test
+    public void accessors() {
+        CanonicalType entry = CanonicalType.of(field("entry"));
+        assertEquals(TypeKind.PARAMETERIZED_TYPE, entry.getKind());
+        assertEquals(Map.Entry.class, entry.getRawClass());
+        assertSame(CanonicalType.of(Map.class), entry.getOwnerType());
+        assertEquals(Arrays.asList(CanonicalType.of(String.class),
+                CanonicalType.of(Declarations.class.getTypeParameters()[0])), entry.getChildren());
+
+        CanonicalType arrayClass = CanonicalType.of(int[][].class);
+        assertEquals(TypeKind.ARRAY_CLASS, arrayClass.getKind());
+        assertEquals(Collections.singletonList(CanonicalType.of(int[].class)), arrayClass.getChildren());
+
+        CanonicalType genericArray = CanonicalType.of(field("genericArray"));
+        assertEquals(TypeKind.GENERIC_ARRAY, genericArray.getKind());
+        assertNull(genericArray.getRawClass());
+        assertNull(genericArray.getOwnerType());
+        assertEquals(TypeKind.ENUM_CLASS, CanonicalType.of(MyEnum.class).getKind());
+        assertEquals(TypeKind.VOID, CanonicalType.of(void.class).getKind());
+    }
+
+    private static Type wildcardArg(String fieldName) {
+        return ((ParameterizedType) field(fieldName)).getActualTypeArguments()[0];
+    }
+
+    private static Type field(String name) {
+        try {
+            return Declarations.class.getDeclaredField(name).getGenericType();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package org.hildan.generics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ClassFileReaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @SuppressWarnings("unused")
+    static class Outer<O> {
+
+        class Inner<I> {
+
+            private O outerValue;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    abstract static class Sample<K extends Comparable<? super K>, V> extends AbstractMap<K, List<V>>
+            implements Serializable, Cloneable {
+
+        static final long LONG_CONSTANT = 1234567890123L;
+
+        static final double DOUBLE_CONSTANT = 1.5;
+
+        static final float FLOAT_CONSTANT = 2.5f;
+
+        static final int INT_CONSTANT = 123456789;
+
+        static final String STRING_CONSTANT = "constant";
+
+        private K[] keys;
+
+        private int[][] matrix;
+
+        private Map.Entry<K, ? extends V> entry;
+
+        private Object[] objects;
+
+        private List<?> wildcard;
+
+        private Outer<String>.Inner<V> inner;
+
+        private Outer<?>.Inner<?>[] inners;
+
+        Sample(Map<? super K, V> initial) throws IOException {
+        }
+
+        <R extends V> R find(R[] candidates, long index, double d, float f, byte b, char c, short s, boolean z)
+                throws IllegalStateException {
+            Runnable lambda = () -> { };
+            return null;
+        }
+
+        <A extends List<B>, B extends Number & Runnable> void forwardReference(A a) {
+        }
+
+        <E extends Exception> void fail() throws E {
+        }
+
+        <T> Collection<? super T> method(T t) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    interface Repository<E> extends Comparable<E> {
+
+        <T extends Comparable<T>> T find(E entity);
+    }
+
+    @SuppressWarnings("unused")
+    static class Plain implements Runnable {
+
+        private String text;
+
+        private String[] texts;
+
+        Plain() throws IOException {
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+
+    static byte[] bytesOf(Class<?> clazz) throws IOException {
+        String resourceName = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream stream = clazz.getResourceAsStream(resourceName)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            int b;
+            while ((b = stream.read()) != -1) {
+                bytes.write(b);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    private static ClassFileSignature read(Class<?> clazz) throws IOException {
+        return new ClassFileReader().read(ByteBuffer.wrap(bytesOf(clazz)));
+    }
+
+    private static List<String> describeAll(Collection<Type> types) {
+        List<String> descriptions = new ArrayList<>();
+        for (Type type : types) {
+            descriptions.add(GenericDeclarationExplorer.explore(type, new DescribingHandler()));
+        }
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+
+    @Test
+    public void read_sameTypesAsReflection() throws IOException {
+        ClassFileSignature signature = read(Sample.class);
+        List<String> expected = describeAll(ClassSignatureExplorer.getTypesInSignature(Sample.class));
+        assertEquals(expected, describeAll(signature.getTypesInSignature()));
+    }
+
+    @Test
+    public void read_classSignature() throws IOException {
+        ClassFileSignature signature = read(Sample.class);
+        assertEquals(Sample.class.getName(), signature.getName());
+        assertEquals(Sample.class.getName(), signature.toString());
+        assertTrue(Modifier.isAbstract(signature.getModifiers()));
+        assertFalse(signature.isInterface());
+
+        List<TypeVariable<?>> typeParams = signature.getTypeParameters();
+        assertEquals(2, typeParams.size());
+        assertEquals("K", typeParams.get(0).getName());
+        assertEquals("V", typeParams.get(1).getName());
+        assertEquals("AbstractMap<K[Comparable<?[][K[]]>],List<V[]>>", describe(signature.getGenericSuperclass()));
+        assertEquals(Arrays.asList("Serializable", "Cloneable"), describeInOrder(signature.getGenericInterfaces()));
+    }
+
+    @Test
+    public void read_fieldTypes() throws IOException {
+        Map<String, Type> fieldTypes = read(Sample.class).getFieldTypes();
+        assertEquals(long.class, fieldTypes.get("LONG_CONSTANT"));
+        assertEquals(int[][].class, fieldTypes.get("matrix"));
+        assertEquals(Object[].class, fieldTypes.get("objects"));
+        assertEquals("K[Comparable<?[][K[]]>][*]", describe(fieldTypes.get("keys")));
+        assertEquals("Entry<K[Comparable<?[][K[]]>],?[V[]][]>", describe(fieldTypes.get("entry")));
+        assertEquals("Inner<V[]>", describe(fieldTypes.get("inner")));
+        assertEquals("Inner<?[][]>[*]", describe(fieldTypes.get("inners")));
+    }
+
+    @Test
+    public void read_unloadedClasses() throws IOException {
+        ClassFileReader reader = new ClassFileReader();
+        ClassFileSignature sample = reader.read(ByteBuffer.wrap(bytesOf(Sample.class)));
+        ClassFileSignature plain = reader.read(ByteBuffer.wrap(bytesOf(Plain.class)));
+
+        Type list = ((ParameterizedType) sample.getFieldTypes().get("wildcard")).getRawType();
+        assertTrue(list instanceof UnloadedClass);
+        assertEquals("java.util.List", ((UnloadedClass) list).getName());
+
+        Type string = plain.getFieldTypes().get("text");
+        Type strings = plain.getFieldTypes().get("texts");
+        assertTrue(strings instanceof GenericArrayType);
+        assertSame(string, ((GenericArrayType) strings).getGenericComponentType());
+
+        Type inner = ((ParameterizedType) sample.getFieldTypes().get("inner")).getRawType();
+        assertEquals(Outer.Inner.class.getName(), inner.getTypeName());
+        assertEquals(Outer.class.getName() + "<java.lang.String>$Inner<V>",
+                sample.getFieldTypes().get("inner").getTypeName());
+    }
+
+    @Test
+    public void read_nonAsciiNames() throws IOException {
+        byte[] bytes = bytesOf(Plain.class);
+        replaceUtf8(bytes, "text", "\u00e9xy");
+        replaceUtf8(bytes, "texts", "\u20acab");
+        Map<String, Type> fieldTypes = new ClassFileReader().read(ByteBuffer.wrap(bytes)).getFieldTypes();
+        assertEquals(Arrays.asList("\u00e9xy", "\u20acab"), new ArrayList<>(fieldTypes.keySet()));
+    }
+
+    private static void replaceUtf8(byte[] classFile, String constant, String replacement) {
+        byte[] target = lengthPrefixedUtf8(constant);
+        byte[] patch = lengthPrefixedUtf8(replacement);
+        assertEquals(target.length, patch.length);
+        for (int i = 0; i < classFile.length - target.length; i++) {
+            if (Arrays.equals(target, Arrays.copyOfRange(classFile, i, i + target.length))) {
+                System.arraycopy(patch, 0, classFile, i, patch.length);
+                return;
+            }
+        }
+        throw new AssertionError("Constant " + constant + " not found");
+    }
+
+    private static byte[] lengthPrefixedUtf8(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        byte[] result = new byte[utf8.length + 2];
+        result[1] = (byte) utf8.length;
+        System.arraycopy(utf8, 0, result, 2, utf8.length);
+        return result;
+    }
+
+    @Test
+    public void read_withoutSignatureAttribute() throws IOException {
+        ClassFileSignature signature = read(Plain.class);
+        assertTrue(signature.getTypeParameters().isEmpty());
+        assertSame(Object.class, signature.getGenericSuperclass());
+        assertEquals(Collections.singletonList("Runnable"), describeInOrder(signature.getGenericInterfaces()));
+        List<String> expected = describeAll(ClassSignatureExplorer.getTypesInSignature(Plain.class));
+        expected.set(expected.indexOf("String[]"), "String[*]");
+        Collections.sort(expected);
+        assertEquals(expected, describeAll(signature.getTypesInSignature()));
+    }
+
+    @Test
+    public void read_interface() throws IOException {
+        ClassFileSignature signature = read(Repository.class);
+        assertTrue(signature.isInterface());
+        assertNull(signature.getGenericSuperclass());
+        assertEquals(Collections.singletonList("Comparable<E[]>"), describeInOrder(signature.getGenericInterfaces()));
+        List<String> expected = describeAll(ClassSignatureExplorer.getTypesInSignature(Repository.class));
+        assertEquals(expected, describeAll(signature.getTypesInSignature()));
+    }
+
+    @Test
+    public void read_object() throws IOException {
+        ClassFileSignature signature = read(Object.class);
+        assertNull(signature.getGenericSuperclass());
+        assertTrue(signature.getGenericInterfaces().isEmpty());
+    }
+
+    @Test
+    public void read_outerTypeVariable() throws IOException {
+        Type outerValue = read(Outer.Inner.class).getFieldTypes().get("outerValue");
+        TypeVariable<?> variable = (TypeVariable<?>) outerValue;
+        assertEquals("O", variable.getName());
+        assertEquals("O", variable.toString());
+        assertEquals(Collections.singletonList(Object.class), Arrays.asList(variable.getBounds()));
+        assertEquals(0, variable.getAnnotatedBounds().length);
+        assertEquals(0, variable.getAnnotations().length);
+        assertEquals(0, variable.getDeclaredAnnotations().length);
+        assertNull(variable.getAnnotation(Deprecated.class));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void read_typeVariableDeclaration() throws IOException {
+        ((TypeVariable<?>) read(Sample.class).getTypeParameters().get(0)).getGenericDeclaration();
+    }
+
+    @Test
+    public void read_doesNotMoveBufferPosition() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytesOf(Plain.class));
+        new ClassFileReader().read(buffer);
+        assertEquals(0, buffer.position());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void read_badMagicNumber() {
+        new ClassFileReader().read(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void read_truncated() throws IOException {
+        new ClassFileReader().read(ByteBuffer.wrap(Arrays.copyOf(bytesOf(Plain.class), 9)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_invalidDescriptor() {
+        new SignatureParser(UnloadedClass::new).parseFieldSignature("X");
+    }
+
+    @Test
+    public void parse_unusualSignatures() {
+        SignatureParser parser = new SignatureParser(UnloadedClass::new);
+        assertEquals(new UnloadedClass("a/Outer$Inner"), parser.parseFieldSignature("La/Outer.Inner;"));
+        assertEquals("Inner<>", describe(parser.parseFieldSignature("La/Outer<*>.Inner;")));
+
+        List<TypeVariable<?>> typeParams = new ArrayList<>();
+        List<Type> paramTypes = new ArrayList<>();
+        parser.parseMethodSignature("<A:B::[I:[La/Foo;>(TA;TB;)V", "a.Foo#m", typeParams, paramTypes,
+                new ArrayList<>());
+        assertEquals(Collections.singletonList(Object.class), Arrays.asList(typeParams.get(0).getBounds()));
+        assertEquals(Arrays.asList(int[].class, Types.genericArray(new UnloadedClass("a/Foo"))),
+                Arrays.asList(typeParams.get(1).getBounds()));
+        assertEquals(typeParams, paramTypes);
+    }
+
+    @Test
+    public void readJar() throws IOException {
+        Path jar = temporaryFolder.newFile("test.jar").toPath();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            addEntry(out, "org/hildan/Plain.class", bytesOf(Plain.class));
+            addEntry(out, "README.txt", new byte[] {1});
+            addEntry(out, "module-info.class", new byte[] {1});
+            addEntry(out, "META-INF/versions/9/org/hildan/Plain.class", new byte[] {1});
+            addEntry(out, "org/hildan/Repository.class", bytesOf(Repository.class));
+        }
+        List<ClassFileSignature> signatures = new ClassFileReader().readJar(jar);
+        assertEquals(2, signatures.size());
+        assertEquals(Plain.class.getName(), signatures.get(0).getName());
+        assertEquals(Repository.class.getName(), signatures.get(1).getName());
+    }
+
+    private static void addEntry(JarOutputStream out, String name, byte[] bytes) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(bytes);
+        out.closeEntry();
+    }
+
+    @Test
+    public void readDirectory() throws IOException {
+        Path root = temporaryFolder.newFolder("classes").toPath();
+        Path dir = Files.createDirectories(root.resolve("org/hildan"));
+        Files.write(dir.resolve("Sample.class"), bytesOf(Sample.class));
+        Files.write(dir.resolve("Plain.class"), bytesOf(Plain.class));
+        Files.write(dir.resolve("notes.txt"), new byte[] {1});
+        Files.write(root.resolve("module-info.class"), new byte[] {1});
+        List<ClassFileSignature> signatures = new ClassFileReader().readDirectory(root);
+        assertEquals(2, signatures.size());
+        assertEquals(Plain.class.getName(), signatures.get(0).getName());
+        assertEquals(Sample.class.getName(), signatures.get(1).getName());
+    }
+
+    @Test
+    public void classSignatureExplorer() throws IOException {
+        ClassFileSignature signature = read(Plain.class);
+        Map<Type, String> results = new ClassSignatureExplorer<>(new DescribingHandler()).explore(signature);
+        assertEquals(new ArrayList<>(signature.getTypesInSignature()), new ArrayList<>(results.keySet()));
+        assertTrue(results.containsValue("Runnable"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unsupportedByDefault() {
+        GenericDeclarationExplorer.explore(new UnloadedClass("com.example.Foo"), new MentionedClassesExplorer());
+    }
+
+    @Test
+    public void unloadedClass() throws ClassNotFoundException {
+        UnloadedClass unloaded = new UnloadedClass(Outer.Inner.class.getName());
+        assertEquals("Inner", unloaded.getSimpleName());
+        assertEquals("Foo", new UnloadedClass("Foo").getSimpleName());
+        assertEquals(Outer.Inner.class.getName(), unloaded.toString());
+        assertSame(Outer.Inner.class, unloaded.load(getClass().getClassLoader()));
+        assertEquals(new UnloadedClass(Outer.Inner.class.getName()), unloaded);
+        assertEquals(new UnloadedClass(Outer.Inner.class.getName()).hashCode(), unloaded.hashCode());
+        assertNotEquals(new UnloadedClass("Foo"), unloaded);
+        assertNotEquals(Outer.Inner.class, unloaded);
+    }
+
+    private static String describe(Type type) {
+        return GenericDeclarationExplorer.explore(type, new DescribingHandler());
+    }
+
+    private static List<String> describeInOrder(List<Type> types) {
+        List<String> descriptions = new ArrayList<>();
+        for (Type type : types) {
+            descriptions.add(describe(type));
+        }
+        return descriptions;
+    }
+}
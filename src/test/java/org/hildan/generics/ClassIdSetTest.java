@@ -0,0 +1,110 @@
+package org.hildan.generics;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ClassIdSetTest {
+
+    private static BitSet bitsOf(ClassIdSet set) {
+        BitSet bits = new BitSet();
+        for (int id : set.toIdArray()) {
+            bits.set(id);
+        }
+        return bits;
+    }
+
+    private static ClassIdSet randomSet(Random random, int maxId, int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = random.nextInt(maxId);
+        }
+        return ClassIdSet.ofIds(ids);
+    }
+
+    @Test
+    public void ofIds_sortsAndRemovesDuplicates() {
+        ClassIdSet set = ClassIdSet.ofIds(1000, 3, 1000, 42);
+        assertArrayEquals(new int[] {3, 42, 1000}, set.toIdArray());
+        assertEquals(3, set.size());
+        assertFalse(set.isEmpty());
+        assertEquals("[3, 42, 1000]", set.toString());
+    }
+
+    @Test
+    public void ofIds_empty() {
+        assertSame(ClassIdSet.empty(), ClassIdSet.ofIds());
+        assertTrue(ClassIdSet.empty().isEmpty());
+        assertEquals(0, ClassIdSet.empty().size());
+        assertEquals("[]", ClassIdSet.empty().toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ofIds_failsOnNegativeId() {
+        ClassIdSet.ofIds(3, -1);
+    }
+
+    @Test
+    public void containsId_denseAndSparse() {
+        ClassIdSet dense = ClassIdSet.ofIds(0, 1, 2, 3, 5, 8, 13);
+        ClassIdSet sparse = ClassIdSet.ofIds(5, 500);
+        for (ClassIdSet set : new ClassIdSet[] {dense, sparse}) {
+            assertTrue(set.containsId(5));
+            assertFalse(set.containsId(4));
+            assertFalse(set.containsId(-1));
+            assertFalse(set.containsId(100000));
+        }
+        assertEquals(7, dense.size());
+    }
+
+    @Test
+    public void union_intersection_sameAsBitSet() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            ClassIdSet a = randomSet(random, 1 + random.nextInt(1000), random.nextInt(200));
+            ClassIdSet b = randomSet(random, 1 + random.nextInt(1000), random.nextInt(200));
+
+            BitSet union = bitsOf(a);
+            union.or(bitsOf(b));
+            assertEquals(union, bitsOf(a.union(b)));
+            assertEquals(ClassIdSet.ofIds(union.stream().toArray()), a.union(b));
+
+            BitSet intersection = bitsOf(a);
+            intersection.and(bitsOf(b));
+            assertEquals(intersection, bitsOf(a.intersection(b)));
+            assertEquals(ClassIdSet.ofIds(intersection.stream().toArray()), a.intersection(b));
+        }
+    }
+
+    @Test
+    public void union_withEmpty() {
+        ClassIdSet set = ClassIdSet.ofIds(1, 2);
+        assertSame(set, set.union(ClassIdSet.empty()));
+        assertSame(set, ClassIdSet.empty().union(set));
+    }
+
+    @Test
+    public void intersection_disjointBitsets() {
+        ClassIdSet a = ClassIdSet.ofIds(0, 1, 2, 3);
+        ClassIdSet b = ClassIdSet.ofIds(4, 5, 6, 7);
+        assertSame(ClassIdSet.empty(), a.intersection(b));
+    }
+
+    @Test
+    public void equals_dependsOnIdsOnly() {
+        ClassIdSet set = ClassIdSet.ofIds(1, 2, 3);
+        assertEquals(set, set);
+        assertEquals(set, ClassIdSet.ofIds(3, 2, 1));
+        assertEquals(set.hashCode(), ClassIdSet.ofIds(3, 2, 1).hashCode());
+        assertNotEquals(set, ClassIdSet.ofIds(1, 2));
+        assertNotEquals(set, "[1, 2, 3]");
+    }
+}
@@ -0,0 +1,133 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClassSignatureExplorerTest {
+
+    @SuppressWarnings("unused")
+    private interface Repository<E, K extends Serializable> {}
+
+    @SuppressWarnings("unused")
+    private static class Address {
+
+        private String street;
+
+        private int number;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Entity {
+
+        private Map<String, List<Address>> addresses;
+    }
+
+    @SuppressWarnings("unused")
+    private static class EntityList<X extends Number> extends AbstractList<Entity> implements Repository<Entity, Long> {
+
+        private Set<Entity> cache;
+
+        EntityList(Map<String, X> initialValues) throws IOException {
+        }
+
+        <R> Optional<R> find(List<? super R> candidates, int index) throws IllegalStateException {
+            return Optional.empty();
+        }
+
+        @Override
+        public Entity get(int index) {
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+
+    @Test
+    public void getTypesInSignature_simpleClass() {
+        Set<Type> types = ClassSignatureExplorer.getTypesInSignature(Address.class);
+        assertEquals(new LinkedHashSet<>(Arrays.asList(Object.class, String.class, int.class)), types);
+    }
+
+    @Test
+    public void getTypesInSignature_genericClass() throws NoSuchMethodException {
+        Set<Type> types = ClassSignatureExplorer.getTypesInSignature(EntityList.class);
+        List<Type> expectedTypes = new ArrayList<>();
+        expectedTypes.add(EntityList.class.getTypeParameters()[0]);
+        expectedTypes.add(new TypeToken<AbstractList<Entity>>() {}.getType());
+        expectedTypes.add(new TypeToken<Repository<Entity, Long>>() {}.getType());
+        expectedTypes.add(new TypeToken<Set<Entity>>() {}.getType());
+        expectedTypes.add(EntityList.class.getDeclaredConstructor(Map.class).getGenericParameterTypes()[0]);
+        expectedTypes.add(IOException.class);
+        expectedTypes.addAll(Arrays.asList(EntityList.class.getDeclaredMethod("find", List.class, int.class)
+                                                           .getTypeParameters()));
+        expectedTypes.add(EntityList.class.getDeclaredMethod("find", List.class, int.class)
+                                          .getGenericParameterTypes()[0]);
+        expectedTypes.add(int.class);
+        expectedTypes.add(EntityList.class.getDeclaredMethod("find", List.class, int.class).getGenericReturnType());
+        expectedTypes.add(IllegalStateException.class);
+        expectedTypes.add(Entity.class);
+
+        assertEquals(new HashSet<>(expectedTypes), types);
+        assertEquals(expectedTypes.subList(0, 6), new ArrayList<>(types).subList(0, 6));
+    }
+
+    @Test
+    public void explore_allTypesInSignature() {
+        ClassSignatureExplorer<Set<Class<?>>> explorer = new ClassSignatureExplorer<>(new MentionedClassesExplorer());
+        Map<Type, Set<Class<?>>> results = explorer.explore(Entity.class);
+        assertEquals(ClassSignatureExplorer.getTypesInSignature(Entity.class), results.keySet());
+        for (Map.Entry<Type, Set<Class<?>>> entry : results.entrySet()) {
+            assertEquals(MentionedClassesExplorer.getClassesInDeclaration(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Test
+    public void explore_withPolicy() {
+        DescribingHandler handler = new DescribingHandler();
+        ClassSignatureExplorer<String> explorer = new ClassSignatureExplorer<>(handler, ImplicitBoundsPolicy.PROCESS);
+        Map<Type, String> results = explorer.explore(EntityList.class);
+        Type typeParam = EntityList.class.getTypeParameters()[0];
+        assertEquals("X[Number]", results.get(typeParam));
+
+        int callsAfterFirstExploration = handler.getCalls();
+        assertEquals(results, explorer.explore(EntityList.class));
+        assertEquals(callsAfterFirstExploration, handler.getCalls());
+    }
+
+    @Test
+    public void getReachableClasses_withFilter() {
+        Set<Class<?>> reachable = ClassSignatureExplorer.getReachableClasses(EntityList.class,
+                c -> c.getName().startsWith(ClassSignatureExplorerTest.class.getName()));
+        assertEquals(Arrays.asList(EntityList.class, Entity.class, Repository.class, Address.class),
+                new ArrayList<>(reachable));
+    }
+
+    @Test
+    public void getReachableClasses_all() {
+        Set<Class<?>> reachable = ClassSignatureExplorer.getReachableClasses(Address.class);
+        assertTrue(reachable.contains(String.class));
+        assertTrue(reachable.contains(CharSequence.class));
+        assertFalse(reachable.contains(int.class));
+    }
+}
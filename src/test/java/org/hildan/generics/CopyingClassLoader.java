@@ -0,0 +1,22 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+
+/**
+ * A test class loader defining its own copies of classes, like the class loader of a plugin that can be dropped.
+ */
+class CopyingClassLoader extends ClassLoader {
+
+    CopyingClassLoader() {
+        super(CopyingClassLoader.class.getClassLoader());
+    }
+
+    /**
+     * Defines a copy of the given class in this class loader. The class has to be a top-level class, because the copy
+     * of a nested class does not match its enclosing class.
+     */
+    Class<?> copy(Class<?> clazz) throws IOException {
+        byte[] bytes = ClassFileReaderTest.bytesOf(clazz);
+        return defineClass(clazz.getName(), bytes, 0, bytes.length);
+    }
+}
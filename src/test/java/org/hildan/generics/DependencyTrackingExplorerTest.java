@@ -0,0 +1,248 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DependencyTrackingExplorerTest {
+
+    /**
+     * A handler producing new strings, which are thus only the same instance when they come from the cache.
+     */
+    private static class AllocatingHandler extends DescribingHandler {
+
+        private Runnable onSimpleClass = () -> { };
+
+        @Override
+        public String handleSimpleClass(@NotNull Class<?> clazz) {
+            Runnable action = onSimpleClass;
+            onSimpleClass = () -> { };
+            action.run();
+            return new String(super.handleSimpleClass(clazz));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_failsOnNull() {
+        new DependencyTrackingExplorer<>(new DescribingHandler()).explore(null);
+    }
+
+    @Test
+    public void explore_reusesResults() {
+        Type type = new TypeToken<Map<String, List<? extends Number>>>() {}.getType();
+        DescribingHandler handler = new DescribingHandler();
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(handler,
+                ImplicitBoundsPolicy.PROCESS);
+        String expected = GenericDeclarationExplorer.explore(type, handler, ImplicitBoundsPolicy.PROCESS);
+        int calls = handler.getCalls();
+        assertEquals(expected, explorer.explore(type));
+        assertEquals(expected, explorer.explore(type));
+        assertEquals(2 * calls, handler.getCalls());
+        assertEquals(1, explorer.size());
+    }
+
+    @Test
+    public void explore_cachesNullResults() {
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(new DescribingHandler() {
+            @Override
+            public String handleSimpleClass(@NotNull Class<?> clazz) {
+                super.handleSimpleClass(clazz);
+                return null;
+            }
+        });
+        assertNull(explorer.explore(String.class));
+        assertNull(explorer.explore(String.class));
+        assertEquals(1, explorer.size());
+    }
+
+    @Test
+    public void invalidate_evictsDependentsOfClass() {
+        Type map = new TypeToken<Map<String, Integer>>() {}.getType();
+        Type list = new TypeToken<List<String>>() {}.getType();
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(new AllocatingHandler());
+        String mapResult = explorer.explore(map);
+        String listResult = explorer.explore(list);
+        explorer.explore(Integer.class);
+
+        assertEquals(2, explorer.invalidate(Integer.class));
+        assertEquals(0, explorer.invalidate(Integer.class));
+        assertEquals(0, explorer.invalidate(Long.class));
+        assertEquals(1, explorer.size());
+        assertSame(listResult, explorer.explore(list));
+        assertNotSame(mapResult, explorer.explore(map));
+
+        assertEquals(2, explorer.invalidate(String.class));
+        assertEquals(0, explorer.size());
+        assertEquals(0, explorer.getDependencyCount());
+    }
+
+    @Test
+    public void invalidate_evictsDependentsOfClassLoader() throws IOException {
+        CopyingClassLoader classLoader = new CopyingClassLoader();
+        Class<?> plugin = classLoader.copy(TestTypes.class);
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(new DescribingHandler());
+        explorer.explore(plugin);
+        explorer.explore(TestTypes.parameterized(List.class, plugin));
+        explorer.explore(TestTypes.class);
+        explorer.explore(TestTypes.parameterized(List.class, String.class));
+
+        assertEquals(0, explorer.invalidate(new CopyingClassLoader()));
+        assertEquals(2, explorer.invalidate(classLoader));
+        assertEquals(2, explorer.size());
+        // List<String> only depends on classes of the bootstrap class loader
+        assertEquals(1, explorer.invalidate(CopyingClassLoader.class.getClassLoader()));
+        assertEquals(1, explorer.size());
+    }
+
+    @Test
+    public void explore_doesNotCacheResultsInvalidatedDuringExploration() {
+        AllocatingHandler handler = new AllocatingHandler();
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(handler);
+        handler.onSimpleClass = () -> explorer.invalidate(String.class);
+        explorer.explore(String.class);
+        assertEquals(0, explorer.size());
+        explorer.explore(String.class);
+        assertEquals(1, explorer.size());
+    }
+
+    @Test
+    public void explore_cachesResultsDuringInvalidationOfOtherClasses() throws IOException {
+        AllocatingHandler handler = new AllocatingHandler();
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(handler);
+        handler.onSimpleClass = () -> {
+            explorer.invalidate(Integer.class);
+            explorer.invalidate(new CopyingClassLoader());
+        };
+        String result = explorer.explore(String.class);
+        assertEquals(1, explorer.size());
+        assertSame(result, explorer.explore(String.class));
+    }
+
+    @Test
+    public void explore_doesNotCacheResultsDuringInvalidationOfClassLoader() throws IOException {
+        AllocatingHandler handler = new AllocatingHandler();
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(handler);
+        CopyingClassLoader classLoader = new CopyingClassLoader();
+        Type type = TestTypes.parameterized(List.class, classLoader.copy(TestTypes.class));
+        handler.onSimpleClass = () -> explorer.invalidate(classLoader);
+        explorer.explore(type);
+        assertEquals(0, explorer.size());
+    }
+
+    @Test
+    public void explore_doesNotCacheResultsDuringClear() {
+        AllocatingHandler handler = new AllocatingHandler();
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(handler);
+        handler.onSimpleClass = explorer::clear;
+        explorer.explore(String.class);
+        assertEquals(0, explorer.size());
+    }
+
+    @Test
+    public void explore_keepsFirstStoredResult() {
+        AllocatingHandler handler = new AllocatingHandler();
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(handler);
+        String[] innerResult = new String[1];
+        handler.onSimpleClass = () -> innerResult[0] = explorer.explore(String.class);
+        explorer.explore(String.class);
+        assertSame(innerResult[0], explorer.explore(String.class));
+        assertEquals(1, explorer.size());
+        assertEquals(1, explorer.invalidate(String.class));
+    }
+
+    @Test
+    public void clear_removesAllResults() {
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(new DescribingHandler());
+        explorer.explore(new TypeToken<Map<String, Integer>>() {}.getType());
+        explorer.explore(Long.class);
+        explorer.clear();
+        assertEquals(0, explorer.size());
+        assertEquals(0, explorer.getDependencyCount());
+        assertEquals(0, explorer.invalidate(Long.class));
+    }
+
+    @Test
+    public void explore_reusesResultsOfEqualTypes() {
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(new AllocatingHandler());
+        String result = explorer.explore(Types.parameterized(null, List.class, new Type[] {String.class}));
+        System.gc();
+        assertSame(result, explorer.explore(Types.parameterized(null, List.class, new Type[] {String.class})));
+        assertEquals(1, explorer.size());
+    }
+
+    @Test
+    public void explore_forgetsResultsOfCollectedClassLoaders() throws IOException {
+        DependencyTrackingExplorer<Set<Class<?>>> explorer = new DependencyTrackingExplorer<>(
+                new MentionedClassesExplorer());
+        explorer.explore(Long.class);
+        WeakReference<ClassLoader> classLoader = explorePluginType(explorer);
+        assertEquals(2, explorer.size());
+        awaitDependencyCount(explorer, 1);
+        assertNull(classLoader.get());
+        assertEquals(1, explorer.size());
+    }
+
+    private static WeakReference<ClassLoader> explorePluginType(DependencyTrackingExplorer<Set<Class<?>>> explorer)
+            throws IOException {
+        CopyingClassLoader classLoader = new CopyingClassLoader();
+        // the cached set references the copied class
+        explorer.explore(TestTypes.parameterized(List.class, classLoader.copy(TestTypes.class)));
+        return new WeakReference<>(classLoader);
+    }
+
+    @Test
+    public void explore_doesNotCacheTypesOfUnrelatedClassLoaders() throws IOException {
+        DescribingHandler handler = new DescribingHandler();
+        DependencyTrackingExplorer<String> explorer = new DependencyTrackingExplorer<>(handler);
+        Class<?> copy1 = new CopyingClassLoader().copy(TestTypes.class);
+        Class<?> copy2 = new CopyingClassLoader().copy(TestTypes.class);
+        Type type = TestTypes.parameterized(Map.class, copy1, copy2);
+        String expected = explorer.explore(type);
+        int calls = handler.getCalls();
+        assertEquals(expected, explorer.explore(type));
+        assertEquals(2 * calls, handler.getCalls());
+        assertEquals(0, explorer.size());
+    }
+
+    private static void awaitDependencyCount(DependencyTrackingExplorer<?> explorer, int expectedCount) {
+        // the collected references are enqueued asynchronously
+        for (int i = 0; i < 100 && explorer.getDependencyCount() != expectedCount; i++) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        assertEquals(expectedCount, explorer.getDependencyCount());
+    }
+
+    @Test
+    public void identityWeakReference_equalsReferencesToSameObject() {
+        Object referent = new Object();
+        DependencyTrackingExplorer.IdentityWeakReference reference = new DependencyTrackingExplorer
+                .IdentityWeakReference(referent);
+        assertEquals(reference, reference);
+        assertEquals(reference, new DependencyTrackingExplorer.IdentityWeakReference(referent));
+        assertEquals(reference.hashCode(), System.identityHashCode(referent));
+        assertNotEquals(reference, new DependencyTrackingExplorer.IdentityWeakReference(new Object()));
+        assertNotEquals(reference, referent);
+        reference.clear();
+        assertNotEquals(reference, new DependencyTrackingExplorer.IdentityWeakReference(referent));
+        assertEquals(reference, reference);
+    }
+}
@@ -0,0 +1,78 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A test handler describing the exact structure it was called with, and counting its calls.
+ */
+class DescribingHandler implements GenericTypeHandler<String> {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    int getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    public String handleVoid() {
+        calls.incrementAndGet();
+        return "void";
+    }
+
+    @Override
+    public String handleSimpleClass(@NotNull Class<?> clazz) {
+        calls.incrementAndGet();
+        return clazz.getSimpleName();
+    }
+
+    @Override
+    public String handleEnumClass(@NotNull Class<?> clazz) {
+        calls.incrementAndGet();
+        return "enum " + clazz.getSimpleName();
+    }
+
+    @Override
+    public String handleArrayClass(@NotNull Class<?> arrayClass, String handledComponentClass) {
+        calls.incrementAndGet();
+        return handledComponentClass + "[]";
+    }
+
+    @Override
+    public String handleGenericArray(@NotNull GenericArrayType type, String handledComponentClass) {
+        calls.incrementAndGet();
+        return handledComponentClass + "[*]";
+    }
+
+    @Override
+    public String handleParameterizedType(@NotNull ParameterizedType type, String handledRawType,
+            @NotNull List<String> handledTypeParameters) {
+        calls.incrementAndGet();
+        return handledRawType + "<" + String.join(",", handledTypeParameters) + ">";
+    }
+
+    @Override
+    public String handleTypeVariable(@NotNull TypeVariable type, @NotNull List<String> handledBounds) {
+        calls.incrementAndGet();
+        return type.getName() + handledBounds;
+    }
+
+    @Override
+    public String handleWildcardType(@NotNull WildcardType type, @NotNull List<String> handledUpperBounds,
+            @NotNull List<String> handledLowerBounds) {
+        calls.incrementAndGet();
+        return "?" + handledUpperBounds + handledLowerBounds;
+    }
+
+    @Override
+    public String handleUnloadedClass(@NotNull UnloadedClass clazz) {
+        calls.incrementAndGet();
+        return clazz.getSimpleName();
+    }
+}
@@ -0,0 +1,143 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class ExplorationLimitsTest {
+
+    private static Type deepList(int depth) {
+        Type type = String.class;
+        for (int i = 1; i < depth; i++) {
+            type = TestTypes.parameterized(List.class, type);
+        }
+        return type;
+    }
+
+    private static ExplorationLimitExceededException exploreAndFail(Type type, ExplorationLimits limits) {
+        try {
+            GenericDeclarationExplorer.explore(type, new DescribingHandler(), ImplicitBoundsPolicy.IGNORE, limits);
+        } catch (ExplorationLimitExceededException e) {
+            return e;
+        }
+        throw new AssertionError("the exploration should have exceeded its limits");
+    }
+
+    @Test
+    public void explore_withinLimits() {
+        Type type = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+        ExplorationLimits limits = ExplorationLimits.none().withMaxDepth(3).withMaxNodes(6).withTimeout(
+                Duration.ofMinutes(1));
+        assertEquals("Map<String,List<Integer>>",
+                GenericDeclarationExplorer.explore(type, new DescribingHandler(), ImplicitBoundsPolicy.IGNORE, limits));
+        assertEquals(GenericDeclarationExplorer.explore(deepList(200), new DescribingHandler()),
+                GenericDeclarationExplorer.explore(deepList(200), new DescribingHandler(), ImplicitBoundsPolicy.IGNORE,
+                        ExplorationLimits.none()));
+    }
+
+    @Test
+    public void explore_maxDepthExceeded() {
+        Type type = deepList(10);
+        ExplorationLimitExceededException e = exploreAndFail(type, ExplorationLimits.none().withMaxDepth(4));
+        assertEquals(ExplorationLimitExceededException.Limit.DEPTH, e.getLimit());
+        assertSame(type, e.getRootType());
+        // the raw type of the 4th nested list is at depth 5
+        assertEquals(List.class, e.getType());
+    }
+
+    @Test
+    public void explore_maxNodesExceeded() {
+        Type type = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+        ExplorationLimitExceededException e = exploreAndFail(type, ExplorationLimits.none().withMaxNodes(5));
+        assertEquals(ExplorationLimitExceededException.Limit.NODES, e.getLimit());
+        assertEquals(Integer.class, e.getType());
+    }
+
+    @Test
+    public void explore_timeoutExceeded() {
+        ExplorationLimits limits = ExplorationLimits.none().withTimeout(Duration.ZERO);
+        // the clock is not read before enough types have been explored
+        assertEquals(GenericDeclarationExplorer.explore(deepList(30), new DescribingHandler()),
+                GenericDeclarationExplorer.explore(deepList(30), new DescribingHandler(), ImplicitBoundsPolicy.IGNORE,
+                        limits));
+        ExplorationLimitExceededException e = exploreAndFail(deepList(200), limits);
+        assertEquals(ExplorationLimitExceededException.Limit.TIME, e.getLimit());
+    }
+
+    @Test
+    public void explore_fallbackValue() {
+        MentionedClassesExplorer handler = new MentionedClassesExplorer() {
+            @Override
+            public Set<Class<?>> handleLimitExceeded(@NotNull ExplorationLimitExceededException exception) {
+                return Collections.emptySet();
+            }
+        };
+        ExplorationLimits limits = ExplorationLimits.none().withMaxDepth(2);
+        assertEquals(Collections.emptySet(),
+                GenericDeclarationExplorer.explore(deepList(3), handler, ImplicitBoundsPolicy.IGNORE, limits));
+        assertEquals(Collections.emptySet(),
+                GenericDeclarationExplorer.explore(deepList(3), FusedHandler.of(handler), ImplicitBoundsPolicy.IGNORE,
+                        limits).get(handler));
+    }
+
+    @Test
+    public void explore_limitsWithListeners() {
+        ExplorationListener listener = stats -> { };
+        ExplorationListeners.register(listener);
+        try {
+            Type type = deepList(5);
+            assertEquals(ExplorationLimitExceededException.Limit.DEPTH,
+                    exploreAndFail(type, ExplorationLimits.none().withMaxDepth(4)).getLimit());
+            assertEquals(GenericDeclarationExplorer.explore(type, new DescribingHandler()),
+                    GenericDeclarationExplorer.explore(type, new DescribingHandler(), ImplicitBoundsPolicy.IGNORE,
+                            ExplorationLimits.none().withMaxDepth(5)));
+        } finally {
+            ExplorationListeners.unregister(listener);
+        }
+    }
+
+    @Test
+    public void getters() {
+        ExplorationLimits limits = ExplorationLimits.none().withMaxDepth(3).withMaxNodes(20).withTimeout(
+                Duration.ofMillis(5));
+        assertEquals(3, limits.getMaxDepth());
+        assertEquals(20, limits.getMaxNodes());
+        assertEquals(Duration.ofMillis(5), limits.getTimeout());
+        assertEquals("ExplorationLimits{maxDepth=3, maxNodes=20, timeout=PT0.005S}", limits.toString());
+        assertEquals(Integer.MAX_VALUE, ExplorationLimits.none().getMaxDepth());
+    }
+
+    @Test
+    public void invalidLimits() {
+        try {
+            ExplorationLimits.none().withMaxDepth(0);
+            fail("a depth of 0 should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            ExplorationLimits.none().withMaxNodes(0);
+            fail("a number of nodes of 0 should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            ExplorationLimits.none().withTimeout(Duration.ofSeconds(-1));
+            fail("a negative timeout should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExplorationListenerTest {
+
+    private static class RecordingListener implements ExplorationListener {
+
+        private final List<Type> started = new ArrayList<>();
+
+        private final List<ExplorationStats> finished = new ArrayList<>();
+
+        @Override
+        public void explorationStarted(Type rootType) {
+            started.add(rootType);
+        }
+
+        @Override
+        public void explorationFinished(ExplorationStats stats) {
+            finished.add(stats);
+        }
+    }
+
+    private final RecordingListener listener = new RecordingListener();
+
+    private final List<ExplorationStats> disabledListenerStats = new ArrayList<>();
+
+    private final ExplorationListener disabledListener = new ExplorationListener() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void explorationFinished(ExplorationStats stats) {
+            disabledListenerStats.add(stats);
+        }
+    };
+
+    @Before
+    public void registerListeners() {
+        ExplorationListeners.register(listener);
+        ExplorationListeners.register(disabledListener);
+    }
+
+    @After
+    public void unregisterListeners() {
+        assertTrue(ExplorationListeners.unregister(listener));
+        assertTrue(ExplorationListeners.unregister(disabledListener));
+        assertFalse(ExplorationListeners.unregister(listener));
+    }
+
+    @Test
+    public void explore_measuresExploration() {
+        Type type = new TypeToken<Map<String, List<? extends Number>[]>>() {}.getType();
+        GenericDeclarationExplorer.explore(type, new MentionedClassesExplorer());
+
+        assertEquals(1, listener.started.size());
+        assertSame(type, listener.started.get(0));
+        ExplorationStats stats = listener.finished.get(0);
+        assertSame(type, stats.getRootType());
+        assertSame(MentionedClassesExplorer.class, stats.getHandlerClass());
+        // Map<..>, Map, String, List<..>[], List<..>, List, ?, Number
+        assertEquals(8, stats.getNodeCount());
+        assertEquals(2, stats.getCount(TypeKind.PARAMETERIZED_TYPE));
+        assertEquals(4, stats.getCount(TypeKind.SIMPLE_CLASS));
+        assertEquals(1, stats.getCount(TypeKind.GENERIC_ARRAY));
+        assertEquals(1, stats.getCount(TypeKind.WILDCARD_TYPE));
+        assertEquals(0, stats.getCount(TypeKind.TYPE_VARIABLE));
+        assertEquals(5, stats.getMaxDepth());
+        assertTrue(stats.getDurationNanos() >= 0);
+        assertTrue(stats.isCompleted());
+        assertTrue(stats.toString().contains("nodes=8"));
+        assertTrue(disabledListenerStats.isEmpty());
+    }
+
+    @Test
+    public void explore_measuresUnloadedClasses() {
+        List<ExplorationStats> lambdaStats = new ArrayList<>();
+        ExplorationListener lambdaListener = lambdaStats::add;
+        ExplorationListeners.register(lambdaListener);
+        try {
+            GenericDeclarationExplorer.explore(new UnloadedClass("com.example.Foo"), new DescribingHandler());
+        } finally {
+            ExplorationListeners.unregister(lambdaListener);
+        }
+        assertEquals(1, listener.finished.get(0).getCount(TypeKind.SIMPLE_CLASS));
+        assertSame(listener.finished.get(0), lambdaStats.get(0));
+    }
+
+    @Test
+    public void explore_measuresFailedExploration() {
+        Type type = TestTypes.parameterized(List.class, new Type() {});
+        try {
+            GenericDeclarationExplorer.explore(type, new MentionedClassesExplorer());
+            fail("unknown type categories should not be explored");
+        } catch (IllegalArgumentException e) {
+            ExplorationStats stats = listener.finished.get(0);
+            assertFalse(stats.isCompleted());
+            assertEquals(2, stats.getNodeCount());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_nullTypeIsNotMeasured() {
+        try {
+            GenericDeclarationExplorer.explore(null, new MentionedClassesExplorer());
+        } finally {
+            assertTrue(listener.started.isEmpty());
+        }
+    }
+
+    @Test
+    public void explore_noMeasurementsAfterUnregistering() {
+        ExplorationListeners.unregister(listener);
+        GenericDeclarationExplorer.explore(String.class, new MentionedClassesExplorer());
+        assertTrue(listener.finished.isEmpty());
+        ExplorationListeners.register(listener);
+    }
+
+    @Test
+    public void getEnabledListeners_sharesArrays() {
+        assertArrayEquals(new ExplorationListener[] {listener}, ExplorationListeners.getEnabledListeners());
+        ExplorationListeners.unregister(listener);
+        // only disabled listeners are registered, nothing should be allocated
+        ExplorationListener[] enabled = ExplorationListeners.getEnabledListeners();
+        assertEquals(0, enabled.length);
+        assertSame(enabled, ExplorationListeners.getEnabledListeners());
+        ExplorationListeners.unregister(disabledListener);
+        ExplorationListeners.register(listener);
+        assertSame(ExplorationListeners.getEnabledListeners(), ExplorationListeners.getEnabledListeners());
+        ExplorationListeners.register(disabledListener);
+    }
+}
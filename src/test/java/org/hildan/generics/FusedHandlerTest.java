@@ -0,0 +1,106 @@
+package org.hildan.generics;
+
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+
+public class FusedHandlerTest {
+
+    @SuppressWarnings("unused")
+    private static class Bounded<K extends Comparable<K>, V extends Number & Runnable> {}
+
+    private static void check(Type type) {
+        MentionedClassesExplorer classes = new MentionedClassesExplorer();
+        DescribingHandler describer = new DescribingHandler();
+        MentionedClassIds ids = new MentionedClassIds();
+        FusedResults results = FusedHandler.explore(type, classes, describer, ids);
+
+        assertEquals(3, results.size());
+        assertEquals(GenericDeclarationExplorer.explore(type, classes), results.get(classes));
+        assertEquals(GenericDeclarationExplorer.explore(type, new DescribingHandler()), results.get(describer));
+        assertEquals(GenericDeclarationExplorer.explore(type, ids), results.get(ids));
+        assertEquals(results.get(describer), results.get(1));
+    }
+
+    @Test
+    public void explore_sameResultsAsSeparateExplorations() {
+        check(void.class);
+        check(int[][].class);
+        check(RetentionPolicy.class);
+        check(new TypeToken<Map<String, List<? super Integer>[]>>() {}.getType());
+        check(new TypeToken<Map<? extends Number, ?>>() {}.getType());
+        check(Bounded.class.getTypeParameters()[0]);
+        check(Bounded.class.getTypeParameters()[1]);
+    }
+
+    @Test
+    public void explore_unloadedClass() {
+        DescribingHandler describer = new DescribingHandler();
+        FusedResults results = FusedHandler.explore(new UnloadedClass("com.example.Foo"), describer, describer);
+        assertEquals("[Foo, Foo]", results.toString());
+    }
+
+    @Test
+    public void explore_callsAccessorsOncePerNode() {
+        AtomicInteger accessorCalls = new AtomicInteger();
+        ParameterizedType parameterized = TestTypes.parameterized(Map.class, String.class, Integer.class);
+        ParameterizedType type = new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                accessorCalls.incrementAndGet();
+                return parameterized.getActualTypeArguments();
+            }
+
+            @Override
+            public Type getRawType() {
+                return parameterized.getRawType();
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+        DescribingHandler describer = new DescribingHandler();
+        FusedResults results = FusedHandler.explore(type, describer, new MentionedClassesExplorer(), describer);
+        assertEquals("Map<String,Integer>", results.get(describer));
+        assertEquals(1, accessorCalls.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void of_failsOnPruningHandler() {
+        class NonPruningHandler extends DescribingHandler implements PruningTypeHandler<String> {
+
+            @Override
+            public Decision beforeExplore(Type type) {
+                return Decision.CONTINUE;
+            }
+
+            @Override
+            public String handleSkipped(Type type) {
+                return "skipped";
+            }
+
+            @Override
+            public String handleStop(Type type) {
+                return "stopped";
+            }
+        }
+
+        FusedHandler.of(new DescribingHandler(), new NonPruningHandler());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void get_failsOnUnknownHandler() {
+        FusedHandler.explore(String.class, new DescribingHandler()).get(new DescribingHandler());
+    }
+}
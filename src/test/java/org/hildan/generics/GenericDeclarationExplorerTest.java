@@ -0,0 +1,89 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+
+public class GenericDeclarationExplorerTest {
+
+    private static final Type MAP_OF_LIST = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+
+    private static final Type SET_OF_LIST = new TypeToken<Set<List<Integer>>>() {}.getType();
+
+    private static final Type LIST_OF_WILDCARD = new TypeToken<List<?>>() {}.getType();
+
+    @Test
+    public void exploreAll_sameResultsAsExplore() {
+        List<Type> types = Arrays.asList(MAP_OF_LIST, String.class, SET_OF_LIST, LIST_OF_WILDCARD, String.class);
+        Map<Type, String> results = GenericDeclarationExplorer.exploreAll(types, new DescribingHandler());
+
+        assertEquals(Arrays.asList(MAP_OF_LIST, String.class, SET_OF_LIST, LIST_OF_WILDCARD),
+                new ArrayList<>(results.keySet()));
+        for (Type type : types) {
+            assertEquals(GenericDeclarationExplorer.explore(type, new DescribingHandler()), results.get(type));
+        }
+    }
+
+    @Test
+    public void exploreAll_withPolicy() {
+        List<Type> types = Collections.singletonList(LIST_OF_WILDCARD);
+        Map<Type, String> results = GenericDeclarationExplorer.exploreAll(types, new DescribingHandler(),
+                ImplicitBoundsPolicy.PROCESS);
+        assertEquals("List<?[Object][]>", results.get(LIST_OF_WILDCARD));
+    }
+
+    @Test
+    public void exploreAll_reusesSubtreesAcrossTypes() {
+        DescribingHandler handler = new DescribingHandler();
+        List<Type> types = Arrays.asList(MAP_OF_LIST, SET_OF_LIST);
+        GenericDeclarationExplorer.exploreAll(types, handler, ImplicitBoundsPolicy.IGNORE, Runnable::run);
+
+        // Map, String, List, Integer, List<Integer>, Map<...>, then only Set and Set<...>
+        assertEquals(8, handler.getCalls());
+    }
+
+    @Test
+    public void exploreAll_onExecutor() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Type> types = Arrays.asList(MAP_OF_LIST, SET_OF_LIST, String.class, int[].class);
+            Map<Type, Set<Class<?>>> results = GenericDeclarationExplorer.exploreAll(types,
+                    new MentionedClassesExplorer(), ImplicitBoundsPolicy.IGNORE, executor);
+            for (Type type : types) {
+                assertEquals(MentionedClassesExplorer.getClassesInDeclaration(type), results.get(type));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void exploreAll_failsOnNull() {
+        GenericDeclarationExplorer.exploreAll(Arrays.asList(String.class, null), new DescribingHandler());
+    }
+
+    @Test(expected = CompletionException.class)
+    public void exploreAll_wrapsErrors() {
+        DescribingHandler failingHandler = new DescribingHandler() {
+            @Override
+            public String handleSimpleClass(@NotNull Class<?> clazz) {
+                throw new AssertionError("failing handler");
+            }
+        };
+        GenericDeclarationExplorer.exploreAll(Collections.singletonList(String.class), failingHandler);
+    }
+}
@@ -0,0 +1,235 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+
+public class GenericTypeVisitorTest {
+
+    private enum MyEnum {
+        A
+    }
+
+    @SuppressWarnings("unused")
+    public <T extends Comparable<T>> Map<? super T, List<T>[]> typeVariables() {
+        return null;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void visit_failsOnNull() {
+        GenericDeclarationExplorer.visit(null, clazz -> { });
+    }
+
+    @Test
+    public void visit_void() {
+        checkEvents(void.class, "void");
+    }
+
+    @Test
+    public void visit_classes() {
+        checkEvents(String.class, "String");
+        checkEvents(MyEnum.class, "MyEnum");
+        checkEvents(int[][].class, "[int[][]", "[int[]", "int", "]int[]", "]int[][]");
+    }
+
+    @Test
+    public void visit_wildcards() {
+        Type type = new TypeToken<Map<? extends Number, ?>>() {}.getType();
+        checkEvents(type, "<Map", "Map", "(?", "Number", ")?", "(?", ")?", ">Map");
+    }
+
+    @Test
+    public void visit_wildcardsWithImplicitBounds() {
+        Type type = new TypeToken<List<?>>() {}.getType();
+        List<String> events = new ArrayList<>();
+        GenericDeclarationExplorer.visit(type, new RecordingVisitor(events), ImplicitBoundsPolicy.PROCESS);
+        assertEquals(Arrays.asList("<List", "List", "(?", "Object", ")?", ">List"), events);
+    }
+
+    @Test
+    public void visit_typeVariables() throws NoSuchMethodException {
+        Type type = GenericTypeVisitorTest.class.getMethod("typeVariables").getGenericReturnType();
+        checkEvents(type, "<Map", "Map", "(?", "{T", "<Comparable", "Comparable", "{T", "}T", ">Comparable", "}T",
+                ")?", "[List<T>[]", "<List", "List", "{T", "}T", ">List", "]List<T>[]", ">Map");
+    }
+
+    @Test
+    public void visit_defaultCallbacksDoNothing() throws NoSuchMethodException {
+        Type type = GenericTypeVisitorTest.class.getMethod("typeVariables").getGenericReturnType();
+        List<Class<?>> classes = new ArrayList<>();
+        GenericDeclarationExplorer.visit(type, classes::add);
+        GenericDeclarationExplorer.visit(String[].class, classes::add);
+        GenericDeclarationExplorer.visit(void.class, classes::add);
+        assertEquals(Arrays.asList(Map.class, Comparable.class, List.class, String.class), classes);
+    }
+
+    @Test
+    public void visit_positions() throws NoSuchMethodException {
+        Type type = GenericTypeVisitorTest.class.getMethod("typeVariables").getGenericReturnType();
+        List<String> events = new ArrayList<>();
+        GenericDeclarationExplorer.visit(type, new PositionRecordingVisitor(events));
+        assertEquals(Arrays.asList("Map", "<0/2", "Super0/1", "Bound0/1", "Comparable", "<0/1", ">0/1", "/Bound0/1",
+                "/Super0/1", ">0/2", "<1/2", "List", "<0/1", ">0/1", ">1/2"), events);
+
+        events.clear();
+        GenericDeclarationExplorer.visit(new TypeToken<List<? extends Number>>() {}.getType(),
+                new PositionRecordingVisitor(events));
+        assertEquals(Arrays.asList("List", "<0/1", "Extends0/1", "Number", "/Extends0/1", ">0/1"), events);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void visit_unloadedClassNotSupportedByDefault() {
+        GenericDeclarationExplorer.visit(new UnloadedClass("com.example.Foo"), clazz -> { });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void visit_failsOnUnknownType() {
+        GenericDeclarationExplorer.visit(new Type() {}, clazz -> { });
+    }
+
+    private static void checkEvents(Type type, String... expectedEvents) {
+        List<String> events = new ArrayList<>();
+        GenericDeclarationExplorer.visit(type, new RecordingVisitor(events));
+        assertEquals(Arrays.asList(expectedEvents), events);
+    }
+
+    private static class RecordingVisitor implements GenericTypeVisitor {
+
+        private final List<String> events;
+
+        RecordingVisitor(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void visitVoid() {
+            events.add("void");
+        }
+
+        @Override
+        public void visitClass(@NotNull Class<?> clazz) {
+            events.add(clazz.getSimpleName());
+        }
+
+        @Override
+        public void enterArrayClass(@NotNull Class<?> arrayClass) {
+            events.add("[" + arrayClass.getSimpleName());
+        }
+
+        @Override
+        public void exitArrayClass(@NotNull Class<?> arrayClass) {
+            events.add("]" + arrayClass.getSimpleName());
+        }
+
+        @Override
+        public void enterGenericArray(@NotNull GenericArrayType type) {
+            events.add("[" + simpleName(type));
+        }
+
+        @Override
+        public void exitGenericArray(@NotNull GenericArrayType type) {
+            events.add("]" + simpleName(type));
+        }
+
+        @Override
+        public void enterParameterizedType(@NotNull ParameterizedType type) {
+            events.add("<" + ((Class<?>) type.getRawType()).getSimpleName());
+        }
+
+        @Override
+        public void exitParameterizedType(@NotNull ParameterizedType type) {
+            events.add(">" + ((Class<?>) type.getRawType()).getSimpleName());
+        }
+
+        @Override
+        public void enterTypeVariable(@NotNull TypeVariable type) {
+            events.add("{" + type.getName());
+        }
+
+        @Override
+        public void exitTypeVariable(@NotNull TypeVariable type) {
+            events.add("}" + type.getName());
+        }
+
+        @Override
+        public void enterWildcardType(@NotNull WildcardType type) {
+            events.add("(?");
+        }
+
+        @Override
+        public void exitWildcardType(@NotNull WildcardType type) {
+            events.add(")?");
+        }
+
+        private static String simpleName(Type type) {
+            return type.getTypeName().replace("java.util.", "");
+        }
+    }
+
+    private static class PositionRecordingVisitor implements GenericTypeVisitor {
+
+        private final List<String> events;
+
+        PositionRecordingVisitor(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void visitClass(@NotNull Class<?> clazz) {
+            events.add(clazz.getSimpleName());
+        }
+
+        @Override
+        public void enterTypeArgument(@NotNull ParameterizedType type, int index, int count) {
+            events.add("<" + index + "/" + count);
+        }
+
+        @Override
+        public void exitTypeArgument(@NotNull ParameterizedType type, int index, int count) {
+            events.add(">" + index + "/" + count);
+        }
+
+        @Override
+        public void enterTypeVariableBound(@NotNull TypeVariable type, int index, int count) {
+            events.add("Bound" + index + "/" + count);
+        }
+
+        @Override
+        public void exitTypeVariableBound(@NotNull TypeVariable type, int index, int count) {
+            events.add("/Bound" + index + "/" + count);
+        }
+
+        @Override
+        public void enterUpperBound(@NotNull WildcardType type, int index, int count) {
+            events.add("Extends" + index + "/" + count);
+        }
+
+        @Override
+        public void exitUpperBound(@NotNull WildcardType type, int index, int count) {
+            events.add("/Extends" + index + "/" + count);
+        }
+
+        @Override
+        public void enterLowerBound(@NotNull WildcardType type, int index, int count) {
+            events.add("Super" + index + "/" + count);
+        }
+
+        @Override
+        public void exitLowerBound(@NotNull WildcardType type, int index, int count) {
+            events.add("/Super" + index + "/" + count);
+        }
+    }
+}
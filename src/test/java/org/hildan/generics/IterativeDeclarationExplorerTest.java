@@ -0,0 +1,103 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+
+public class IterativeDeclarationExplorerTest {
+
+    private enum MyEnum {
+        A
+    }
+
+    @SuppressWarnings("unused")
+    private static class Declarations<T extends Comparable<T>, U extends T, E extends Enum<E>> {
+
+        Map<? extends Number, ? super List<int[]>> wildcards;
+
+        T[] genericArray;
+
+        Map<T, List<U>> recursiveVariables;
+
+        E enumVariable;
+
+        List<MyEnum[][]> enumArrays;
+
+        Set<? super T> lowerBoundVariable;
+
+        void voidMethod() {
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_failsOnNull() {
+        IterativeDeclarationExplorer.explore(null, new DescribingHandler());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_failsOnUnknownKind() {
+        Type custom = new Type() {};
+        IterativeDeclarationExplorer.explore(TestTypes.genericArray(custom), new DescribingHandler());
+    }
+
+    @Test
+    public void explore_sameResultsAsRecursiveExplorer() throws NoSuchMethodException {
+        for (Type type : declarations()) {
+            for (ImplicitBoundsPolicy policy : ImplicitBoundsPolicy.values()) {
+                String expected = GenericDeclarationExplorer.explore(type, new DescribingHandler(), policy);
+                String actual = IterativeDeclarationExplorer.explore(type, new DescribingHandler(), policy);
+                assertEquals(expected, actual);
+            }
+        }
+        assertEquals(MentionedClassesExplorer.getClassesInDeclaration(String[].class),
+                IterativeDeclarationExplorer.explore(String[].class, new MentionedClassesExplorer()));
+    }
+
+    private static List<Type> declarations() throws NoSuchMethodException {
+        List<Type> types = new ArrayList<>();
+        Collections.addAll(types, void.class, int.class, String.class, MyEnum.class, long[][].class);
+        types.add(new TypeToken<Map<String, List<?>>>() {}.getType());
+        types.add(Declarations.class.getDeclaredMethod("voidMethod").getGenericReturnType());
+        for (Field field : Declarations.class.getDeclaredFields()) {
+            types.add(field.getGenericType());
+        }
+        return types;
+    }
+
+    @Test
+    public void explore_deepDeclarationsOnSmallStack() throws InterruptedException {
+        int depth = 100_000;
+        Type deepArray = String.class;
+        Type deepList = Integer.class;
+        for (int i = 0; i < depth; i++) {
+            deepArray = TestTypes.genericArray(deepArray);
+            deepList = TestTypes.parameterized(List.class, deepList);
+        }
+        Type deepMap = TestTypes.parameterized(Map.class, deepArray, deepList);
+
+        AtomicReference<Set<Class<?>>> result = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            result.set(IterativeDeclarationExplorer.explore(deepMap, new MentionedClassesExplorer()));
+        }, "small-stack", 128 * 1024);
+        thread.start();
+        thread.join();
+
+        assertEquals(new HashSet<>(Arrays.asList(Map.class, String.class, List.class, Integer.class)),
+                result.get());
+        assertEquals(Collections.emptySet(), IterativeDeclarationExplorer.explore(void.class,
+                new MentionedClassesExplorer()));
+    }
+}
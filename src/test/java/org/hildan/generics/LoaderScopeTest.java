@@ -0,0 +1,93 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LoaderScopeTest {
+
+    @SuppressWarnings("unused")
+    public static class Generic {
+        public <T> Generic(T value) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public <T extends Number> List<? super T>[] method() {
+        return null;
+    }
+
+    @Test
+    public void of_bootstrapClasses() {
+        assertSame(Object.class, LoaderScope.of(String.class));
+        assertSame(Object.class, LoaderScope.of(int[].class));
+        assertSame(Object.class, LoaderScope.of(new TypeToken<Map<String, List<? extends Number>[]>>() {}.getType()));
+        assertSame(Object.class, LoaderScope.of(Map.Entry.class.getTypeParameters()[0]));
+    }
+
+    @Test
+    public void of_youngestClassLoader() throws IOException, NoSuchMethodException {
+        assertSame(LoaderScopeTest.class, LoaderScope.of(LoaderScopeTest.class));
+        assertSame(LoaderScopeTest.class,
+                LoaderScope.of(new TypeToken<Map<String, LoaderScopeTest[]>>() {}.getType()));
+        Type returnType = LoaderScopeTest.class.getMethod("method").getGenericReturnType();
+        assertSame(LoaderScopeTest.class, LoaderScope.of(returnType));
+        TypeVariable<?> constructorVariable = Generic.class.getConstructor(Object.class).getTypeParameters()[0];
+        assertSame(Generic.class, LoaderScope.of(constructorVariable));
+
+        Class<?> copy = new CopyingClassLoader().copy(TestTypes.class);
+        Type[] typeArgs = {LoaderScopeTest.class, Types.wildcard(new Type[] {Object.class}, new Type[] {copy})};
+        assertSame(copy, LoaderScope.of(Types.parameterized(null, Map.class, typeArgs)));
+        assertSame(copy, LoaderScope.of(Types.parameterized(copy, List.class, new Type[] {LoaderScopeTest.class})));
+    }
+
+    @Test
+    public void of_unloadedTypes() {
+        assertSame(Object.class, LoaderScope.of(new UnloadedClass("com.example.Missing")));
+        assertSame(Object.class, LoaderScope.of(new UnloadedTypeVariable("T", "com.example.Missing", new Type[0])));
+        Type unloadedRawType = new UnloadedClass("com.example.Missing");
+        assertSame(Object.class, LoaderScope.of(Types.parameterized(null, unloadedRawType, new Type[] {String.class})));
+    }
+
+    @Test
+    public void of_unrelatedClassLoaders() throws IOException {
+        Class<?> copy1 = new CopyingClassLoader().copy(TestTypes.class);
+        Class<?> copy2 = new CopyingClassLoader().copy(TestTypes.class);
+        assertNull(LoaderScope.of(TestTypes.parameterized(Map.class, copy1, copy2)));
+        assertNull(LoaderScope.of(TestTypes.genericArray(TestTypes.parameterized(Map.class, copy2, copy1))));
+        assertNull(LoaderScope.combine(null, String.class));
+    }
+
+    @Test
+    public void of_reusesNestedScopes() throws IOException {
+        Class<?> copy1 = new CopyingClassLoader().copy(TestTypes.class);
+        Class<?> copy2 = new CopyingClassLoader().copy(TestTypes.class);
+        Type unrelated = TestTypes.parameterized(Map.class, copy1, copy2);
+        Type list = TestTypes.parameterized(List.class, LoaderScopeTest.class);
+        Map<Type, Class<?>> scopes = new IdentityHashMap<>();
+        assertNull(LoaderScope.of(TestTypes.parameterized(Map.class, unrelated, list), scopes));
+        assertTrue(scopes.containsKey(unrelated));
+        assertSame(LoaderScopeTest.class, scopes.get(list));
+        assertEquals(6, scopes.size());
+        assertNull(LoaderScope.of(unrelated, scopes));
+        assertSame(LoaderScopeTest.class, LoaderScope.of(list, scopes));
+        assertEquals(6, scopes.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void of_failsOnUnknownTypes() {
+        LoaderScope.of(new Type() {});
+    }
+}
@@ -0,0 +1,85 @@
+package org.hildan.generics;
+
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MentionedClassIdsTest {
+
+    @SuppressWarnings("unused")
+    private static class Bounded<K extends Comparable<K>, V extends Number & Runnable> {}
+
+    private static void check(Type type) {
+        ClassIdSet ids = MentionedClassIds.getClassIdsInDeclaration(type);
+        assertEquals(MentionedClassesExplorer.getClassesInDeclaration(type), ids.toClasses());
+    }
+
+    @Test
+    public void getClassIdsInDeclaration_sameAsMentionedClasses() {
+        check(void.class);
+        check(int.class);
+        check(String[][].class);
+        check(RetentionPolicy.class);
+        check(new TypeToken<Map<String, List<? super Integer>[]>>() {}.getType());
+        check(new TypeToken<Map<? extends Number, ?>>() {}.getType());
+        check(Bounded.class.getTypeParameters()[0]);
+        check(Bounded.class.getTypeParameters()[1]);
+        check(TestTypes.genericArray(Bounded.class.getTypeParameters()[1]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getClassIdsInDeclaration_failsOnNull() {
+        MentionedClassIds.getClassIdsInDeclaration(null);
+    }
+
+    @Test
+    public void registry_assignsStableDenseIds() {
+        int id = ClassIdRegistry.getId(String.class);
+        assertEquals(id, ClassIdRegistry.getId(String.class));
+        assertSame(String.class, ClassIdRegistry.getClassById(id));
+        assertNotEquals(id, ClassIdRegistry.getId(Integer.class));
+
+        // array classes are distinct classes, and grow the registry beyond its initial capacity
+        Class<?> arrayClass = Runnable.class;
+        for (int i = 0; i < 100; i++) {
+            arrayClass = Array.newInstance(arrayClass, 0).getClass();
+            int arrayId = ClassIdRegistry.getId(arrayClass);
+            assertTrue(arrayId < ClassIdRegistry.size());
+            assertSame(arrayClass, ClassIdRegistry.getClassById(arrayId));
+        }
+        assertTrue(ClassIdRegistry.size() > 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registry_failsOnNegativeId() {
+        ClassIdRegistry.getClassById(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registry_failsOnUnassignedId() {
+        ClassIdRegistry.getClassById(ClassIdRegistry.size());
+    }
+
+    @Test
+    public void classIdSet_convertsBackToClasses() {
+        ClassIdSet set = ClassIdSet.of(String.class, Integer.class, String.class);
+        assertEquals(2, set.size());
+        assertTrue(set.contains(Integer.class));
+        assertEquals(new HashSet<>(Arrays.asList(String.class, Integer.class)), set.toClasses());
+        assertEquals(Collections.emptySet(), ClassIdSet.empty().toClasses());
+    }
+}
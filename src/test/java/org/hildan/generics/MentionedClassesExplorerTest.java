@@ -2,11 +2,15 @@ package org.hildan.generics;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
@@ -14,6 +18,7 @@ import com.google.gson.reflect.TypeToken;
 
 import static org.hildan.generics.ImplicitBoundsPolicy.PROCESS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class MentionedClassesExplorerTest {
 
@@ -41,6 +46,17 @@ public class MentionedClassesExplorerTest {
         MentionedClassesExplorer.getClassesInDeclaration(null);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_failsOnNull() {
+        GenericDeclarationExplorer.explore(null, new MentionedClassesExplorer());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_failsOnUnknownKind() {
+        Type custom = new Type() {};
+        GenericDeclarationExplorer.explore(custom, new MentionedClassesExplorer());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void getClassesInDeclaration_failsOnUnknownKind() {
         Type custom = new Type() {
@@ -298,6 +314,40 @@ public class MentionedClassesExplorerTest {
                 Boolean.class, Custom.class, Float.class, Short.class);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void stream_failsOnNull() {
+        MentionedClassesExplorer.stream(null);
+    }
+
+    @Test
+    public void stream_isLazy() {
+        List<Type> exploredTypes = new ArrayList<>();
+        Type type = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+        Optional<Class<?>> firstClass = MentionedClassesExplorer.stream(type).peek(exploredTypes::add).findFirst();
+        assertEquals(Optional.of(Map.class), firstClass);
+        assertEquals(Collections.singletonList(Map.class), exploredTypes);
+        assertTrue(MentionedClassesExplorer.stream(type).anyMatch(String.class::equals));
+    }
+
+    @Test
+    public void stream_sameOrderAsVisit() throws NoSuchMethodException {
+        Type complex = MentionedClassesExplorerTest.class.getMethod("complex").getGenericReturnType();
+        List<Class<?>> visited = new ArrayList<>();
+        GenericDeclarationExplorer.visit(complex, c -> {
+            if (!visited.contains(c)) {
+                visited.add(c);
+            }
+        });
+        assertEquals(visited, MentionedClassesExplorer.stream(complex).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void stream_withPolicy() {
+        Type type = new TypeToken<Map<? extends Number, ? super Integer>>() {}.getType();
+        assertEquals(Arrays.asList(Map.class, Number.class, Object.class, Integer.class),
+                MentionedClassesExplorer.stream(type, PROCESS).collect(Collectors.toList()));
+    }
+
     private static void check(String methodName, Class<?>... expected) throws NoSuchMethodException {
         Method testMethod = MentionedClassesExplorerTest.class.getMethod(methodName);
         Type genReturnType = testMethod.getGenericReturnType();
@@ -308,5 +358,12 @@ public class MentionedClassesExplorerTest {
         Set<Class<?>> actual = MentionedClassesExplorer.getClassesInDeclaration(typeDeclaration);
         Set<Class<?>> expected = new HashSet<>(Arrays.asList(expectedClasses));
         assertEquals(expected, actual);
+
+        Set<Class<?>> actualFromStream = MentionedClassesExplorer.stream(typeDeclaration).collect(Collectors.toSet());
+        assertEquals(expected, actualFromStream);
+
+        Set<Class<?>> actualFromHandler = GenericDeclarationExplorer.explore(typeDeclaration,
+                new MentionedClassesExplorer());
+        assertEquals(expected, actualFromHandler);
     }
 }
@@ -0,0 +1,82 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MentionedClassesIndexTest {
+
+    @Test
+    public void getClassesInDeclaration_precomputed() {
+        Type type = new TypeToken<Map<String, Integer>>() {}.getType();
+        Set<Class<?>> classes = MentionedClassesIndex.getClassesInDeclaration(type);
+        assertEquals(new HashSet<>(Arrays.asList(Map.class, String.class, Integer.class)), classes);
+        assertSame(classes, MentionedClassesIndex.getClassesInDeclaration(type));
+        assertSame(classes, MentionedClassesIndex.getPrecomputedClasses(type));
+    }
+
+    @Test
+    public void getClassesInDeclaration_wildcard() {
+        Type type = new TypeToken<List<?>>() {}.getType();
+        assertNotNull(MentionedClassesIndex.getPrecomputedClasses(type));
+        assertEquals(Collections.singleton(List.class), MentionedClassesIndex.getClassesInDeclaration(type));
+    }
+
+    @Test
+    public void getClassesInDeclaration_fallback() {
+        Type type = new TypeToken<Map<String, Long>>() {}.getType();
+        assertNull(MentionedClassesIndex.getPrecomputedClasses(type));
+        Set<Class<?>> classes = MentionedClassesIndex.getClassesInDeclaration(type);
+        assertEquals(new HashSet<>(Arrays.asList(Map.class, String.class, Long.class)), classes);
+        assertNotSame(classes, MentionedClassesIndex.getClassesInDeclaration(type));
+    }
+
+    @Test
+    public void getClassesInDeclaration_classLoaderOfType() throws IOException {
+        Type type = new TypeToken<List<TestTypes>>() {}.getType();
+        Set<Class<?>> classes = MentionedClassesIndex.getPrecomputedClasses(type);
+        assertEquals(new HashSet<>(Arrays.asList(List.class, TestTypes.class)), classes);
+        assertNull(MentionedClassesIndex.getPrecomputedClasses(MentionedClassesIndexTest.class));
+
+        // the table of the parent class loader mentions another class with the same name
+        Class<?> copy = new CopyingClassLoader().copy(TestTypes.class);
+        Type copyType = Types.parameterized(null, List.class, new Type[] {copy});
+        assertEquals(type.getTypeName(), copyType.getTypeName());
+        assertNull(MentionedClassesIndex.getPrecomputedClasses(copyType));
+        assertEquals(new HashSet<>(Arrays.asList(List.class, copy)),
+                MentionedClassesIndex.getClassesInDeclaration(copyType));
+    }
+
+    @Test
+    public void getPrecomputedClasses_unrelatedClassLoaders() throws IOException {
+        Class<?> copy1 = new CopyingClassLoader().copy(TestTypes.class);
+        Class<?> copy2 = new CopyingClassLoader().copy(TestTypes.class);
+        assertNull(MentionedClassesIndex.getPrecomputedClasses(TestTypes.parameterized(Map.class, copy1, copy2)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getClassesInDeclaration_precomputedIsUnmodifiable() {
+        Type type = new TypeToken<Map<String, Integer>>() {}.getType();
+        MentionedClassesIndex.getClassesInDeclaration(type).add(Long.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getPrecomputedClasses_nullType() {
+        MentionedClassesIndex.getPrecomputedClasses(null);
+    }
+}
@@ -0,0 +1,24 @@
+package org.hildan.generics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A table similar to the ones generated by the annotation processor, registered as a service for the tests.
+ */
+public final class PrecomputedTestTable implements MentionedClassesTable {
+
+    @NotNull
+    @Override
+    public Map<String, Class<?>[]> getMentionedClasses() {
+        Map<String, Class<?>[]> table = new HashMap<>();
+        table.put("java.util.Map<java.lang.String, java.lang.Integer>",
+                new Class<?>[] {java.util.Map.class, java.lang.String.class, java.lang.Integer.class});
+        table.put("java.util.List<?>", new Class<?>[] {List.class});
+        table.put("java.util.List<org.hildan.generics.TestTypes>", new Class<?>[] {List.class, TestTypes.class});
+        return table;
+    }
+}
@@ -0,0 +1,284 @@
+package org.hildan.generics;
+
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the {@link IntDeclarationExplorer} and the {@link LongDeclarationExplorer} against the {@link
+ * GenericDeclarationExplorer}, with handlers returning the index of the descriptions of a {@link DescribingHandler}.
+ */
+@RunWith(Parameterized.class)
+public class PrimitiveDeclarationExplorerTest {
+
+    @SuppressWarnings("unused")
+    private static class Recursive<E extends Enum<E>, T extends Comparable<U>, U extends Comparable<T>> {}
+
+    @SuppressWarnings("unused")
+    private static class Many<A, B, C, D, G> {}
+
+    private static final List<Type> TYPES = Arrays.asList(void.class, String.class, RetentionPolicy.class,
+            int[][].class, new TypeToken<Map<? extends Number, ? super List<String>[]>>() {}.getType(),
+            new TypeToken<List<?>>() {}.getType(), Recursive.class.getTypeParameters()[0],
+            Recursive.class.getTypeParameters()[1], TestTypes.parameterized(Many.class, Many.class.getTypeParameters()),
+            TestTypes.genericArray(new UnloadedClass("com.example.Foo")));
+
+    @Parameter
+    public Explorer explorer;
+
+    /**
+     * The primitive explorers, exploring types with an indexing handler of their primitive type.
+     */
+    private enum Explorer {
+        INT {
+            @Override
+            long explore(Type type, Descriptions descriptions) {
+                return IntDeclarationExplorer.explore(type, new IntIndexingHandler(descriptions));
+            }
+
+            @Override
+            long explore(Type type, Descriptions descriptions, ImplicitBoundsPolicy policy) {
+                return IntDeclarationExplorer.explore(type, new IntIndexingHandler(descriptions), policy);
+            }
+        },
+        LONG {
+            @Override
+            long explore(Type type, Descriptions descriptions) {
+                return LongDeclarationExplorer.explore(type, new LongIndexingHandler(descriptions));
+            }
+
+            @Override
+            long explore(Type type, Descriptions descriptions, ImplicitBoundsPolicy policy) {
+                return LongDeclarationExplorer.explore(type, new LongIndexingHandler(descriptions), policy);
+            }
+        };
+
+        abstract long explore(Type type, Descriptions descriptions);
+
+        abstract long explore(Type type, Descriptions descriptions, ImplicitBoundsPolicy policy);
+    }
+
+    @Parameters(name = "{0}")
+    public static Explorer[] explorers() {
+        return Explorer.values();
+    }
+
+    @Test
+    public void explore_sameCallsAsGenericExplorer() {
+        for (ImplicitBoundsPolicy policy : ImplicitBoundsPolicy.values()) {
+            for (Type type : TYPES) {
+                Descriptions descriptions = new Descriptions(true);
+                long index = explorer.explore(type, descriptions, policy);
+                String expected = GenericDeclarationExplorer.explore(type, new DescribingHandler(), policy);
+                assertEquals(expected, descriptions.get(index));
+            }
+        }
+    }
+
+    @Test
+    public void explore_manyPendingValues() {
+        Type[] typeArgs = new Type[100];
+        Arrays.fill(typeArgs, new TypeToken<List<Integer>>() {}.getType());
+        Type type = TestTypes.parameterized(Map.class, typeArgs);
+        Descriptions descriptions = new Descriptions(true);
+        long index = explorer.explore(type, descriptions);
+        String expected = GenericDeclarationExplorer.explore(type, new DescribingHandler());
+        assertEquals(expected, descriptions.get(index));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void explore_unloadedClassNotSupportedByDefault() {
+        explorer.explore(new UnloadedClass("com.example.Foo"), new Descriptions(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_failsOnNull() {
+        explorer.explore(null, new Descriptions(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_failsOnUnknownType() {
+        explorer.explore(new Type() {}, new Descriptions(true));
+    }
+
+    /**
+     * The descriptions of a {@link DescribingHandler}, indexed in call order.
+     */
+    private static class Descriptions {
+
+        private final DescribingHandler describer = new DescribingHandler();
+
+        private final List<String> descriptions = new ArrayList<>();
+
+        private final boolean supportsUnloadedClasses;
+
+        Descriptions(boolean supportsUnloadedClasses) {
+            this.supportsUnloadedClasses = supportsUnloadedClasses;
+        }
+
+        int index(String description) {
+            descriptions.add(description);
+            return descriptions.size() - 1;
+        }
+
+        String get(long index) {
+            return descriptions.get((int) index);
+        }
+
+        List<String> describe(int[] values, int offset, int count) {
+            List<String> described = new ArrayList<>();
+            for (int i = offset; i < offset + count; i++) {
+                described.add(get(values[i]));
+            }
+            return described;
+        }
+
+        List<String> describe(long[] values, int offset, int count) {
+            List<String> described = new ArrayList<>();
+            for (int i = offset; i < offset + count; i++) {
+                described.add(get(values[i]));
+            }
+            return described;
+        }
+    }
+
+    private static class IntIndexingHandler implements IntTypeHandler {
+
+        private final Descriptions d;
+
+        IntIndexingHandler(Descriptions descriptions) {
+            this.d = descriptions;
+        }
+
+        @Override
+        public int handleVoid() {
+            return d.index(d.describer.handleVoid());
+        }
+
+        @Override
+        public int handleSimpleClass(@NotNull Class<?> clazz) {
+            return d.index(d.describer.handleSimpleClass(clazz));
+        }
+
+        @Override
+        public int handleEnumClass(@NotNull Class<?> clazz) {
+            return d.index(d.describer.handleEnumClass(clazz));
+        }
+
+        @Override
+        public int handleArrayClass(@NotNull Class<?> arrayClass, int handledComponentClass) {
+            return d.index(d.describer.handleArrayClass(arrayClass, d.get(handledComponentClass)));
+        }
+
+        @Override
+        public int handleGenericArray(@NotNull GenericArrayType type, int handledComponentClass) {
+            return d.index(d.describer.handleGenericArray(type, d.get(handledComponentClass)));
+        }
+
+        @Override
+        public int handleParameterizedType(@NotNull ParameterizedType type, int handledRawType, @NotNull int[] values,
+                int offset, int count) {
+            return d.index(d.describer.handleParameterizedType(type, d.get(handledRawType),
+                    d.describe(values, offset, count)));
+        }
+
+        @Override
+        public int handleTypeVariable(@NotNull TypeVariable type, @NotNull int[] values, int offset, int count) {
+            return d.index(d.describer.handleTypeVariable(type, d.describe(values, offset, count)));
+        }
+
+        @Override
+        public int handleWildcardType(@NotNull WildcardType type, @NotNull int[] values, int offset,
+                int upperBoundsCount, int lowerBoundsCount) {
+            return d.index(d.describer.handleWildcardType(type, d.describe(values, offset, upperBoundsCount),
+                    d.describe(values, offset + upperBoundsCount, lowerBoundsCount)));
+        }
+
+        @Override
+        public int handleUnloadedClass(@NotNull UnloadedClass clazz) {
+            if (!d.supportsUnloadedClasses) {
+                return IntTypeHandler.super.handleUnloadedClass(clazz);
+            }
+            return d.index(d.describer.handleUnloadedClass(clazz));
+        }
+    }
+
+    private static class LongIndexingHandler implements LongTypeHandler {
+
+        private final Descriptions d;
+
+        LongIndexingHandler(Descriptions descriptions) {
+            this.d = descriptions;
+        }
+
+        @Override
+        public long handleVoid() {
+            return d.index(d.describer.handleVoid());
+        }
+
+        @Override
+        public long handleSimpleClass(@NotNull Class<?> clazz) {
+            return d.index(d.describer.handleSimpleClass(clazz));
+        }
+
+        @Override
+        public long handleEnumClass(@NotNull Class<?> clazz) {
+            return d.index(d.describer.handleEnumClass(clazz));
+        }
+
+        @Override
+        public long handleArrayClass(@NotNull Class<?> arrayClass, long handledComponentClass) {
+            return d.index(d.describer.handleArrayClass(arrayClass, d.get(handledComponentClass)));
+        }
+
+        @Override
+        public long handleGenericArray(@NotNull GenericArrayType type, long handledComponentClass) {
+            return d.index(d.describer.handleGenericArray(type, d.get(handledComponentClass)));
+        }
+
+        @Override
+        public long handleParameterizedType(@NotNull ParameterizedType type, long handledRawType,
+                @NotNull long[] values, int offset, int count) {
+            return d.index(d.describer.handleParameterizedType(type, d.get(handledRawType),
+                    d.describe(values, offset, count)));
+        }
+
+        @Override
+        public long handleTypeVariable(@NotNull TypeVariable type, @NotNull long[] values, int offset, int count) {
+            return d.index(d.describer.handleTypeVariable(type, d.describe(values, offset, count)));
+        }
+
+        @Override
+        public long handleWildcardType(@NotNull WildcardType type, @NotNull long[] values, int offset,
+                int upperBoundsCount, int lowerBoundsCount) {
+            return d.index(d.describer.handleWildcardType(type, d.describe(values, offset, upperBoundsCount),
+                    d.describe(values, offset + upperBoundsCount, lowerBoundsCount)));
+        }
+
+        @Override
+        public long handleUnloadedClass(@NotNull UnloadedClass clazz) {
+            if (!d.supportsUnloadedClasses) {
+                return LongTypeHandler.super.handleUnloadedClass(clazz);
+            }
+            return d.index(d.describer.handleUnloadedClass(clazz));
+        }
+    }
+}
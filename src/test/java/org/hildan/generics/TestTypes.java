@@ -0,0 +1,37 @@
+package org.hildan.generics;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Builds synthetic type declarations that cannot be written with type tokens, like very deeply nested ones.
+ */
+final class TestTypes {
+
+    private TestTypes() {
+    }
+
+    static GenericArrayType genericArray(Type componentType) {
+        return () -> componentType;
+    }
+
+    static ParameterizedType parameterized(Class<?> rawType, Type... typeArgs) {
+        return new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return typeArgs.clone();
+            }
+
+            @Override
+            public Type getRawType() {
+                return rawType;
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,230 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TypeAssignabilityTest {
+
+    @SuppressWarnings("unused")
+    private static class Variables<T extends Comparable<T>, U extends T, N extends Number & Runnable> {}
+
+    private static class StringList extends ArrayList<String> {}
+
+    @SuppressWarnings("unused")
+    private static class RawList extends ArrayList {}
+
+    private static final TypeVariable<?> T = Variables.class.getTypeParameters()[0];
+
+    private static final TypeVariable<?> U = Variables.class.getTypeParameters()[1];
+
+    private static final TypeVariable<?> N = Variables.class.getTypeParameters()[2];
+
+    private static Type wildcardArg(Type type) {
+        return ((ParameterizedType) type).getActualTypeArguments()[0];
+    }
+
+    private static void assertAssignable(Type from, Type to) {
+        assertTrue(from + " should be assignable to " + to, TypeAssignability.isAssignable(from, to));
+    }
+
+    private static void assertNotAssignable(Type from, Type to) {
+        assertFalse(from + " should not be assignable to " + to, TypeAssignability.isAssignable(from, to));
+    }
+
+    @Test
+    public void isAssignable_classes() {
+        assertAssignable(String.class, Object.class);
+        assertAssignable(String.class, CharSequence.class);
+        assertAssignable(int.class, int.class);
+        assertNotAssignable(int.class, long.class);
+        assertNotAssignable(int.class, Integer.class);
+        assertNotAssignable(Object.class, String.class);
+        assertAssignable(String[].class, Object[].class);
+        assertAssignable(int[].class, Cloneable.class);
+        assertNotAssignable(int[].class, Object[].class);
+    }
+
+    @Test
+    public void isAssignable_parameterizedTypes() {
+        Type listOfNumberSubtypes = new TypeToken<List<? extends Number>>() {}.getType();
+        assertAssignable(new TypeToken<ArrayList<Integer>>() {}.getType(), listOfNumberSubtypes);
+        assertAssignable(new TypeToken<List<Number>>() {}.getType(), listOfNumberSubtypes);
+        assertNotAssignable(new TypeToken<ArrayList<String>>() {}.getType(), listOfNumberSubtypes);
+        assertNotAssignable(new TypeToken<ArrayList<Integer>>() {}.getType(),
+                new TypeToken<List<Number>>() {}.getType());
+        assertNotAssignable(new TypeToken<Map<String, Integer>>() {}.getType(), listOfNumberSubtypes);
+        assertAssignable(new TypeToken<HashMap<String, List<Integer>>>() {}.getType(),
+                new TypeToken<Map<? extends CharSequence, ? extends Collection<Integer>>>() {}.getType());
+        assertAssignable(new TypeToken<List<String>>() {}.getType(), List.class);
+        assertAssignable(new TypeToken<List<String>>() {}.getType(), Object.class);
+        assertNotAssignable(new TypeToken<List<String>>() {}.getType(), String.class);
+    }
+
+    @Test
+    public void isAssignable_supertypeResolution() {
+        assertAssignable(StringList.class, new TypeToken<List<String>>() {}.getType());
+        assertAssignable(StringList.class, new TypeToken<Collection<? extends CharSequence>>() {}.getType());
+        assertNotAssignable(StringList.class, new TypeToken<List<Integer>>() {}.getType());
+        // raw types are not converted without checks
+        assertAssignable(ArrayList.class, new TypeToken<List<?>>() {}.getType());
+        assertNotAssignable(ArrayList.class, new TypeToken<List<Object>>() {}.getType());
+        assertNotAssignable(RawList.class, new TypeToken<List<String>>() {}.getType());
+        assertNotAssignable(String.class, new TypeToken<List<String>>() {}.getType());
+    }
+
+    @Test
+    public void isAssignable_wildcards() {
+        Type listOfIntegerSupertypes = new TypeToken<List<? super Integer>>() {}.getType();
+        assertAssignable(new TypeToken<List<Number>>() {}.getType(), listOfIntegerSupertypes);
+        assertAssignable(new TypeToken<List<? super Number>>() {}.getType(), listOfIntegerSupertypes);
+        assertNotAssignable(new TypeToken<List<? super Long>>() {}.getType(), listOfIntegerSupertypes);
+        assertNotAssignable(new TypeToken<List<? extends Number>>() {}.getType(), listOfIntegerSupertypes);
+        assertNotAssignable(new TypeToken<List<Long>>() {}.getType(), listOfIntegerSupertypes);
+        assertNotAssignable(new TypeToken<List<? super Integer>>() {}.getType(),
+                new TypeToken<List<? extends Number>>() {}.getType());
+        assertAssignable(new TypeToken<List<? super Integer>>() {}.getType(), new TypeToken<List<?>>() {}.getType());
+        assertNotAssignable(new TypeToken<List<?>>() {}.getType(), new TypeToken<List<Object>>() {}.getType());
+
+        Type numberSubtypes = wildcardArg(new TypeToken<List<? extends Number>>() {}.getType());
+        assertAssignable(numberSubtypes, Number.class);
+        assertAssignable(Integer.class, numberSubtypes);
+        assertNotAssignable(numberSubtypes, Integer.class);
+    }
+
+    @Test
+    public void isAssignable_typeVariables() {
+        assertAssignable(U, T);
+        assertAssignable(U, new TypeToken<Comparable<?>>() {}.getType());
+        assertNotAssignable(T, U);
+        assertNotAssignable(String.class, T);
+        assertAssignable(N, Number.class);
+        assertAssignable(N, Runnable.class);
+        assertNotAssignable(N, Integer.class);
+        Type comparableOfT = TestTypes.parameterized(Comparable.class, T);
+        assertAssignable(T, comparableOfT);
+        assertAssignable(U, comparableOfT);
+        assertNotAssignable(N, comparableOfT);
+    }
+
+    @Test
+    public void isAssignable_genericArrays() {
+        Type arrayOfLists = new TypeToken<List<Integer>[]>() {}.getType();
+        assertAssignable(arrayOfLists, new TypeToken<List<? extends Number>[]>() {}.getType());
+        assertAssignable(arrayOfLists, List[].class);
+        assertAssignable(arrayOfLists, Object[].class);
+        assertAssignable(arrayOfLists, Serializable.class);
+        assertNotAssignable(arrayOfLists, String.class);
+        assertNotAssignable(arrayOfLists, List.class);
+        assertNotAssignable(arrayOfLists, T);
+        assertAssignable(StringList[].class, new TypeToken<List<String>[]>() {}.getType());
+        assertNotAssignable(String[].class, new TypeToken<List<String>[]>() {}.getType());
+        assertNotAssignable(new TypeToken<List<String>>() {}.getType(), new TypeToken<List<String>[]>() {}.getType());
+        assertNotAssignable(new TypeToken<List<String>>() {}.getType(), T);
+    }
+
+    @Test
+    public void isAssignable_cachesResults() {
+        TypeAssignability.clearCache();
+        Type from = new TypeToken<ArrayList<Integer>>() {}.getType();
+        Type to = new TypeToken<List<? extends Number>>() {}.getType();
+        assertAssignable(from, to);
+        assertEquals(1, TypeAssignability.getCacheSize(from, to));
+        assertAssignable(new TypeToken<ArrayList<Integer>>() {}.getType(), to);
+        assertEquals(1, TypeAssignability.getCacheSize(from, to));
+
+        // "Aa" and "BB" have the same hash code, so do their pairs
+        assertAssignable(Types.parameterized(null, List.class, new Type[] {new UnloadedClass("Aa")}), Object.class);
+        assertAssignable(Types.parameterized(null, List.class, new Type[] {new UnloadedClass("BB")}), Object.class);
+        assertEquals(3, TypeAssignability.getCacheSize(from, to));
+        TypeAssignability.clearCache();
+        assertEquals(0, TypeAssignability.getCacheSize(from, to));
+    }
+
+    @Test
+    public void isAssignable_evictsResultsWhenFull() {
+        TypeAssignability.clearCache();
+        List<Class<?>> classes = Arrays.asList(String.class, Integer.class, Long.class, Short.class, Byte.class,
+                Double.class, Float.class, Character.class, Boolean.class, Object.class, Number.class, Void.class,
+                Thread.class, Runnable.class, Class.class, Math.class, System.class, Iterable.class, Comparable.class,
+                CharSequence.class, StringBuilder.class, Process.class);
+        Type lastType = null;
+        for (Class<?> key : classes) {
+            for (Class<?> value : classes) {
+                for (Class<?> element : classes) {
+                    Type listType = Types.parameterized(null, List.class, new Type[] {element});
+                    Type mapType = Types.parameterized(null, Map.class, new Type[] {value, listType});
+                    lastType = Types.parameterized(null, Map.class, new Type[] {key, mapType});
+                    TypeAssignability.isAssignable(lastType, Object.class);
+                }
+            }
+        }
+        // the other results were kept, one of them being evicted for each new one
+        assertEquals(TypeAssignability.MAX_CACHE_SIZE, TypeAssignability.getCacheSize(lastType, Object.class));
+        TypeAssignability.clearCache();
+    }
+
+    @Test
+    public void isAssignable_doesNotCacheTypesOfUnrelatedClassLoaders() throws IOException {
+        Class<?> copy1 = new CopyingClassLoader().copy(TestTypes.class);
+        Class<?> copy2 = new CopyingClassLoader().copy(TestTypes.class);
+        assertNotAssignable(copy1, copy2);
+        assertEquals(0, TypeAssignability.getCacheSize(copy1, copy2));
+    }
+
+    @Test
+    public void isAssignable_releasesResultsWithClassLoader() throws IOException {
+        WeakReference<ClassLoader> classLoader = checkPluginType();
+        for (int i = 0; i < 100 && classLoader.get() != null; i++) {
+            System.gc();
+        }
+        assertNull(classLoader.get());
+    }
+
+    private static WeakReference<ClassLoader> checkPluginType() throws IOException {
+        CopyingClassLoader classLoader = new CopyingClassLoader();
+        Type type = Types.parameterized(null, List.class, new Type[] {classLoader.copy(TestTypes.class)});
+        assertAssignable(type, Collection.class);
+        assertEquals(1, TypeAssignability.getCacheSize(type, Collection.class));
+        return new WeakReference<>(classLoader);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void isAssignable_failsOnNull() {
+        TypeAssignability.isAssignable(String.class, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void isAssignable_failsOnUnloadedClass() {
+        TypeAssignability.isAssignable(new UnloadedClass("com.example.Foo"), Object.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void isAssignable_failsOnUnknownType() {
+        TypeAssignability.isAssignable(String.class, new Type() {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void isAssignable_failsOnUnloadedRawType() {
+        Type unloadedList = Types.parameterized(null, new UnloadedClass("java.util.List"), new Type[] {String.class});
+        TypeAssignability.isAssignable(unloadedList, Object.class);
+    }
+}
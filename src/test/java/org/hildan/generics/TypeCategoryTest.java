@@ -0,0 +1,36 @@
+package org.hildan.generics;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+
+public class TypeCategoryTest {
+
+    @Test
+    public void of_allCategories() {
+        ParameterizedType list = (ParameterizedType) new TypeToken<List<?>>() {}.getType();
+        Type wildcard = list.getActualTypeArguments()[0];
+        assertEquals(TypeCategory.CLASS, TypeCategory.of(String.class));
+        assertEquals(TypeCategory.PARAMETERIZED_TYPE, TypeCategory.of(list));
+        assertEquals(TypeCategory.GENERIC_ARRAY, TypeCategory.of(TestTypes.genericArray(String.class)));
+        assertEquals(TypeCategory.TYPE_VARIABLE, TypeCategory.of(List.class.getTypeParameters()[0]));
+        assertEquals(TypeCategory.WILDCARD_TYPE, TypeCategory.of(wildcard));
+        assertEquals(TypeCategory.UNLOADED_CLASS, TypeCategory.of(new UnloadedClass("com.example.Foo")));
+        assertEquals(TypeCategory.UNKNOWN, TypeCategory.of(new Type() {}));
+    }
+
+    @Test
+    public void of_firstCategoryWinsForAmbiguousImplementations() {
+        Type type = (Type) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {TypeVariable.class, ParameterizedType.class}, (proxy, method, args) -> null);
+        assertEquals(TypeCategory.PARAMETERIZED_TYPE, TypeCategory.of(type));
+    }
+}
@@ -0,0 +1,149 @@
+package org.hildan.generics;
+
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TypeGraphTest {
+
+    @SuppressWarnings("unused")
+    private static class Recursive<E extends Enum<E>, T extends Comparable<U>, U extends Comparable<T>> {}
+
+    private static final TypeVariable<?> E = Recursive.class.getTypeParameters()[0];
+
+    private static final TypeVariable<?> T = Recursive.class.getTypeParameters()[1];
+
+    private static final TypeVariable<?> U = Recursive.class.getTypeParameters()[2];
+
+    @Test
+    public void add_sharesIdenticalSubtrees() {
+        TypeGraph graph = new TypeGraph();
+        TypeGraph.Node map = graph.add(new TypeToken<Map<String, List<String>>>() {}.getType());
+        TypeGraph.Node list = graph.add(new TypeToken<List<String>>() {}.getType());
+        assertSame(list, map.getChildren().get(2));
+        assertSame(map.getChildren().get(1), list.getChildren().get(1));
+        assertSame(graph.getNode(String.class), list.getChildren().get(1));
+        assertEquals(5, graph.size());
+        assertEquals(TypeKind.PARAMETERIZED_TYPE, map.getKind());
+        assertEquals("java.util.List<java.lang.String>", list.toString());
+        assertEquals(String.class, list.getChildren().get(1).getType());
+        assertNull(graph.getNode(Integer.class));
+    }
+
+    @Test
+    public void add_marksRecursiveBoundsAsBackReferences() {
+        TypeGraph graph = new TypeGraph();
+        TypeGraph.Node e = graph.add(E);
+        TypeGraph.Node enumOfE = e.getChildren().get(0);
+        assertEquals(Arrays.asList(graph.getNode(Enum.class), e), enumOfE.getChildren());
+        assertFalse(e.isBackReference(0));
+        assertFalse(enumOfE.isBackReference(0));
+        assertTrue(enumOfE.isBackReference(1));
+    }
+
+    @Test
+    public void add_marksMutuallyRecursiveBounds() {
+        TypeGraph graph = new TypeGraph();
+        TypeGraph.Node t = graph.add(T);
+        TypeGraph.Node comparableOfU = t.getChildren().get(0);
+        TypeGraph.Node u = comparableOfU.getChildren().get(1);
+        TypeGraph.Node comparableOfT = u.getChildren().get(0);
+        assertSame(u, graph.getNode(U));
+        assertSame(t, comparableOfT.getChildren().get(1));
+        assertTrue(comparableOfU.isBackReference(1));
+        assertTrue(comparableOfT.isBackReference(1));
+        assertFalse(t.isBackReference(0));
+        assertFalse(u.isBackReference(0));
+    }
+
+    @Test
+    public void explore_valuesDoNotDependOnInsertionOrder() {
+        ParameterizedType enumOfE = (ParameterizedType) E.getBounds()[0];
+
+        TypeGraph variableFirst = new TypeGraph();
+        variableFirst.add(E);
+        variableFirst.add(enumOfE);
+        TypeGraph boundFirst = new TypeGraph();
+        boundFirst.add(enumOfE);
+        boundFirst.add(E);
+
+        Map<TypeGraph.Node, String> values1 = variableFirst.explore(new DescribingHandler());
+        Map<TypeGraph.Node, String> values2 = boundFirst.explore(new DescribingHandler());
+        assertEquals("Enum<E[]>", values1.get(variableFirst.getNode(enumOfE)));
+        assertEquals("Enum<E[]>", values2.get(boundFirst.getNode(enumOfE)));
+        assertEquals(GenericDeclarationExplorer.explore(E, new DescribingHandler()),
+                values2.get(boundFirst.getNode(E)));
+    }
+
+    @Test
+    public void explore_sameValuesAsExplorerWithoutRecursion() {
+        List<Type> types = Arrays.asList(void.class, Void.class, int[][].class, RetentionPolicy.class,
+                new TypeToken<Map<? extends Number, ? super List<String>[]>>() {}.getType(),
+                new TypeToken<List<?>>() {}.getType(), TestTypes.genericArray(new UnloadedClass("com.example.Foo")));
+        for (ImplicitBoundsPolicy policy : ImplicitBoundsPolicy.values()) {
+            TypeGraph graph = new TypeGraph(policy);
+            types.forEach(graph::add);
+            Map<TypeGraph.Node, String> values = graph.explore(new DescribingHandler());
+            assertEquals(graph.size(), values.size());
+            for (Type type : types) {
+                String expected = GenericDeclarationExplorer.explore(type, new DescribingHandler(), policy);
+                assertEquals(expected, values.get(graph.getNode(type)));
+            }
+        }
+    }
+
+    @Test
+    public void add_failsWithoutPartialNodes() {
+        TypeGraph graph = new TypeGraph();
+        Type invalid = TestTypes.parameterized(List.class, new Type() {});
+        try {
+            graph.add(invalid);
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, graph.size());
+            return;
+        }
+        throw new AssertionError("an exception was expected");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void add_failsOnNull() {
+        new TypeGraph().add(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void explore_failsOnPruningHandler() {
+        new TypeGraph().explore(new ContinuingHandler());
+    }
+
+    private static class ContinuingHandler extends DescribingHandler implements PruningTypeHandler<String> {
+
+        @Override
+        public Decision beforeExplore(Type type) {
+            return Decision.CONTINUE;
+        }
+
+        @Override
+        public String handleSkipped(Type type) {
+            return "skipped";
+        }
+
+        @Override
+        public String handleStop(Type type) {
+            return "stopped";
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TypeIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @SuppressWarnings("unused")
+    static class Outer<O> {
+
+        class Inner<I> {
+
+            private O outerValue;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    abstract static class Indexed<K extends Comparable<K>, V extends Serializable> implements Map<K, List<V>> {
+
+        private Outer<String>.Inner<Integer>[] inners;
+
+        private Map<? super K, ? extends Number>[] maps;
+
+        private RetentionPolicy policy;
+
+        private int[][] matrix;
+
+        <E extends Enum<E>> Indexed(Class<E> enumClass, E[] values) {
+        }
+
+        abstract <T extends CharSequence> T first(List<? extends T> values, Void nothing);
+
+        abstract <T extends Number> T first(List<? extends T> values, int count);
+
+        abstract void run(Object value);
+    }
+
+    private Path writeIndex(TypeIndexWriter writer) throws IOException {
+        Path file = temporaryFolder.newFile("types.idx").toPath();
+        writer.write(file);
+        return file;
+    }
+
+    private static TypeIndex indexOf(Type... types) throws IOException {
+        TypeIndexWriter writer = new TypeIndexWriter();
+        Arrays.asList(types).forEach(writer::add);
+        Path file = Files.createTempFile("types", ".idx");
+        try {
+            writer.write(file);
+            return TypeIndex.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void assertSameAsExplorer(TypeIndex index, Type type) {
+        assertTrue("not indexed: " + type, index.contains(type));
+        assertEquals(type.toString(), MentionedClassesExplorer.getClassesInDeclaration(type),
+                index.getClassesInDeclaration(type));
+    }
+
+    @Test
+    public void getClassesInDeclaration_reflectedTypes() throws IOException {
+        TypeIndexWriter writer = new TypeIndexWriter();
+        writer.addClass(Indexed.class);
+        TypeIndex index = TypeIndex.open(writeIndex(writer));
+        assertEquals(writer.size(), index.size());
+        for (Type type : ClassSignatureExplorer.getTypesInSignature(Indexed.class)) {
+            assertSameAsExplorer(index, type);
+        }
+    }
+
+    @Test
+    public void getClassesInDeclaration_subtrees() throws IOException {
+        Type type = new TypeToken<Map<String, List<? super Integer>[]>>() {}.getType();
+        TypeIndex index = indexOf(type, void.class, int[].class);
+        assertSameAsExplorer(index, type);
+        assertSameAsExplorer(index, new TypeToken<List<? super Integer>[]>() {}.getType());
+        assertSameAsExplorer(index, new TypeToken<List<? super Integer>>() {}.getType());
+        assertSameAsExplorer(index, String.class);
+        assertSameAsExplorer(index, int.class);
+        assertSameAsExplorer(index, Void.class);
+        assertEquals(Collections.singletonList("int"), index.getClassNamesInDeclaration(int[].class));
+    }
+
+    @Test
+    public void getClassesInDeclaration_recursiveBounds() throws IOException {
+        TypeVariable<?> key = Indexed.class.getTypeParameters()[0];
+        TypeIndex index = indexOf(new TypeToken<List<Comparable<?>>>() {}.getType(), key);
+        assertSameAsExplorer(index, key);
+        assertEquals(Collections.singleton(Comparable.class), index.getClassesInDeclaration(key));
+    }
+
+    @Test
+    public void getClassesInDeclaration_classFiles() throws IOException {
+        Path directory = temporaryFolder.newFolder("classes").toPath();
+        Path classFile = directory.resolve(Indexed.class.getName().replace('.', '/') + ".class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, ClassFileReaderTest.bytesOf(Indexed.class));
+        TypeIndexWriter writer = new TypeIndexWriter();
+        writer.addDirectory(directory);
+
+        TypeIndex index = TypeIndex.open(writeIndex(writer), Indexed.class.getClassLoader());
+        for (Type type : ClassSignatureExplorer.getTypesInSignature(Indexed.class)) {
+            assertSameAsExplorer(index, type);
+        }
+        assertEquals(Collections.singletonList(Comparable.class.getName()),
+                index.getClassNamesInDeclaration(new UnloadedClass(Comparable.class.getName())));
+    }
+
+    @Test
+    public void getClassesInDeclaration_jar() throws IOException {
+        Path jar = temporaryFolder.newFile("test.jar").toPath();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry(Outer.class.getName().replace('.', '/') + ".class"));
+            out.write(ClassFileReaderTest.bytesOf(Outer.class));
+            out.closeEntry();
+        }
+        TypeIndexWriter writer = new TypeIndexWriter();
+        writer.addJar(jar);
+        TypeIndex index = TypeIndex.open(writeIndex(writer));
+        assertSameAsExplorer(index, Outer.class.getTypeParameters()[0]);
+        assertSameAsExplorer(index, Object.class);
+    }
+
+    @Test
+    public void getClassesInDeclaration_unloadedClass() throws IOException {
+        TypeIndexWriter writer = new TypeIndexWriter();
+        byte[] classFile = ClassFileReaderTest.bytesOf(Outer.Inner.class);
+        writer.addClassFile(new ClassFileReader().read(ByteBuffer.wrap(classFile)));
+        TypeIndex index = TypeIndex.open(writeIndex(writer));
+        UnloadedClass outer = new UnloadedClass(Outer.class.getName());
+        assertTrue(index.contains(outer));
+        assertEquals(Collections.singletonList(Outer.class.getName()), index.getClassNamesInDeclaration(outer));
+        // the declaration of the variables of outer classes is unknown when reading the inner class alone
+        assertFalse(index.contains(Outer.class.getTypeParameters()[0]));
+    }
+
+    @Test(expected = TypeNotPresentException.class)
+    public void getClassesInDeclaration_missingClass() throws IOException {
+        UnloadedClass missing = new UnloadedClass("com.example.Missing");
+        indexOf(missing).getClassesInDeclaration(missing);
+    }
+
+    @Test
+    public void getClassesInDeclaration_notIndexed() throws IOException {
+        TypeIndexWriter writer = new TypeIndexWriter();
+        Arrays.asList(HashMap.class, ConcurrentHashMap.class, Collections.class, BiFunction.class)
+              .forEach(writer::addClass);
+        TypeIndex index = TypeIndex.open(writeIndex(writer));
+
+        List<Type> absentTypes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            absentTypes.add(new UnloadedClass("com.example.Absent" + i));
+        }
+        absentTypes.add(new TypeToken<Map<String, ConcurrentHashMap<Integer, String>>>() {}.getType());
+        absentTypes.add(new TypeToken<Map<List<?>, Set<? extends Number>>>() {}.getType());
+        absentTypes.add(new TypeToken<List<? super String>[]>() {}.getType());
+        absentTypes.add(new TypeToken<BiFunction<Object, Object, HashSet<Object>>>() {}.getType());
+        absentTypes.add(Indexed.class.getTypeParameters()[0]);
+        for (Type type : absentTypes) {
+            assertFalse(index.contains(type));
+            assertNull(index.getClassNamesInDeclaration(type));
+        }
+        Type absent = new TypeToken<Map<Integer, Set<String>>>() {}.getType();
+        assertEquals(MentionedClassesExplorer.getClassesInDeclaration(absent), index.getClassesInDeclaration(absent));
+    }
+
+    @Test
+    public void contains_collidingNames() throws IOException {
+        // "Aa" and "BB" have the same hash code, so they end up in consecutive slots
+        TypeIndex index = indexOf(new UnloadedClass("Aa"), new UnloadedClass("BB"), new UnloadedClass("C"));
+        assertTrue(index.contains(new UnloadedClass("Aa")));
+        assertTrue(index.contains(new UnloadedClass("BB")));
+        assertTrue(index.contains(new UnloadedClass("C")));
+        assertFalse(index.contains(new UnloadedClass("Aaa")));
+    }
+
+    @Test
+    public void contains_collidingNodes() throws IOException {
+        List<Type> types = new ArrayList<>();
+        for (int i = 0; i <= 30; i++) {
+            types.add(new UnloadedClass("C" + i));
+        }
+        // the void node has the same hash as the node of the class with name id 30
+        types.add(void.class);
+        TypeIndex index = indexOf(types.toArray(new Type[0]));
+        assertEquals(types.size(), index.size());
+        for (Type type : types) {
+            assertTrue(index.contains(type));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void contains_nullType() throws IOException {
+        indexOf(String.class).contains(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void contains_unknownTypeCategory() throws IOException {
+        indexOf(String.class).contains(new Type() {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void open_notAnIndex() throws IOException {
+        Path file = temporaryFolder.newFile("bad.idx").toPath();
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23,
+                24, 25});
+        TypeIndex.open(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void open_tooSmall() throws IOException {
+        TypeIndex.open(temporaryFolder.newFile("empty.idx").toPath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void open_unsupportedVersion() throws IOException {
+        Path file = writeIndex(new TypeIndexWriter());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[7]++;
+        Files.write(file, bytes);
+        TypeIndex.open(file);
+    }
+}
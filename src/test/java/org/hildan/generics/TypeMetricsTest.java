@@ -0,0 +1,85 @@
+package org.hildan.generics;
+
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class TypeMetricsTest {
+
+    @SuppressWarnings("unused")
+    private static class Recursive<E extends Enum<E>, F extends Enum<F>> {}
+
+    private static final TypeVariable<?> E = Recursive.class.getTypeParameters()[0];
+
+    private static final TypeVariable<?> F = Recursive.class.getTypeParameters()[1];
+
+    private static final Type MAP_OF_LISTS = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+
+    @Test
+    public void depth() {
+        assertEquals(1, TypeMetrics.depth(void.class));
+        assertEquals(1, TypeMetrics.depth(String.class));
+        assertEquals(1, TypeMetrics.depth(RetentionPolicy.class));
+        assertEquals(1, TypeMetrics.depth(new UnloadedClass("com.example.Foo")));
+        assertEquals(3, TypeMetrics.depth(int[][].class));
+        assertEquals(3, TypeMetrics.depth(MAP_OF_LISTS));
+        assertEquals(3, TypeMetrics.depth(new TypeToken<List<String>[]>() {}.getType()));
+        assertEquals(3, TypeMetrics.depth(new TypeToken<List<? super Integer>>() {}.getType()));
+        assertEquals(3, TypeMetrics.depth(E));
+    }
+
+    @Test
+    public void nodeCount() {
+        assertEquals(1, TypeMetrics.nodeCount(void.class));
+        assertEquals(1, TypeMetrics.nodeCount(String.class));
+        assertEquals(1, TypeMetrics.nodeCount(RetentionPolicy.class));
+        assertEquals(1, TypeMetrics.nodeCount(new UnloadedClass("com.example.Foo")));
+        assertEquals(3, TypeMetrics.nodeCount(int[][].class));
+        assertEquals(6, TypeMetrics.nodeCount(MAP_OF_LISTS));
+        assertEquals(4, TypeMetrics.nodeCount(new TypeToken<List<String>[]>() {}.getType()));
+        assertEquals(4, TypeMetrics.nodeCount(new TypeToken<List<? super Integer>>() {}.getType()));
+        assertEquals(4, TypeMetrics.nodeCount(E));
+    }
+
+    @Test
+    public void nodeCount_implicitBounds() {
+        Type listOfAny = new TypeToken<List<?>>() {}.getType();
+        assertEquals(3, IntDeclarationExplorer.explore(listOfAny, TypeMetrics.NODE_COUNT, ImplicitBoundsPolicy.IGNORE));
+        assertEquals(4, IntDeclarationExplorer.explore(listOfAny, TypeMetrics.NODE_COUNT, ImplicitBoundsPolicy.PROCESS));
+    }
+
+    @Test
+    public void structuralHash_sameForEquivalentDeclarations() {
+        Type syntheticMapOfLists = TestTypes.parameterized(Map.class, String.class,
+                TestTypes.parameterized(List.class, Integer.class));
+        assertEquals(TypeMetrics.structuralHash(MAP_OF_LISTS), TypeMetrics.structuralHash(syntheticMapOfLists));
+        assertEquals(TypeMetrics.structuralHash(String[].class),
+                TypeMetrics.structuralHash(TestTypes.genericArray(String.class)));
+        assertEquals(TypeMetrics.structuralHash(String.class),
+                TypeMetrics.structuralHash(new UnloadedClass("java.lang.String")));
+        assertEquals(TypeMetrics.structuralHash(E), TypeMetrics.structuralHash(E));
+    }
+
+    @Test
+    public void structuralHash_differentForDifferentDeclarations() {
+        assertNotEquals(TypeMetrics.structuralHash(new TypeToken<List<String>>() {}.getType()),
+                TypeMetrics.structuralHash(new TypeToken<List<Integer>>() {}.getType()));
+        assertNotEquals(TypeMetrics.structuralHash(new TypeToken<Map<String, Integer>>() {}.getType()),
+                TypeMetrics.structuralHash(new TypeToken<Map<Integer, String>>() {}.getType()));
+        assertNotEquals(TypeMetrics.structuralHash(new TypeToken<List<? extends Number>>() {}.getType()),
+                TypeMetrics.structuralHash(new TypeToken<List<? super Number>>() {}.getType()));
+        assertNotEquals(TypeMetrics.structuralHash(String[].class), TypeMetrics.structuralHash(String[][].class));
+        assertNotEquals(TypeMetrics.structuralHash(void.class), TypeMetrics.structuralHash(Object.class));
+        assertNotEquals(TypeMetrics.structuralHash(RetentionPolicy.class), TypeMetrics.structuralHash(Enum.class));
+        assertNotEquals(TypeMetrics.structuralHash(E), TypeMetrics.structuralHash(F));
+    }
+}
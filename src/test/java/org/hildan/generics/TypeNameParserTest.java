@@ -0,0 +1,133 @@
+package org.hildan.generics;
+
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class TypeNameParserTest {
+
+    @SuppressWarnings("unused")
+    public static class Generic<A> {
+        public <T extends Number> Generic(T[][] values, List<A> list) {
+        }
+
+        public <T> Map<T, List<? super T>[]> method(int value, String[] names) {
+            return null;
+        }
+    }
+
+    @Test
+    public void parse_roundTrips() throws NoSuchMethodException {
+        Method method = Generic.class.getMethod("method", int.class, String[].class);
+        List<Type> types = Arrays.asList(void.class, int.class, String.class, RetentionPolicy.class, int[][].class,
+                String[].class, new TypeToken<Map<? extends Number, ? super List<String>[]>>() {}.getType(),
+                new TypeToken<List<?>>() {}.getType(), new TypeToken<Map.Entry<String, Integer>>() {}.getType(),
+                Generic.class.getTypeParameters()[0], method.getGenericReturnType(),
+                Generic.class.getConstructors()[0].getGenericParameterTypes()[0],
+                Types.wildcard(new Type[] {Number.class, Runnable.class}, new Type[0]),
+                Types.wildcard(new Type[] {Object.class}, new Type[] {Integer.class, Long.class}),
+                new TypeToken<TypeNameWriterTest.Outer<String>.Inner<Integer>>() {}.getType(),
+                new TypeToken<TypeNameWriterTest.Outer<String>.Plain>() {}.getType(),
+                new TypeToken<TypeNameWriterTest.Outer<List<String>>.Plain.Deeper<Integer>[]>() {}.getType());
+        TypeNameParser parser = new TypeNameParser();
+        for (Type type : types) {
+            String name = TypeNameWriter.getCanonicalName(type);
+            Type parsed = parser.parse(name);
+            assertEquals(name, type, parsed);
+            assertEquals(name, TypeNameWriter.getCanonicalName(parsed));
+        }
+    }
+
+    @Test
+    public void parse_ownerTypeArguments() {
+        TypeNameParser parser = new TypeNameParser();
+        Type withStringOwner = new TypeToken<TypeNameWriterTest.Outer<String>.Inner<Integer>>() {}.getType();
+        Type withLongOwner = new TypeToken<TypeNameWriterTest.Outer<Long>.Inner<Integer>>() {}.getType();
+        Type parsedWithStringOwner = parser.parse(TypeNameWriter.getCanonicalName(withStringOwner));
+        Type parsedWithLongOwner = parser.parse(TypeNameWriter.getCanonicalName(withLongOwner));
+        assertEquals(withStringOwner, parsedWithStringOwner);
+        assertEquals(withLongOwner, parsedWithLongOwner);
+        assertNotEquals(parsedWithStringOwner, parsedWithLongOwner);
+        assertEquals(((ParameterizedType) withLongOwner).getOwnerType(),
+                ((ParameterizedType) parsedWithLongOwner).getOwnerType());
+    }
+
+    @Test
+    public void parse_internsTypes() {
+        TypeNameParser parser = new TypeNameParser(TypeNameParserTest.class.getClassLoader());
+        Type map = parser.parse("java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>");
+        assertSame(map, parser.parse("java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>"));
+        Type list = parser.parse("java.util.List<java.lang.Integer>");
+        assertSame(list, ((ParameterizedType) map).getActualTypeArguments()[1]);
+        assertSame(parser.parse("java.util.List<java.lang.Integer>[]"),
+                new TypeNameParser().parse("java.util.List<java.lang.Integer>[]"));
+    }
+
+    @Test
+    public void parse_cachesResults() {
+        TypeNameParser parser = new TypeNameParser();
+        parser.parse("java.lang.String");
+        parser.parse("java.lang.String");
+        assertEquals(1, parser.getCacheSize());
+        List<String> classes = Arrays.asList("java.lang.String", "java.lang.Integer", "java.lang.Long",
+                "java.lang.Short", "java.lang.Byte", "java.lang.Double", "java.lang.Float", "java.lang.Character",
+                "java.lang.Boolean", "java.lang.Object", "java.lang.Number", "java.lang.Void", "java.lang.Thread",
+                "java.lang.Runnable", "java.lang.Class", "java.lang.Math", "java.lang.System", "java.lang.Iterable",
+                "java.lang.Comparable", "java.lang.CharSequence", "java.lang.StringBuilder", "java.lang.Process");
+        for (String key : classes) {
+            for (String value : classes) {
+                for (String element : classes) {
+                    parser.parse("java.util.Map<" + key + ", java.util.Map<" + value + ", " + element + ">[]>");
+                }
+            }
+        }
+        // the cache was emptied when full
+        int parsedNames = 1 + classes.size() * classes.size() * classes.size();
+        assertEquals(parsedNames % TypeNameParser.MAX_CACHE_SIZE, parser.getCacheSize());
+        parser.clearCache();
+        assertEquals(0, parser.getCacheSize());
+    }
+
+    @Test
+    public void parse_failsOnInvalidNames() {
+        TypeNameParser parser = new TypeNameParser();
+        String outer = TypeNameWriterTest.Outer.class.getName();
+        List<String> invalidNames = Arrays.asList("", "java.util.List<", "java.util.List<java.lang.String",
+                "java.lang.String>", "? extends", "com.example.Missing", "X@java.util.List", "X@com.example.Missing",
+                "T@java.util.Collections#missing()", "T@java.util.Collections#sort(java.util.List",
+                "T@java.util.Collections#<init>()", "void[]", "java.util.List<java.lang.String>$",
+                "java.util.List<java.lang.String>$Missing",
+                "java.lang.String<java.lang.Integer>", "java.util.List<java.lang.String, java.lang.Integer>",
+                "java.util.List<int>", "java.util.Map<java.lang.String, void>", "java.util.List<void[]>",
+                "T@java.util.Collections#sort(void[])", "java.util.Map<java.lang.String, java.lang.Integer>$Entry",
+                outer + "<java.lang.String>$Inner", outer + "<java.lang.String>$Plain<java.lang.Integer>",
+                outer + "<java.lang.String>$Inner<java.lang.Integer, java.lang.Long>");
+        for (String name : invalidNames) {
+            try {
+                parser.parse(name);
+                fail("an exception was expected for " + name);
+            } catch (IllegalArgumentException e) {
+                assertNotNull(name, e.getMessage());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_failsOnNull() {
+        new TypeNameParser().parse(null);
+    }
+}
@@ -0,0 +1,153 @@
+package org.hildan.generics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+
+public class TypeNameWriterTest {
+
+    @SuppressWarnings("unused")
+    public static class Generic {
+        public <T> Generic(String name, int[] values) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class Outer<O> {
+        public class Inner<I> {}
+
+        public class Plain {
+            public class Deeper<D> {}
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class Fields {
+        private Outer<String>.Inner<Integer> inner;
+    }
+
+    @SuppressWarnings("unused")
+    public <T extends Comparable<T>, E extends Enum<E>> Map<? super T, List<E>[]> typeVariables() {
+        return null;
+    }
+
+    @Test
+    public void getName_sameAsTypeName() throws NoSuchMethodException {
+        List<Type> types = Arrays.asList(void.class, String.class, RetentionPolicy.class, int[][].class,
+                Map.Entry.class, new TypeToken<Map<? extends Number, ? super List<String>[]>>() {}.getType(),
+                new TypeToken<List<?>>() {}.getType(), new TypeToken<Map.Entry<String, Integer>>() {}.getType(),
+                TypeNameWriterTest.class.getMethod("typeVariables").getGenericReturnType());
+        for (Type type : types) {
+            assertEquals(type.getTypeName(), TypeNameWriter.getName(type));
+        }
+    }
+
+    @Test
+    public void getName_syntheticTypes() {
+        Type unloaded = new UnloadedClass("com.example.Outer$Inner");
+        assertEquals("com.example.Outer$Inner[]", TypeNameWriter.getName(TestTypes.genericArray(unloaded)));
+        assertEquals("java.util.List", TypeNameWriter.getName(TestTypes.parameterized(List.class)));
+        Type[] bounds = {Number.class, Runnable.class};
+        assertEquals("? extends java.lang.Number & java.lang.Runnable",
+                TypeNameWriter.getName(Types.wildcard(bounds, new Type[0])));
+        assertEquals("? super java.lang.Number & java.lang.Runnable",
+                TypeNameWriter.getName(Types.wildcard(new Type[0], bounds)));
+    }
+
+    @Test
+    public void getCanonicalName_typeVariables() throws NoSuchMethodException {
+        Type type = TypeNameWriterTest.class.getMethod("typeVariables").getGenericReturnType();
+        String declaration = "T@org.hildan.generics.TypeNameWriterTest#typeVariables()";
+        assertEquals("java.util.Map<? super " + declaration + ", java.util.List<E@org.hildan.generics"
+                + ".TypeNameWriterTest#typeVariables()>[]>", TypeNameWriter.getCanonicalName(type));
+        assertEquals("E@java.lang.Enum", TypeNameWriter.getCanonicalName(Enum.class.getTypeParameters()[0]));
+        assertEquals("T@org.hildan.generics.TypeNameWriterTest$Generic#<init>(java.lang.String, int[])",
+                TypeNameWriter.getCanonicalName(Generic.class.getConstructors()[0].getTypeParameters()[0]));
+        assertEquals("java.util.Map<java.lang.String, java.lang.Integer>",
+                TypeNameWriter.getCanonicalName(new TypeToken<Map<String, Integer>>() {}.getType()));
+    }
+
+    @Test
+    public void getCanonicalName_longNames() {
+        Type[] typeArgs = new Type[500];
+        Arrays.fill(typeArgs, String.class);
+        String name = TypeNameWriter.getCanonicalName(TestTypes.parameterized(Map.class, typeArgs));
+        assertEquals(500 * "java.lang.String, ".length() + "java.util.Map<>".length() - 2, name.length());
+        assertEquals("java.lang.String", TypeNameWriter.getCanonicalName(String.class));
+    }
+
+    @Test
+    public void getCanonicalName_ownerTypeArguments() {
+        String outer = "org.hildan.generics.TypeNameWriterTest$Outer";
+        assertEquals(outer + "<java.lang.String>$Inner<java.lang.Integer>",
+                TypeNameWriter.getCanonicalName(new TypeToken<Outer<String>.Inner<Integer>>() {}.getType()));
+        Type deeper = new TypeToken<Outer<List<String>>.Plain.Deeper<Integer>>() {}.getType();
+        assertEquals(outer + "<java.util.List<java.lang.String>>$Plain$Deeper<java.lang.Integer>",
+                TypeNameWriter.getCanonicalName(deeper));
+        assertEquals("java.util.List<" + outer + "<java.lang.String>$Inner<java.lang.Integer>[]>",
+                TypeNameWriter.getCanonicalName(new TypeToken<List<Outer<String>.Inner<Integer>[]>>() {}.getType()));
+        // the type arguments of owner types are not part of the exploration
+        assertEquals(outer + "$Inner<java.lang.Integer>",
+                TypeNameWriter.getName(new TypeToken<Outer<String>.Inner<Integer>>() {}.getType()));
+    }
+
+    @Test
+    public void getCanonicalName_ownerTypeArgumentsFromClassFile() throws IOException, NoSuchFieldException {
+        byte[] bytes = ClassFileReaderTest.bytesOf(Fields.class);
+        Type unloaded = new ClassFileReader().read(ByteBuffer.wrap(bytes)).getFieldTypes().get("inner");
+        Type loaded = Fields.class.getDeclaredField("inner").getGenericType();
+        assertEquals(TypeNameWriter.getCanonicalName(loaded), TypeNameWriter.getCanonicalName(unloaded));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getCanonicalName_failsOnUnloadedTypeVariable() {
+        TypeNameWriter.getCanonicalName(new UnloadedTypeVariable("T", "com.example.Foo", new Type[0]));
+    }
+
+    @Test
+    public void writeCanonical_streamsToOutput() throws IOException {
+        StringWriter writer = new StringWriter();
+        TypeNameWriter.writeCanonical(Enum.class.getTypeParameters()[0], writer);
+        assertEquals("E@java.lang.Enum", writer.toString());
+    }
+
+    @Test
+    public void write_streamsToOutput() throws IOException {
+        Type type = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+        StringWriter writer = new StringWriter();
+        writer.write("type: ");
+        TypeNameWriter.write(type, writer);
+        assertEquals("type: java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>", writer.toString());
+    }
+
+    @Test(expected = IOException.class)
+    public void write_propagatesOutputFailures() throws IOException {
+        Writer failingWriter = new Writer() {
+            @Override
+            public void write(char[] chars, int offset, int length) throws IOException {
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        TypeNameWriter.write(String.class, failingWriter);
+    }
+}
@@ -0,0 +1,165 @@
+package org.hildan.generics;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TypeResolverTest {
+
+    @SuppressWarnings("unused")
+    private static class Base<T> {
+
+        private T value;
+
+        private List<T> list;
+
+        private T[] array;
+
+        private Map<? extends T, ? super T> wildcards;
+
+        private List<String> unrelated;
+    }
+
+    private static class Mid<U> extends Base<List<U>> {
+    }
+
+    private static class Foo extends Mid<String> implements Comparable<Foo> {
+
+        @Override
+        public int compareTo(@NotNull Foo o) {
+            return 0;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static class RawFoo extends Mid {
+    }
+
+    private static class Bar extends Base<String> {
+    }
+
+    private static Type field(String name) throws NoSuchFieldException {
+        return Base.class.getDeclaredField(name).getGenericType();
+    }
+
+    private static TypeVariable<?> typeParam(Class<?> clazz) {
+        return clazz.getTypeParameters()[0];
+    }
+
+    @Test
+    public void getBindings_wholeHierarchy() {
+        Map<TypeVariable<?>, Type> bindings = TypeResolver.getBindings(Foo.class);
+        assertEquals(3, bindings.size());
+        assertEquals(String.class, bindings.get(typeParam(Mid.class)));
+        assertEquals(new TypeToken<List<String>>() {}.getType(), bindings.get(typeParam(Base.class)));
+        assertEquals(Foo.class, bindings.get(typeParam(Comparable.class)));
+    }
+
+    @Test
+    public void getBindings_cached() {
+        assertSame(TypeResolver.getBindings(Foo.class), TypeResolver.getBindings(Foo.class));
+    }
+
+    @Test
+    public void getBindings_rawSupertype() {
+        Map<TypeVariable<?>, Type> bindings = TypeResolver.getBindings(RawFoo.class);
+        assertEquals(1, bindings.size());
+        Type listOfU = Types.parameterized(null, List.class, new Type[] {typeParam(Mid.class)});
+        assertEquals(listOfU, bindings.get(typeParam(Base.class)));
+    }
+
+    @Test
+    public void getBindings_noGenericSupertype() {
+        assertTrue(TypeResolver.getBindings(Object.class).isEmpty());
+        assertTrue(TypeResolver.getBindings(Comparable.class).isEmpty());
+        assertTrue(TypeResolver.getBindings(int.class).isEmpty());
+    }
+
+    @Test
+    public void resolve_boundVariables() throws NoSuchFieldException {
+        assertEquals(String.class, TypeResolver.resolve(field("value"), Bar.class));
+        assertEquals(new TypeToken<List<String>>() {}.getType(), TypeResolver.resolve(field("value"), Foo.class));
+        assertEquals(new TypeToken<List<List<String>>>() {}.getType(), TypeResolver.resolve(field("list"), Foo.class));
+        assertEquals(String[].class, TypeResolver.resolve(field("array"), Bar.class));
+        assertEquals(new TypeToken<List<String>[]>() {}.getType(), TypeResolver.resolve(field("array"), Foo.class));
+        assertEquals(new TypeToken<Map<? extends String, ? super String>>() {}.getType(),
+                TypeResolver.resolve(field("wildcards"), Bar.class));
+    }
+
+    @Test
+    public void resolve_unboundVariables() throws NoSuchFieldException {
+        Type listOfU = Types.parameterized(null, List.class, new Type[] {typeParam(Mid.class)});
+        Type listOfListOfU = Types.parameterized(null, List.class, new Type[] {listOfU});
+        assertEquals(listOfListOfU, TypeResolver.resolve(field("list"), Mid.class));
+        assertSame(typeParam(Mid.class), TypeResolver.resolve(typeParam(Mid.class), Mid.class));
+    }
+
+    @Test
+    public void resolve_unchanged() throws NoSuchFieldException {
+        for (String name : new String[] {"value", "list", "array", "wildcards", "unrelated"}) {
+            Type type = field(name);
+            assertSame(type, TypeResolver.resolve(type, Object.class));
+        }
+        Type unrelated = field("unrelated");
+        assertSame(unrelated, TypeResolver.resolve(unrelated, Foo.class));
+        assertSame(String.class, TypeResolver.resolve(String.class, Foo.class));
+    }
+
+    @Test
+    public void explore_substitutesBoundVariables() throws NoSuchFieldException {
+        assertEquals("List<List<String>>", TypeResolver.explore(field("list"), Foo.class, new DescribingHandler()));
+        assertEquals("Map<?[String][],?[][String]>",
+                TypeResolver.explore(field("wildcards"), Bar.class, new DescribingHandler()));
+        assertEquals("List<U[]>[*]", TypeResolver.explore(field("array"), Mid.class, new DescribingHandler()));
+        assertEquals("List<U[Object]>[*]", TypeResolver.explore(field("array"), Mid.class, new DescribingHandler(),
+                ImplicitBoundsPolicy.PROCESS));
+    }
+
+    /**
+     * A parameterized type failing when hashed, like when it is looked up in a hash map.
+     */
+    private static class UnhashableListOfString implements ParameterizedType {
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return new Type[] {String.class};
+        }
+
+        @Override
+        public Type getRawType() {
+            return List.class;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            throw new AssertionError("parameterized types should not be looked up in the bindings");
+        }
+    }
+
+    @Test
+    public void explore_onlyLooksUpBindingsOfTypeVariables() {
+        Type type = new UnhashableListOfString();
+        assertEquals("List<String>", TypeResolver.explore(type, Foo.class, new DescribingHandler()));
+    }
+}
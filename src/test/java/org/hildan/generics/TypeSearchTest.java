@@ -0,0 +1,137 @@
+package org.hildan.generics;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TypeSearchTest {
+
+    private static final Type COMPLEX = new TypeToken<Map<List<String[]>, Set<? super Integer>>>() {}.getType();
+
+    @SuppressWarnings("unused")
+    private static class Declarations<T extends Number> {
+
+        private List<T> listOfT;
+
+        private Map<String, T[]> mapOfArrays;
+    }
+
+    @Test
+    public void containsClass() {
+        assertTrue(TypeSearch.containsClass(COMPLEX, Map.class));
+        assertTrue(TypeSearch.containsClass(COMPLEX, String.class));
+        assertTrue(TypeSearch.containsClass(COMPLEX, Integer.class));
+        assertFalse(TypeSearch.containsClass(COMPLEX, Long.class));
+        assertFalse(TypeSearch.containsClass(COMPLEX, Object.class));
+        assertTrue(TypeSearch.containsClass(String.class, String.class));
+        assertTrue(TypeSearch.containsClass(int[].class, int.class));
+        assertFalse(TypeSearch.containsClass(int[].class, String.class));
+        assertFalse(TypeSearch.containsClass(void.class, String.class));
+        assertFalse(TypeSearch.containsClass(Thread.State.class, String.class));
+    }
+
+    @Test
+    public void containsTypeVariable() throws NoSuchFieldException {
+        assertFalse(TypeSearch.containsTypeVariable(COMPLEX));
+        assertTrue(TypeSearch.containsTypeVariable(field("listOfT")));
+        assertTrue(TypeSearch.containsTypeVariable(field("mapOfArrays")));
+        assertTrue(TypeSearch.containsClass(field("listOfT"), Number.class));
+        assertFalse(TypeSearch.containsClass(field("listOfT"), String.class));
+    }
+
+    @Test
+    public void findFirst_depthFirstOrder() throws NoSuchFieldException {
+        Optional<Type> firstTypeVariable = TypeSearch.findFirst(field("mapOfArrays"), t -> t instanceof TypeVariable);
+        assertEquals(Optional.of(Declarations.class.getTypeParameters()[0]), firstTypeVariable);
+
+        List<Type> tested = new ArrayList<>();
+        Type type = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+        Optional<Type> list = TypeSearch.findFirst(type, t -> tested.add(t) && t == List.class);
+        assertEquals(Optional.of(List.class), list);
+        assertEquals(Arrays.asList(type, Map.class, String.class, new TypeToken<List<Integer>>() {}.getType(),
+                List.class), tested);
+    }
+
+    @Test
+    public void findFirst_withPolicy() {
+        Type type = new TypeToken<List<?>>() {}.getType();
+        assertEquals(Optional.empty(), TypeSearch.findFirst(type, Object.class::equals));
+        assertEquals(Optional.of(Object.class),
+                TypeSearch.findFirst(type, Object.class::equals, ImplicitBoundsPolicy.PROCESS));
+    }
+
+    @Test
+    public void findFirst_sameResultsWithAllExplorers() throws NoSuchFieldException {
+        List<Type> types = Arrays.asList(COMPLEX, field("listOfT"), field("mapOfArrays"), int[][].class, void.class);
+        for (Type type : types) {
+            for (Class<?> clazz : Arrays.asList(String.class, Number.class, int.class, Long.class)) {
+                PruningDescribingHandler handler = new PruningDescribingHandler(clazz);
+                String expected = GenericDeclarationExplorer.explore(type, handler);
+                assertEquals(expected, IterativeDeclarationExplorer.explore(type, handler));
+                assertEquals(expected, new CachingExplorer<>(handler).explore(type));
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void handleSkipped_unsupportedByDefault() {
+        class SkippingHandler extends DescribingHandler implements PruningTypeHandler<String> {
+
+            @Override
+            public Decision beforeExplore(Type type) {
+                return Decision.SKIP;
+            }
+
+            @Override
+            public String handleStop(Type type) {
+                return null;
+            }
+        }
+
+        GenericDeclarationExplorer.explore(String.class, new SkippingHandler());
+    }
+
+    private static Type field(String name) throws NoSuchFieldException {
+        return Declarations.class.getDeclaredField(name).getGenericType();
+    }
+
+    private static class PruningDescribingHandler extends DescribingHandler implements PruningTypeHandler<String> {
+
+        private final Class<?> stopClass;
+
+        PruningDescribingHandler(Class<?> stopClass) {
+            this.stopClass = stopClass;
+        }
+
+        @Override
+        public Decision beforeExplore(Type type) {
+            if (type == stopClass) {
+                return Decision.STOP;
+            }
+            return type instanceof TypeVariable ? Decision.SKIP : Decision.CONTINUE;
+        }
+
+        @Override
+        public String handleSkipped(Type type) {
+            return "skipped " + type;
+        }
+
+        @Override
+        public String handleStop(Type type) {
+            return "stopped at " + type;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.hildan.generics;
+
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.gson.reflect.TypeToken;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class TypeSnapshotTest {
+
+    @SuppressWarnings("unused")
+    private static class Declarations<T extends Comparable<T>, U extends T, E extends Enum<E>> {
+
+        Map<? extends Number, ? super List<int[]>> wildcards;
+
+        T[] genericArray;
+
+        Map<T, List<U>> recursiveVariables;
+
+        Set<? super T> lowerBoundVariable;
+
+        Map<? extends E, ?> enumWildcard;
+    }
+
+    private static List<Type> declarations() {
+        List<Type> types = new ArrayList<>();
+        Collections.addAll(types, void.class, Void.class, int.class, String.class, RetentionPolicy.class,
+                long[][].class);
+        types.add(new TypeToken<Map<String, List<? super Integer>[]>>() {}.getType());
+        for (Type variable : Declarations.class.getTypeParameters()) {
+            types.add(variable);
+        }
+        Collections.addAll(types, Declarations.class.getGenericInterfaces());
+        for (Field field : Declarations.class.getDeclaredFields()) {
+            types.add(field.getGenericType());
+        }
+        return types;
+    }
+
+    @Test
+    public void explore_sameResultsAsExplorer() {
+        for (Type type : declarations()) {
+            for (ImplicitBoundsPolicy policy : ImplicitBoundsPolicy.values()) {
+                TypeSnapshot snapshot = TypeSnapshot.of(type, policy);
+                String expected = GenericDeclarationExplorer.explore(type, new DescribingHandler(), policy);
+                assertEquals(expected, snapshot.explore(new DescribingHandler()));
+                // replays are repeatable
+                assertEquals(expected, snapshot.explore(new DescribingHandler()));
+            }
+            assertEquals(MentionedClassesExplorer.getClassesInDeclaration(type),
+                    TypeSnapshot.of(type).explore(new MentionedClassesExplorer()));
+        }
+    }
+
+    @Test
+    public void explore_unloadedClass() {
+        Type type = TestTypes.genericArray(new UnloadedClass("com.example.Foo"));
+        assertEquals("Foo[*]", TypeSnapshot.of(type).explore(new DescribingHandler()));
+    }
+
+    @Test
+    public void explore_noReflection() {
+        AtomicInteger accessorCalls = new AtomicInteger();
+        ParameterizedType parameterized = TestTypes.parameterized(Map.class, String.class, Integer.class);
+        ParameterizedType type = new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                accessorCalls.incrementAndGet();
+                return parameterized.getActualTypeArguments();
+            }
+
+            @Override
+            public Type getRawType() {
+                return parameterized.getRawType();
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+        TypeSnapshot snapshot = TypeSnapshot.of(type);
+        assertSame(type, snapshot.getType());
+        assertEquals(4, snapshot.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Map<String,Integer>", snapshot.explore(new DescribingHandler()));
+        }
+        assertEquals(1, accessorCalls.get());
+    }
+
+    @Test
+    public void explore_pruningHandlerExploresOriginalType() {
+        class SkippingHandler extends DescribingHandler implements PruningTypeHandler<String> {
+
+            @Override
+            public Decision beforeExplore(Type type) {
+                return type == String.class ? Decision.SKIP : Decision.CONTINUE;
+            }
+
+            @Override
+            public String handleSkipped(Type type) {
+                return "skipped";
+            }
+
+            @Override
+            public String handleStop(Type type) {
+                return "stopped";
+            }
+        }
+
+        TypeSnapshot snapshot = TypeSnapshot.of(new TypeToken<Map<String, Integer>>() {}.getType());
+        assertEquals("Map<skipped,Integer>", snapshot.explore(new SkippingHandler()));
+    }
+
+    @Test
+    public void of_growsWithLargeDeclarations() {
+        Type type = Integer.class;
+        for (int i = 0; i < 100; i++) {
+            type = TestTypes.parameterized(Map.class, String.class, type);
+        }
+        TypeSnapshot snapshot = TypeSnapshot.of(type);
+        assertEquals(301, snapshot.size());
+        assertEquals(GenericDeclarationExplorer.explore(type, new DescribingHandler()),
+                snapshot.explore(new DescribingHandler()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void of_failsOnNull() {
+        TypeSnapshot.of(null);
+    }
+}